@@ -3,6 +3,7 @@ package com.nucleus.texture.android;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import com.nucleus.io.ByteBufferInputStream;
 import com.nucleus.profiling.FrameSampler;
 import com.nucleus.texturing.BaseImageFactory;
 import com.nucleus.texturing.BufferImage;
@@ -20,12 +21,26 @@ public class AndroidImageFactory extends BaseImageFactory implements ImageFactor
         long start = System.currentTimeMillis();
         ClassLoader classLoader = getClass().getClassLoader();
         Bitmap b = BitmapFactory.decodeStream(classLoader.getResourceAsStream(name));
-        SourceFormat sf = getFormat(b);
+        return createImage(name, b, format, start);
+    }
+
+    @Override
+    public BufferImage createImage(String name, ByteBuffer data, ImageFormat format) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException(NULL_PARAMETER);
+        }
+        long start = System.currentTimeMillis();
+        Bitmap b = BitmapFactory.decodeStream(new ByteBufferInputStream(data));
+        return createImage(name, b, format, start);
+    }
+
+    private BufferImage createImage(String name, Bitmap b, ImageFormat format, long start) throws IOException {
         long loaded = System.currentTimeMillis();
         FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_IMAGE, start, loaded);
         if (b == null) {
             throw new IOException("Could not load " + name);
         }
+        SourceFormat sf = getFormat(b);
         byte[] bytePixels = new byte[b.getWidth() * b.getHeight() * 4];
         ByteBuffer bb = ByteBuffer.wrap(bytePixels);
         b.copyPixelsToBuffer(bb);
@@ -0,0 +1,62 @@
+package com.nucleus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.geometry.AttributeBuffer;
+
+/**
+ * Benchmark of {@link AttributeBuffer#setComponents(float[], int, int, int, int)} with interleaved vertex data.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AttributeBufferBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int verticeCount;
+
+    /**
+     * Number of components set for each vertex
+     */
+    @Param({ "2", "4" })
+    public int componentCount;
+
+    @Param({ "12" })
+    public int sizePerVertex;
+
+    private AttributeBuffer buffer;
+    private float[] data;
+
+    @Setup
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        buffer = new AttributeBuffer(verticeCount, sizePerVertex);
+        data = new float[verticeCount * componentCount];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+    }
+
+    @Benchmark
+    public AttributeBuffer setComponents() {
+        buffer.setComponents(data, componentCount, 0, sizePerVertex - componentCount, verticeCount);
+        return buffer;
+    }
+
+}
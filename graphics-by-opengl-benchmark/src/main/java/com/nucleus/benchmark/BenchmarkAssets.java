@@ -0,0 +1,206 @@
+package com.nucleus.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.nucleus.J2SELogger;
+import com.nucleus.SimpleLogger;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.GLTFReader;
+
+/**
+ * Creates the assets used by benchmarks, assets are created in memory so that no files or display is needed.
+ *
+ */
+public class BenchmarkAssets {
+
+    private static final int POSITION_SIZE = 3 * 4;
+    private static final int NORMAL_SIZE = 3 * 4;
+    private static final int UV_SIZE = 2 * 4;
+    private static final int INDEX_SIZE = 4;
+
+    private BenchmarkAssets() {
+    }
+
+    /**
+     * Sets the logger, call this before using classes that log.
+     */
+    public static void setLogger() {
+        SimpleLogger.setLogger(new J2SELogger());
+    }
+
+    /**
+     * Creates a glTF containing one node with a mesh, the mesh is a flat grid with position, normal and texture
+     * coordinates, indexed using unsigned int.
+     * The JSON is read and resolved the same way as when loading a glTF, the binary buffer is created and set
+     * to the first buffer.
+     *
+     * @param size Number of quads in x and y, the grid will have (size + 1) * (size + 1) vertices.
+     * @return The glTF with buffers loaded, textures are not used.
+     * @throws GLTFException
+     */
+    public static GLTF createGrid(int size) throws GLTFException {
+        int vertices = (size + 1) * (size + 1);
+        int indices = size * size * 6;
+        int positionOffset = 0;
+        int normalOffset = positionOffset + vertices * POSITION_SIZE;
+        int uvOffset = normalOffset + vertices * NORMAL_SIZE;
+        int indexOffset = uvOffset + vertices * UV_SIZE;
+        int byteLength = indexOffset + indices * INDEX_SIZE;
+
+        ByteBuffer data = ByteBuffer.allocateDirect(byteLength).order(ByteOrder.nativeOrder());
+        for (int y = 0; y <= size; y++) {
+            for (int x = 0; x <= size; x++) {
+                int vertex = y * (size + 1) + x;
+                float u = (float) x / size;
+                float v = (float) y / size;
+                data.putFloat(positionOffset + vertex * POSITION_SIZE, u - 0.5f);
+                data.putFloat(positionOffset + vertex * POSITION_SIZE + 4, v - 0.5f);
+                data.putFloat(positionOffset + vertex * POSITION_SIZE + 8, 0);
+                data.putFloat(normalOffset + vertex * NORMAL_SIZE, 0);
+                data.putFloat(normalOffset + vertex * NORMAL_SIZE + 4, 0);
+                data.putFloat(normalOffset + vertex * NORMAL_SIZE + 8, 1);
+                data.putFloat(uvOffset + vertex * UV_SIZE, u);
+                data.putFloat(uvOffset + vertex * UV_SIZE + 4, v);
+            }
+        }
+        int index = indexOffset;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int v0 = y * (size + 1) + x;
+                int v1 = v0 + 1;
+                int v2 = v0 + size + 1;
+                int v3 = v2 + 1;
+                int[] quad = new int[] { v0, v1, v2, v2, v1, v3 };
+                for (int i : quad) {
+                    data.putInt(index, i);
+                    index += INDEX_SIZE;
+                }
+            }
+        }
+        String json = "{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[0]}],"
+                + "\"nodes\":[{\"mesh\":0}],"
+                + "\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0,\"NORMAL\":1,\"TEXCOORD_0\":2},"
+                + "\"indices\":3,\"material\":0}]}],"
+                + "\"materials\":[{\"pbrMetallicRoughness\":{}}],"
+                + "\"buffers\":[{\"byteLength\":" + byteLength + "}],"
+                + "\"bufferViews\":["
+                + bufferView(positionOffset, vertices * POSITION_SIZE, 34962) + ","
+                + bufferView(normalOffset, vertices * NORMAL_SIZE, 34962) + ","
+                + bufferView(uvOffset, vertices * UV_SIZE, 34962) + ","
+                + bufferView(indexOffset, indices * INDEX_SIZE, 34963) + "],"
+                + "\"accessors\":["
+                + "{\"bufferView\":0,\"componentType\":5126,\"count\":" + vertices
+                + ",\"type\":\"VEC3\",\"max\":[0.5,0.5,0],\"min\":[-0.5,-0.5,0]},"
+                + "{\"bufferView\":1,\"componentType\":5126,\"count\":" + vertices + ",\"type\":\"VEC3\"},"
+                + "{\"bufferView\":2,\"componentType\":5126,\"count\":" + vertices + ",\"type\":\"VEC2\"},"
+                + "{\"bufferView\":3,\"componentType\":5125,\"count\":" + indices + ",\"type\":\"SCALAR\"}]}";
+        GLTF gltf;
+        try {
+            gltf = new GLTFReader().read(new StringReader(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+        gltf.setPath("");
+        gltf.setFilename("grid" + size);
+        gltf.getBuffer(0).setBuffer(data);
+        return gltf;
+    }
+
+    /**
+     * Creates a glTF JSON document with a large number of nodes, each node has a mesh with one primitive using
+     * three accessors. All accessors use the same bufferViews, no binary data is created.
+     *
+     * @param nodeCount Number of nodes and meshes in the document
+     * @return The JSON document
+     */
+    public static String createDocument(int nodeCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"asset\":{\"version\":\"2.0\"},\"scene\":0,\"scenes\":[{\"nodes\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            sb.append(i > 0 ? "," : "").append(i);
+        }
+        sb.append("]}],\"nodes\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"name\":\"node").append(i).append("\",\"mesh\":").append(i)
+                    .append(",\"translation\":[").append(i % 100).append(",").append(i / 100)
+                    .append(",0],\"rotation\":[0,0,0,1]}");
+        }
+        sb.append("],\"meshes\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"primitives\":[{\"attributes\":{\"POSITION\":")
+                    .append(i * 3).append(",\"TEXCOORD_0\":").append(i * 3 + 1).append("},\"indices\":")
+                    .append(i * 3 + 2).append(",\"material\":0}]}");
+        }
+        sb.append("],\"materials\":[{\"pbrMetallicRoughness\":{\"baseColorFactor\":[1,1,1,1]}}],");
+        sb.append("\"accessors\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            sb.append(i > 0 ? "," : "")
+                    .append("{\"bufferView\":0,\"componentType\":5126,\"count\":4,\"type\":\"VEC3\",")
+                    .append("\"max\":[0.5,0.5,0],\"min\":[-0.5,-0.5,0]},")
+                    .append("{\"bufferView\":0,\"byteOffset\":48,\"componentType\":5126,\"count\":4,")
+                    .append("\"type\":\"VEC2\"},")
+                    .append("{\"bufferView\":1,\"componentType\":5123,\"count\":6,\"type\":\"SCALAR\"}");
+        }
+        sb.append("],\"bufferViews\":[").append(bufferView(0, 80, 34962)).append(",")
+                .append(bufferView(80, 12, 34963)).append("],\"buffers\":[{\"byteLength\":92}]}");
+        return sb.toString();
+    }
+
+    /**
+     * Creates a nucleus scene JSON document with a large number of nodes, the nodes are added in groups of
+     * 10 below a scene layer. Each node has a transform, material, bounds and texture reference.
+     * The document ends with an UI layer where the id comes before the node type.
+     *
+     * @param nodeCount Number of mesh nodes in the document
+     * @return The JSON document
+     */
+    public static String createScene(int nodeCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\":\"scene\",\"properties\":{\"background\":\"0\"},\"children\":[");
+        sb.append("{\"type\":\"layernode\",\"id\":\"scenelayer\",\"layer\":\"SCENE\",");
+        sb.append("\"viewFrustum\":{\"values\":[-0.5,0.5,-0.5,0.5,0,10],\"projection\":\"ORTHOGONAL\"},");
+        sb.append("\"children\":[");
+        for (int i = 0; i < nodeCount; i++) {
+            if (i % 10 == 0) {
+                sb.append(i > 0 ? "]}," : "").append("{\"type\":\"meshnode\",\"id\":\"group").append(i / 10)
+                        .append("\",\"pass\":\"MAIN\",\"children\":[");
+            } else {
+                sb.append(",");
+            }
+            sb.append("{\"type\":\"meshnode\",\"id\":\"node").append(i)
+                    .append("\",\"transform\":{\"translate\":[").append(i % 100).append(",").append(i / 100)
+                    .append(",0],\"scale\":[1,1,1]},\"material\":{\"blendEquation\":[\"GL_FUNC_ADD\",")
+                    .append("\"GL_FUNC_ADD\"],\"diffuse\":[1,0.5,0.25,1]},\"bounds\":{\"type\":\"CIRCULAR\",")
+                    .append("\"bounds\":[0.5]},\"textureRef\":{\"source\":\"assets/texture.tex\"},")
+                    .append("\"state\":\"ON\",\"properties\":{\"index\":\"").append(i).append("\"}}");
+        }
+        sb.append(nodeCount > 0 ? "]}" : "").append("]},");
+        sb.append("{\"id\":\"uilayer\",\"type\":\"layernode\",\"layer\":\"OVERLAY\",\"children\":[");
+        sb.append("{\"type\":\"switchnode\",\"id\":\"switch\",\"active\":\"on\",\"children\":[]}]}]}");
+        return sb.toString();
+    }
+
+    private static String bufferView(int byteOffset, int byteLength, int target) {
+        return "{\"buffer\":0,\"byteOffset\":" + byteOffset + ",\"byteLength\":" + byteLength + ",\"target\":"
+                + target + "}";
+    }
+
+    /**
+     * Creates pixel data with a repeating pattern
+     *
+     * @param size Number of bytes
+     * @return
+     */
+    public static byte[] createPixels(int size) {
+        byte[] pixels = new byte[size];
+        for (int i = 0; i < size; i++) {
+            pixels[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return pixels;
+    }
+
+}
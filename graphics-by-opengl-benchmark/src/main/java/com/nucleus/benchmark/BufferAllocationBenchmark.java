@@ -0,0 +1,76 @@
+package com.nucleus.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.common.BufferArena;
+
+/**
+ * Benchmark of allocating and releasing small direct buffers, using ByteBuffer.allocateDirect and using a
+ * {@link BufferArena}.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BufferAllocationBenchmark {
+
+    /**
+     * Number of buffers allocated in each invocation
+     */
+    private static final int COUNT = 100;
+
+    /**
+     * Size of each buffer in bytes
+     */
+    @Param({ "64", "4096" })
+    public int size;
+
+    private BufferArena arena;
+    private final ByteBuffer[] buffers = new ByteBuffer[COUNT];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        arena = new BufferArena("benchmark", BufferArena.DEFAULT_BLOCK_SIZE, BufferArena.DEFAULT_ALIGNMENT);
+    }
+
+    @Benchmark
+    public ByteBuffer[] allocateDirect() {
+        for (int i = 0; i < COUNT; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+            buffers[i].put(0, (byte) i);
+        }
+        return buffers;
+    }
+
+    @Benchmark
+    public ByteBuffer[] allocateArena() {
+        for (int i = 0; i < COUNT; i++) {
+            buffers[i] = arena.allocate(size);
+            buffers[i].put(0, (byte) i);
+        }
+        for (int i = 0; i < COUNT; i++) {
+            arena.free(buffers[i]);
+        }
+        return buffers;
+    }
+
+}
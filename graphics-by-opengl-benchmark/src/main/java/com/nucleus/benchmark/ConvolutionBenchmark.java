@@ -0,0 +1,66 @@
+package com.nucleus.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.texturing.BufferImage;
+import com.nucleus.texturing.BufferImage.ImageFormat;
+import com.nucleus.texturing.Convolution;
+import com.nucleus.texturing.Convolution.Kernel;
+
+/**
+ * Benchmark of {@link Convolution#process(BufferImage, BufferImage)} for kernel sizes and formats.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ConvolutionBenchmark {
+
+    @Param({ "SIZE_2X2", "SIZE_3X3", "SIZE_5X5", "SIZE_8X8" })
+    public Kernel kernel;
+
+    @Param({ "RGBA", "RGB" })
+    public ImageFormat format;
+
+    @Param({ "512" })
+    public int size;
+
+    private Convolution convolution;
+    private BufferImage source;
+    private BufferImage destination;
+
+    @Setup
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        convolution = new Convolution(kernel);
+        convolution.set(kernel.createDefaultKernel(1), 0, 0, kernel.size);
+        Convolution.normalize(convolution.matrix, false);
+        source = new BufferImage(size, size, format);
+        source.getBuffer().rewind();
+        ((ByteBuffer) source.getBuffer()).put(BenchmarkAssets.createPixels(source.getSizeInBytes()));
+        destination = new BufferImage(size / kernel.width, size / kernel.width, format);
+    }
+
+    @Benchmark
+    public BufferImage process() {
+        convolution.process(source, destination);
+        return destination;
+    }
+
+}
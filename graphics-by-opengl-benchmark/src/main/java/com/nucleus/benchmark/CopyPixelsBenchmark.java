@@ -0,0 +1,75 @@
+package com.nucleus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.texturing.AWTImageFactory;
+import com.nucleus.texturing.BaseImageFactory;
+import com.nucleus.texturing.BufferImage;
+import com.nucleus.texturing.BufferImage.ImageFormat;
+import com.nucleus.texturing.BufferImage.SourceFormat;
+
+/**
+ * Benchmark of the {@link BaseImageFactory} pixel format converters used when images are loaded.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CopyPixelsBenchmark {
+
+    /**
+     * Exposes the protected copyPixels method
+     */
+    private static class CopyPixelsFactory extends AWTImageFactory {
+        private void copy(byte[] source, SourceFormat sourceFormat, BufferImage destination) {
+            copyPixels(source, sourceFormat, destination);
+        }
+    }
+
+    /**
+     * Source and destination format separated by ':'
+     */
+    @Param({ "TYPE_4BYTE_ABGR:RGBA", "TYPE_4BYTE_ABGR:RGB", "TYPE_4BYTE_ABGR:RGB565", "TYPE_4BYTE_ABGR:RGB5_A1",
+            "TYPE_3BYTE_BGR:RGB", "TYPE_INT_ARGB:RGB565", "TYPE_RGBA:RGBA", "TYPE_RGBA:RGB" })
+    public String conversion;
+
+    @Param({ "1024" })
+    public int size;
+
+    private CopyPixelsFactory factory;
+    private SourceFormat sourceFormat;
+    private byte[] source;
+    private BufferImage destination;
+
+    @Setup
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        String[] formats = conversion.split(":");
+        sourceFormat = SourceFormat.valueOf(formats[0]);
+        factory = new CopyPixelsFactory();
+        source = BenchmarkAssets.createPixels(size * size * sourceFormat.size);
+        destination = new BufferImage(size, size, ImageFormat.valueOf(formats[1]));
+    }
+
+    @Benchmark
+    public BufferImage copyPixels() {
+        factory.copy(source, sourceFormat, destination);
+        return destination;
+    }
+
+}
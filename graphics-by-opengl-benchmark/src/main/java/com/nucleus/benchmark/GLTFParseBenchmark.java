@@ -0,0 +1,66 @@
+package com.nucleus.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.GLTFReader;
+
+/**
+ * Benchmarks of reading the glTF JSON document, using gson reflection and using the streaming {@link GLTFReader}.
+ * Both include resolving the glTF. Run with -prof gc to compare the allocation rate.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GLTFParseBenchmark {
+
+    /**
+     * Number of nodes in the document, each node has a mesh using 3 accessors
+     */
+    @Param({ "1000", "20000" })
+    public int nodeCount;
+
+    private String json;
+    private Gson gson;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        json = BenchmarkAssets.createDocument(nodeCount);
+        gson = new Gson();
+    }
+
+    @Benchmark
+    public GLTF readReflective() throws GLTFException {
+        GLTF gltf = gson.fromJson(new StringReader(json), GLTF.class);
+        gltf.resolve();
+        return gltf;
+    }
+
+    @Benchmark
+    public GLTF readStreaming() throws IOException, GLTFException {
+        return new GLTFReader().read(new StringReader(json));
+    }
+
+}
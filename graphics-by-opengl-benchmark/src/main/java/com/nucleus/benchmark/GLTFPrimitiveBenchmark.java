@@ -0,0 +1,83 @@
+package com.nucleus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.Level;
+
+import com.nucleus.scene.gltf.Accessor;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Primitive;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * Benchmarks of glTF primitive processing done when models are loaded, using an in memory grid.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GLTFPrimitiveBenchmark {
+
+    /**
+     * Number of quads in x and y of the grid
+     */
+    @Param({ "64", "256" })
+    public int gridSize;
+
+    /**
+     * Calculating TBN adds buffers and accessors to the primitive, a new glTF is needed for each invocation.
+     */
+    @State(Scope.Thread)
+    public static class TBNState {
+        private GLTF gltf;
+        private Primitive primitive;
+
+        @Setup(Level.Invocation)
+        public void setup(GLTFPrimitiveBenchmark benchmark) throws GLTFException {
+            gltf = BenchmarkAssets.createGrid(benchmark.gridSize);
+            primitive = getPrimitive(gltf);
+        }
+    }
+
+    private Accessor position;
+    private float[] positions;
+
+    private static Primitive getPrimitive(GLTF gltf) {
+        return gltf.getMeshes()[0].getPrimitives()[0];
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws GLTFException {
+        BenchmarkAssets.setLogger();
+        position = getPrimitive(BenchmarkAssets.createGrid(gridSize)).getAccessor(Attributes.POSITION);
+        positions = new float[position.getCount() * position.getType().size];
+    }
+
+    @Benchmark
+    public float[] copyAccessor() {
+        position.copy(positions, 0);
+        return positions;
+    }
+
+    @Benchmark
+    public Primitive calculateTBN(TBNState state) {
+        state.primitive.calculateTBN(state.gltf);
+        return state.primitive;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.nucleus.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.BackendException;
+import com.nucleus.opengl.GLESWrapper.GLES20;
+import com.nucleus.opengl.GLTFNodeRenderer;
+import com.nucleus.opengl.headless.HeadlessGLESWrapper;
+import com.nucleus.opengl.headless.HeadlessWrapperFactory;
+import com.nucleus.opengl.shader.GLTFShaderProgram;
+import com.nucleus.renderer.NucleusRenderer;
+import com.nucleus.renderer.NucleusRenderer.Matrices;
+import com.nucleus.renderer.NucleusRenderer.Renderers;
+import com.nucleus.renderer.Pass;
+import com.nucleus.renderer.RendererFactory;
+import com.nucleus.renderer.SurfaceConfiguration;
+import com.nucleus.scene.GLTFNode;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Material.ShadingMaps;
+import com.nucleus.scene.gltf.Mesh;
+import com.nucleus.scene.gltf.Primitive;
+import com.nucleus.vecmath.Matrix;
+
+/**
+ * Benchmarks the CPU cost of rendering a glTF frame using the {@link HeadlessGLESWrapper}, this measures the
+ * renderer, pipeline and GLTFNodeRenderer without GPU or driver time.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GLTFRenderBenchmark {
+
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+
+    /**
+     * Node that returns the glTF, used instead of loading the glTF through the scenegraph.
+     */
+    @SuppressWarnings("deprecation")
+    private static class BenchmarkNode extends GLTFNode {
+        private final GLTF gltf;
+
+        private BenchmarkNode(GLTF gltf) {
+            this.gltf = gltf;
+        }
+
+        @Override
+        public GLTF getGLTF() {
+            return gltf;
+        }
+    }
+
+    /**
+     * Number of quads in x and y of the grid
+     */
+    @Param({ "16", "256" })
+    public int gridSize;
+
+    @Param({ "true", "false" })
+    public boolean useRenderQueue;
+
+    private HeadlessGLESWrapper gles;
+    private NucleusRenderer renderer;
+    private GLTFNodeRenderer nodeRenderer;
+    private GLTFNode node;
+    private float[][] matrices = new float[Matrices.RENDERPASS_2.index + 1][];
+
+    @Setup(Level.Trial)
+    public void setup() throws GLTFException, IOException, BackendException {
+        BenchmarkAssets.setLogger();
+        gles = (HeadlessGLESWrapper) new HeadlessWrapperFactory().createBackend(Renderers.GLES30, null, null);
+        renderer = RendererFactory.getRenderer(gles);
+        renderer.init(new SurfaceConfiguration(), WIDTH, HEIGHT);
+        renderer.contextCreated(WIDTH, HEIGHT);
+        GLTF gltf = BenchmarkAssets.createGrid(gridSize);
+        renderer.getAssets().loadGLTFAssets(renderer, gltf);
+        for (Mesh mesh : gltf.getMeshes()) {
+            for (Primitive p : mesh.getPrimitives()) {
+                GLTFShaderProgram program = new GLTFShaderProgram(new ShadingMaps(p.getMaterial()));
+                p.setProgram(renderer.getAssets().getGraphicsPipeline(renderer, program));
+            }
+        }
+        for (int i = 0; i < matrices.length; i++) {
+            matrices[i] = Matrix.setIdentity(Matrix.createMatrix(), 0);
+        }
+        nodeRenderer = new GLTFNodeRenderer();
+        node = new BenchmarkNode(gltf);
+        GLTFNodeRenderer.useRenderQueue = useRenderQueue;
+        if (gles.glGetError() != GLES20.GL_NO_ERROR) {
+            throw new IllegalStateException("GL error after setup");
+        }
+    }
+
+    @Benchmark
+    public long renderFrame() throws BackendException {
+        renderer.beginFrame();
+        nodeRenderer.renderNode(renderer, node, Pass.MAIN, matrices);
+        renderer.endFrame();
+        return gles.getDrawCalls();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.nucleus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.nucleus.component.CPUComponentBuffer;
+import com.nucleus.component.CPUQuadExpander;
+import com.nucleus.geometry.AttributeUpdater.BufferIndex;
+import com.nucleus.opengl.shader.NamedVariableIndexer;
+import com.nucleus.shader.ShaderVariable.VariableType;
+import com.nucleus.shader.VariableIndexer.Property;
+import com.nucleus.texturing.Texture2D;
+import com.nucleus.texturing.TextureFactory;
+import com.nucleus.texturing.TextureType;
+import com.nucleus.vecmath.Transform;
+
+/**
+ * Benchmark of updating and expanding quad data using {@link CPUQuadExpander}
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class QuadExpanderBenchmark {
+
+    /**
+     * Offsets of vertex, uv, translate, rotate, scale, albedo, emissive and frame
+     */
+    private static final int[] OFFSETS = new int[] { 0, 3, 5, 8, 11, 14, 14, 18 };
+    private static final int SIZE_PER_VERTEX = 20;
+
+    @Param({ "1000", "10000" })
+    public int quads;
+
+    private CPUQuadExpander expander;
+    private Transform transform;
+
+    @Setup
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        Property[] properties = Property.values();
+        String[] names = new String[properties.length];
+        VariableType[] types = new VariableType[properties.length];
+        BufferIndex[] bufferIndexes = new BufferIndex[properties.length];
+        for (Property p : properties) {
+            names[p.getLocation()] = p.getName();
+            types[p.getLocation()] = VariableType.ATTRIBUTE;
+            bufferIndexes[p.getLocation()] = BufferIndex.ATTRIBUTES;
+        }
+        NamedVariableIndexer indexer = new NamedVariableIndexer(names, OFFSETS, types, bufferIndexes,
+                new int[] { SIZE_PER_VERTEX });
+        Texture2D texture = TextureFactory.getInstance().createTexture(TextureType.Texture2D);
+        // Source data holds values for the 4 vertices of each quad.
+        CPUComponentBuffer source = new CPUComponentBuffer(quads, SIZE_PER_VERTEX * 4);
+        CPUComponentBuffer destination = new CPUComponentBuffer(quads, SIZE_PER_VERTEX * 4);
+        expander = new CPUQuadExpander(texture, indexer, source, destination);
+        transform = new Transform();
+    }
+
+    @Benchmark
+    public void setData(Blackhole blackhole) {
+        float[] translate = new float[3];
+        for (int quad = 0; quad < quads; quad++) {
+            translate[0] = quad;
+            translate[1] = -quad;
+            transform.setTranslate(translate);
+            expander.setData(quad, transform);
+            expander.setFrame(quad, quad & 0x0f);
+        }
+        blackhole.consume(expander);
+    }
+
+}
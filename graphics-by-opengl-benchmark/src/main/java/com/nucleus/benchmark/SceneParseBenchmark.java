@@ -0,0 +1,103 @@
+package com.nucleus.benchmark;
+
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.nucleus.bounds.Bounds;
+import com.nucleus.common.TypeResolver;
+import com.nucleus.io.gson.BoundsDeserializer;
+import com.nucleus.io.gson.NucleusDeserializer;
+import com.nucleus.io.gson.NucleusDeserializerImpl;
+import com.nucleus.scene.Node;
+import com.nucleus.scene.RootNodeImpl;
+
+/**
+ * Benchmarks of reading a nucleus scene JSON document, using the stream type adapters of
+ * {@link NucleusDeserializerImpl} and using a node deserializer that reads the JSON tree of each node and
+ * lets gson bind the fields of the node class using reflection.
+ * Run with -prof gc to compare the allocation rate.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SceneParseBenchmark {
+
+    /**
+     * Number of mesh nodes in the document
+     */
+    @Param({ "1000", "20000" })
+    public int nodeCount;
+
+    private String json;
+    private Gson reflective;
+    private Gson streaming;
+
+    /**
+     * The node types are registered with the type resolver, only one deserializer can be created.
+     */
+    private static NucleusDeserializerImpl deserializer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        json = BenchmarkAssets.createScene(nodeCount);
+        if (deserializer == null) {
+            deserializer = new NucleusDeserializerImpl();
+        }
+        GsonBuilder builder = new GsonBuilder();
+        deserializer.registerTypeAdapter(builder);
+        streaming = builder.create();
+        deserializer.setGson(streaming);
+
+        final BoundsDeserializer boundsDeserializer = new BoundsDeserializer();
+        builder = new GsonBuilder();
+        builder.registerTypeAdapter(Bounds.class, boundsDeserializer);
+        builder.registerTypeAdapter(Node.class, new JsonDeserializer<Node>() {
+            @Override
+            public Node deserialize(JsonElement json, Type type, JsonDeserializationContext context)
+                    throws JsonParseException {
+                String name = json.getAsJsonObject().get(NucleusDeserializer.NODETYPE_JSON_KEY).getAsString();
+                Node node = context.deserialize(json, TypeResolver.getInstance().getTypeClass(name));
+                deserializer.postDeserialize(node);
+                return node;
+            }
+        });
+        reflective = builder.create();
+        boundsDeserializer.setGson(reflective);
+    }
+
+    @Benchmark
+    public RootNodeImpl readReflective() {
+        return reflective.fromJson(new StringReader(json), RootNodeImpl.class);
+    }
+
+    @Benchmark
+    public RootNodeImpl readStreaming() {
+        return streaming.fromJson(new StringReader(json), RootNodeImpl.class);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.nucleus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nucleus.opengl.shader.GLShaderSource;
+import com.nucleus.shader.Shader.ShaderType;
+import com.nucleus.shader.ShaderSource;
+
+/**
+ * Benchmark of setting versioned shader source and inserting defines, this is done for each shader
+ * when programs are compiled.
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ShaderSourceBenchmark {
+
+    /**
+     * Number of source lines after the precision qualifier
+     */
+    @Param({ "100", "1000" })
+    public int lines;
+
+    @Param({ "10" })
+    public int defineCount;
+
+    private String source;
+    private String defines;
+
+    @Setup
+    public void setup() {
+        BenchmarkAssets.setLogger();
+        StringBuilder sb = new StringBuilder("#version 310 es\n");
+        sb.append("precision highp float;\n");
+        for (int i = 0; i < lines; i++) {
+            sb.append("uniform vec4 uValue" + i + ";\n");
+        }
+        sb.append("void main() {\n}\n");
+        source = sb.toString();
+        StringBuilder define = new StringBuilder();
+        for (int i = 0; i < defineCount; i++) {
+            define.append(ShaderSource.DEFINE + " DEFINE_" + i + " " + i + "\n");
+        }
+        defines = define.toString();
+    }
+
+    @Benchmark
+    public String insertDefines() {
+        GLShaderSource shaderSource = new GLShaderSource("", "benchmark", null, ".vert", ShaderType.VERTEX);
+        shaderSource.setSource(source);
+        shaderSource.insertDefines(ShaderSource.PRECISION, defines);
+        return shaderSource.getVersionedShaderSource();
+    }
+
+}
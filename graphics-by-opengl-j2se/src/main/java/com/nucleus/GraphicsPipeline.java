@@ -23,6 +23,29 @@ import com.nucleus.shader.VariableIndexer;
  */
 public interface GraphicsPipeline<S extends ShaderBinary> extends Pipeline<GraphicsShader, S> {
 
+    /**
+     * The texture sampler uniforms that are resolved when program is linked, fetch using
+     * {@link GraphicsPipeline#getSampler(Sampler)}
+     *
+     */
+    public enum Sampler {
+        TEXTURE("uTexture"),
+        TEXTURE_0("uTexture0"),
+        TEXTURE_NORMAL("uTextureNormal"),
+        TEXTURE_MR("uTextureMR"),
+        TEXTURE_OCCLUSION("uTextureOcclusion"),
+        SHADOW_TEXTURE("uShadowTexture");
+
+        /**
+         * Name of the sampler in shader source
+         */
+        public final String variableName;
+
+        private Sampler(String variableName) {
+            this.variableName = variableName;
+        }
+    }
+
     /**
      * Sets the vertexAttribPointers for the glTF primitive
      * 
@@ -57,6 +80,33 @@ public interface GraphicsPipeline<S extends ShaderBinary> extends Pipeline<Graph
      */
     public NamedShaderVariable getAttributeByName(String attribute);
 
+    /**
+     * Returns the attribute if defined in shader program, the attribute is resolved when the program is linked so
+     * this method does not do any name lookup - use this when rendering.
+     * 
+     * @param attribute
+     * @return Shader variable for attribute, or null if not defined in shader
+     */
+    public NamedShaderVariable getAttribute(Attributes attribute);
+
+    /**
+     * Returns the uniform if defined in shader program, the uniform is resolved when the program is linked so
+     * this method does not do any name lookup - use this when rendering.
+     * 
+     * @param uniform
+     * @return Shader variable for uniform, or null if not defined in shader
+     */
+    public NamedShaderVariable getUniform(Attributes uniform);
+
+    /**
+     * Returns the texture sampler uniform if defined in shader program, the sampler is resolved when the program is
+     * linked so this method does not do any name lookup - use this when rendering.
+     * 
+     * @param sampler
+     * @return Shader variable for sampler, or null if not defined in shader
+     */
+    public NamedShaderVariable getSampler(Sampler sampler);
+
     /**
      * Internal method
      * TODO - Should this be a seperate interface that handles pipeline/program creation?
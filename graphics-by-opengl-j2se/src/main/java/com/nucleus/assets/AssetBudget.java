@@ -0,0 +1,419 @@
+package com.nucleus.assets;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.nucleus.BackendException;
+import com.nucleus.scene.gltf.Buffer;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.Image;
+import com.nucleus.texturing.BufferImage;
+import com.nucleus.texturing.Texture2D;
+
+/**
+ * Reference counting and memory accounting of loaded assets, used by {@link Assets} to decide what assets to
+ * release.
+ * Each asset has a reference count that is increased when the asset is returned to a user and decreased when the
+ * asset is released, and an estimated number of bytes used in GPU and CPU memory.
+ * When the total GPU or CPU memory is above the budget, assets that are not referenced are evicted in least recently
+ * used order. Assets that are referenced are never evicted.
+ * A budget of 0 means that assets are evicted as soon as they are not referenced, a negative budget means no limit.
+ * This class is thread safe, the {@link Evictor} is called without holding the lock.
+ *
+ */
+public class AssetBudget {
+
+    /**
+     * The type of asset, used for accounting
+     */
+    public enum AssetType {
+        /**
+         * Texture loaded from a texture (.tex) file
+         */
+        TEXTURE(),
+        /**
+         * glTF asset including buffers and texture images
+         */
+        GLTF();
+    }
+
+    /**
+     * Called to release the resources of an evicted asset
+     */
+    public interface Evictor {
+        /**
+         * Releases the asset, the asset has been removed from the budget when this method is called.
+         *
+         * @param type
+         * @param key The key of the asset, eg texture source or glTF filename
+         * @param asset
+         * @throws BackendException If there is an error releasing the asset
+         */
+        public void evict(AssetType type, String key, Object asset) throws BackendException;
+    }
+
+    private static class Entry {
+        private final AssetType type;
+        private final String key;
+        private final Object asset;
+        private int refCount;
+        private long gpuBytes;
+        private long cpuBytes;
+
+        private Entry(AssetType type, String key, Object asset) {
+            this.type = type;
+            this.key = key;
+            this.asset = asset;
+        }
+    }
+
+    /**
+     * Access ordered, iteration order is least recently used first. Assets do not override equals so the asset
+     * instance is the key.
+     */
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long[] gpuBytes = new long[AssetType.values().length];
+    private final long[] cpuBytes = new long[AssetType.values().length];
+    private final int[] count = new int[AssetType.values().length];
+    private long gpuTotal;
+    private long cpuTotal;
+    private long gpuBudget;
+    private long cpuBudget;
+    private int evicted;
+
+    /**
+     * Creates a new asset budget
+     *
+     * @param gpuBudget Max number of bytes of GPU memory, or -1 for no limit
+     * @param cpuBudget Max number of bytes of CPU memory, or -1 for no limit
+     */
+    public AssetBudget(long gpuBudget, long cpuBudget) {
+        this.gpuBudget = gpuBudget;
+        this.cpuBudget = cpuBudget;
+    }
+
+    /**
+     * Sets the memory budgets, assets are evicted next time {@link #evict(Evictor)} is called.
+     *
+     * @param gpuBudget Max number of bytes of GPU memory, or -1 for no limit
+     * @param cpuBudget Max number of bytes of CPU memory, or -1 for no limit
+     */
+    public synchronized void setBudget(long gpuBudget, long cpuBudget) {
+        this.gpuBudget = gpuBudget;
+        this.cpuBudget = cpuBudget;
+    }
+
+    /**
+     * Adds an asset with reference count 0, if the asset is already added nothing is done.
+     *
+     * @param type
+     * @param key The key of the asset, eg texture source or glTF filename
+     * @param asset
+     */
+    public synchronized void add(AssetType type, String key, Object asset) {
+        if (!entries.containsKey(asset)) {
+            entries.put(asset, new Entry(type, key, asset));
+            count[type.ordinal()]++;
+        }
+    }
+
+    /**
+     * Increases the reference count of the asset and marks it as used
+     *
+     * @param asset
+     * @return The reference count
+     * @throws IllegalArgumentException If the asset has not been added
+     */
+    public synchronized int acquire(Object asset) {
+        return ++getEntry(asset).refCount;
+    }
+
+    /**
+     * Decreases the reference count of the asset, when the reference count is 0 the asset may be evicted.
+     *
+     * @param asset
+     * @return The reference count
+     * @throws IllegalArgumentException If the asset has not been added or is not referenced
+     */
+    public synchronized int release(Object asset) {
+        Entry entry = getEntry(asset);
+        if (entry.refCount <= 0) {
+            throw new IllegalArgumentException("Asset is not referenced: " + entry.key);
+        }
+        return --entry.refCount;
+    }
+
+    /**
+     * Sets the number of bytes used by the asset, call this when memory is allocated or released for the asset.
+     *
+     * @param asset
+     * @param gpu Number of bytes in GPU memory
+     * @param cpu Number of bytes in CPU memory
+     * @throws IllegalArgumentException If the asset has not been added
+     */
+    public synchronized void setSize(Object asset, long gpu, long cpu) {
+        Entry entry = getEntry(asset);
+        int index = entry.type.ordinal();
+        gpuBytes[index] += gpu - entry.gpuBytes;
+        cpuBytes[index] += cpu - entry.cpuBytes;
+        gpuTotal += gpu - entry.gpuBytes;
+        cpuTotal += cpu - entry.cpuBytes;
+        entry.gpuBytes = gpu;
+        entry.cpuBytes = cpu;
+    }
+
+    /**
+     * Removes the asset, call this when the asset is deleted without being evicted.
+     * If the asset has not been added nothing is done.
+     *
+     * @param asset
+     */
+    public synchronized void remove(Object asset) {
+        Entry entry = entries.remove(asset);
+        if (entry != null) {
+            subtract(entry);
+        }
+    }
+
+    /**
+     * Returns the reference count of the asset
+     *
+     * @param asset
+     * @return The reference count, or -1 if the asset has not been added
+     */
+    public synchronized int getRefCount(Object asset) {
+        Entry entry = entries.get(asset);
+        return entry != null ? entry.refCount : -1;
+    }
+
+    /**
+     * Evicts assets that are not referenced, least recently used first, until GPU and CPU memory are within
+     * budget. Evicted assets are removed and then passed to the evictor.
+     * Call this on the thread that can release the asset resources.
+     * All evicted assets are passed to the evictor even if the evictor throws an exception, the first exception is
+     * thrown when all assets have been passed.
+     *
+     * @param evictor Called for each evicted asset
+     * @return Number of evicted assets
+     * @throws BackendException The first exception thrown by the evictor
+     */
+    public int evict(Evictor evictor) throws BackendException {
+        ArrayList<Entry> victims = null;
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (isOverBudget() && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.refCount == 0) {
+                    iterator.remove();
+                    subtract(entry);
+                    if (victims == null) {
+                        victims = new ArrayList<>();
+                    }
+                    victims.add(entry);
+                }
+            }
+            if (victims == null) {
+                return 0;
+            }
+            evicted += victims.size();
+        }
+        BackendException error = null;
+        for (Entry entry : victims) {
+            try {
+                evictor.evict(entry.type, entry.key, entry.asset);
+            } catch (BackendException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return victims.size();
+    }
+
+    /**
+     * Removes all assets, does not release any resources.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        for (int i = 0; i < count.length; i++) {
+            gpuBytes[i] = 0;
+            cpuBytes[i] = 0;
+            count[i] = 0;
+        }
+        gpuTotal = 0;
+        cpuTotal = 0;
+    }
+
+    /**
+     * Returns the number of bytes of GPU memory used by assets of the type
+     *
+     * @param type
+     * @return
+     */
+    public synchronized long getGPUBytes(AssetType type) {
+        return gpuBytes[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of bytes of CPU memory used by assets of the type
+     *
+     * @param type
+     * @return
+     */
+    public synchronized long getCPUBytes(AssetType type) {
+        return cpuBytes[type.ordinal()];
+    }
+
+    /**
+     * Returns the number of assets of the type
+     *
+     * @param type
+     * @return
+     */
+    public synchronized int getCount(AssetType type) {
+        return count[type.ordinal()];
+    }
+
+    /**
+     * Returns the total number of evicted assets
+     *
+     * @return
+     */
+    public synchronized int getEvictedCount() {
+        return evicted;
+    }
+
+    private boolean isOverBudget() {
+        return (gpuBudget >= 0 && gpuTotal > gpuBudget) || (cpuBudget >= 0 && cpuTotal > cpuBudget);
+    }
+
+    private void subtract(Entry entry) {
+        int index = entry.type.ordinal();
+        gpuBytes[index] -= entry.gpuBytes;
+        cpuBytes[index] -= entry.cpuBytes;
+        gpuTotal -= entry.gpuBytes;
+        cpuTotal -= entry.cpuBytes;
+        count[index]--;
+    }
+
+    private Entry getEntry(Object asset) {
+        Entry entry = entries.get(asset);
+        if (entry == null) {
+            throw new IllegalArgumentException("Asset has not been added: " + asset);
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (AssetType type : AssetType.values()) {
+            sb.append(type).append(": ").append(count[type.ordinal()]).append(" assets, GPU ")
+                    .append(gpuBytes[type.ordinal()]).append(", CPU ").append(cpuBytes[type.ordinal()])
+                    .append(" bytes\n");
+        }
+        sb.append("Budget GPU ").append(gpuBudget).append(", CPU ").append(cpuBudget).append(" bytes, evicted ")
+                .append(evicted);
+        return sb.toString();
+    }
+
+    /**
+     * Returns the estimated number of bytes used by the texture in GPU memory
+     *
+     * @param texture
+     * @return
+     */
+    public static long getGPUSize(Texture2D texture) {
+        long size = (long) texture.getWidth() * texture.getHeight() * getBytesPerPixel(texture);
+        // Mipmap levels add one third
+        return texture.getTexParams() != null && texture.getTexParams().isMipMapFilter() ? size + size / 3 : size;
+    }
+
+    /**
+     * Returns the estimated number of bytes used by buffers and texture images of the glTF in GPU memory,
+     * buffers are counted if they are uploaded to a buffer object and images if a texture has been created.
+     *
+     * @param gltf
+     * @return
+     */
+    public static long getGPUSize(GLTF gltf) {
+        long size = 0;
+        for (Buffer buffer : gltf.getBuffers(null)) {
+            if (buffer.getBufferName() > 0) {
+                size += buffer.getByteLength();
+            }
+        }
+        Image[] images = gltf.getImages();
+        if (images != null) {
+            for (Image image : images) {
+                BufferImage bufferImage = image.getBufferImage();
+                if (image.getTextureName() > 0 && bufferImage != null && bufferImage.getFormat() != null) {
+                    long imageSize = (long) bufferImage.getWidth() * bufferImage.getHeight()
+                            * bufferImage.getFormat().size;
+                    // Mipmaps are generated for glTF textures
+                    size += imageSize + imageSize / 3;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used by buffers and texture images of the glTF in CPU memory
+     *
+     * @param gltf
+     * @return
+     */
+    public static long getCPUSize(GLTF gltf) {
+        long size = 0;
+        for (Buffer buffer : gltf.getBuffers(null)) {
+            if (buffer.hasBuffer()) {
+                size += buffer.getByteLength();
+            }
+        }
+        Image[] images = gltf.getImages();
+        if (images != null) {
+            for (Image image : images) {
+                BufferImage bufferImage = image.getBufferImage();
+                if (bufferImage != null && bufferImage.getBuffer() != null) {
+                    size += bufferImage.getBuffer().capacity();
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int getBytesPerPixel(Texture2D texture) {
+        if (texture.getType() != null) {
+            switch (texture.getType()) {
+                case UNSIGNED_SHORT_5_6_5:
+                case UNSIGNED_SHORT_4_4_4_4:
+                case UNSIGNED_SHORT_5_5_5_1:
+                    return 2;
+                default:
+                    // Size depends on format
+            }
+        }
+        if (texture.getFormat() == null) {
+            return 4;
+        }
+        switch (texture.getFormat()) {
+            case RGBA:
+            case SRGBA:
+                return 4;
+            case RGB:
+            case SRGB:
+                return 3;
+            case RG:
+            case LUMINANCE_ALPHA:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+}
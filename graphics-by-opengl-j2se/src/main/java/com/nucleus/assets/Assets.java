@@ -1,6 +1,7 @@
 package com.nucleus.assets;
 
 import java.io.IOException;
+import java.util.concurrent.Future;
 
 import com.nucleus.BackendException;
 import com.nucleus.io.ExternalReference;
@@ -26,6 +27,29 @@ import com.nucleus.texturing.TextureParameter;
  */
 public interface Assets {
 
+    /**
+     * Callback for asynchronous loading of glTF assets, see {@link Assets#loadGLTFAssetsAsync(String, GLTFLoadListener)}
+     *
+     */
+    public interface GLTFLoadListener {
+        /**
+         * Called from the worker thread when json, binary buffers and images have been loaded and TBN buffers
+         * are built. GL objects are NOT created, call {@link Assets#loadGLTFAssets(NucleusRenderer, GLTF)} from the
+         * render thread to finish loading.
+         * 
+         * @param glTF The prepared glTF asset
+         */
+        public void loaded(GLTF glTF);
+
+        /**
+         * Called from the worker thread if the glTF could not be loaded
+         * 
+         * @param fileName Name of the glTF asset
+         * @param cause
+         */
+        public void failed(String fileName, Throwable cause);
+    }
+
     /**
      * Loads an image into several mip-map levels, the same image will be scaled to produce the
      * different mip-map levels.
@@ -50,6 +74,18 @@ public interface Assets {
      */
     public void loadGLTFAssets(NucleusRenderer renderer, GLTF glTF) throws IOException, BackendException;
 
+    /**
+     * Loads the glTF json, binary buffers and texture images using worker threads, then builds TBN buffers.
+     * No GL objects are created, when the returned future is done (or the listener is called) the glTF must be
+     * passed to {@link #loadGLTFAssets(NucleusRenderer, GLTF)} on the render thread to create textures and buffer
+     * objects.
+     * 
+     * @param fileName
+     * @param listener Optional listener that is called from the worker thread when loading has finished or failed.
+     * @return Future holding the prepared glTF asset
+     */
+    public Future<GLTF> loadGLTFAssetsAsync(String fileName, GLTFLoadListener listener);
+
     /**
      * Returns the texture, if the texture has not been loaded it will be and stored in the assetmanager
      * Format will be RGBA and type UNSIGNED_BYTE
@@ -75,6 +111,8 @@ public interface Assets {
      * Returns the texture, if the texture has not been loaded it will be loaded and stored in the assetmanager.
      * If already has been loaded the loaded instance will be returned.
      * Treat textures as immutable object
+     * Textures loaded from a texture source are reference counted, call
+     * {@link #releaseTexture(NucleusRenderer, Texture2D)} when the texture is no longer used.
      * 
      * @param renderer
      * @param imageFactory
@@ -89,6 +127,10 @@ public interface Assets {
     /**
      * If the Asset already has been loaded it is returned, otherwise AssetManager will load and return the GLTF asset.
      * This method will not load binary data (buffers) or images.
+     * If the filename ends with .glb it is loaded as a glTF binary container, the buffer stored in the glb
+     * is set directly (not copied) as the first buffer.
+     * The asset is reference counted, call {@link #releaseGLTFAsset(NucleusRenderer, GLTF)} when the asset is no
+     * longer used.
      * 
      * @param name
      * @return The loaded GLTF asset, without binary buffers and images loaded.
@@ -148,6 +190,42 @@ public interface Assets {
      */
     public void deleteGLTFAssets(NucleusRenderer renderer, GLTF gltf) throws BackendException;
 
+    /**
+     * Releases a reference to a texture returned by
+     * {@link #getTexture(NucleusRenderer, ImageFactory, ExternalReference)}, when the texture is not referenced it
+     * may be deleted to keep memory within the budget.
+     * Textures that are not reference counted, eg untextured or render target textures, are ignored.
+     * Must be called on the render thread, do not use the texture after calling this method.
+     * 
+     * @param renderer
+     * @param texture
+     * @throws BackendException If there is an error deleting resources
+     * @throws IllegalArgumentException If the texture is reference counted and not referenced
+     */
+    public void releaseTexture(NucleusRenderer renderer, Texture2D texture) throws BackendException;
+
+    /**
+     * Releases a reference to a glTF asset returned by {@link #getGLTFAsset(String)} or
+     * {@link #loadGLTFAssetsAsync(String, GLTFLoadListener)}, when the asset is not referenced it may be deleted to
+     * keep memory within the budget.
+     * Must be called on the render thread, do not use the asset after calling this method.
+     * 
+     * @param renderer
+     * @param gltf
+     * @throws BackendException If there is an error deleting resources
+     * @throws IllegalArgumentException If the asset is not loaded, or is not referenced
+     */
+    public void releaseGLTFAsset(NucleusRenderer renderer, GLTF gltf) throws BackendException;
+
+    /**
+     * Returns the reference counts and memory accounting of loaded textures and glTF assets.
+     * The budget is read from {@link com.nucleus.common.Environment.Property#ASSET_GPU_BUDGET} and
+     * {@link com.nucleus.common.Environment.Property#ASSET_CPU_BUDGET}
+     * 
+     * @return
+     */
+    public AssetBudget getBudget();
+
     /**
      * Teardown and claenup all assets, removes all references and resources, call when the program is exiting.
      * Do not call any of the methods after calling this method
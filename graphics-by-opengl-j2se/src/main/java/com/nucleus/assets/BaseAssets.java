@@ -13,6 +13,10 @@ import com.google.gson.GsonBuilder;
 import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
 import com.nucleus.SimpleLogger;
+import com.nucleus.assets.AssetBudget.AssetType;
+import com.nucleus.assets.AssetBudget.Evictor;
+import com.nucleus.common.Environment;
+import com.nucleus.common.Environment.Property;
 import com.nucleus.io.ExternalReference;
 import com.nucleus.io.gson.TextureDeserializer;
 import com.nucleus.profiling.FrameSampler;
@@ -56,6 +60,12 @@ public abstract class BaseAssets implements Assets {
      */
     protected static final Map<String, Texture2D> loadedTextures = new HashMap<>();
 
+    /**
+     * Reference counts and memory used by textures loaded from a texture source and by glTF assets
+     */
+    protected final AssetBudget budget = new AssetBudget(getBudgetBytes(Property.ASSET_GPU_BUDGET),
+            getBudgetBytes(Property.ASSET_CPU_BUDGET));
+
     /**
      * Creates one texture name
      * 
@@ -82,7 +92,7 @@ public abstract class BaseAssets implements Assets {
         }
         String idRef = ref.getIdReference();
         if (idRef != null) {
-            return getTexture(idRef);
+            return acquireTexture(getTexture(idRef));
         } else {
             try {
                 return getTexture(renderer, imageFactory, createTexture(ref));
@@ -106,6 +116,91 @@ public abstract class BaseAssets implements Assets {
         return source;
     }
 
+    @Override
+    public void releaseTexture(NucleusRenderer renderer, Texture2D texture) throws BackendException {
+        if (budget.getRefCount(texture) >= 0) {
+            budget.release(texture);
+            evict(renderer);
+        }
+    }
+
+    @Override
+    public void releaseGLTFAsset(NucleusRenderer renderer, GLTF gltf) throws BackendException {
+        budget.release(gltf);
+        evict(renderer);
+    }
+
+    @Override
+    public AssetBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Deletes assets that are not referenced until memory is within budget, must be called on the render thread.
+     * 
+     * @param renderer
+     * @return Number of deleted assets
+     * @throws BackendException If there is an error deleting an asset, all assets are deleted before the exception
+     * is thrown.
+     */
+    protected int evict(final NucleusRenderer renderer) throws BackendException {
+        return budget.evict(new Evictor() {
+            @Override
+            public void evict(AssetType type, String key, Object asset) throws BackendException {
+                SimpleLogger.d(BaseAssets.this.getClass(), "Evicting " + type + " asset: " + key);
+                switch (type) {
+                    case TEXTURE:
+                        if (textures.get(key) == asset) {
+                            textures.remove(key);
+                        }
+                        deleteTextures(new Texture2D[] { (Texture2D) asset });
+                        break;
+                    case GLTF:
+                        deleteGLTFAssets(renderer, (GLTF) asset);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Not implemented for " + type);
+                }
+            }
+        });
+    }
+
+    /**
+     * Acquires a reference to the texture if it is reference counted, ie loaded from a texture source.
+     * 
+     * @param texture
+     * @return The texture
+     */
+    protected Texture2D acquireTexture(Texture2D texture) {
+        if (texture != null && budget.getRefCount(texture) >= 0) {
+            budget.acquire(texture);
+        }
+        return texture;
+    }
+
+    /**
+     * Updates the memory used by the glTF asset, call when buffers or images are loaded or uploaded.
+     * If the asset is not loaded by {@link #getGLTFAsset(String)} nothing is done.
+     * 
+     * @param gltf
+     */
+    protected void updateBudget(GLTF gltf) {
+        if (budget.getRefCount(gltf) >= 0) {
+            budget.setSize(gltf, AssetBudget.getGPUSize(gltf), AssetBudget.getCPUSize(gltf));
+        }
+    }
+
+    /**
+     * Returns the budget in bytes for the property, the property value is in megabytes.
+     * 
+     * @param property
+     * @return Number of bytes, or -1 for no limit
+     */
+    protected static long getBudgetBytes(Property property) {
+        int megabytes = Environment.getInstance().getProperty(property, 0);
+        return megabytes < 0 ? -1 : megabytes * 1024L * 1024L;
+    }
+
     @Override
     public void getIdReference(Texture2D reference) {
         if (reference != null && reference.getExternalReference().isIdReference()) {
@@ -196,7 +291,7 @@ public abstract class BaseAssets implements Assets {
         if (refId != null) {
             Texture2D texture = textures.get(refId);
             if (texture != null) {
-                return texture;
+                return acquireTexture(texture);
             }
             textures.put(source.getExternalReference().getSource(), source);
             return source;
@@ -208,9 +303,15 @@ public abstract class BaseAssets implements Assets {
                 // Texture not loaded
                 texture = createTexture(renderer, imageFactory, source);
                 textures.put(refSource, texture);
+                budget.add(AssetType.TEXTURE, refSource, texture);
+                budget.setSize(texture, AssetBudget.getGPUSize(texture), 0);
                 FrameSampler.getInstance().logTag(FrameSampler.Samples.CREATE_TEXTURE,
                         " " + texture.getName() + " : " + refSource, start,
                         System.currentTimeMillis());
+                budget.acquire(texture);
+                evict(renderer);
+            } else {
+                acquireTexture(texture);
             }
             return texture;
         }
@@ -228,8 +329,10 @@ public abstract class BaseAssets implements Assets {
      */
     protected Texture2D createTexture(ExternalReference ref) throws FileNotFoundException {
         GsonBuilder builder = new GsonBuilder();
-        builder.registerTypeAdapter(Texture2D.class, new TextureDeserializer());
+        TextureDeserializer deserializer = new TextureDeserializer();
+        deserializer.registerTypeAdapter(builder);
         Gson gson = builder.create();
+        deserializer.setGson(gson);
         SimpleLogger.d(TextureFactory.class, "Reading texture data from: " + ref.getSource());
         InputStreamReader reader;
         try {
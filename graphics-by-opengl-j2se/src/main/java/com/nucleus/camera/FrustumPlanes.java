@@ -0,0 +1,116 @@
+package com.nucleus.camera;
+
+import com.nucleus.scene.gltf.MaxMin;
+import com.nucleus.vecmath.Matrix;
+
+/**
+ * The six planes of a view frustum, extracted from a projection or view-projection matrix.
+ * Use this to test if axis aligned bounds are inside the frustum.
+ * If the planes are extracted from the projection matrix the planes are in view space, if extracted from
+ * projection * view the planes are in world space.
+ * Planes are stored as a, b, c, d where a point is inside if a * x + b * y + c * z + d >= 0
+ * Planes are not normalized, this means they can be used for inside/outside tests but not for distance.
+ *
+ */
+public class FrustumPlanes {
+
+    public enum Plane {
+        LEFT(0),
+        RIGHT(1),
+        BOTTOM(2),
+        TOP(3),
+        NEAR(4),
+        FAR(5);
+
+        public final int index;
+
+        private Plane(int index) {
+            this.index = index;
+        }
+    }
+
+    /**
+     * Number of values for one plane
+     */
+    public static final int PLANE_SIZE = 4;
+    public static final int PLANE_COUNT = 6;
+
+    private final float[] planes = new float[PLANE_SIZE * PLANE_COUNT];
+    private final float[] viewProjection = Matrix.createMatrix();
+
+    /**
+     * Extracts the planes from the column major matrix.
+     *
+     * @param matrix Projection or view-projection matrix
+     */
+    public void set(float[] matrix) {
+        for (int i = 0; i < 3; i++) {
+            for (int c = 0; c < PLANE_SIZE; c++) {
+                float row3 = matrix[c * 4 + 3];
+                float row = matrix[c * 4 + i];
+                planes[(i * 2) * PLANE_SIZE + c] = row3 + row;
+                planes[(i * 2 + 1) * PLANE_SIZE + c] = row3 - row;
+            }
+        }
+    }
+
+    /**
+     * Extracts the world space planes from projection * view
+     *
+     * @param projection
+     * @param view
+     */
+    public void set(float[] projection, float[] view) {
+        Matrix.mul4(projection, view, viewProjection);
+        set(viewProjection);
+    }
+
+    /**
+     * Extracts the view space planes from the view frustum
+     *
+     * @param viewFrustum
+     */
+    public void set(ViewFrustum viewFrustum) {
+        set(viewFrustum.getMatrix(viewProjection));
+    }
+
+    /**
+     * Returns true if the axis aligned bounds are inside or intersects the frustum.
+     * This test is conservative, some bounds outside of the frustum close to the corners will be reported as
+     * visible.
+     *
+     * @param bounds The bounds, in the same space as the planes.
+     * @return False if the bounds are completely outside of at least one plane, or if bounds is empty.
+     */
+    public boolean isVisible(MaxMin bounds) {
+        if (bounds.isEmpty()) {
+            return false;
+        }
+        float[] mm = bounds.getValues();
+        for (int i = 0; i < PLANE_COUNT; i++) {
+            int index = i * PLANE_SIZE;
+            float a = planes[index];
+            float b = planes[index + 1];
+            float c = planes[index + 2];
+            // Test the corner that is furthest along the plane normal
+            float x = a >= 0 ? mm[0] : mm[3];
+            float y = b >= 0 ? mm[1] : mm[4];
+            float z = c >= 0 ? mm[2] : mm[5];
+            if (a * x + b * y + c * z + planes[index + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the values of the plane to the result
+     *
+     * @param plane
+     * @param result a, b, c and d values of the plane are stored here.
+     */
+    public void getPlane(Plane plane, float[] result) {
+        System.arraycopy(planes, plane.index * PLANE_SIZE, result, 0, PLANE_SIZE);
+    }
+
+}
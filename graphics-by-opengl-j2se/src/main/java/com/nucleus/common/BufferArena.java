@@ -0,0 +1,337 @@
+package com.nucleus.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.nucleus.SimpleLogger;
+
+/**
+ * Slab allocator for direct byte buffers, use this instead of {@link BufferUtils#createByteBuffer(int)} when many
+ * small or short lived buffers are created and the buffers can be freed explicitly.
+ * Buffers are slices of large direct blocks, each allocation is rounded up to a power of two size class and freed
+ * slices are reused by allocations of the same class. Slices are aligned to the alignment relative to the start of
+ * the block, the block itself is aligned by the platform (at least 8 bytes).
+ * Allocations larger than a quarter of the block size are allocated directly and released using
+ * {@link BufferUtils#freeBuffer(ByteBuffer)} when freed.
+ * Returned buffers have capacity of the requested size, native byte order and are filled with zeros.
+ * Blocks are kept until {@link #destroy()} is called, buffers that are not freed are kept by the arena.
+ * This class is thread safe.
+ *
+ */
+public class BufferArena {
+
+    /**
+     * Default size of blocks
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    /**
+     * Default alignment of slices
+     */
+    public static final int DEFAULT_ALIGNMENT = 16;
+
+    private static final byte[] ZEROS = new byte[4096];
+
+    private static BufferArena arena;
+
+    private final String name;
+    private final int blockSize;
+    private final int alignment;
+    private final int maxSlotSize;
+    private final int minShift;
+    private final ArrayList<ByteBuffer> blocks = new ArrayList<>();
+    /**
+     * Freed slots, one list for each size class, slots have capacity of the class size and are filled with zeros.
+     */
+    private final ArrayList<ArrayDeque<ByteBuffer>> freeSlots = new ArrayList<>();
+    /**
+     * Returned buffer to slot, for direct allocations the buffer is the slot.
+     */
+    private final IdentityHashMap<ByteBuffer, ByteBuffer> allocated = new IdentityHashMap<>();
+    private ByteBuffer current;
+    private int offset;
+
+    private long usedBytes;
+    private long requestedBytes;
+    private long directBytes;
+    private long allocations;
+    private long frees;
+    private long reused;
+
+    /**
+     * Returns the shared arena, using {@link #DEFAULT_BLOCK_SIZE} and {@link #DEFAULT_ALIGNMENT}
+     *
+     * @return
+     */
+    public static synchronized BufferArena getInstance() {
+        if (arena == null) {
+            arena = new BufferArena("shared", DEFAULT_BLOCK_SIZE, DEFAULT_ALIGNMENT);
+        }
+        return arena;
+    }
+
+    /**
+     * Creates a new arena, no memory is allocated until the first allocation.
+     *
+     * @param name Name of the arena, used for logging
+     * @param blockSize Size of blocks in bytes, power of two
+     * @param alignment Alignment of slices in bytes, power of two and less than blockSize
+     * @throws IllegalArgumentException If blockSize or alignment is not a power of two, or alignment is not less
+     * than blockSize
+     */
+    public BufferArena(String name, int blockSize, int alignment) {
+        if (Integer.bitCount(blockSize) != 1 || Integer.bitCount(alignment) != 1 || alignment * 4 > blockSize) {
+            throw new IllegalArgumentException("Invalid blocksize " + blockSize + " or alignment " + alignment);
+        }
+        this.name = name;
+        this.blockSize = blockSize;
+        this.alignment = alignment;
+        maxSlotSize = blockSize >>> 2;
+        minShift = Integer.numberOfTrailingZeros(alignment);
+        for (int size = alignment; size <= maxSlotSize; size <<= 1) {
+            freeSlots.add(new ArrayDeque<ByteBuffer>());
+        }
+    }
+
+    /**
+     * Allocates a buffer, call {@link #free(ByteBuffer)} when the buffer is not used.
+     *
+     * @param bytes Size of the buffer
+     * @return Buffer with capacity bytes and native byte order, filled with zeros
+     * @throws IllegalArgumentException If bytes is negative
+     */
+    public synchronized ByteBuffer allocate(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Invalid size: " + bytes);
+        }
+        allocations++;
+        requestedBytes += bytes;
+        if (bytes > maxSlotSize) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+            allocated.put(buffer, buffer);
+            directBytes += bytes;
+            return buffer;
+        }
+        int sizeClass = getSizeClass(bytes);
+        ByteBuffer slot = freeSlots.get(sizeClass).poll();
+        if (slot != null) {
+            reused++;
+        } else {
+            slot = createSlot(alignment << sizeClass);
+        }
+        usedBytes += slot.capacity();
+        ByteBuffer buffer = slot.duplicate();
+        buffer.limit(bytes);
+        buffer = buffer.slice().order(ByteOrder.nativeOrder());
+        allocated.put(buffer, slot);
+        return buffer;
+    }
+
+    /**
+     * Frees a buffer allocated by this arena, the memory is reused by later allocations.
+     * The buffer, or any view of it, MUST NOT be used after calling this method.
+     *
+     * @param buffer Buffer returned by {@link #allocate(int)}
+     * @throws IllegalArgumentException If the buffer is not allocated by this arena, or already freed
+     */
+    public synchronized void free(ByteBuffer buffer) {
+        ByteBuffer slot = allocated.remove(buffer);
+        if (slot == null) {
+            throw new IllegalArgumentException("Buffer not allocated by arena " + name);
+        }
+        frees++;
+        requestedBytes -= buffer.capacity();
+        if (slot == buffer) {
+            directBytes -= buffer.capacity();
+            BufferUtils.freeBuffer(buffer);
+            return;
+        }
+        clear(slot, buffer.capacity());
+        usedBytes -= slot.capacity();
+        freeSlots.get(Integer.numberOfTrailingZeros(slot.capacity()) - minShift).push(slot);
+    }
+
+    /**
+     * Returns true if the buffer is allocated by this arena and not freed
+     *
+     * @param buffer
+     * @return
+     */
+    public synchronized boolean isAllocated(ByteBuffer buffer) {
+        return allocated.containsKey(buffer);
+    }
+
+    /**
+     * Releases the blocks of this arena, all buffers must be freed before calling this method.
+     * The arena can be used after calling this method, new blocks are allocated as needed.
+     *
+     * @throws IllegalArgumentException If there are buffers that are not freed
+     */
+    public synchronized void destroy() {
+        if (!allocated.isEmpty()) {
+            throw new IllegalArgumentException(allocated.size() + " buffers not freed in arena " + name);
+        }
+        for (ArrayDeque<ByteBuffer> slots : freeSlots) {
+            slots.clear();
+        }
+        for (ByteBuffer block : blocks) {
+            BufferUtils.freeBuffer(block);
+        }
+        blocks.clear();
+        current = null;
+        offset = 0;
+    }
+
+    /**
+     * Returns the name of the arena
+     *
+     * @return
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of blocks
+     *
+     * @return
+     */
+    public synchronized int getBlockCount() {
+        return blocks.size();
+    }
+
+    /**
+     * Returns the number of bytes allocated for blocks
+     *
+     * @return
+     */
+    public synchronized long getReservedBytes() {
+        return (long) blocks.size() * blockSize;
+    }
+
+    /**
+     * Returns the number of bytes of blocks used by allocated buffers, including the rounding to size class.
+     *
+     * @return
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Returns the number of bytes requested by allocated buffers, including direct allocations.
+     *
+     * @return
+     */
+    public synchronized long getRequestedBytes() {
+        return requestedBytes;
+    }
+
+    /**
+     * Returns the number of bytes of allocated buffers that are larger than the slots and allocated directly
+     *
+     * @return
+     */
+    public synchronized long getDirectBytes() {
+        return directBytes;
+    }
+
+    /**
+     * Returns the number of allocated buffers that are not freed
+     *
+     * @return
+     */
+    public synchronized int getAllocatedCount() {
+        return allocated.size();
+    }
+
+    /**
+     * Returns the total number of allocations
+     *
+     * @return
+     */
+    public synchronized long getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Returns the total number of frees
+     *
+     * @return
+     */
+    public synchronized long getFrees() {
+        return frees;
+    }
+
+    /**
+     * Returns the number of allocations that used a freed slot
+     *
+     * @return
+     */
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BufferArena " + name + ": " + blocks.size() + " blocks of " + blockSize + " bytes, used "
+                + usedBytes + ", requested " + requestedBytes + ", direct " + directBytes + ", allocated "
+                + allocated.size() + ", allocations " + allocations + ", frees " + frees + ", reused " + reused;
+    }
+
+    /**
+     * Returns the size class for the number of bytes, class 0 is the alignment size.
+     */
+    private int getSizeClass(int bytes) {
+        if (bytes <= alignment) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(bytes - 1) - minShift;
+    }
+
+    /**
+     * Creates a slot of the size from the current block, if the block does not have room the remaining part of
+     * the block is added to the free slots and a new block is allocated.
+     */
+    private ByteBuffer createSlot(int size) {
+        if (current == null || offset + size > blockSize) {
+            if (current != null) {
+                while (blockSize - offset >= alignment) {
+                    int piece = Integer.highestOneBit(Math.min(blockSize - offset, maxSlotSize));
+                    freeSlots.get(Integer.numberOfTrailingZeros(piece) - minShift).push(slice(current, offset, piece));
+                    offset += piece;
+                }
+            }
+            current = ByteBuffer.allocateDirect(blockSize).order(ByteOrder.nativeOrder());
+            blocks.add(current);
+            offset = 0;
+            SimpleLogger.d(getClass(), "Allocated block " + blocks.size() + " for arena " + name);
+        }
+        ByteBuffer slot = slice(current, offset, size);
+        offset += size;
+        return slot;
+    }
+
+    private ByteBuffer slice(ByteBuffer block, int position, int size) {
+        ByteBuffer slice = block.duplicate();
+        slice.limit(position + size);
+        slice.position(position);
+        return slice.slice();
+    }
+
+    /**
+     * Fills the first bytes of the slot with zeros
+     */
+    private void clear(ByteBuffer slot, int bytes) {
+        ByteBuffer dest = slot.duplicate();
+        dest.clear();
+        while (bytes > 0) {
+            int length = Math.min(bytes, ZEROS.length);
+            dest.put(ZEROS, 0, length);
+            bytes -= length;
+        }
+    }
+
+}
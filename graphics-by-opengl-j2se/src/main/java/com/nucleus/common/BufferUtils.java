@@ -1,5 +1,8 @@
 package com.nucleus.common;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -12,6 +15,64 @@ import com.nucleus.SimpleLogger;
 
 public class BufferUtils {
 
+    /**
+     * Releases the memory of direct buffers, uses Unsafe.invokeCleaner() on Java 9 and later and the buffer
+     * cleaner on Java 8. If neither is available the memory is released when the buffer is garbage collected.
+     */
+    private static class Deallocator {
+        private Object unsafe;
+        private Method invokeCleaner;
+        private Method attachment;
+        private Method cleaner;
+        private Method clean;
+
+        private Deallocator() {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                return;
+            } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException
+                    | RuntimeException e) {
+                invokeCleaner = null;
+            }
+            try {
+                Class<?> directBuffer = Class.forName("sun.nio.ch.DirectBuffer");
+                attachment = directBuffer.getMethod("attachment");
+                cleaner = directBuffer.getMethod("cleaner");
+                clean = cleaner.getReturnType().getMethod("clean");
+            } catch (ClassNotFoundException | NoSuchMethodException | RuntimeException e) {
+                SimpleLogger.d(BufferUtils.class, "Cannot free direct buffers, memory released by garbage collector");
+                cleaner = null;
+            }
+        }
+
+        private boolean free(ByteBuffer buffer) {
+            try {
+                if (invokeCleaner != null) {
+                    invokeCleaner.invoke(unsafe, buffer);
+                    return true;
+                }
+                if (cleaner != null && attachment.invoke(buffer) == null) {
+                    Object c = cleaner.invoke(buffer);
+                    if (c != null) {
+                        clean.invoke(c);
+                        return true;
+                    }
+                }
+            } catch (InvocationTargetException e) {
+                // Buffer is a slice or duplicate, memory is owned by another buffer
+            } catch (IllegalAccessException | RuntimeException e) {
+                SimpleLogger.d(BufferUtils.class, "Could not free buffer: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static Deallocator deallocator;
+
     /**
      * Outputs count number of values from the buffer to log - use this for debugging
      * 
@@ -140,15 +201,37 @@ public class BufferUtils {
      * Allocates a direct byte buffer with the specified number of bytes.
      * Ordering will be nativeOrder
      * Use this method to allocate byte buffers instead of calling java.nio.ByteBuffer direct
+     * Use {@link BufferArena} for short lived buffers that can be freed explicitly.
      * 
      * @param bytes
      * @return
      */
     public static ByteBuffer createByteBuffer(int bytes) {
-        SimpleLogger.d(BufferUtils.class, "Creating byte buffer with byte size: " + bytes);
         return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
     }
 
+    /**
+     * Releases the memory of a direct byte buffer immediately instead of when the buffer is garbage collected.
+     * Only buffers that own the memory are released, slices and duplicates are not released.
+     * The buffer, and any slice or view of it, MUST NOT be used after this method returns true - doing so may crash
+     * the VM.
+     * 
+     * @param buffer
+     * @return True if the memory was released, false if the buffer is not direct, does not own the memory or
+     * the platform does not support releasing buffers.
+     */
+    public static boolean freeBuffer(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return false;
+        }
+        synchronized (BufferUtils.class) {
+            if (deallocator == null) {
+                deallocator = new Deallocator();
+            }
+        }
+        return deallocator.free(buffer);
+    }
+
     /**
      * Allocates a direct float buffer with the specified number of floats.
      * Ordering will be nativeOrder.
@@ -158,7 +241,6 @@ public class BufferUtils {
      * @return
      */
     public static FloatBuffer createFloatBuffer(int floats) {
-        SimpleLogger.d(BufferUtils.class, "Creating float buffer with float size: " + floats);
         return ByteBuffer.allocateDirect(floats * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
     }
 
@@ -171,7 +253,6 @@ public class BufferUtils {
      * @return
      */
     public static IntBuffer createIntBuffer(int ints) {
-        SimpleLogger.d(BufferUtils.class, "Creating int buffer with int size: " + ints);
         return ByteBuffer.allocateDirect(ints * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
     }
 
@@ -184,7 +265,6 @@ public class BufferUtils {
      * @return
      */
     public static LongBuffer createLongBuffer(int longs) {
-        SimpleLogger.d(BufferUtils.class, "Creating long buffer with int size: " + longs);
         return ByteBuffer.allocateDirect(longs * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
 
     }
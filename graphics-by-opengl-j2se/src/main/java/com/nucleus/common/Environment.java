@@ -62,10 +62,59 @@ public class Environment {
          * If false then use of vbo is disabled
          */
         USEVBO("com.nucleus.vbo"),
+        /**
+         * GL error checking policy, one of PER_CALL, FRAME, DEBUG_OUTPUT or OFF - see GLESWrapper.ErrorPolicy
+         */
+        GL_ERROR_POLICY("com.nucleus.gl.errorpolicy"),
         /**
          * If true then recalculate tangents / normals on loaded geometry - this is for debugging etc.
          */
         RECALCULATE_TANGENTS("com.nucleus.gltf.recalculate_tangents"),
+        /**
+         * If true then identical vertices of glTF primitives are welded and indices are stored using the smallest
+         * index type when loaded.
+         */
+        WELD_VERTICES("com.nucleus.gltf.weld_vertices"),
+        /**
+         * If true then triangles and vertices of indexed glTF primitives are reordered for vertex cache locality
+         * when loaded.
+         */
+        OPTIMIZE_VERTEX_CACHE("com.nucleus.gltf.optimize_vertex_cache"),
+        /**
+         * If true then triangle clusters are sorted to reduce overdraw when optimizing for vertex cache
+         */
+        OPTIMIZE_OVERDRAW("com.nucleus.gltf.optimize_overdraw"),
+        /**
+         * If true then normals, tangents and texture coordinates of glTF primitives are quantized to normalized
+         * byte and short attributes when loaded, as defined by KHR_mesh_quantization.
+         */
+        QUANTIZE_ATTRIBUTES("com.nucleus.gltf.quantize_attributes"),
+        /**
+         * If true then the attributes of glTF primitives are interleaved when loaded, primitives with the same
+         * vertex layout share one buffer. If false the attributes are used as stored in the glTF.
+         */
+        INTERLEAVE_VERTICES("com.nucleus.gltf.interleave_vertices"),
+        /**
+         * Directory where processed glTF assets are cached, processed geometry and decoded images are read from the
+         * cache when the same asset is loaded again. If not set the cache is not used.
+         */
+        GLTF_CACHE("com.nucleus.gltf.cache"),
+        /**
+         * What glTF buffers to keep in CPU memory after they are uploaded to buffer objects, one of KEEP (default),
+         * RELEASE or KEEP_PICKING - see GLTF.Residency
+         */
+        GLTF_RESIDENCY("com.nucleus.gltf.residency"),
+        /**
+         * Max GPU memory, in megabytes, used by textures and glTF assets that are loaded by Assets. When the budget
+         * is exceeded assets that are no longer referenced are released, least recently used first.
+         * 0 (default) releases assets as soon as they are not referenced, -1 keeps all assets until deleted.
+         */
+        ASSET_GPU_BUDGET("com.nucleus.assets.gpu_budget"),
+        /**
+         * Max CPU memory, in megabytes, used by buffers and images of glTF assets that are loaded by Assets.
+         * Works the same way as {@link #ASSET_GPU_BUDGET}
+         */
+        ASSET_CPU_BUDGET("com.nucleus.assets.cpu_budget"),
         /**
          * If geometry has normalmap then use it as a texture (color) source
          * Used to debug normal maps
@@ -168,4 +217,25 @@ public class Environment {
         return p != null && p.length() > 0 ? p.equalsIgnoreCase(Constants.TRUE) : defaultValue;
     }
 
+    /**
+     * Returns the int value of the property, if no property is set or the value is not a number then
+     * defaultValue is returned.
+     * This will lookup the property in the local hashmap storage.
+     * 
+     * @param property
+     * @param defaultValue Value returned if property not set, empty or not a number
+     * @return
+     */
+    public int getProperty(Property property, int defaultValue) {
+        String p = properties.get(property);
+        if (p != null && p.length() > 0) {
+            try {
+                return Integer.parseInt(p.trim());
+            } catch (NumberFormatException e) {
+                SimpleLogger.d(getClass(), "Invalid value for " + property + " : " + p);
+            }
+        }
+        return defaultValue;
+    }
+
 }
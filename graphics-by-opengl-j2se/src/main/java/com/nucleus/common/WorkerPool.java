@@ -0,0 +1,227 @@
+package com.nucleus.common;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.nucleus.SimpleLogger;
+
+/**
+ * Pool of worker threads for cpu and io bound work that does not need the render (GL) thread, for instance
+ * loading of binary buffers and images.
+ * Threads are daemon threads so the pool does not need to be shut down when the application exits.
+ * Singleton class - fetch using {@link #getInstance()}
+ *
+ */
+public class WorkerPool {
+
+    private static final String THREAD_NAME = "nucleus-worker-";
+    private static final String TASK_THREAD_NAME = "nucleus-task-";
+
+    private static WorkerPool workerPool;
+
+    private final ExecutorService executor;
+    /**
+     * Used for tasks that wait for work submitted to the worker threads
+     */
+    private final ExecutorService taskExecutor;
+    /**
+     * Used for cpu bound work that is split into ranges, see {@link #invokeRange(int, int, RangeWork)}
+     */
+    private final ForkJoinPool forkJoinPool;
+    private final int threadCount;
+
+    /**
+     * Work that is split into ranges of indexes, each range is computed by one thread.
+     * Implementations must only write data that belongs to the indexes in the range.
+     */
+    public interface RangeWork {
+        /**
+         * Computes the work for the indexes from start to end (exclusive)
+         * 
+         * @param start
+         * @param end
+         */
+        void compute(int start, int end);
+    }
+
+    /**
+     * Splits the range in half until the range is at most threshold indexes
+     */
+    private static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeWork work;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        private RangeAction(RangeWork work, int start, int end, int threshold) {
+            this.work = work;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= threshold) {
+                work.compute(start, end);
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RangeAction(work, start, middle, threshold),
+                        new RangeAction(work, middle, end, threshold));
+            }
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+        private final String name;
+
+        private DaemonThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, name + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private WorkerPool(int threadCount) {
+        this.threadCount = threadCount;
+        executor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory(THREAD_NAME));
+        taskExecutor = Executors.newCachedThreadPool(new DaemonThreadFactory(TASK_THREAD_NAME));
+        forkJoinPool = new ForkJoinPool(threadCount);
+        SimpleLogger.d(getClass(), "Created worker pool with " + threadCount + " threads");
+    }
+
+    /**
+     * Returns the worker pool instance, the pool is created the first time this method is called using one thread
+     * per available processor.
+     *
+     * @return
+     */
+    public static synchronized WorkerPool getInstance() {
+        if (workerPool == null) {
+            workerPool = new WorkerPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        }
+        return workerPool;
+    }
+
+    /**
+     * Returns the number of threads in the pool
+     *
+     * @return
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Submits a task to be executed by one of the worker threads
+     *
+     * @param task
+     * @return Future for the result of the task
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Submits a task to be executed by one of the worker threads
+     *
+     * @param task
+     * @return Future that is done when the task has run
+     */
+    public Future<?> submit(Runnable task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Submits a task that will itself submit work to the worker threads and wait for it, for instance loading
+     * of a complete asset. These tasks are not run by the worker threads, this is to avoid worker threads
+     * waiting for work that cannot be started.
+     *
+     * @param task
+     * @return Future for the result of the task
+     */
+    public <T> Future<T> submitTask(Callable<T> task) {
+        return taskExecutor.submit(task);
+    }
+
+    /**
+     * Computes the range of indexes from 0 to count (exclusive) by splitting the range until each part is at most
+     * threshold indexes, parts are computed in parallel by the fork/join threads.
+     * If count is not larger than threshold the work is computed by the calling thread.
+     * When called from a fork/join thread, for instance from work that is itself split into ranges, the parts are
+     * forked in the current pool.
+     * Returns when all parts are computed, an exception thrown by the work is rethrown.
+     * 
+     * @param count Number of indexes
+     * @param threshold Max number of indexes to compute in one part, must be 1 or larger
+     * @param work
+     */
+    public void invokeRange(int count, int threshold, RangeWork work) {
+        if (count <= threshold) {
+            if (count > 0) {
+                work.compute(0, count);
+            }
+            return;
+        }
+        RangeAction action = new RangeAction(work, 0, count, threshold);
+        if (ForkJoinTask.inForkJoinPool()) {
+            action.invoke();
+        } else {
+            forkJoinPool.invoke(action);
+        }
+    }
+
+    /**
+     * Waits for all futures to complete, if a task failed the first error is thrown after all tasks are done.
+     * Unchecked exceptions and errors are rethrown as is, other exceptions are thrown as IOException.
+     *
+     * @param futures
+     * @throws IOException If a task failed with a checked exception, or the calling thread was interrupted.
+     */
+    public static void waitFor(List<? extends Future<?>> futures) throws IOException {
+        Throwable error = null;
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+        if (error != null) {
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            }
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            throw new IOException(error);
+        }
+    }
+
+}
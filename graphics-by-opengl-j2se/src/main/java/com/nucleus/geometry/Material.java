@@ -1,6 +1,12 @@
 package com.nucleus.geometry;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.io.gson.StreamDeserializable;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.opengl.GLES20Wrapper;
 import com.nucleus.opengl.GLESWrapper.GLES20;
 
@@ -10,7 +16,7 @@ import com.nucleus.opengl.GLESWrapper.GLES20;
  * @author Richard Sahlin
  *
  */
-public class Material {
+public class Material implements StreamDeserializable {
 
     public static final String MATERIAL = "material";
 
@@ -235,4 +241,24 @@ public class Material {
         return "RGB:" + blendEquation[0] + ", ALPHA:" + blendEquation[1];
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case BLEND_EQUATION:
+                blendEquation = StreamTypeAdapterFactory.read(reader, gson, BlendEquation[].class);
+                return true;
+            case BLEND_FUNC:
+                blendFunction = StreamTypeAdapterFactory.read(reader, gson, BlendFunc[].class);
+                return true;
+            case EMISSIVE:
+                emissive = StreamTypeAdapterFactory.read(reader, gson, float[].class);
+                return true;
+            case DIFFUSE:
+                diffuse = StreamTypeAdapterFactory.read(reader, gson, float[].class);
+                return true;
+            default:
+                return false;
+        }
+    }
+
 }
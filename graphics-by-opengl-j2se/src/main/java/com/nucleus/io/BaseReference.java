@@ -1,7 +1,13 @@
 package com.nucleus.io;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.exporter.Reference;
+import com.nucleus.io.gson.StreamDeserializable;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 
 /**
  * Base reference implementation
@@ -11,7 +17,7 @@ import com.nucleus.exporter.Reference;
  * @author Richard Sahlin
  *
  */
-public class BaseReference implements Reference {
+public class BaseReference implements Reference, StreamDeserializable {
 
     public static final String ID = "id";
     public static final String EXTERNAL_REFERENCE = "externalReference";
@@ -93,4 +99,18 @@ public class BaseReference implements Reference {
         externalReference = ref;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case ID:
+                id = StreamTypeAdapterFactory.readString(reader);
+                return true;
+            case EXTERNAL_REFERENCE:
+                externalReference = StreamTypeAdapterFactory.read(reader, gson, ExternalReference.class);
+                return true;
+            default:
+                return false;
+        }
+    }
+
 }
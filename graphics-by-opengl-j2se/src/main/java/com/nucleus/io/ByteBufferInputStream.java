@@ -0,0 +1,60 @@
+package com.nucleus.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream that reads from a ByteBuffer, without copying the contents of the buffer.
+ * Use this to decode data that is already loaded, or mapped, for instance JSON or images inside a glb file.
+ * Reading will update the position of the buffer - use {@link ByteBuffer#duplicate()} or
+ * {@link ByteBuffer#slice()} if the buffer is shared.
+ *
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Creates a new inputstream that reads from the current position to limit of the buffer.
+     *
+     * @param buffer
+     */
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Null parameter");
+        }
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return buffer.hasRemaining() ? buffer.get() & 0x0ff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(len, buffer.remaining());
+        buffer.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return buffer.remaining();
+    }
+
+}
@@ -1,19 +1,23 @@
 package com.nucleus.io;
 
-import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import com.nucleus.common.BufferUtils;
 
@@ -26,6 +30,7 @@ import com.nucleus.common.BufferUtils;
 public class StreamUtils {
 
     private final static int DEFAULT_BUFFER_SIZE = 2048;
+    private final static String FILE_PROTOCOL = "file";
 
     /**
      * Encapsulates data read from BufferedInputStream
@@ -107,29 +112,21 @@ public class StreamUtils {
      * @throws IOException
      */
     public static byte[] readFromStream(InputStream in, int buffersize) throws IOException {
-        BufferedInputStream bis = new BufferedInputStream(in);
-        List<InputData> buffers = new ArrayList<InputData>();
-        int totalCount = 0;
+        byte[] data = new byte[Math.max(Math.max(buffersize, in.available()), 1)];
+        int total = 0;
         int count = 0;
-        byte[] buffer = new byte[buffersize];
-        StreamUtils util = new StreamUtils();
-        while ((count = bis.read(buffer)) != -1) {
-            totalCount += count;
-            buffers.add(util.new InputData(buffer, count));
-            buffer = new byte[buffersize];
-        }
-        byte[] data = new byte[totalCount];
-        int index = 0;
-        for (InputData b : buffers) {
-            System.arraycopy(b.getBuffer(), 0, data, index, b.getCount());
-            index += b.getCount();
-        }
-        return data;
+        while ((count = in.read(data, total, data.length - total)) != -1) {
+            total += count;
+            if (total == data.length) {
+                data = Arrays.copyOf(data, data.length << 1);
+            }
+        }
+        return total == data.length ? data : Arrays.copyOf(data, total);
     }
 
     /**
-     * Loads data from the filename, using ClassLoader and
-     * #getResourceAsStream(name)
+     * Loads data from the filename, if the name resolves to a file on the filesystem a FileChannel is used to
+     * read directly into the buffer, otherwise ClassLoader and #getResourceAsStream(name) is used.
      * 
      * @param name
      * @param buffer Reads into buffer at current position
@@ -138,15 +135,35 @@ public class StreamUtils {
      * @throws URISyntaxException
      */
     public static int readFromName(String name, ByteBuffer buffer) throws IOException, URISyntaxException {
+        File file = getFile(name);
+        if (file != null) {
+            FileInputStream fis = new FileInputStream(file);
+            try {
+                FileChannel channel = fis.getChannel();
+                int total = 0;
+                int read = 0;
+                while (buffer.hasRemaining() && (read = channel.read(buffer)) != -1) {
+                    total += read;
+                }
+                return total;
+            } finally {
+                fis.close();
+            }
+        }
         ClassLoader loader = StreamUtils.class.getClassLoader();
         InputStream is = loader.getResourceAsStream(name);
+        if (is == null) {
+            throw new FileNotFoundException(name);
+        }
         int loaded = readFromStream(is, buffer, buffer.limit() - buffer.position());
         is.close();
         return loaded;
     }
 
     /**
-     * Creates a bytebuffer and reads the specified file into
+     * Creates a bytebuffer with the contents of the specified file.
+     * If the file is on the filesystem it is memory mapped, otherwise (for instance inside a jar) the data is
+     * read into a newly created buffer.
      * 
      * @param name
      * @return
@@ -154,16 +171,73 @@ public class StreamUtils {
      * @throws URISyntaxException
      */
     public static ByteBuffer readBufferFromName(String name) throws IOException, URISyntaxException {
+        ByteBuffer buffer = mapFromName(name, -1);
+        if (buffer != null) {
+            return buffer;
+        }
         ClassLoader loader = StreamUtils.class.getClassLoader();
-        URL url = loader.getResource(name);
-        if (url == null) {
+        InputStream is = loader.getResourceAsStream(name);
+        if (is == null) {
             throw new IllegalArgumentException("Could not open " + name);
         }
-        File file = new File(loader.getResource(name).toURI());
-        ByteBuffer buffer = BufferUtils.createByteBuffer((int) file.length());
-        buffer.position(0);
-        readFromName(name, buffer);
-        return buffer;
+        try {
+            byte[] data = readFromStream(is);
+            buffer = BufferUtils.createByteBuffer(data.length);
+            buffer.put(data);
+            buffer.position(0);
+            return buffer;
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Returns the file for the resource name, if the resource is a file on the filesystem.
+     * 
+     * @param name Name of resource, as used with ClassLoader
+     * @return The file or null if the resource cannot be found or is not on the filesystem, eg inside a jar.
+     * @throws URISyntaxException
+     */
+    public static File getFile(String name) throws URISyntaxException {
+        URL url = StreamUtils.class.getClassLoader().getResource(name);
+        if (url == null || !FILE_PROTOCOL.equals(url.getProtocol())) {
+            return null;
+        }
+        File file = new File(url.toURI());
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Memory maps the resource, this will only work if the resource is a file on the filesystem.
+     * The mapping is read only, copy the data into a new buffer if it shall be changed.
+     * Byte order of the returned buffer is nativeOrder.
+     * Use this for large assets, such as binary glTF buffers, to avoid copying data into a new buffer.
+     * 
+     * @param name Name of resource, as used with ClassLoader
+     * @param length Number of bytes to map, or -1 to map the whole file. If larger than the file then the whole
+     * file is mapped.
+     * @return The read only mapped buffer, positioned at 0, or null if resource is not a file on the filesystem - use
+     * {@link #readFromName(String, ByteBuffer)} to read the resource.
+     * @throws IOException
+     * @throws URISyntaxException
+     */
+    public static ByteBuffer mapFromName(String name, int length) throws IOException, URISyntaxException {
+        File file = getFile(name);
+        if (file == null || !file.canRead()) {
+            return null;
+        }
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (length >= 0 && length < size) {
+                size = length;
+            }
+            // Mapping stays valid after the channel is closed
+            return channel.map(MapMode.READ_ONLY, 0, size).order(ByteOrder.nativeOrder());
+        } finally {
+            raf.close();
+        }
     }
 
     /**
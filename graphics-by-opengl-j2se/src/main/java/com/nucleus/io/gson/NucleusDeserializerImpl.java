@@ -4,22 +4,32 @@ import java.lang.reflect.Type;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.InstanceCreator;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
 import com.nucleus.bounds.Bounds;
+import com.nucleus.geometry.Material;
 import com.nucleus.io.GSONSceneFactory;
 import com.nucleus.scene.AbstractNode.NodeTypes;
 import com.nucleus.scene.Node;
+import com.nucleus.scene.RootNodeImpl;
 import com.nucleus.vecmath.Shape;
 
 /**
  * Implementation of graphics-by-opengl node deserialization for {@link Node} base scenes.
  * This shall return the correct Node implementations for graphics-by-opengl.
- * If subclasses register a different deserializer they must make sure to call super.
- * {@link #deserialize(JsonElement, Type, JsonDeserializationContext)}
+ * Nodes are read from the JSON stream by {@link NodeAdapter}, the node classes, {@link RootNodeImpl} and
+ * {@link Material} are registered with {@link #streamAdapters} so that they are read without reflection.
+ * Subclasses that add node types shall register the classes with {@link #streamAdapters}, classes that are not
+ * registered are deserialized by gson.
+ * {@link #deserialize(JsonElement, Type, JsonDeserializationContext)} can be used to deserialize nodes from
+ * a JSON tree.
  * 
  * Avoid using directly use {@link GSONSceneFactory} instead
  * 
@@ -32,15 +42,69 @@ public class NucleusDeserializerImpl extends AbstractNucleusDeserializerImpl<Nod
 
     protected BoundsDeserializer boundsDeserializer = new BoundsDeserializer();
     protected ShapeDeserializer shapeDeserializer = new ShapeDeserializer();
+    /**
+     * The classes that are read from the JSON stream
+     */
+    protected StreamTypeAdapterFactory streamAdapters = new StreamTypeAdapterFactory();
+
+    /**
+     * Reads nodes from the JSON stream, the node class is resolved using the type of the node.
+     */
+    protected class NodeAdapter extends PolymorphicTypeAdapter<Node> {
+
+        protected NodeAdapter(Gson gson) {
+            super(gson, streamAdapters, Node.class, NucleusDeserializer.NODETYPE_JSON_KEY);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected Class<? extends Node> getTypeClass(String typeName) {
+            return (Class<? extends Node>) nodeResolver.getTypeClass(typeName);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected void setType(Node node, String typeName) {
+            node.setType((com.nucleus.common.Type<Node>) nodeResolver.getType(typeName));
+        }
+
+        @Override
+        protected void postDeserialize(Node node) {
+            NucleusDeserializerImpl.this.postDeserialize(node);
+        }
+
+    }
 
     public NucleusDeserializerImpl() {
         addNodeTypes(NodeTypes.values());
+        for (NodeTypes type : NodeTypes.values()) {
+            streamAdapters.register(type.theClass, type);
+        }
+        streamAdapters.register(RootNodeImpl.class, new InstanceCreator<RootNodeImpl>() {
+            @Override
+            public RootNodeImpl createInstance(Type type) {
+                return new RootNodeImpl();
+            }
+        });
+        streamAdapters.register(Material.class, new InstanceCreator<Material>() {
+            @Override
+            public Material createInstance(Type type) {
+                return new Material();
+            }
+        });
     }
 
     @Override
     public void registerTypeAdapter(GsonBuilder builder) {
         builder.registerTypeAdapter(Bounds.class, boundsDeserializer);
-        builder.registerTypeAdapter(Node.class, this);
+        builder.registerTypeAdapterFactory(streamAdapters);
+        builder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                return type.getRawType() == Node.class ? (TypeAdapter<T>) new NodeAdapter(gson) : null;
+            }
+        });
         builder.registerTypeAdapter(Shape.class, shapeDeserializer);
     }
 
@@ -0,0 +1,154 @@
+package com.nucleus.io.gson;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.nucleus.io.gson.StreamTypeAdapterFactory.StreamTypeAdapter;
+
+/**
+ * Type adapter for a base class where the implementation class is selected by a type property in the JSON object,
+ * for instance the node type.
+ * Objects of classes registered with the {@link StreamTypeAdapterFactory} are read from the stream, the
+ * properties that come before the type property are buffered. This means the object is read in one pass when the
+ * type is the first property.
+ * Objects of other classes are read into a JSON tree that is deserialized by the gson adapter for the class.
+ *
+ * @param <T> The base class
+ */
+public abstract class PolymorphicTypeAdapter<T> extends TypeAdapter<T> {
+
+    protected final Gson gson;
+    private final Class<T> baseType;
+    private final String typeKey;
+    /**
+     * Adapter for the base class when it is registered with the stream adapter factory, gson would return this
+     * adapter for the base class.
+     */
+    private final TypeAdapter<T> baseAdapter;
+    private final JsonParser parser = new JsonParser();
+
+    /**
+     * Creates the adapter for the base class
+     *
+     * @param gson
+     * @param streamAdapters The factory where the stream deserializable classes are registered
+     * @param baseType The base class that this adapter is registered for
+     * @param typeKey Name of the property that holds the type
+     */
+    protected PolymorphicTypeAdapter(Gson gson, StreamTypeAdapterFactory streamAdapters, Class<T> baseType,
+            String typeKey) {
+        this.gson = gson;
+        this.baseType = baseType;
+        this.typeKey = typeKey;
+        baseAdapter = streamAdapters.create(gson, TypeToken.get(baseType));
+    }
+
+    /**
+     * Returns the implementation class for the value of the type property
+     *
+     * @param typeName Value of the type property
+     * @return The class to deserialize
+     * @throws IllegalArgumentException If the type is not known
+     */
+    protected abstract Class<? extends T> getTypeClass(String typeName);
+
+    /**
+     * Called when an object of a stream deserializable class has been created, before the properties are read.
+     * The type property is not read by the object, subclasses shall set the type if it is stored in the object.
+     *
+     * @param value
+     * @param typeName Value of the type property
+     */
+    protected void setType(T value, String typeName) {
+    }
+
+    /**
+     * Called when an object has been deserialized
+     *
+     * @param value
+     */
+    protected void postDeserialize(T value) {
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (StreamTypeAdapterFactory.nextNull(in)) {
+            return null;
+        }
+        in.beginObject();
+        JsonObject preceding = null;
+        String typeName = null;
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (typeKey.equals(name)) {
+                typeName = StreamTypeAdapterFactory.readString(in);
+                break;
+            }
+            if (preceding == null) {
+                preceding = new JsonObject();
+            }
+            preceding.add(name, parser.parse(in));
+        }
+        if (typeName == null) {
+            throw new IllegalArgumentException(baseType.getSimpleName() + " does not contain: " + typeKey);
+        }
+        TypeAdapter<? extends T> adapter = getAdapter(getTypeClass(typeName));
+        T value;
+        if (adapter instanceof StreamTypeAdapter) {
+            StreamTypeAdapter<StreamDeserializable> streamAdapter = (StreamTypeAdapter<StreamDeserializable>) adapter;
+            StreamDeserializable object = streamAdapter.create();
+            value = (T) object;
+            setType(value, typeName);
+            if (preceding != null) {
+                for (Map.Entry<String, JsonElement> entry : preceding.entrySet()) {
+                    object.readProperty(entry.getKey(),
+                            new JsonReader(new StringReader(entry.getValue().toString())), gson);
+                }
+            }
+            streamAdapter.readProperties(in, object);
+            in.endObject();
+        } else {
+            JsonObject json = preceding != null ? preceding : new JsonObject();
+            json.addProperty(typeKey, typeName);
+            while (in.hasNext()) {
+                json.add(in.nextName(), parser.parse(in));
+            }
+            in.endObject();
+            value = adapter.fromJsonTree(json);
+        }
+        postDeserialize(value);
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        ((TypeAdapter<T>) getAdapter(value.getClass())).write(out, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<? extends T> getAdapter(Class<?> type) {
+        if (type == baseType) {
+            if (baseAdapter == null) {
+                throw new IllegalArgumentException("No adapter for " + baseType.getName());
+            }
+            return baseAdapter;
+        }
+        return (TypeAdapter<? extends T>) gson.getAdapter(type);
+    }
+
+}
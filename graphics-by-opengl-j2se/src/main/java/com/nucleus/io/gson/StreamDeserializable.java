@@ -0,0 +1,28 @@
+package com.nucleus.io.gson;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * Interface for objects that read their own properties from a JSON stream, this is used by
+ * {@link StreamTypeAdapterFactory} to deserialize objects without reflection based field binding.
+ * Implementations shall read the properties that are declared in the class and call super for other properties.
+ *
+ */
+public interface StreamDeserializable {
+
+    /**
+     * Reads the value of one property, the name of the property has been read from the reader.
+     *
+     * @param property The name of the property
+     * @param reader The reader positioned at the value of the property
+     * @param gson The gson instance to use for values that are not read by the object, eg enums and nested objects.
+     * @return True if the value of the property was read, false if the property is not known - the value shall
+     * then be skipped by the caller.
+     * @throws IOException If the value cannot be read
+     */
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException;
+
+}
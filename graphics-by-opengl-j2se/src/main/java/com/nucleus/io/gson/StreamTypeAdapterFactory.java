@@ -0,0 +1,193 @@
+package com.nucleus.io.gson;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.InstanceCreator;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Factory for type adapters that read objects implementing {@link StreamDeserializable} directly from the
+ * JSON stream, the classes are registered together with the {@link InstanceCreator} used to create the objects.
+ * This replaces the reflection based field binding of gson for the registered classes, only the exact registered
+ * classes are handled - subclasses that are not registered are deserialized by gson as before.
+ * Serialization is done by the gson reflective adapter.
+ * The result is the same as when gson binds the fields, default values are kept if a property is not present and
+ * a JSON null sets objects to null while primitive values are not changed.
+ *
+ */
+public class StreamTypeAdapterFactory implements TypeAdapterFactory {
+
+    /**
+     * Adapter for one registered class
+     *
+     * @param <T>
+     */
+    public class StreamTypeAdapter<T extends StreamDeserializable> extends TypeAdapter<T> {
+
+        private final Gson gson;
+        private final TypeToken<T> type;
+        private final InstanceCreator<T> creator;
+        private TypeAdapter<T> writer;
+
+        private StreamTypeAdapter(Gson gson, TypeToken<T> type, InstanceCreator<T> creator) {
+            this.gson = gson;
+            this.type = type;
+            this.creator = creator;
+        }
+
+        /**
+         * Creates a new instance of the class
+         *
+         * @return
+         */
+        public T create() {
+            return creator.createInstance(type.getType());
+        }
+
+        /**
+         * Reads the properties of an object into the value, the reader shall be positioned at the first property
+         * or at the end of the object. The end of the object is not consumed.
+         *
+         * @param reader
+         * @param value
+         * @return The value
+         * @throws IOException
+         */
+        public T readProperties(JsonReader reader, T value) throws IOException {
+            while (reader.hasNext()) {
+                if (!value.readProperty(reader.nextName(), reader, gson)) {
+                    reader.skipValue();
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public T read(JsonReader reader) throws IOException {
+            if (nextNull(reader)) {
+                return null;
+            }
+            reader.beginObject();
+            T value = readProperties(reader, create());
+            reader.endObject();
+            return value;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (writer == null) {
+                writer = gson.getDelegateAdapter(StreamTypeAdapterFactory.this, type);
+            }
+            writer.write(out, value);
+        }
+
+    }
+
+    private final HashMap<Class<?>, InstanceCreator<?>> creators = new HashMap<>();
+
+    /**
+     * Registers a class that shall be read using a {@link StreamTypeAdapter}, the class must implement
+     * {@link StreamDeserializable}
+     *
+     * @param type The class to register
+     * @param creator Creates instances of the class
+     * @throws IllegalArgumentException If type does not implement {@link StreamDeserializable}
+     */
+    public void register(Class<?> type, InstanceCreator<?> creator) {
+        if (!StreamDeserializable.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Class does not implement StreamDeserializable: " + type.getName());
+        }
+        creators.put(type, creator);
+    }
+
+    /**
+     * Returns true if the class has been registered with this factory
+     *
+     * @param type
+     * @return
+     */
+    public boolean isRegistered(Class<?> type) {
+        return creators.containsKey(type);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        InstanceCreator<?> creator = creators.get(type.getRawType());
+        if (creator == null) {
+            return null;
+        }
+        return new StreamTypeAdapter(gson, type, creator);
+    }
+
+    /**
+     * Returns true and consumes the value if the next value is the JSON null
+     */
+    public static boolean nextNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string, or null
+     */
+    public static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /**
+     * Reads a boolean value, if the value is null then the current value is returned.
+     */
+    public static boolean readBoolean(JsonReader reader, boolean value) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return value;
+            case STRING:
+                return Boolean.parseBoolean(reader.nextString());
+            default:
+                return reader.nextBoolean();
+        }
+    }
+
+    /**
+     * Reads an int value, if the value is null then the current value is returned.
+     */
+    public static int readInt(JsonReader reader, int value) throws IOException {
+        return nextNull(reader) ? value : reader.nextInt();
+    }
+
+    /**
+     * Reads a value using the gson adapter for the class, use this for enums and nested objects.
+     */
+    public static <V> V read(JsonReader reader, Gson gson, Class<V> type) throws IOException {
+        return gson.getAdapter(type).read(reader);
+    }
+
+    /**
+     * Reads a value using the gson adapter for the type, use this for generic collections.
+     * The type token shall be a constant since creating type tokens uses reflection.
+     */
+    public static <V> V read(JsonReader reader, Gson gson, TypeToken<V> type) throws IOException {
+        return gson.getAdapter(type).read(reader);
+    }
+
+}
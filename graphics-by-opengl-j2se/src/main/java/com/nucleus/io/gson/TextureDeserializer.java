@@ -9,6 +9,9 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
 import com.nucleus.assets.Assets;
 import com.nucleus.scene.Node;
 import com.nucleus.texturing.Texture2D;
@@ -16,11 +19,46 @@ import com.nucleus.texturing.TextureType;
 
 /**
  * Serializer for texture objects read from JSON
+ * The texture classes are read from the JSON stream by {@link TextureAdapter}, the implementation class is
+ * resolved using the {@link TextureType}.
  * DO NOT USE THIS CLASS DIRECTLY - go through {@link Assets} to handle textures
  *
  */
 public class TextureDeserializer extends AbstractNucleusDeserializerImpl<Node> implements JsonDeserializer<Texture2D> {
 
+    /**
+     * The texture classes that are read from the JSON stream
+     */
+    protected StreamTypeAdapterFactory streamAdapters = new StreamTypeAdapterFactory();
+
+    /**
+     * Reads textures from the JSON stream
+     */
+    protected class TextureAdapter extends PolymorphicTypeAdapter<Texture2D> {
+
+        protected TextureAdapter(Gson gson) {
+            super(gson, streamAdapters, Texture2D.class, Texture2D.TEXTURETYPE);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected Class<? extends Texture2D> getTypeClass(String typeName) {
+            return (Class<? extends Texture2D>) TextureType.valueOf(typeName).getImplementation();
+        }
+
+        @Override
+        protected void postDeserialize(Texture2D texture) {
+            TextureDeserializer.this.postDeserialize(texture);
+        }
+
+    }
+
+    public TextureDeserializer() {
+        for (TextureType type : TextureType.values()) {
+            streamAdapters.register(type.getImplementation(), type);
+        }
+    }
+
     @Override
     public Texture2D deserialize(JsonElement json, Type type, JsonDeserializationContext context)
             throws JsonParseException {
@@ -37,7 +75,14 @@ public class TextureDeserializer extends AbstractNucleusDeserializerImpl<Node> i
 
     @Override
     public void registerTypeAdapter(GsonBuilder builder) {
-        // No need to register any adapter
+        builder.registerTypeAdapterFactory(streamAdapters);
+        builder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                return type.getRawType() == Texture2D.class ? (TypeAdapter<T>) new TextureAdapter(gson) : null;
+            }
+        });
     }
 
 }
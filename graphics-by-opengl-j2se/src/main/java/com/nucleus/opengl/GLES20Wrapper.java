@@ -412,7 +412,8 @@ public abstract class GLES20Wrapper extends GLESWrapper {
     }
 
     /**
-     * Binds an accessor to a shader variable
+     * Binds an accessor to a shader variable, the component type and normalized flag of the accessor are used so
+     * that quantized attributes (KHR_mesh_quantization) are read as float values by the shader.
      * 
      * @param accessor
      * @param attribute
@@ -439,7 +440,7 @@ public abstract class GLES20Wrapper extends GLESWrapper {
             ByteBuffer bb = accessor.getBuffer();
             glVertexAttribPointer(location, t.size, ct.value, normalized, view.getByteStride(), bb);
         }
-        GLUtils.handleError(this, "VertexAttribPointer for attribute location: " + attribute.getLocation());
+        GLUtils.handleError(this, "VertexAttribPointer for attribute location: ", attribute.getLocation());
     }
 
     /**
@@ -3,7 +3,7 @@ package com.nucleus.opengl;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 import com.nucleus.opengl.shader.NamedShaderVariable;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
 import com.nucleus.renderer.RendererInfo.Version;
@@ -50,26 +50,40 @@ public abstract class GLES30Wrapper extends GLES20Wrapper {
             return null;
         }
         InterfaceBlock[] uniformBlock = new InterfaceBlock[info.getActiveVariables(VariableType.UNIFORM_BLOCK)];
-        IntBuffer blockInfo = BufferUtils.createIntBuffer(4);
-        for (int i = 0; i < uniformBlock.length; i++) {
-            // GL_UNIFORM_BLOCK_ACTIVE_UNIFORMS
-            int program = info.getProgram();
-            blockInfo.position(InterfaceBlock.ACTIVE_COUNT_INDEX);
-            glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_ACTIVE_UNIFORMS, blockInfo);
-            if (blockInfo.get(0) > 0) {
-                IntBuffer indices = BufferUtils.createIntBuffer(blockInfo.get(0));
-                glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_ACTIVE_UNIFORM_INDICES, indices);
-                blockInfo.position(InterfaceBlock.BLOCK_DATA_SIZE_INDEX);
-                glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_DATA_SIZE, blockInfo);
-                blockInfo.position(InterfaceBlock.VERTEX_REFERENCE_INDEX);
-                glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_REFERENCED_BY_VERTEX_SHADER, blockInfo);
-                blockInfo.position(InterfaceBlock.FRAGMENT_REFERENCE_INDEX);
-                glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_REFERENCED_BY_FRAGMENT_SHADER, blockInfo);
-                // Block name is fetched using blockIndex so we know the blockIndex to be
-                // correct.
-                uniformBlock[i] = new InterfaceBlock(info.getProgram(), i,
-                        glGetActiveUniformBlockName(info.getProgram(), i), blockInfo, indices);
+        BufferArena arena = BufferArena.getInstance();
+        ByteBuffer blockData = arena.allocate(4 * 4);
+        try {
+            IntBuffer blockInfo = blockData.asIntBuffer();
+            for (int i = 0; i < uniformBlock.length; i++) {
+                // GL_UNIFORM_BLOCK_ACTIVE_UNIFORMS
+                int program = info.getProgram();
+                blockInfo.position(InterfaceBlock.ACTIVE_COUNT_INDEX);
+                glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_ACTIVE_UNIFORMS, blockInfo);
+                if (blockInfo.get(0) > 0) {
+                    ByteBuffer indexData = arena.allocate(blockInfo.get(0) * 4);
+                    try {
+                        IntBuffer indices = indexData.asIntBuffer();
+                        glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_ACTIVE_UNIFORM_INDICES,
+                                indices);
+                        blockInfo.position(InterfaceBlock.BLOCK_DATA_SIZE_INDEX);
+                        glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_DATA_SIZE, blockInfo);
+                        blockInfo.position(InterfaceBlock.VERTEX_REFERENCE_INDEX);
+                        glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_REFERENCED_BY_VERTEX_SHADER,
+                                blockInfo);
+                        blockInfo.position(InterfaceBlock.FRAGMENT_REFERENCE_INDEX);
+                        glGetActiveUniformBlockiv(program, i, GLES30.GL_UNIFORM_BLOCK_REFERENCED_BY_FRAGMENT_SHADER,
+                                blockInfo);
+                        // Block name is fetched using blockIndex so we know the blockIndex to be
+                        // correct.
+                        uniformBlock[i] = new InterfaceBlock(info.getProgram(), i,
+                                glGetActiveUniformBlockName(info.getProgram(), i), blockInfo, indices);
+                    } finally {
+                        arena.free(indexData);
+                    }
+                }
             }
+        } finally {
+            arena.free(blockData);
         }
         return uniformBlock;
     }
@@ -4,11 +4,24 @@ import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
+import java.util.List;
 
+import com.nucleus.common.BufferUtils;
+import com.nucleus.common.StringUtils;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
 
 public abstract class GLES32Wrapper extends GLES31Wrapper {
 
+    private static final int DEBUG_MESSAGE_COUNT = 16;
+    private static final int DEBUG_LOG_SIZE = 16 * 1024;
+
+    private ByteBuffer debugMessageLog;
+    private IntBuffer debugSources;
+    private IntBuffer debugTypes;
+    private IntBuffer debugIds;
+    private IntBuffer debugSeverities;
+    private IntBuffer debugLengths;
+
     /**
      * Implementation constructor - DO NOT USE!!!
      * TODO - protect/hide this constructor
@@ -20,6 +33,58 @@ public abstract class GLES32Wrapper extends GLES31Wrapper {
         super(platform, renderVersion == null ? Renderers.GLES32 : renderVersion);
     }
 
+    @Override
+    protected boolean enableDebugOutput(boolean enable) {
+        if (enable) {
+            glEnable(GLES32.GL_DEBUG_OUTPUT);
+            glDebugMessageControl(GLES20.GL_DONT_CARE, GLES20.GL_DONT_CARE, GLES20.GL_DONT_CARE, 0, null, true);
+            // Notifications are only informative, do not fill the log with them.
+            glDebugMessageControl(GLES20.GL_DONT_CARE, GLES20.GL_DONT_CARE, GLES32.GL_DEBUG_SEVERITY_NOTIFICATION, 0,
+                    null, false);
+        } else {
+            glDisable(GLES32.GL_DEBUG_OUTPUT);
+        }
+        return glGetError() == GLES20.GL_NO_ERROR;
+    }
+
+    @Override
+    public int getDebugMessages(List<String> messages) {
+        if (debugMessageLog == null) {
+            debugMessageLog = BufferUtils.createByteBuffer(DEBUG_LOG_SIZE);
+            debugSources = BufferUtils.createIntBuffer(DEBUG_MESSAGE_COUNT);
+            debugTypes = BufferUtils.createIntBuffer(DEBUG_MESSAGE_COUNT);
+            debugIds = BufferUtils.createIntBuffer(DEBUG_MESSAGE_COUNT);
+            debugSeverities = BufferUtils.createIntBuffer(DEBUG_MESSAGE_COUNT);
+            debugLengths = BufferUtils.createIntBuffer(DEBUG_MESSAGE_COUNT);
+        }
+        int errors = 0;
+        int count = 0;
+        do {
+            debugMessageLog.clear();
+            debugSources.clear();
+            debugTypes.clear();
+            debugIds.clear();
+            debugSeverities.clear();
+            debugLengths.clear();
+            count = glGetDebugMessageLog(DEBUG_MESSAGE_COUNT, DEBUG_LOG_SIZE, debugSources, debugTypes, debugIds,
+                    debugSeverities, debugLengths, debugMessageLog);
+            int offset = 0;
+            for (int i = 0; i < count; i++) {
+                int length = debugLengths.get(i);
+                byte[] message = new byte[Math.max(0, length - 1)];
+                debugMessageLog.position(offset);
+                debugMessageLog.get(message);
+                offset += length;
+                if (debugTypes.get(i) == GLES32.GL_DEBUG_TYPE_ERROR) {
+                    errors++;
+                }
+                messages.add("GLDebug id " + debugIds.get(i) + ", type " + debugTypes.get(i) + ", severity "
+                        + debugSeverities.get(i) + " : " + StringUtils.createString(message, 0, message.length));
+            }
+        } while (count == DEBUG_MESSAGE_COUNT);
+        return errors;
+    }
+
     /**
      * 
      * @param mode
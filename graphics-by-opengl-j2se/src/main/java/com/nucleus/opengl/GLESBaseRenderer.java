@@ -13,10 +13,13 @@ import com.nucleus.Pipeline;
 import com.nucleus.SimpleLogger;
 import com.nucleus.assets.Assets;
 import com.nucleus.common.Constants;
+import com.nucleus.common.Environment;
+import com.nucleus.common.Environment.Property;
 import com.nucleus.geometry.AttributeBuffer;
 import com.nucleus.geometry.AttributeUpdater.BufferIndex;
 import com.nucleus.geometry.ElementBuffer;
 import com.nucleus.geometry.Mesh;
+import com.nucleus.opengl.GLESWrapper.ErrorPolicy;
 import com.nucleus.opengl.GLESWrapper.GLES20;
 import com.nucleus.opengl.GLESWrapper.GLES_EXTENSION_TOKENS;
 import com.nucleus.opengl.assets.GLAssetManager;
@@ -79,6 +82,15 @@ public class GLESBaseRenderer extends BaseRenderer {
         }
         gles = (GLES20Wrapper) backend;
         gles.createInfo();
+        String policy = Environment.getInstance().getProperty(Property.GL_ERROR_POLICY);
+        if (policy != null && policy.trim().length() > 0) {
+            try {
+                gles.setErrorPolicy(ErrorPolicy.valueOf(policy.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                SimpleLogger.d(getClass(), "Invalid value for " + Property.GL_ERROR_POLICY.key + ": " + policy
+                        + ", using " + gles.getErrorPolicy());
+            }
+        }
         bufferFactory = new GLESBufferFactory(gles);
         assetManager = new GLAssetManager(gles);
     }
@@ -134,6 +146,11 @@ public class GLESBaseRenderer extends BaseRenderer {
 
     @Override
     public void endFrame() {
+        try {
+            GLUtils.handleFrameErrors(gles);
+        } catch (GLException e) {
+            SimpleLogger.d(getClass(), e.getMessage());
+        }
     }
 
     @Override
@@ -472,14 +489,14 @@ public class GLESBaseRenderer extends BaseRenderer {
 
     @Override
     public void render(RootNode root) throws BackendException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         List<Node> scene = root.getChildren();
         if (scene != null) {
             for (Node node : scene) {
                 render((RenderableNode<?>) node);
             }
         }
-        timeKeeper.addTag(FrameSampler.Samples.RENDERNODES, start, System.currentTimeMillis());
+        timeKeeper.addNanos(FrameSampler.Samples.RENDERNODES.getId(), start, System.nanoTime());
     }
 
     @Override
@@ -571,6 +588,8 @@ public class GLESBaseRenderer extends BaseRenderer {
             gles.glBindTexture(GLES20.GL_TEXTURE_2D, textureID);
             gles.uploadTexParameters(texture);
             GLUtils.handleError(gles, "glBindTexture()");
+        }
+        if (accessor != null && attribute != null) {
             gles.glVertexAttribPointer(accessor, attribute);
             // gles.glUniform1iv(texUniform.getLocation(), texUniform.getSize(), samplerUniformBuffer);
             // GLUtils.handleError(gles, "glUniform1iv - " + attribute.getLocation());
@@ -654,7 +673,7 @@ public class GLESBaseRenderer extends BaseRenderer {
                 GLUtils.handleError(gles, "glBindBuffer");
                 gles.glDrawElements(modeValue, indices.getCount(), indices.getComponentType().value,
                         indices.getByteOffset() + indicesView.getByteOffset());
-                GLUtils.handleError(gles, "glDrawElements VBO " + buffer.getBufferName());
+                GLUtils.handleError(gles, "glDrawElements VBO ", buffer.getBufferName());
             } else {
                 gles.glDrawElements(modeValue, indices.getCount(), indices.getComponentType().value,
                         indices.getBuffer());
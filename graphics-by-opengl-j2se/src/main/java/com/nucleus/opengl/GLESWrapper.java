@@ -1,6 +1,7 @@
 package com.nucleus.opengl;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.StringTokenizer;
 
 import com.nucleus.Backend;
@@ -62,6 +63,31 @@ public abstract class GLESWrapper extends Backend {
 
     }
 
+    /**
+     * How GL errors are checked, calling glGetError may force the driver to sync the pipeline so checking errors
+     * after every call can dominate CPU time.
+     *
+     */
+    public enum ErrorPolicy {
+        /**
+         * glGetError is called after each checked GL call - this is the default
+         */
+        PER_CALL(),
+        /**
+         * glGetError is called once per frame, at endFrame.
+         */
+        FRAME(),
+        /**
+         * Errors are reported using KHR_debug output, messages are fetched at endFrame. If debug output is not
+         * supported by the context then this is the same as {@link #FRAME}
+         */
+        DEBUG_OUTPUT(),
+        /**
+         * No error checking
+         */
+        OFF();
+    }
+
     public class ProgramInfo {
         private int program;
         private int[] activeVariables;
@@ -107,6 +133,7 @@ public abstract class GLESWrapper extends Backend {
      * Must be set by implementing classes
      */
     protected final Renderers renderVersion;
+    protected ErrorPolicy errorPolicy = ErrorPolicy.PER_CALL;
 
     protected GLESWrapper(Platform platform, Renderers renderVersion) {
         super(renderVersion);
@@ -115,6 +142,60 @@ public abstract class GLESWrapper extends Backend {
         SimpleLogger.d(getClass(), "Created GLES wrapper " + renderVersion + " for platform " + platform);
     }
 
+    /**
+     * Sets the policy for checking GL errors, if {@link ErrorPolicy#DEBUG_OUTPUT} is not supported then
+     * {@link ErrorPolicy#FRAME} is used.
+     * Must be called on the GL thread.
+     * 
+     * @param policy
+     * @return The error policy that is used
+     */
+    public ErrorPolicy setErrorPolicy(ErrorPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Null parameter");
+        }
+        if (errorPolicy == ErrorPolicy.DEBUG_OUTPUT && policy != ErrorPolicy.DEBUG_OUTPUT) {
+            enableDebugOutput(false);
+        }
+        if (policy == ErrorPolicy.DEBUG_OUTPUT && !enableDebugOutput(true)) {
+            SimpleLogger.d(getClass(), "Debug output not supported, using " + ErrorPolicy.FRAME);
+            policy = ErrorPolicy.FRAME;
+        }
+        errorPolicy = policy;
+        SimpleLogger.d(getClass(), "Error policy set to " + errorPolicy);
+        return errorPolicy;
+    }
+
+    /**
+     * Returns the policy for checking GL errors
+     * 
+     * @return
+     */
+    public ErrorPolicy getErrorPolicy() {
+        return errorPolicy;
+    }
+
+    /**
+     * Enables or disables debug output (KHR_debug), implementations that support debug output shall override this
+     * method.
+     * 
+     * @param enable
+     * @return True if debug output is supported
+     */
+    protected boolean enableDebugOutput(boolean enable) {
+        return false;
+    }
+
+    /**
+     * Fetches the logged debug messages, implementations that support debug output shall override this method.
+     * 
+     * @param messages Logged messages are added here
+     * @return Number of messages with type error, this is the number of GL errors.
+     */
+    public int getDebugMessages(List<String> messages) {
+        return 0;
+    }
+
     /**
      * Must match the values in {@link DepthFunc}
      */
@@ -3,8 +3,8 @@ package com.nucleus.opengl;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -14,7 +14,7 @@ import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
 import com.nucleus.SimpleLogger;
 import com.nucleus.assets.Assets;
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 import com.nucleus.common.Constants;
 import com.nucleus.common.Environment;
 import com.nucleus.geometry.AttributeBuffer;
@@ -131,6 +131,18 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
      */
     protected VariableIndexer variableIndexer;
     protected BufferIndex defaultDynamicAttribBuffer = BufferIndex.ATTRIBUTES_STATIC;
+    /**
+     * Active attributes indexed by {@link Attributes} ordinal, resolved when program is linked.
+     */
+    transient protected NamedShaderVariable[] attributeHandles;
+    /**
+     * Active uniforms indexed by {@link Attributes} ordinal, resolved when program is linked.
+     */
+    transient protected NamedShaderVariable[] uniformHandles;
+    /**
+     * Active samplers indexed by {@link Sampler} ordinal, resolved when program is linked.
+     */
+    transient protected NamedShaderVariable[] samplerHandles;
 
     /**
      * Internal constructor - do not call directly, use
@@ -148,7 +160,7 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
     @Override
     public void enable(NucleusRenderer renderer) throws BackendException {
         gles.glUseProgram(program);
-        GLUtils.handleError(gles, "glUseProgram " + program);
+        GLUtils.handleError(gles, "glUseProgram ", program);
         // TODO - is this the best place for this check - remember, this should only be
         // done in debug cases.
         if (Environment.getInstance().isProperty(com.nucleus.common.Environment.Property.DEBUG, false) && !validatedPrograms.contains(program)) {
@@ -194,7 +206,7 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
             throws BackendException {
         for (int i = 0; i < attribs.size(); i++) {
             Accessor accessor = accessors.get(i);
-            NamedShaderVariable v = getAttributeByName(attribs.get(i).name());
+            NamedShaderVariable v = attributeHandles[attribs.get(i).ordinal()];
             if (v != null) {
                 gles.glVertexAttribPointer(accessor, v);
             } else {
@@ -219,6 +231,40 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
         return getVariableByName(attribute, activeAttributes);
     }
 
+    @Override
+    public NamedShaderVariable getAttribute(Attributes attribute) {
+        return attributeHandles[attribute.ordinal()];
+    }
+
+    @Override
+    public NamedShaderVariable getUniform(Attributes uniform) {
+        return uniformHandles[uniform.ordinal()];
+    }
+
+    @Override
+    public NamedShaderVariable getSampler(Sampler sampler) {
+        return samplerHandles[sampler.ordinal()];
+    }
+
+    /**
+     * Resolves the active attributes, uniforms and samplers into handles that are indexed by enum, this is done once
+     * when the program is linked so that no name lookup is needed when rendering.
+     */
+    protected void resolveHandles() {
+        Attributes[] attributes = Attributes.values();
+        attributeHandles = new NamedShaderVariable[attributes.length];
+        uniformHandles = new NamedShaderVariable[attributes.length];
+        for (Attributes a : attributes) {
+            attributeHandles[a.ordinal()] = getAttributeByName(a.name());
+            uniformHandles[a.ordinal()] = getUniformByName(a.name());
+        }
+        Sampler[] samplers = Sampler.values();
+        samplerHandles = new NamedShaderVariable[samplers.length];
+        for (Sampler sampler : samplers) {
+            samplerHandles[sampler.ordinal()] = getUniformByName(sampler.variableName);
+        }
+    }
+
     @Override
     public void destroy(NucleusRenderer renderer) {
         // if (shader != null) {
@@ -343,6 +389,7 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
             linkProgram(gles, program, shaderNames);
             checkLinkStatus(gles, program);
             fetchProgramInfo(gles);
+            resolveHandles();
             mapAttributeOffsets(gles, (NamedVariableIndexer) variableIndexer);
             setAttributesPerVertex();
             if (GLES20Wrapper.getInfo().getRenderVersion().major >= 3) {
@@ -433,10 +480,15 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
      * @throws GLCompilerException If there is an error compiling the shader
      */
     protected void checkCompileStatus(GLES20Wrapper gles, ShaderSource source, int shader) throws GLCompilerException {
-        IntBuffer compileStatus = BufferUtils.createIntBuffer(1);
-        gles.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, compileStatus);
-        if (compileStatus.get(0) != GLES20.GL_TRUE) {
-            throw new GLCompilerException(compileStatus.get(0), shader, source, gles.glGetShaderInfoLog(shader));
+        ByteBuffer compileStatus = BufferArena.getInstance().allocate(4);
+        try {
+            gles.glGetShaderiv(shader, GLES20.GL_COMPILE_STATUS, compileStatus.asIntBuffer());
+            if (compileStatus.getInt(0) != GLES20.GL_TRUE) {
+                throw new GLCompilerException(compileStatus.getInt(0), shader, source,
+                        gles.glGetShaderInfoLog(shader));
+            }
+        } finally {
+            BufferArena.getInstance().free(compileStatus);
         }
     }
 
@@ -995,12 +1047,12 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
             gles.glBufferData(GLES30.GL_UNIFORM_BUFFER, blockBuffer.getSizeInBytes(),
                     blockBuffer.getBuffer().position(0), GLES30.GL_STATIC_DRAW);
             blockBuffer.setDirty(false);
-            GLUtils.handleError(gles, "setUniformBlock " + blockBuffer.getBlockName());
+            GLUtils.handleError(gles, "setUniformBlock ", blockBuffer.getBlockName());
 
         } else {
             InterfaceBlock vars = blockBuffer.interfaceBlock;
             gles.glBindBufferBase(GLES30.GL_UNIFORM_BUFFER, vars.blockIndex, blockBuffer.getBufferName());
-            GLUtils.handleError(gles, "setUniformBlock " + blockBuffer.getBlockName());
+            GLUtils.handleError(gles, "setUniformBlock ", blockBuffer.getBlockName());
         }
     }
 
@@ -1090,7 +1142,7 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
             default:
                 throw new IllegalArgumentException("Not implemented for dataType: " + variable.getDataType());
         }
-        if (GLUtils.handleError(gles, "setUniform: " + variable.toString())) {
+        if (GLUtils.handleError(gles, "setUniform: ", variable)) {
             /**
              * TODO - log the names of the shaders used in this program.
              */
@@ -1114,10 +1166,7 @@ public class GLPipeline implements GraphicsPipeline<GLShaderSource> {
         if (texture == null || texture.getTextureType() == TextureType.Untextured) {
             return;
         }
-        /**
-         * TODO - make texture names into enums
-         */
-        int unit = getUniformByName("uTexture").getOffset();
+        int unit = samplerHandles[Sampler.TEXTURE.ordinal()].getOffset();
         renderer.prepareTexture(texture, unit);
     }
 
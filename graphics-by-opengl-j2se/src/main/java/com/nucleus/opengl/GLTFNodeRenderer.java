@@ -4,6 +4,7 @@ import java.util.ArrayDeque;
 
 import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
+import com.nucleus.camera.FrustumPlanes;
 import com.nucleus.opengl.shader.GLTFShaderProgram;
 import com.nucleus.profiling.FrameSampler;
 import com.nucleus.renderer.NodeRenderer;
@@ -13,16 +14,31 @@ import com.nucleus.renderer.Pass;
 import com.nucleus.renderer.RenderState;
 import com.nucleus.scene.GLTFNode;
 import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.MaxMin;
 import com.nucleus.scene.gltf.Mesh;
 import com.nucleus.scene.gltf.Node;
 import com.nucleus.scene.gltf.Primitive;
 import com.nucleus.scene.gltf.Scene;
 import com.nucleus.shader.GraphicsShader;
+import com.nucleus.vecmath.Matrix;
 import com.nucleus.vecmath.Matrix.MatrixStack;
 
 public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
 
+    /**
+     * If true primitives are collected in a {@link GLTFRenderQueue}, sorted and then rendered after the scene is
+     * traversed. If false primitives are rendered in scenegraph order.
+     */
+    public static boolean useRenderQueue = true;
+    /**
+     * If true nodes are tested against the view frustum, nodes with bounds outside of the frustum are not
+     * rendered - including children.
+     */
+    public static boolean useFrustumCulling = true;
+
     transient protected FrameSampler timeKeeper = FrameSampler.getInstance();
+    protected GLTFRenderQueue renderQueue = new GLTFRenderQueue();
+    protected FrustumPlanes frustumPlanes = new FrustumPlanes();
     private Pass currentPass;
     protected float[] modelMatrix;
     protected RenderState renderState;
@@ -68,11 +84,17 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
         // Set view matrix from previous render of this gltfNode
         // node.getSavedViewMatrix(matrices[Matrices.VIEW.index]);
         scene.setMVP(matrices);
+        frustumPlanes.set(matrices[Matrices.PROJECTION.index], matrices[Matrices.VIEW.index]);
         // This will rotate the view - ie the camera
         // matrices[Matrices.VIEW.index] = scene.getSceneTransform().concatMatrix(matrices[Matrices.VIEW.index]);
         scene.getSceneTransform().concatMatrix(matrices[Matrices.MODEL.index], 0);
+        // If model and scene transform are unchanged the cached world matrices of nodes are used
+        scene.setRootMatrix(matrices[Matrices.MODEL.index]);
         // Render the default scene.
         renderScene(renderer, glTF, scene, currentPass, matrices);
+        if (renderQueue.size() > 0) {
+            renderQueue.render(renderer, matrices);
+        }
 
         modelStack.pop(matrices[Matrices.MODEL.index], 0);
         viewStack.pop(matrices[Matrices.VIEW.index], 0);
@@ -94,7 +116,8 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
 
     /**
      * Renders the Mesh in this node, then renders childnodes.
-     * This will render the Node using depth first search
+     * This will render the Node using depth first search.
+     * The world matrix of the node is only calculated if the node, or a parent, transform has changed.
      * 
      * @param renderer
      * @param glTF
@@ -104,7 +127,13 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
     protected void renderNode(NucleusRenderer renderer, GLTF glTF, Node node, float[][] matrices)
             throws BackendException {
         modelStack.push(matrices[Matrices.MODEL.index], 0);
-        node.concatMatrix(matrices[Matrices.MODEL.index], 0);
+        node.updateWorldMatrix(matrices[Matrices.MODEL.index]);
+        System.arraycopy(node.getWorldMatrix(), 0, matrices[Matrices.MODEL.index], 0, Matrix.MATRIX_ELEMENTS);
+        if (useFrustumCulling && !isVisible(node)) {
+            // Node and children are outside of view
+            modelStack.pop(matrices[Matrices.MODEL.index], 0);
+            return;
+        }
         renderMesh(renderer, glTF, node.getMesh(), matrices);
         renderDebugMesh(renderer, glTF, node.getMesh(), matrices);
 
@@ -113,6 +142,19 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
         modelStack.pop(matrices[Matrices.MODEL.index], 0);
     }
 
+    /**
+     * Returns true if the bounds of the node, including children, are inside the current view frustum.
+     * The world matrix of the node must be updated before calling this method.
+     * 
+     * @param node
+     * @return False if the node and children are outside of the view frustum, true if inside or if bounds of
+     * node is not known.
+     */
+    protected boolean isVisible(Node node) {
+        MaxMin worldBounds = node.getWorldBounds();
+        return worldBounds == null || frustumPlanes.isVisible(worldBounds);
+    }
+
     /**
      * Renders the mesh using the specified MVP matrices, this will render each primitive.
      * 
@@ -152,7 +194,8 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
     }
 
     /**
-     * Renders the primitive
+     * Renders the primitive, if {@link #useRenderQueue} is true the primitive is added to the render queue and
+     * drawn when the scene has been traversed.
      * 
      * @param renderer
      * @param glTF
@@ -162,6 +205,10 @@ public class GLTFNodeRenderer implements NodeRenderer<GLTFNode> {
      */
     protected void renderPrimitive(NucleusRenderer renderer, GLTF glTF, Primitive primitive, float[][] matrices)
             throws BackendException {
+        if (useRenderQueue) {
+            renderQueue.add(glTF, primitive, currentPass, matrices);
+            return;
+        }
         GraphicsShader program = primitive.getProgram();
         GraphicsPipeline<?> pipeline = program.getPipeline();
         renderer.usePipeline(pipeline);
@@ -0,0 +1,328 @@
+package com.nucleus.opengl;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+
+import com.nucleus.BackendException;
+import com.nucleus.GraphicsPipeline;
+import com.nucleus.opengl.shader.GLTFShaderProgram;
+import com.nucleus.profiling.FrameSampler;
+import com.nucleus.renderer.NucleusRenderer;
+import com.nucleus.renderer.NucleusRenderer.Matrices;
+import com.nucleus.renderer.Pass;
+import com.nucleus.scene.gltf.Accessor;
+import com.nucleus.scene.gltf.GLTF;
+import com.nucleus.scene.gltf.Material;
+import com.nucleus.scene.gltf.Material.AlphaMode;
+import com.nucleus.scene.gltf.Primitive;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+import com.nucleus.shader.GraphicsShader;
+import com.nucleus.vecmath.Matrix;
+
+/**
+ * Queue of glTF primitives to be drawn, items are collected during scenegraph traversal and then sorted
+ * before they are rendered.
+ * Items are sorted using a packed 63 bit key: pass, blended, program, material and view depth.
+ * Opaque items are sorted by program then material then front to back.
+ * Blended items are sorted back to front, then by program and material.
+ * When rendering, program, environment, material and texture updates are only made when they change from the
+ * previous item. The number of issued and skipped state changes is reported to {@link FrameSampler}
+ *
+ * This class is not thread safe, one queue shall be used by one renderer.
+ */
+public class GLTFRenderQueue {
+
+    private static final int PASS_SHIFT = 59;
+    private static final int BLEND_SHIFT = 58;
+    private static final long PASS_MASK = 0x0f;
+    private static final long PROGRAM_MASK = 0x3fff;
+    private static final long MATERIAL_MASK = 0x0fff;
+    private static final long DEPTH_MASK = 0xffffffffL;
+    /**
+     * Opaque: program 14 bits, material 12 bits, depth 32 bits
+     */
+    private static final int OPAQUE_PROGRAM_SHIFT = 44;
+    private static final int OPAQUE_MATERIAL_SHIFT = 32;
+    /**
+     * Blended: inverted depth 32 bits, program 14 bits, material 12 bits
+     */
+    private static final int BLEND_DEPTH_SHIFT = 26;
+    private static final int BLEND_PROGRAM_SHIFT = 12;
+
+    private static final int DEFAULT_SIZE = 100;
+
+    /**
+     * One primitive to be drawn
+     */
+    public static class DrawItem {
+        protected long key;
+        protected GLTF glTF;
+        protected Primitive primitive;
+        protected GraphicsShader program;
+        protected final float[] modelMatrix = Matrix.createMatrix();
+        protected float depth;
+
+        /**
+         * Returns the sort key for the item
+         *
+         * @return
+         */
+        public long getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the view space distance to the center of the primitive
+         *
+         * @return
+         */
+        public float getDepth() {
+            return depth;
+        }
+
+        /**
+         * Returns the primitive to draw
+         *
+         * @return
+         */
+        public Primitive getPrimitive() {
+            return primitive;
+        }
+
+    }
+
+    private static final Comparator<DrawItem> KEY_COMPARATOR = new Comparator<DrawItem>() {
+        @Override
+        public int compare(DrawItem o1, DrawItem o2) {
+            return Long.compare(o1.key, o2.key);
+        }
+    };
+
+    transient protected FrameSampler timeKeeper = FrameSampler.getInstance();
+    private DrawItem[] items = new DrawItem[DEFAULT_SIZE];
+    private int count = 0;
+    private final IdentityHashMap<GraphicsShader, Integer> programIds = new IdentityHashMap<>();
+    private final float[] center = new float[3];
+
+    /**
+     * Adds a primitive to the queue, the model matrix is copied and the depth is calculated using the
+     * primitive position bounds.
+     *
+     * @param glTF
+     * @param primitive
+     * @param pass
+     * @param matrices Model and view matrices used when primitive is rendered
+     * @return The added draw item
+     */
+    public DrawItem add(GLTF glTF, Primitive primitive, Pass pass, float[][] matrices) {
+        GraphicsShader program = primitive.getProgram();
+        if (program == null) {
+            throw new IllegalArgumentException("No program for primitive");
+        }
+        if (count == items.length) {
+            items = Arrays.copyOf(items, count * 2);
+        }
+        DrawItem item = items[count];
+        if (item == null) {
+            item = new DrawItem();
+            items[count] = item;
+        }
+        count++;
+        item.glTF = glTF;
+        item.primitive = primitive;
+        item.program = program;
+        System.arraycopy(matrices[Matrices.MODEL.index], 0, item.modelMatrix, 0, Matrix.MATRIX_ELEMENTS);
+        item.depth = getDepth(primitive, item.modelMatrix, matrices[Matrices.VIEW.index]);
+        Material material = primitive.getMaterial();
+        item.key = createKey(pass, material != null && material.getAlphaMode() == AlphaMode.BLEND,
+                getProgramId(program), primitive.getMaterialIndex() + 1, item.depth);
+        return item;
+    }
+
+    /**
+     * Returns the number of items in the queue
+     *
+     * @return
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the item at the specified index, after {@link #sort()} the items are returned in draw order.
+     *
+     * @param index
+     * @return
+     */
+    public DrawItem get(int index) {
+        if (index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+        }
+        return items[index];
+    }
+
+    /**
+     * Sorts the items in draw order, items with the same key are kept in the order they were added.
+     */
+    public void sort() {
+        Arrays.sort(items, 0, count, KEY_COMPARATOR);
+    }
+
+    /**
+     * Removes all items from the queue, item objects are kept for re-use.
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            items[i].glTF = null;
+            items[i].primitive = null;
+            items[i].program = null;
+        }
+        count = 0;
+        programIds.clear();
+    }
+
+    /**
+     * Sorts and renders the items in the queue, then clears the queue.
+     * Program, environment, material and texture state is only updated when it changes from the previous item.
+     *
+     * @param renderer
+     * @param matrices The model matrix is set for each item, other matrices shall be same as when items were
+     * added.
+     * @throws BackendException
+     */
+    public void render(NucleusRenderer renderer, float[][] matrices) throws BackendException {
+        sort();
+        GraphicsShader previousProgram = null;
+        Material previousMaterial = null;
+        int changes = 0;
+        int skipped = 0;
+        try {
+            for (int i = 0; i < count; i++) {
+                DrawItem item = items[i];
+                GraphicsShader program = item.program;
+                GraphicsPipeline<?> pipeline = program.getPipeline();
+                if (renderer.usePipeline(pipeline)) {
+                    changes++;
+                } else {
+                    skipped++;
+                }
+                GLTFShaderProgram gltfProgram = (GLTFShaderProgram) program;
+                boolean programChanged = program != previousProgram;
+                System.arraycopy(item.modelMatrix, 0, matrices[Matrices.MODEL.index], 0, Matrix.MATRIX_ELEMENTS);
+                program.setUniformMatrices(matrices);
+                program.updateUniformData();
+                if (programChanged) {
+                    // Environment uniforms are the same for all items, only needed once for each program.
+                    gltfProgram.updateEnvironmentUniforms(renderer, item.glTF.getDefaultScene());
+                    changes++;
+                } else {
+                    skipped++;
+                }
+                Material material = item.primitive.getMaterial();
+                boolean materialChanged = programChanged || material != previousMaterial;
+                if (materialChanged) {
+                    gltfProgram.updatePBRUniforms(item.primitive);
+                    changes++;
+                } else {
+                    skipped++;
+                }
+                // Texture coordinates are set for each primitive, textures are only bound when material changes.
+                gltfProgram.prepareTextures(renderer, item.glTF, item.primitive, material, materialChanged);
+                program.uploadUniforms();
+                renderer.renderPrimitive(pipeline, item.glTF, item.primitive, matrices);
+                previousProgram = program;
+                previousMaterial = material;
+            }
+        } finally {
+            timeKeeper.addStateChanges(changes, skipped);
+            clear();
+        }
+    }
+
+    /**
+     * Returns the id of the program, ids are assigned in the order programs are added to the queue.
+     *
+     * @param program
+     * @return
+     */
+    private int getProgramId(GraphicsShader program) {
+        Integer id = programIds.get(program);
+        if (id == null) {
+            id = programIds.size();
+            programIds.put(program, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the view space distance to the center of the primitive, positive values are in front of the
+     * camera.
+     *
+     * @param primitive
+     * @param model
+     * @param view
+     * @return
+     */
+    private float getDepth(Primitive primitive, float[] model, float[] view) {
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        float[] min = position != null ? position.getMin() : null;
+        float[] max = position != null ? position.getMax() : null;
+        if (min != null && max != null && min.length >= 3 && max.length >= 3) {
+            center[0] = (min[0] + max[0]) * 0.5f;
+            center[1] = (min[1] + max[1]) * 0.5f;
+            center[2] = (min[2] + max[2]) * 0.5f;
+        } else {
+            center[0] = 0;
+            center[1] = 0;
+            center[2] = 0;
+        }
+        float x = model[0] * center[0] + model[4] * center[1] + model[8] * center[2] + model[12];
+        float y = model[1] * center[0] + model[5] * center[1] + model[9] * center[2] + model[13];
+        float z = model[2] * center[0] + model[6] * center[1] + model[10] * center[2] + model[14];
+        return -(view[2] * x + view[6] * y + view[10] * z + view[14]);
+    }
+
+    /**
+     * Creates the packed sort key, the sign bit is not used so keys can be compared as signed values.
+     *
+     * @param pass
+     * @param blended True if item is alpha blended, blended items are sorted after opaque and back to front
+     * @param programId
+     * @param materialId
+     * @param depth View space distance
+     * @return
+     */
+    public static long createKey(Pass pass, boolean blended, int programId, int materialId, float depth) {
+        long key = ((pass != null ? pass.ordinal() : 0) & PASS_MASK) << PASS_SHIFT;
+        long program = Math.min(programId, PROGRAM_MASK);
+        long material = Math.min(materialId, MATERIAL_MASK);
+        long sortDepth = getSortableDepth(depth);
+        if (blended) {
+            key |= 1L << BLEND_SHIFT;
+            key |= (DEPTH_MASK - sortDepth) << BLEND_DEPTH_SHIFT;
+            key |= program << BLEND_PROGRAM_SHIFT;
+            key |= material;
+        } else {
+            key |= program << OPAQUE_PROGRAM_SHIFT;
+            key |= material << OPAQUE_MATERIAL_SHIFT;
+            key |= sortDepth;
+        }
+        return key;
+    }
+
+    /**
+     * Maps the float depth to an unsigned 32 bit value with the same ordering.
+     *
+     * @param depth
+     * @return
+     */
+    private static long getSortableDepth(float depth) {
+        if (Float.isNaN(depth)) {
+            return DEPTH_MASK;
+        }
+        int bits = Float.floatToIntBits(depth == 0 ? 0f : depth);
+        return (bits < 0 ? ~bits : bits | Integer.MIN_VALUE) & DEPTH_MASK;
+    }
+
+}
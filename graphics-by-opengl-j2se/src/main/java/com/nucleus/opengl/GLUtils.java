@@ -5,6 +5,7 @@ import java.util.List;
 
 import com.nucleus.SimpleLogger;
 import com.nucleus.opengl.GLESWrapper.Error;
+import com.nucleus.opengl.GLESWrapper.ErrorPolicy;
 
 /**
  * Platform agnostic GL utility methods, uses the GLES20Wrapper for GLES functions.
@@ -14,31 +15,96 @@ import com.nucleus.opengl.GLESWrapper.Error;
  */
 public class GLUtils {
 
+    private static final String FRAME_TAG = "endFrame";
     private static boolean throwErrors = false;
 
     /**
      * Checks for OpenGL error, if there is at least one error then all errors are fetched and GLException is thrown.
      * Call this method after all GL methods that can raise an error where the error means failure.
      * When this method returns there will be zero reported errors from GL.
+     * Errors are only checked if the {@link ErrorPolicy} of the wrapper is {@link ErrorPolicy#PER_CALL}, otherwise
+     * false is returned and errors are checked at end of frame by calling {@link #handleFrameErrors(GLES20Wrapper)}
      * 
      * @param ga The tag to display with errors
      * @return true if GL error but exception not thrown
      * @throws GLException If there is one or more errors in GL.
      */
     public static boolean handleError(GLES20Wrapper gles, String tag) throws GLException {
+        if (gles.getErrorPolicy() != ErrorPolicy.PER_CALL) {
+            return false;
+        }
+        return checkError(gles, tag);
+    }
+
+    /**
+     * Same as {@link #handleError(GLES20Wrapper, String)} but the detail is only appended to the tag if there is an
+     * error, use this when rendering to avoid creating strings for each call.
+     * 
+     * @param gles
+     * @param tag The tag to display with errors
+     * @param detail Appended to tag if there is an error
+     * @return true if GL error but exception not thrown
+     * @throws GLException If there is one or more errors in GL.
+     */
+    public static boolean handleError(GLES20Wrapper gles, String tag, Object detail) throws GLException {
+        if (gles.getErrorPolicy() != ErrorPolicy.PER_CALL) {
+            return false;
+        }
         List<Integer> errors = getErrors(gles);
-        if (errors != null) {
-            if (throwErrors) {
-                throw new GLException(tag, errors);
-            } else {
-                for (Integer i : errors) {
-                    SimpleLogger.d(tag,
-                            "GLError: " + Error.getError(i) + " : value " + i);
+        return errors != null ? handleErrors(errors, tag + detail) : false;
+    }
+
+    /**
+     * Checks for errors according to the {@link ErrorPolicy} of the wrapper, call this once per frame.
+     * If policy is {@link ErrorPolicy#FRAME} then GL errors are checked, if policy is
+     * {@link ErrorPolicy#DEBUG_OUTPUT} the debug messages are fetched and logged.
+     * 
+     * @param gles
+     * @return true if GL error but exception not thrown
+     * @throws GLException If there is one or more errors in GL.
+     */
+    public static boolean handleFrameErrors(GLES20Wrapper gles) throws GLException {
+        switch (gles.getErrorPolicy()) {
+            case FRAME:
+                return checkError(gles, FRAME_TAG);
+            case DEBUG_OUTPUT:
+                List<String> messages = new ArrayList<String>();
+                int errors = gles.getDebugMessages(messages);
+                for (String message : messages) {
+                    SimpleLogger.d(FRAME_TAG, message);
                 }
-            }
-            return true;
+                if (errors > 0 && throwErrors) {
+                    throw new GLException(FRAME_TAG + " " + errors + " GL errors from debug output");
+                }
+                return errors > 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks for OpenGL error regardless of {@link ErrorPolicy}, if there is at least one error then all errors are
+     * fetched and GLException is thrown.
+     * 
+     * @param gles
+     * @param tag The tag to display with errors
+     * @return true if GL error but exception not thrown
+     * @throws GLException If there is one or more errors in GL.
+     */
+    public static boolean checkError(GLES20Wrapper gles, String tag) throws GLException {
+        List<Integer> errors = getErrors(gles);
+        return errors != null ? handleErrors(errors, tag) : false;
+    }
+
+    private static boolean handleErrors(List<Integer> errors, String tag) throws GLException {
+        if (throwErrors) {
+            throw new GLException(tag, errors);
+        }
+        for (Integer i : errors) {
+            SimpleLogger.d(tag,
+                    "GLError: " + Error.getError(i) + " : value " + i);
         }
-        return false;
+        return true;
     }
 
     /**
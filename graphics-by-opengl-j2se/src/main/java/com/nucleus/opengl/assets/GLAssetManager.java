@@ -7,14 +7,33 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
 import com.nucleus.SimpleLogger;
+import com.nucleus.assets.AssetBudget.AssetType;
 import com.nucleus.assets.BaseAssets;
+import com.nucleus.common.Environment;
+import com.nucleus.common.Environment.Property;
 import com.nucleus.common.FileUtils;
+import com.nucleus.common.WorkerPool;
+import com.nucleus.common.WorkerPool.RangeWork;
+import com.nucleus.io.ByteBufferInputStream;
+import com.nucleus.io.StreamUtils;
 import com.nucleus.opengl.GLES20Wrapper;
 import com.nucleus.opengl.GLException;
 import com.nucleus.opengl.GLPipeline;
@@ -24,18 +43,27 @@ import com.nucleus.profiling.FrameSampler;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.Window;
 import com.nucleus.resource.ResourceBias.RESOLUTION;
+import com.nucleus.scene.gltf.AttributeQuantizer;
 import com.nucleus.scene.gltf.Buffer;
+import com.nucleus.scene.gltf.BufferView;
+import com.nucleus.scene.gltf.GLB;
 import com.nucleus.scene.gltf.GLTF;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
+import com.nucleus.scene.gltf.GLTFCache;
+import com.nucleus.scene.gltf.GLTFReader;
 import com.nucleus.scene.gltf.Image;
 import com.nucleus.scene.gltf.Material;
 import com.nucleus.scene.gltf.Mesh;
 import com.nucleus.scene.gltf.PBRMetallicRoughness;
 import com.nucleus.scene.gltf.Primitive;
+import com.nucleus.scene.gltf.Primitive.Triangles;
 import com.nucleus.scene.gltf.Texture;
 import com.nucleus.scene.gltf.Texture.Swizzle.Component;
 import com.nucleus.scene.gltf.Texture.TextureInfo;
+import com.nucleus.scene.gltf.VertexCacheOptimizer;
+import com.nucleus.scene.gltf.VertexInterleaver;
+import com.nucleus.scene.gltf.VertexWelder;
 import com.nucleus.shader.GraphicsShader;
 import com.nucleus.texturing.BaseImageFactory;
 import com.nucleus.texturing.BufferImage;
@@ -53,7 +81,44 @@ import com.nucleus.texturing.Texture2D;
  */
 public class GLAssetManager extends BaseAssets {
 
+    /**
+     * Properties that change how glTF assets are processed, these are part of the key for cached assets
+     */
+    private static final Property[] PROCESSING_PROPERTIES = new Property[] { Property.WELD_VERTICES,
+            Property.OPTIMIZE_VERTEX_CACHE, Property.OPTIMIZE_OVERDRAW, Property.RECALCULATE_TANGENTS,
+            Property.QUANTIZE_ATTRIBUTES, Property.INTERLEAVE_VERTICES };
+    /**
+     * Destination format of normal texture images
+     */
+    private static final ImageFormat NORMAL_IMAGE_FORMAT = ImageFormat.RGB;
+    /**
+     * Destination format of images that hold both metallic roughness and occlusion
+     */
+    private static final ImageFormat MR_OCCLUSION_IMAGE_FORMAT = ImageFormat.RGB;
+    /**
+     * Destination format of metallic roughness images, GB pixels are stored as RG
+     */
+    private static final ImageFormat MR_IMAGE_FORMAT = ImageFormat.RG;
+    /**
+     * Destination format of occlusion images
+     */
+    private static final ImageFormat OCCLUSION_IMAGE_FORMAT = ImageFormat.R;
+
     protected GLES20Wrapper gles;
+    /**
+     * Cache of processed glTF assets, created when {@link Property#GLTF_CACHE} is set
+     */
+    private GLTFCache gltfCache;
+    /**
+     * Images restored from the cache, used instead of decoding the image when textures are loaded
+     */
+    private final Map<Image, BufferImage> cachedImages = Collections
+            .synchronizedMap(new IdentityHashMap<Image, BufferImage>());
+    /**
+     * Images that are being decoded, by uri, guarded by the lock on images. Used so that an image that is requested
+     * by several textures at the same time is only decoded once.
+     */
+    private final HashMap<String, Future<BufferImage>> loadingImages = new HashMap<>();
 
     /**
      * Internal constructor - do not use directly
@@ -73,6 +138,7 @@ public class GLAssetManager extends BaseAssets {
         SimpleLogger.d(getClass(), "destroy");
         deletePrograms(renderer);
         deleteTextures(renderer);
+        budget.clear();
     }
 
     private void deleteTextures(NucleusRenderer renderer) {
@@ -97,48 +163,283 @@ public class GLAssetManager extends BaseAssets {
 
     @Override
     public GLTF getGLTFAsset(String fileName) throws IOException, GLTFException {
-        GLTF gltf = gltfAssets.get(fileName);
+        GLTF gltf = null;
+        synchronized (gltfAssets) {
+            gltf = gltfAssets.get(fileName);
+        }
         if (gltf != null) {
             SimpleLogger.d(getClass(), "Returning already loaded gltf asset:" + fileName);
+            budget.acquire(gltf);
             return gltf;
         }
         SimpleLogger.d(getClass(), "Loading glTF asset:" + fileName);
+        long start = System.currentTimeMillis();
         File f = new File(fileName);
-        ClassLoader loader = getClass().getClassLoader();
-        InputStream is = loader.getResourceAsStream(fileName);
-        gltf = loadJSONAsset(f.getParent(), f.getName(), is);
-        gltfAssets.put(gltf.getFilename(), gltf);
+        if (GLB.isGLB(fileName)) {
+            gltf = loadGLBAsset(f.getParent(), f.getName(), fileName);
+        } else {
+            ClassLoader loader = getClass().getClassLoader();
+            InputStream is = loader.getResourceAsStream(fileName);
+            gltf = loadJSONAsset(f.getParent(), f.getName(), is);
+        }
+        FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, "_JSON " + fileName, start,
+                System.currentTimeMillis());
+        synchronized (gltfAssets) {
+            GLTF loaded = gltfAssets.get(gltf.getFilename());
+            if (loaded != null) {
+                // Loaded by another thread
+                budget.acquire(loaded);
+                return loaded;
+            }
+            gltfAssets.put(gltf.getFilename(), gltf);
+            budget.add(AssetType.GLTF, gltf.getFilename(), gltf);
+            budget.acquire(gltf);
+        }
         return gltf;
     }
 
     @Override
     public void loadGLTFAssets(NucleusRenderer renderer, GLTF glTF) throws IOException, BackendException {
-        loadBuffers(glTF);
-        loadTextures(renderer, glTF, glTF.getMaterials());
-        SimpleLogger.d(getClass(), "Loaded gltf assets");
-        // Build TBN before creating VBOs
-        // This can mean that a number of buffers needs to be created, for instance normal, tangent and bitangent.
-        long start = System.currentTimeMillis();
-        for (Mesh m : glTF.getMeshes()) {
-            buildTBN(glTF, m.getPrimitives());
-        }
-        FrameSampler.getInstance().logTag(FrameSampler.Samples.PROCESS_BUFFERS, "_TBN", start,
-                System.currentTimeMillis());
+        prepareGLTFAssets(glTF);
+        createTextures(renderer, glTF);
         if (com.nucleus.renderer.Configuration.getInstance().isUseVBO()) {
             try {
-                renderer.getBufferFactory().createVBOs(glTF.getBuffers(null));
+                long start = System.currentTimeMillis();
+                // Only buffers used by primitives, buffers that are replaced or only contain images are not uploaded
+                renderer.getBufferFactory().createVBOs(glTF.getPrimitiveBuffers(null));
+                glTF.releaseBuffers();
+                FrameSampler.getInstance().logTag(FrameSampler.Samples.CREATE_VBO, "_GLTF", start,
+                        System.currentTimeMillis());
                 SimpleLogger.d(getClass(), "Created VBOs for gltf assets");
             } catch (GLException e) {
                 throw new BackendException(e.getMessage());
             }
         }
+        updateBudget(glTF);
+        evict(renderer);
+    }
+
+    @Override
+    public Future<GLTF> loadGLTFAssetsAsync(final String fileName, final GLTFLoadListener listener) {
+        return WorkerPool.getInstance().submitTask(new Callable<GLTF>() {
+            @Override
+            public GLTF call() throws Exception {
+                try {
+                    GLTF glTF = getGLTFAsset(fileName);
+                    prepareGLTFAssets(glTF);
+                    updateBudget(glTF);
+                    if (listener != null) {
+                        listener.loaded(glTF);
+                    }
+                    return glTF;
+                } catch (GLTFException e) {
+                    if (listener != null) {
+                        listener.failed(fileName, e);
+                    }
+                    throw new IOException(e);
+                } catch (IOException | RuntimeException e) {
+                    if (listener != null) {
+                        listener.failed(fileName, e);
+                    }
+                    throw e;
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads the binary buffers and texture images using worker threads, then builds the TBN buffers.
+     * No GL objects are created so this method may be called from any thread.
+     * If the glTF is already prepared nothing is done.
+     * If {@link Property#GLTF_CACHE} is set the processed asset is read from the cache, if present, otherwise it is
+     * stored in the cache when processed.
+     * 
+     * @param glTF
+     * @throws IOException If there is an error loading buffers or images
+     */
+    protected void prepareGLTFAssets(GLTF glTF) throws IOException {
+        synchronized (glTF) {
+            if (glTF.isPrepared()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            GLTFCache cache = getGLTFCache();
+            String key = cache != null ? getCacheKey(cache, glTF) : null;
+            if (key != null && restoreGLTFAssets(cache, glTF, key)) {
+                long end = System.currentTimeMillis();
+                glTF.setPrepared(true);
+                FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, "_WARM " + glTF.getFilename(),
+                        start, end);
+                SimpleLogger.d(getClass(), "Warm load of " + glTF.getFilename() + " in " + (end - start) + " ms");
+                return;
+            }
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            loadBuffers(glTF, futures);
+            if (hasBufferViewImages(glTF)) {
+                // Images are decoded from buffers, buffers must be loaded first
+                WorkerPool.waitFor(futures);
+            }
+            loadTextureImages(glTF, glTF.getMaterials(), futures);
+            WorkerPool.waitFor(futures);
+            glTF.decompressBufferViews();
+            glTF.decompressPrimitives();
+            long loaded = System.currentTimeMillis();
+            FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, "_BUFFERS_IMAGES", start, loaded);
+            SimpleLogger.d(getClass(), "Loaded gltf assets");
+            Environment environment = Environment.getInstance();
+            if (environment.isProperty(Property.WELD_VERTICES, false)) {
+                new VertexWelder().weld(glTF);
+            }
+            if (environment.isProperty(Property.OPTIMIZE_VERTEX_CACHE, false)) {
+                new VertexCacheOptimizer(VertexCacheOptimizer.DEFAULT_CACHE_SIZE, true,
+                        environment.isProperty(Property.OPTIMIZE_OVERDRAW, false)).optimize(glTF);
+            }
+            // Build TBN before creating VBOs
+            // This can mean that a number of buffers needs to be created, for instance normal, tangent and bitangent.
+            ArrayList<Primitive> primitives = new ArrayList<>();
+            for (Mesh m : glTF.getMeshes()) {
+                if (m.getPrimitives() != null) {
+                    primitives.addAll(Arrays.asList(m.getPrimitives()));
+                }
+            }
+            buildTBN(glTF, primitives.toArray(new Primitive[primitives.size()]));
+            if (environment.isProperty(Property.QUANTIZE_ATTRIBUTES, false)) {
+                new AttributeQuantizer().quantize(glTF);
+            }
+            if (environment.isProperty(Property.INTERLEAVE_VERTICES, false)) {
+                new VertexInterleaver().interleave(glTF);
+            }
+            long end = System.currentTimeMillis();
+            FrameSampler.getInstance().logTag(FrameSampler.Samples.PROCESS_BUFFERS, "_TBN", loaded, end);
+            glTF.setPrepared(true);
+            FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, " " + glTF.getFilename(), start, end);
+            if (key != null) {
+                SimpleLogger.d(getClass(), "Cold load of " + glTF.getFilename() + " in " + (end - start) + " ms");
+                storeGLTFAssets(cache, glTF, key);
+            }
+        }
+    }
 
+    /**
+     * Returns the cache for processed glTF assets, using the directory in {@link Property#GLTF_CACHE}
+     * 
+     * @return The cache or null if the property is not set
+     */
+    protected synchronized GLTFCache getGLTFCache() {
+        String directory = Environment.getInstance().getProperty(Property.GLTF_CACHE);
+        if (directory == null || directory.length() == 0) {
+            return null;
+        }
+        if (gltfCache == null || !gltfCache.getDirectory().getPath().equals(directory)) {
+            gltfCache = new GLTFCache(new File(directory));
+        }
+        return gltfCache;
+    }
+
+    /**
+     * Returns the cache key for the glTF, using the source of the asset and the processing properties.
+     * 
+     * @param cache
+     * @param glTF
+     * @return The key, or null if the source cannot be read
+     */
+    protected String getCacheKey(GLTFCache cache, GLTF glTF) {
+        Environment environment = Environment.getInstance();
+        StringBuilder settings = new StringBuilder();
+        for (Property property : PROCESSING_PROPERTIES) {
+            settings.append(property.key).append('=').append(environment.isProperty(property, false)).append(';');
+        }
+        // Decoded images are stored in the destination format
+        settings.append("images=").append(NORMAL_IMAGE_FORMAT).append(',').append(MR_OCCLUSION_IMAGE_FORMAT)
+                .append(',').append(MR_IMAGE_FORMAT).append(',').append(OCCLUSION_IMAGE_FORMAT).append(';');
+        try {
+            return cache.getKey(glTF, settings.toString());
+        } catch (IOException | IllegalArgumentException e) {
+            SimpleLogger.d(getClass(), "Could not read source of " + glTF.getFilename() + ": " + e.getMessage());
+            return null;
+        }
     }
 
-    protected void buildTBN(GLTF gltf, Primitive[] primitives) {
+    /**
+     * Restores the processed primitives and texture images of the glTF from the cache.
+     * 
+     * @param cache
+     * @param glTF
+     * @param key
+     * @return True if the glTF was restored, false if there is no valid cache file for the asset.
+     * @throws IOException If there is an error loading images
+     */
+    protected boolean restoreGLTFAssets(GLTFCache cache, GLTF glTF, String key) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferImage[] restored = null;
+        try {
+            restored = cache.restore(glTF, key);
+        } catch (IOException | IllegalArgumentException e) {
+            SimpleLogger.d(getClass(), "Could not read cache for " + glTF.getFilename() + ": " + e.getMessage());
+        }
+        if (restored == null) {
+            return false;
+        }
+        Image[] images = glTF.getImages();
+        for (int i = 0; i < restored.length; i++) {
+            if (restored[i] != null) {
+                cachedImages.put(images[i], restored[i]);
+            }
+        }
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>();
+            loadTextureImages(glTF, glTF.getMaterials(), futures);
+            WorkerPool.waitFor(futures);
+        } finally {
+            for (int i = 0; i < restored.length; i++) {
+                cachedImages.remove(images[i]);
+            }
+        }
+        FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, "_CACHE_READ", start,
+                System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Stores the processed glTF in the cache, errors are logged and the cache is not used for the asset.
+     * 
+     * @param cache
+     * @param glTF
+     * @param key
+     */
+    protected void storeGLTFAssets(GLTFCache cache, GLTF glTF, String key) {
+        long start = System.currentTimeMillis();
+        try {
+            cache.store(glTF, key);
+            FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_GLTF, "_CACHE_WRITE", start,
+                    System.currentTimeMillis());
+        } catch (IOException e) {
+            SimpleLogger.d(getClass(), "Could not store cache for " + glTF.getFilename() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the normal, tangent and bitangent buffers for the primitives.
+     * Data is copied and calculated for all primitives in parallel by the {@link WorkerPool}, buffers are then
+     * added to the glTF in primitive order.
+     * 
+     * @param gltf
+     * @param primitives
+     */
+    protected void buildTBN(GLTF gltf, final Primitive[] primitives) {
         if (primitives != null) {
-            for (Primitive p : primitives) {
-                p.calculateTBN(gltf);
+            final Triangles[] triangles = new Triangles[primitives.length];
+            WorkerPool.getInstance().invokeRange(primitives.length, 1, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    for (int i = start; i < end; i++) {
+                        triangles[i] = primitives[i].createTriangles();
+                        primitives[i].calculateTBN(triangles[i]);
+                    }
+                }
+            });
+            for (int i = 0; i < primitives.length; i++) {
+                primitives[i].addTBN(gltf, triangles[i]);
             }
         }
 
@@ -149,7 +450,12 @@ public class GLAssetManager extends BaseAssets {
         try {
             renderer.getBufferFactory().destroyVBOs(renderer, gltf.getBuffers(null));
             deleteTextures(renderer, gltf, gltf.getImages());
-            gltfAssets.remove(gltf.getFilename());
+            synchronized (gltfAssets) {
+                if (gltfAssets.get(gltf.getFilename()) == gltf) {
+                    gltfAssets.remove(gltf.getFilename());
+                }
+            }
+            budget.remove(gltf);
             gltf.destroy();
         } catch (GLException e) {
             throw new BackendException(e.getMessage());
@@ -189,7 +495,7 @@ public class GLAssetManager extends BaseAssets {
 
     /**
      * Loads a glTF asset, this will not load binary data (buffers) or texture images.
-     * The returned asset is resolved using {@link RuntimeResolver}
+     * The returned asset is read using {@link GLTFReader} and resolved using {@link RuntimeResolver}
      * 
      * @param path Path where gltf assets such as binary buffers and images are loaded from.
      * @param name The filename
@@ -204,9 +510,7 @@ public class GLAssetManager extends BaseAssets {
         GLTF glTF = null;
         try {
             Reader reader = new InputStreamReader(is, "UTF-8");
-            GsonBuilder builder = new GsonBuilder();
-            Gson gson = builder.create();
-            glTF = gson.fromJson(reader, GLTF.class);
+            glTF = new GLTFReader().read(reader);
         } catch (UnsupportedEncodingException e) {
             SimpleLogger.d(getClass(), e.getMessage());
             return null;
@@ -215,47 +519,85 @@ public class GLAssetManager extends BaseAssets {
         }
         glTF.setPath(path);
         glTF.setFilename(fileName);
-        glTF.resolve();
         return glTF;
     }
 
     /**
-     * Loads the gltf buffers with binary data.
-     * TODO - Handle Buffer URIs so that a binary buffer is only loaded once even if it is referenced in several
-     * Nodes/Assets.
+     * Loads a glTF binary container (glb), the JSON chunk is parsed and the BIN chunk is set as the storage of the
+     * first buffer, ie no data is copied. If the glb is a file on the filesystem it is memory mapped.
+     * Buffers or images referenced by uri are not loaded.
      * 
-     * @param glTF
+     * @param path Path where external gltf assets such as binary buffers and images are loaded from.
+     * @param fileName The filename
+     * @param name The full name of the glb resource
+     * @return The loaded glTF asset, the buffer stored in the glb is present but any other buffers or images are not
+     * loaded.
      * @throws IOException
+     * @throws GLTFException If the glb is not valid or the glTF cannot be resolved
      */
-    protected void loadBuffers(GLTF glTF) throws IOException {
-        long start = System.currentTimeMillis();
+    private GLTF loadGLBAsset(String path, String fileName, String name) throws IOException, GLTFException {
+        ByteBuffer source = null;
         try {
-            for (Buffer b : glTF.getBuffers(null)) {
-                b.createBuffer();
-                b.load(glTF, b.getUri());
-            }
+            source = StreamUtils.readBufferFromName(name);
         } catch (URISyntaxException e) {
             throw new IOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Could not find gltf asset with name " + fileName, e);
         }
-        FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_BUFFERS, "_GLTF", start,
-                System.currentTimeMillis());
+        GLB glb = new GLB(source);
+        GLTF glTF = loadJSONAsset(path, fileName, new ByteBufferInputStream(glb.getJSON()));
+        ByteBuffer binary = glb.getBinary();
+        if (binary != null) {
+            Buffer buffer = glTF.getBuffer(0);
+            if (buffer.getUri() != null) {
+                throw new GLTFException("First buffer in glb with BIN chunk must not have uri");
+            }
+            buffer.setBuffer(binary);
+        }
+        return glTF;
     }
 
     /**
-     * Loads all textures for the specified materials
+     * Submits loading of the gltf buffers with binary data to the worker pool, the futures are added to the list.
+     * 
+     * @param glTF
+     * @param futures Future for each buffer that is loaded is added here
+     */
+    protected void loadBuffers(final GLTF glTF, List<Future<?>> futures) {
+        for (final Buffer b : glTF.getBuffers(null)) {
+            if (b.hasBuffer() || b.isFallback()) {
+                // Already loaded, for instance the BIN chunk of a glb, or created when compressed data is decoded
+                continue;
+            }
+            futures.add(WorkerPool.getInstance().submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException, URISyntaxException {
+                    long start = System.currentTimeMillis();
+                    b.load(glTF, b.getUri());
+                    FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_BUFFERS, "_GLTF " + b.getUri(),
+                            start, System.currentTimeMillis());
+                    return null;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Creates and uploads textures for the images in the gltf that have a bufferimage loaded but no texture object.
+     * Must be called on the GL thread.
      * 
      * @param renderer
      * @param gltf
-     * @param materials
-     * @throws IOException
      * @throws BackendException
      */
-    protected void loadTextures(NucleusRenderer renderer, GLTF gltf, Material[] materials)
-            throws IOException, BackendException {
+    protected void createTextures(NucleusRenderer renderer, GLTF gltf) throws BackendException {
         long start = System.currentTimeMillis();
-        if (materials != null) {
-            for (Material material : materials) {
-                loadTextures(renderer, gltf, material);
+        Image[] images = gltf.getImages();
+        if (images != null) {
+            for (Image img : images) {
+                if (img.getBufferImage() != null && img.getTextureName() <= 0) {
+                    internalCreateTexture(renderer, img);
+                }
             }
         }
         FrameSampler.getInstance().logTag(FrameSampler.Samples.CREATE_TEXTURE, "_ALL", start,
@@ -263,69 +605,113 @@ public class GLAssetManager extends BaseAssets {
     }
 
     /**
-     * Loads the textures needed for the PBR and material property, if texture bufferimage already loaded
-     * for a texture then it is skipped.
+     * Submits loading of texture images for the specified materials to the worker pool, images are only loaded
+     * once even if referenced by several materials.
+     * 
+     * @param gltf
+     * @param materials
+     * @param futures Future for each image that is loaded is added here
+     */
+    protected void loadTextureImages(GLTF gltf, Material[] materials, List<Future<?>> futures) {
+        if (materials != null) {
+            Set<Image> scheduled = new HashSet<>();
+            for (Material material : materials) {
+                loadTextureImages(gltf, material, scheduled, futures);
+            }
+        }
+    }
+
+    /**
+     * Submits loading of the images needed for the PBR and material property, if texture bufferimage is already
+     * loaded, or scheduled for loading, for a texture then it is skipped.
      * 
-     * @param renderer
      * @param gltf
      * @param material
-     * @throws IOException
+     * @param scheduled Images that are already scheduled for loading
+     * @param futures
      */
-    protected void loadTextures(NucleusRenderer renderer, GLTF gltf, Material material)
-            throws IOException, BackendException {
+    protected void loadTextureImages(GLTF gltf, Material material, Set<Image> scheduled, List<Future<?>> futures) {
         PBRMetallicRoughness pbr = material.getPbrMetallicRoughness();
-        loadTexture(renderer, gltf, pbr.getBaseColorTexture(), null, ColorModel.SRGB);
+        loadTextureImage(gltf, pbr.getBaseColorTexture(), null, ColorModel.SRGB, scheduled, futures);
         TextureInfo mrInfo = pbr.getMetallicRoughnessTexture();
-        loadTexture(renderer, gltf, material.getNormalTexture(), ImageFormat.RGB, ColorModel.LINEAR);
+        loadTextureImage(gltf, material.getNormalTexture(), NORMAL_IMAGE_FORMAT, ColorModel.LINEAR, scheduled, futures);
         TextureInfo occlInfo = material.getOcclusionTexture();
         if (mrInfo != null && occlInfo != null && mrInfo.getIndex() == occlInfo.getIndex()) {
             // Material has both metallicroughness and occlusion in the same texture
-            loadTexture(renderer, gltf, mrInfo, ImageFormat.RGB, ColorModel.LINEAR);
+            loadTextureImage(gltf, mrInfo, MR_OCCLUSION_IMAGE_FORMAT, ColorModel.LINEAR, scheduled, futures);
         } else {
             //TODO ImageFormat.RG actually means picking GB pixels and putting into RG (2 pixels)
-            Texture mr = loadTexture(renderer, gltf, mrInfo, ImageFormat.RG,
-                    ColorModel.LINEAR);
+            Texture mr = loadTextureImage(gltf, mrInfo, MR_IMAGE_FORMAT, ColorModel.LINEAR, scheduled, futures);
             if (mr != null) {
                 // Need to set texture swizzle so that RG is mapped to GB
                 mr.setSwizzle(Component.RED, Component.RED, Component.GREEN, Component.ALPHA);
-                loadTexture(renderer, gltf, mrInfo, ImageFormat.RG, ColorModel.LINEAR);
             } else if (occlInfo != null) {
-                loadTexture(renderer, gltf, occlInfo, ImageFormat.R, ColorModel.LINEAR);
+                loadTextureImage(gltf, occlInfo, OCCLUSION_IMAGE_FORMAT, ColorModel.LINEAR, scheduled, futures);
             }
         }
     }
 
     /**
-     * Loads the texture - if bufferimage is already present for the texture then nothing is done.
+     * Submits loading of the texture image to the worker pool - if bufferimage is already present, or scheduled,
+     * for the texture then nothing is done.
      * If texInfo is null then nothing is done
      * 
-     * @param renderer
      * @param gltf
      * @param texInfo
      * @param destFormat Optional destination image format, if null then same as source
      * @param colorModel If model is linear or srgb
-     * @return The loaded texture object
-     * @throws IOException
+     * @param scheduled Images that are already scheduled for loading
+     * @param futures
+     * @return The texture object that image is loaded for, or null if nothing is done
      */
-    protected Texture loadTexture(NucleusRenderer renderer, GLTF gltf, TextureInfo texInfo, ImageFormat destFormat,
-            BufferImage.ColorModel colorModel)
-            throws IOException, BackendException {
-        if (texInfo != null && gltf.getTexture(texInfo).getImage().getBufferImage() == null) {
-            // Have not loaded bufferimage for this texture
-            long start = System.currentTimeMillis();
-            Texture texture = gltf.getTexture(texInfo);
-            Image img = texture.getImage();
-            BufferImage bufferImage = getTextureImage(gltf.getPath(img.getUri()), destFormat);
-            bufferImage.setColorModel(colorModel);
-            img.setBufferImage(bufferImage);
-            internalCreateTexture(renderer, img);
-            FrameSampler.getInstance().logTag(FrameSampler.Samples.CREATE_TEXTURE, " " + texture.getName(), start,
-                    System.currentTimeMillis());
-            return texture;
+    protected Texture loadTextureImage(final GLTF gltf, TextureInfo texInfo, final ImageFormat destFormat,
+            final BufferImage.ColorModel colorModel, Set<Image> scheduled, List<Future<?>> futures) {
+        if (texInfo != null) {
+            final Texture texture = gltf.getTexture(texInfo);
+            final Image img = texture.getImage();
+            if (img.getBufferImage() == null && scheduled.add(img)) {
+                // Have not loaded bufferimage for this texture
+                futures.add(WorkerPool.getInstance().submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        long start = System.currentTimeMillis();
+                        BufferImage bufferImage = cachedImages.get(img);
+                        if (bufferImage == null) {
+                            bufferImage = img.getUri() != null
+                                    ? getTextureImage(gltf.getPath(img.getUri()), destFormat)
+                                    : getTextureImage(gltf, img, destFormat);
+                        }
+                        bufferImage.setColorModel(colorModel);
+                        img.setBufferImage(bufferImage);
+                        FrameSampler.getInstance().logTag(FrameSampler.Samples.LOAD_IMAGE, " " + texture.getName(),
+                                start, System.currentTimeMillis());
+                        return null;
+                    }
+                }));
+                return texture;
+            }
         }
         return null;
     }
 
+    /**
+     * Returns true if one or more images in the gltf are stored in a bufferView
+     * 
+     * @param gltf
+     * @return
+     */
+    protected boolean hasBufferViewImages(GLTF gltf) {
+        Image[] images = gltf.getImages();
+        if (images != null) {
+            for (Image img : images) {
+                if (img.getUri() == null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public BufferImage[] loadTextureMIPMAP(ImageFactory imageFactory, Texture2D texture) {
         try {
@@ -376,7 +762,11 @@ public class GLAssetManager extends BaseAssets {
     private void destroyBufferImage(GLTF gltf, Image image) {
         BufferImage.destroyImages(new BufferImage[] { image.getBufferImage() });
         image.setBufferImage(null);
-        images.remove(gltf.getPath(image.getUri()));
+        if (image.getUri() != null) {
+            synchronized (images) {
+                images.remove(gltf.getPath(image.getUri()));
+            }
+        }
     }
 
     /**
@@ -387,12 +777,41 @@ public class GLAssetManager extends BaseAssets {
      * @return
      * @throws IOException
      */
-    protected BufferImage getTextureImage(String uri, ImageFormat destFormat) throws IOException {
+    protected BufferImage getTextureImage(final String uri, final ImageFormat destFormat) throws IOException {
         if (uri != null) {
-            BufferImage textureImage = images.get(uri);
-            if (textureImage == null) {
-                textureImage = BaseImageFactory.getInstance().createImage(uri, destFormat);
-                images.put(uri, textureImage);
+            FutureTask<BufferImage> task = null;
+            Future<BufferImage> pending = null;
+            synchronized (images) {
+                BufferImage textureImage = images.get(uri);
+                if (textureImage != null) {
+                    return textureImage;
+                }
+                pending = loadingImages.get(uri);
+                if (pending == null) {
+                    task = new FutureTask<>(new Callable<BufferImage>() {
+                        @Override
+                        public BufferImage call() throws IOException {
+                            return BaseImageFactory.getInstance().createImage(uri, destFormat);
+                        }
+                    });
+                    loadingImages.put(uri, task);
+                }
+            }
+            if (task == null) {
+                // Image is decoded by another thread
+                return getImage(pending);
+            }
+            task.run();
+            BufferImage textureImage = null;
+            try {
+                textureImage = getImage(task);
+            } finally {
+                synchronized (images) {
+                    loadingImages.remove(uri);
+                    if (textureImage != null) {
+                        images.put(uri, textureImage);
+                    }
+                }
             }
             return textureImage;
         } else {
@@ -400,6 +819,39 @@ public class GLAssetManager extends BaseAssets {
         }
     }
 
+    /**
+     * Waits for the image to be decoded and returns it
+     * 
+     * @param future
+     * @return
+     * @throws IOException If the image could not be decoded
+     */
+    private BufferImage getImage(Future<BufferImage> future) throws IOException {
+        WorkerPool.waitFor(Collections.singletonList(future));
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            // Not reached, waitFor has thrown
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Decodes the texture image that is stored in a bufferView, the image is decoded from a slice of the buffer.
+     * These images belong to the gltf and are not shared.
+     * 
+     * @param gltf
+     * @param image Image that is stored in a bufferView, the buffer must be loaded.
+     * @param destFormat Optional destination image format, if null then same format as source will be chosen.
+     * @return
+     * @throws IOException
+     */
+    protected BufferImage getTextureImage(GLTF gltf, Image image, ImageFormat destFormat) throws IOException {
+        BufferView view = gltf.getBufferView(image.getBufferView());
+        return BaseImageFactory.getInstance().createImage(
+                gltf.getFilename() + " bufferView " + image.getBufferView(), view.getSlice(), destFormat);
+    }
+
     @Override
     protected int[] createTextureName() {
         int[] textureName = new int[1];
@@ -0,0 +1,184 @@
+package com.nucleus.opengl.headless;
+
+/**
+ * The GL entry points of the GLES wrapper, one value for each function - the name is the same as the GL function.
+ * Used by {@link HeadlessGLESWrapper} to count and record calls.
+ *
+ */
+public enum GLCall {
+    // GLES 2.0
+    glFramebufferTexture2D,
+    glGenFramebuffers,
+    glBindFramebuffer,
+    glAttachShader,
+    glLinkProgram,
+    glShaderSource,
+    glCompileShader,
+    glValidateProgram,
+    glCreateShader,
+    glCreateProgram,
+    glDeleteProgram,
+    glGenBuffers,
+    glDeleteBuffers,
+    glBindBuffer,
+    glBufferData,
+    glGetShaderiv,
+    glUseProgram,
+    glGetProgramiv,
+    glGetActiveAttrib,
+    glGetActiveUniform,
+    glGetUniformLocation,
+    glGetAttribLocation,
+    glGetError,
+    glVertexAttribPointer,
+    glEnableVertexAttribArray,
+    glDisableVertexAttribArray,
+    glUniformMatrix4fv,
+    glUniformMatrix3fv,
+    glUniformMatrix2fv,
+    glDrawArrays,
+    glDrawElements,
+    glBindAttribLocation,
+    glViewport,
+    glGetShaderInfoLog,
+    glGetProgramInfoLog,
+    glGenTextures,
+    glActiveTexture,
+    glBindTexture,
+    glGetString,
+    glGetIntegerv,
+    glUniform4fv,
+    glUniform3fv,
+    glUniform2fv,
+    glUniform1fv,
+    glUniform1iv,
+    glUniform1i,
+    glTexParameterf,
+    glTexParameteri,
+    glClearColor,
+    glColorMask,
+    glClear,
+    glDisable,
+    glEnable,
+    glCullFace,
+    glLineWidth,
+    glDepthFunc,
+    glDepthMask,
+    glClearDepthf,
+    glDepthRangef,
+    glTexImage2D,
+    glPixelStorei,
+    glDeleteTextures,
+    glGenerateMipmap,
+    glBlendEquationSeparate,
+    glBlendFuncSeparate,
+    glFinish,
+    glCheckFramebufferStatus,
+    glGetShaderSource,
+    // GLES 3.0
+    glDrawRangeElements,
+    glSamplerParameteri,
+    glBindBufferBase,
+    glUniformBlockBinding,
+    glBindBufferRange,
+    glGetUniformBlockIndex,
+    glGetActiveUniformBlockiv,
+    glGetActiveUniformBlockName,
+    glGetActiveUniformsiv,
+    glMapBufferRange,
+    glUnmapBuffer,
+    glFlushMappedBufferRange,
+    glTexStorage2D,
+    // GLES 3.1
+    glDispatchCompute,
+    glDispatchComputeIndirect,
+    glDrawArraysIndirect,
+    glDrawElementsIndirect,
+    glGetFramebufferParameteriv,
+    glGetProgramInterfaceiv,
+    glGetProgramResourceIndex,
+    glGetProgramResourceName,
+    glGetProgramResourceiv,
+    glGetProgramResourceLocation,
+    glUseProgramStages,
+    glActiveShaderProgram,
+    glCreateShaderProgramv,
+    glBindProgramPipeline,
+    glDeleteProgramPipelines,
+    glGenProgramPipelines,
+    glIsProgramPipeline,
+    glGetProgramPipelineiv,
+    glProgramUniform1i,
+    glProgramUniform4i,
+    glProgramUniform4ui,
+    glProgramUniform4f,
+    glProgramUniform4iv,
+    glProgramUniform4uiv,
+    glProgramUniform4fv,
+    glProgramUniformMatrix2fv,
+    glProgramUniformMatrix3fv,
+    glProgramUniformMatrix4fv,
+    glProgramUniformMatrix3x4fv,
+    glProgramUniformMatrix4x3fv,
+    glValidateProgramPipeline,
+    glGetProgramPipelineInfoLog,
+    glBindImageTexture,
+    glGetBooleani_v,
+    glMemoryBarrier,
+    glMemoryBarrierByRegion,
+    glTexStorage2DMultisample,
+    glGetMultisamplefv,
+    glSampleMaski,
+    glGetTexLevelParameteriv,
+    glGetTexLevelParameterfv,
+    glBindVertexBuffer,
+    glVertexAttribFormat,
+    glVertexAttribIFormat,
+    glVertexAttribBinding,
+    glVertexBindingDivisor,
+    // GLES 3.2
+    glDrawElementsBaseVertex,
+    glDrawRangeElementsBaseVertex,
+    glDrawElementsInstancedBaseVertex,
+    glFramebufferTexture,
+    glPrimitiveBoundingBox,
+    glGetGraphicsResetStatus,
+    glMinSampleShading,
+    glPatchParameteri,
+    glTexParameterIiv,
+    glTexParameterIuiv,
+    glSamplerParameterIiv,
+    glSamplerParameterIuiv,
+    glTexBuffer,
+    glTexBufferRange,
+    glTexStorage3DMultisample,
+    glBlendBarrier,
+    glCopyImageSubData,
+    glDebugMessageControl,
+    glDebugMessageInsert,
+    glGetDebugMessageLog,
+    glPushDebugGroup,
+    glPopDebugGroup,
+    glObjectLabel,
+    glGetObjectLabel,
+    glObjectPtrLabel,
+    glGetObjectPtrLabel,
+    glGetPointerv,
+    glEnablei,
+    glDisablei,
+    glBlendEquationi,
+    glBlendEquationSeparatei,
+    glBlendFunci,
+    glBlendFuncSeparatei,
+    glColorMaski,
+    glIsEnabledi,
+    glReadnPixels,
+    glGetnUniformfv,
+    glGetnUniformiv,
+    glGetnUniformuiv,
+    glGetTexParameterIiv,
+    glGetTexParameterIuiv,
+    glGetSamplerParameterIiv,
+    glGetSamplerParameterIuiv;
+
+}
@@ -0,0 +1,3045 @@
+package com.nucleus.opengl.headless;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+
+import com.nucleus.opengl.GLES32Wrapper;
+import com.nucleus.opengl.headless.ShaderReflection.Variable;
+import com.nucleus.renderer.NucleusRenderer.Renderers;
+
+/**
+ * GLES wrapper that does not need a GPU or display, GL objects are kept in memory and the GL state needed by the
+ * renderer is tracked so that the renderer, pipelines and glTF rendering can run unchanged, for instance in unit
+ * tests, benchmarks or on a CI machine.
+ * Nothing is rendered, all calls are counted and can optionally be recorded using {@link #setRecording(boolean)}
+ * Shaders are not compiled, attributes and uniforms are found by {@link ShaderReflection} when a program is linked.
+ * Errors are reported using glGetError() for the most common cases, such as unknown objects or drawing without a
+ * program.
+ * This class is not thread safe, calls shall be made from one thread - as with a GL context.
+ *
+ */
+public class HeadlessGLESWrapper extends GLES32Wrapper {
+
+    public static final String VENDOR = "Nucleus";
+    public static final String RENDERER = "Headless";
+
+    public static final int MAX_VERTEX_ATTRIBS = 16;
+    public static final int MAX_TEXTURE_UNITS = 32;
+    public static final int MAX_TEXTURE_SIZE = 8192;
+
+    private static final int INVALID_INDEX = -1;
+
+    /**
+     * Buffer object, data is kept so that buffers can be mapped
+     */
+    private static class BufferObject {
+        private int size;
+        private int usage;
+        private ByteBuffer data;
+        private ByteBuffer mapped;
+    }
+
+    private static class TextureObject {
+        private final int target;
+        private int width;
+        private int height;
+        private int internalFormat;
+        private int levels;
+        private boolean immutable;
+
+        private TextureObject(int target) {
+            this.target = target;
+        }
+    }
+
+    private static class ShaderObject {
+        private final int type;
+        private String source;
+        private boolean compiled;
+        private boolean deletePending;
+
+        private ShaderObject(int type) {
+            this.type = type;
+        }
+    }
+
+    private static class ProgramObject {
+        private final ArrayList<ShaderObject> shaders = new ArrayList<>();
+        private final HashMap<String, Integer> attributeBindings = new HashMap<>();
+        private ArrayList<Variable> attributes = new ArrayList<>();
+        private ArrayList<Variable> uniforms = new ArrayList<>();
+        private int[] attributeLocations = new int[0];
+        private int[] uniformLocations = new int[0];
+        private int uniformLocationCount;
+        private boolean linked;
+        private boolean validated;
+        private boolean separable;
+        private boolean deletePending;
+        private String infoLog = "";
+    }
+
+    /**
+     * Program pipeline, the program for each stage
+     */
+    private static class PipelineObject {
+        private int activeProgram;
+        private int vertexProgram;
+        private int fragmentProgram;
+        private int computeProgram;
+    }
+
+    private final ObjectTable<BufferObject> buffers = new ObjectTable<>();
+    private final ObjectTable<TextureObject> textures = new ObjectTable<>();
+    /**
+     * Shaders and programs share the same namespace
+     */
+    private final ObjectTable<Object> programObjects = new ObjectTable<>();
+    private final ObjectTable<Object> framebuffers = new ObjectTable<>();
+    private final ObjectTable<PipelineObject> pipelines = new ObjectTable<>();
+
+    private final int[] bufferBindings = new int[13];
+    private final int[][] textureBindings = new int[MAX_TEXTURE_UNITS][7];
+    private final boolean[] vertexAttribArrays = new boolean[MAX_VERTEX_ATTRIBS];
+    private final BitSet enabledCaps = new BitSet();
+    private final int[] viewport = new int[4];
+    private final HashMap<Long, String> labels = new HashMap<>();
+    private int activeTexture;
+    private int currentProgram;
+    private int framebuffer;
+    private int pipeline;
+    private int error = GLES20.GL_NO_ERROR;
+
+    private final int[] callCounts = new int[GLCall.values().length];
+    private long totalCalls;
+    private long drawCalls;
+    private long drawnElements;
+    private long stateChanges;
+    private long redundantCalls;
+    private long uploadedBytes;
+    private boolean recording;
+    private final ArrayList<String> recordedCalls = new ArrayList<>();
+
+    /**
+     * Implementation constructor - DO NOT USE - fetch from {@link HeadlessWrapperFactory}
+     *
+     * @param version The GLES version to report, GLES20 to GLES32
+     */
+    public HeadlessGLESWrapper(Renderers version) {
+        super(Platform.GLES, version);
+        enabledCaps.set(GLES20.GL_DITHER);
+    }
+
+    /**
+     * Enables or disables recording of calls, when enabled each call is stored as a String, eg
+     * "glDrawElements(4, 36, 5125, 0)" - use {@link #getRecordedCalls()} to fetch.
+     * Calls are always counted regardless of recording.
+     *
+     * @param recording
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Returns true if calls are recorded
+     *
+     * @return
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Returns the recorded calls, in the order they were made
+     *
+     * @return
+     */
+    public List<String> getRecordedCalls() {
+        return recordedCalls;
+    }
+
+    /**
+     * Removes all recorded calls
+     */
+    public void clearRecording() {
+        recordedCalls.clear();
+    }
+
+    /**
+     * Returns the number of times the GL function has been called since created or {@link #resetCounters()}
+     *
+     * @param call
+     * @return
+     */
+    public int getCallCount(GLCall call) {
+        return callCounts[call.ordinal()];
+    }
+
+    /**
+     * Returns the total number of GL calls
+     *
+     * @return
+     */
+    public long getTotalCalls() {
+        return totalCalls;
+    }
+
+    /**
+     * Returns the number of draw calls, glDrawArrays, glDrawElements and variants
+     *
+     * @return
+     */
+    public long getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Returns the number of vertices or indices drawn, including all instances.
+     *
+     * @return
+     */
+    public long getDrawnElements() {
+        return drawnElements;
+    }
+
+    /**
+     * Returns the number of calls that changed bound objects or enabled state, program, buffer, texture,
+     * framebuffer, caps, vertex arrays and viewport.
+     *
+     * @return
+     */
+    public long getStateChanges() {
+        return stateChanges;
+    }
+
+    /**
+     * Returns the number of bind, enable or disable calls that set the state that was already set.
+     *
+     * @return
+     */
+    public long getRedundantCalls() {
+        return redundantCalls;
+    }
+
+    /**
+     * Returns the number of bytes uploaded using glBufferData and glTexImage2D
+     *
+     * @return
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Sets all counters to 0, recorded calls are not cleared
+     */
+    public void resetCounters() {
+        Arrays.fill(callCounts, 0);
+        totalCalls = 0;
+        drawCalls = 0;
+        drawnElements = 0;
+        stateChanges = 0;
+        redundantCalls = 0;
+        uploadedBytes = 0;
+    }
+
+    /**
+     * Returns the number of allocated buffer objects
+     *
+     * @return
+     */
+    public int getBufferCount() {
+        return buffers.size();
+    }
+
+    /**
+     * Returns the number of allocated texture objects
+     *
+     * @return
+     */
+    public int getTextureCount() {
+        return textures.size();
+    }
+
+    /**
+     * Returns the number of allocated shader and program objects
+     *
+     * @return
+     */
+    public int getProgramObjectCount() {
+        return programObjects.size();
+    }
+
+    /**
+     * Counts the call and returns true if the call shall be recorded
+     *
+     * @param call
+     * @return
+     */
+    private boolean call(GLCall call) {
+        callCounts[call.ordinal()]++;
+        totalCalls++;
+        return recording;
+    }
+
+    private void record(GLCall call, Object... args) {
+        StringBuilder sb = new StringBuilder(call.name()).append('(');
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            Object arg = args[i];
+            if (arg instanceof Buffer) {
+                sb.append(arg.getClass().getSimpleName()).append('[').append(((Buffer) arg).remaining())
+                        .append(']');
+            } else if (arg instanceof int[]) {
+                sb.append(Arrays.toString((int[]) arg));
+            } else if (arg instanceof String) {
+                sb.append('"').append(arg).append('"');
+            } else if (arg instanceof String[]) {
+                sb.append("String[").append(((String[]) arg).length).append(']');
+            } else if (arg instanceof byte[]) {
+                sb.append("byte[").append(((byte[]) arg).length).append(']');
+            } else {
+                sb.append(arg);
+            }
+        }
+        recordedCalls.add(sb.append(')').toString());
+    }
+
+    /**
+     * Sets the error, if an error is already set it is kept until fetched by glGetError
+     *
+     * @param error
+     */
+    private void setError(int error) {
+        if (this.error == GLES20.GL_NO_ERROR) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * Updates state change counters
+     *
+     * @param changed True if state is changed, false if redundant call
+     */
+    private void stateChange(boolean changed) {
+        if (changed) {
+            stateChanges++;
+        } else {
+            redundantCalls++;
+        }
+    }
+
+    private int getBufferTargetIndex(int target) {
+        switch (target) {
+            case GLES20.GL_ARRAY_BUFFER:
+                return 0;
+            case GLES20.GL_ELEMENT_ARRAY_BUFFER:
+                return 1;
+            case GLES30.GL_COPY_READ_BUFFER:
+                return 2;
+            case GLES30.GL_COPY_WRITE_BUFFER:
+                return 3;
+            case GLES30.GL_PIXEL_PACK_BUFFER:
+                return 4;
+            case GLES30.GL_PIXEL_UNPACK_BUFFER:
+                return 5;
+            case GLES30.GL_TRANSFORM_FEEDBACK_BUFFER:
+                return 6;
+            case GLES30.GL_UNIFORM_BUFFER:
+                return 7;
+            case GLES31.GL_ATOMIC_COUNTER_BUFFER:
+                return 8;
+            case GLES31.GL_SHADER_STORAGE_BUFFER:
+                return 9;
+            case GLES31.GL_DISPATCH_INDIRECT_BUFFER:
+                return 10;
+            case GLES31.GL_DRAW_INDIRECT_BUFFER:
+                return 11;
+            case GLES32.GL_TEXTURE_BUFFER:
+                return 12;
+            default:
+                return -1;
+        }
+    }
+
+    private int getTextureTargetIndex(int target) {
+        switch (target) {
+            case GLES20.GL_TEXTURE_2D:
+                return 0;
+            case GLES20.GL_TEXTURE_CUBE_MAP:
+            case GLES20.GL_TEXTURE_CUBE_MAP_POSITIVE_X:
+            case GLES20.GL_TEXTURE_CUBE_MAP_NEGATIVE_X:
+            case GLES20.GL_TEXTURE_CUBE_MAP_POSITIVE_Y:
+            case GLES20.GL_TEXTURE_CUBE_MAP_NEGATIVE_Y:
+            case GLES20.GL_TEXTURE_CUBE_MAP_POSITIVE_Z:
+            case GLES20.GL_TEXTURE_CUBE_MAP_NEGATIVE_Z:
+                return 1;
+            case GLES30.GL_TEXTURE_3D:
+                return 2;
+            case GLES30.GL_TEXTURE_2D_ARRAY:
+                return 3;
+            case GLES31.GL_TEXTURE_2D_MULTISAMPLE:
+                return 4;
+            case GLES32.GL_TEXTURE_BUFFER:
+                return 5;
+            case GLES32.GL_TEXTURE_CUBE_MAP_ARRAY:
+                return 6;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the buffer bound to target, sets error and returns null if target is invalid or no buffer bound.
+     *
+     * @param target
+     * @return
+     */
+    private BufferObject getBoundBuffer(int target) {
+        int index = getBufferTargetIndex(target);
+        if (index < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return null;
+        }
+        BufferObject buffer = buffers.get(bufferBindings[index]);
+        if (buffer == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the texture bound to target on the active unit, sets error and returns null if target is invalid
+     * or no texture bound.
+     *
+     * @param target
+     * @return
+     */
+    private TextureObject getBoundTexture(int target) {
+        int index = getTextureTargetIndex(target);
+        if (index < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return null;
+        }
+        TextureObject texture = textures.get(textureBindings[activeTexture][index]);
+        if (texture == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+        return texture;
+    }
+
+    private ShaderObject getShader(int shader) {
+        Object object = programObjects.get(shader);
+        if (object instanceof ShaderObject) {
+            return (ShaderObject) object;
+        }
+        setError(object == null ? GLES20.GL_INVALID_VALUE : GLES20.GL_INVALID_OPERATION);
+        return null;
+    }
+
+    private ProgramObject getProgram(int program) {
+        Object object = programObjects.get(program);
+        if (object instanceof ProgramObject) {
+            return (ProgramObject) object;
+        }
+        setError(object == null ? GLES20.GL_INVALID_VALUE : GLES20.GL_INVALID_OPERATION);
+        return null;
+    }
+
+    /**
+     * Returns the linked program that uniforms are set to, the current program or the active program of the
+     * bound pipeline. Sets error if there is no linked program.
+     *
+     * @return
+     */
+    private ProgramObject getUniformProgram() {
+        int program = currentProgram;
+        if (program == 0 && pipeline != 0) {
+            program = pipelines.get(pipeline).activeProgram;
+        }
+        Object object = programObjects.get(program);
+        if (object instanceof ProgramObject && ((ProgramObject) object).linked) {
+            return (ProgramObject) object;
+        }
+        setError(GLES20.GL_INVALID_OPERATION);
+        return null;
+    }
+
+    /**
+     * Checks that the uniform location is valid for the program, -1 is silently ignored.
+     *
+     * @param program
+     * @param location
+     * @param count
+     */
+    private void checkUniform(ProgramObject program, int location, int count) {
+        if (count < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+        } else if (program != null && location != -1
+                && (location < 0 || location >= program.uniformLocationCount)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    /**
+     * Checks that a draw can be made, a linked program or program pipeline must be used.
+     *
+     * @param mode
+     * @param count
+     * @return True if the draw is valid
+     */
+    private boolean checkDraw(int mode, int count) {
+        if (mode < GLES20.GL_POINTS || mode > GLES20.GL_TRIANGLE_FAN) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return false;
+        }
+        if (count < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return false;
+        }
+        return checkProgram();
+    }
+
+    private boolean checkProgram() {
+        if (currentProgram == 0 && pipeline == 0) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return false;
+        }
+        if (currentProgram != 0) {
+            Object program = programObjects.get(currentProgram);
+            if (!(program instanceof ProgramObject) || !((ProgramObject) program).linked) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean checkIndexType(int type) {
+        switch (type) {
+            case GLES20.GL_UNSIGNED_BYTE:
+            case GLES20.GL_UNSIGNED_SHORT:
+            case GLES20.GL_UNSIGNED_INT:
+                return true;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return false;
+        }
+    }
+
+    private void draw(int count, int instances) {
+        drawCalls++;
+        drawnElements += (long) count * instances;
+    }
+
+    private boolean checkVertexAttrib(int index) {
+        if (index < 0 || index >= MAX_VERTEX_ATTRIBS) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the index, size and component type of a vertex attrib pointer, sets error if not valid.
+     *
+     * @param index
+     * @param size
+     * @param type
+     */
+    private void checkVertexAttribPointer(int index, int size, int type) {
+        if (!checkVertexAttrib(index)) {
+            return;
+        }
+        if (size < 1 || size > 4) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        switch (type) {
+            case GLES20.GL_BYTE:
+            case GLES20.GL_UNSIGNED_BYTE:
+            case GLES20.GL_SHORT:
+            case GLES20.GL_UNSIGNED_SHORT:
+            case GLES20.GL_FIXED:
+            case GLES20.GL_FLOAT:
+                break;
+            case GLES30.GL_HALF_FLOAT:
+            case GLES20.GL_INT:
+            case GLES20.GL_UNSIGNED_INT:
+                if (renderVersion.major >= 3) {
+                    break;
+                }
+                setError(GLES20.GL_INVALID_ENUM);
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    /**
+     * Returns the size in bytes of the remaining elements in the buffer
+     *
+     * @param buffer
+     * @return
+     */
+    private static int getByteSize(Buffer buffer) {
+        if (buffer == null) {
+            return 0;
+        }
+        if (buffer instanceof ByteBuffer) {
+            return buffer.remaining();
+        }
+        if (buffer instanceof ShortBuffer) {
+            return buffer.remaining() * 2;
+        }
+        return buffer.remaining() * 4;
+    }
+
+    /**
+     * Copies the remaining data of source into destination, positions are not changed.
+     *
+     * @param source
+     * @param destination
+     * @param bytes Max number of bytes to copy
+     */
+    private static void copy(Buffer source, ByteBuffer destination, int bytes) {
+        ByteBuffer dest = destination.duplicate().order(destination.order());
+        dest.clear();
+        if (source instanceof ByteBuffer) {
+            ByteBuffer src = ((ByteBuffer) source).duplicate();
+            src.limit(src.position() + Math.min(bytes, src.remaining()));
+            dest.put(src);
+        } else if (source instanceof FloatBuffer) {
+            FloatBuffer src = ((FloatBuffer) source).duplicate();
+            src.limit(src.position() + Math.min(bytes / 4, src.remaining()));
+            dest.asFloatBuffer().put(src);
+        } else if (source instanceof IntBuffer) {
+            IntBuffer src = ((IntBuffer) source).duplicate();
+            src.limit(src.position() + Math.min(bytes / 4, src.remaining()));
+            dest.asIntBuffer().put(src);
+        } else if (source instanceof ShortBuffer) {
+            ShortBuffer src = ((ShortBuffer) source).duplicate();
+            src.limit(src.position() + Math.min(bytes / 2, src.remaining()));
+            dest.asShortBuffer().put(src);
+        }
+    }
+
+    /**
+     * Writes the name as bytes, a terminating 0 is written if there is room.
+     *
+     * @param name
+     * @param length The number of chars written, excluding terminating 0, is stored here
+     * @param lengthOffset
+     * @param destination
+     */
+    private static void writeName(String name, int[] length, int lengthOffset, byte[] destination) {
+        int count = Math.min(name.length(), destination.length - 1);
+        for (int i = 0; i < count; i++) {
+            destination[i] = (byte) name.charAt(i);
+        }
+        if (count >= 0 && count < destination.length) {
+            destination[count] = 0;
+        }
+        length[lengthOffset] = Math.max(0, count);
+    }
+
+    private static int getMaxNameLength(ArrayList<Variable> variables) {
+        int max = 0;
+        for (Variable v : variables) {
+            max = Math.max(max, v.getActiveName().length() + 1);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the index of the variable with the name, name may have [index] or [0], or -1 if not found.
+     *
+     * @param variables
+     * @param name
+     * @return
+     */
+    private static int getVariableIndex(ArrayList<Variable> variables, String name) {
+        int bracket = name.indexOf('[');
+        String base = bracket > 0 ? name.substring(0, bracket) : name;
+        for (int i = 0; i < variables.size(); i++) {
+            if (variables.get(i).name.equals(base)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the array element index from a name such as "name[2]", 0 if not array or -1 if invalid.
+     *
+     * @param name
+     * @return
+     */
+    private static int getArrayIndex(String name) {
+        int bracket = name.indexOf('[');
+        if (bracket < 0) {
+            return 0;
+        }
+        int end = name.indexOf(']', bracket);
+        if (end < 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(bracket + 1, end).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Sets the attribute and uniform locations of a linked program, bound attribute locations are used first then
+     * the lowest free locations are used.
+     *
+     * @param program
+     */
+    private void setLocations(ProgramObject program) {
+        program.attributeLocations = new int[program.attributes.size()];
+        boolean[] used = new boolean[MAX_VERTEX_ATTRIBS];
+        for (int i = 0; i < program.attributes.size(); i++) {
+            Variable a = program.attributes.get(i);
+            Integer binding = program.attributeBindings.get(a.name);
+            program.attributeLocations[i] = -1;
+            if (binding != null) {
+                program.attributeLocations[i] = binding;
+                for (int slot = binding; slot < Math.min(MAX_VERTEX_ATTRIBS, binding + a.getAttributeSlots()); slot++) {
+                    used[slot] = true;
+                }
+            }
+        }
+        for (int i = 0; i < program.attributes.size(); i++) {
+            if (program.attributeLocations[i] == -1) {
+                int slots = program.attributes.get(i).getAttributeSlots();
+                for (int location = 0; location + slots <= MAX_VERTEX_ATTRIBS; location++) {
+                    boolean free = true;
+                    for (int slot = location; slot < location + slots; slot++) {
+                        free = free && !used[slot];
+                    }
+                    if (free) {
+                        program.attributeLocations[i] = location;
+                        Arrays.fill(used, location, location + slots, true);
+                        break;
+                    }
+                }
+                if (program.attributeLocations[i] == -1) {
+                    program.linked = false;
+                    program.infoLog = "Too many attributes";
+                }
+            }
+        }
+        program.uniformLocations = new int[program.uniforms.size()];
+        int location = 0;
+        for (int i = 0; i < program.uniforms.size(); i++) {
+            program.uniformLocations[i] = location;
+            location += program.uniforms.get(i).size;
+        }
+        program.uniformLocationCount = location;
+    }
+
+    private void deleteProgramObject(int name) {
+        Object object = programObjects.get(name);
+        if (object instanceof ProgramObject) {
+            for (ShaderObject shader : ((ProgramObject) object).shaders) {
+                if (shader.deletePending) {
+                    shader.deletePending = false;
+                }
+            }
+        }
+        programObjects.delete(name);
+    }
+
+    /**
+     * ---------------------------------------------------
+     * GLES20 calls
+     * ---------------------------------------------------
+     */
+
+    @Override
+    public void glFramebufferTexture2D(int target, int attachment, int textarget, int texture, int level) {
+        if (call(GLCall.glFramebufferTexture2D)) {
+            record(GLCall.glFramebufferTexture2D, target, attachment, textarget, texture, level);
+        }
+        if (framebuffer == 0 || (texture != 0 && !textures.isAllocated(texture))) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glGenFramebuffers(int[] buffers) {
+        if (call(GLCall.glGenFramebuffers)) {
+            record(GLCall.glGenFramebuffers, buffers.length);
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = framebuffers.create(null);
+        }
+    }
+
+    @Override
+    public void glBindFramebuffer(int target, int framebuffer) {
+        if (call(GLCall.glBindFramebuffer)) {
+            record(GLCall.glBindFramebuffer, target, framebuffer);
+        }
+        if (framebuffer != 0 && !framebuffers.isAllocated(framebuffer)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        stateChange(this.framebuffer != framebuffer);
+        this.framebuffer = framebuffer;
+    }
+
+    @Override
+    public void glAttachShader(int program, int shader) {
+        if (call(GLCall.glAttachShader)) {
+            record(GLCall.glAttachShader, program, shader);
+        }
+        ProgramObject p = getProgram(program);
+        ShaderObject s = getShader(shader);
+        if (p != null && s != null) {
+            if (p.shaders.contains(s)) {
+                setError(GLES20.GL_INVALID_OPERATION);
+            } else {
+                p.shaders.add(s);
+            }
+        }
+    }
+
+    @Override
+    public void glLinkProgram(int program) {
+        if (call(GLCall.glLinkProgram)) {
+            record(GLCall.glLinkProgram, program);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return;
+        }
+        boolean vertex = false;
+        boolean fragment = false;
+        boolean compute = false;
+        p.linked = true;
+        p.infoLog = "";
+        ShaderReflection reflection = new ShaderReflection();
+        for (ShaderObject shader : p.shaders) {
+            if (!shader.compiled) {
+                p.linked = false;
+                p.infoLog = "Shader not compiled";
+            } else {
+                vertex |= shader.type == GLES20.GL_VERTEX_SHADER;
+                fragment |= shader.type == GLES20.GL_FRAGMENT_SHADER;
+                compute |= shader.type == GLES31.GL_COMPUTE_SHADER;
+                reflection.parse(shader.source, shader.type == GLES20.GL_VERTEX_SHADER);
+            }
+        }
+        if (p.linked && !compute && !p.separable && !(vertex && fragment)) {
+            p.linked = false;
+            p.infoLog = "Program must have vertex and fragment shader";
+        }
+        reflection.removeUnused();
+        p.attributes = reflection.getAttributes();
+        p.uniforms = reflection.getUniforms();
+        setLocations(p);
+    }
+
+    @Override
+    public void glShaderSource(int shader, String shaderSource) {
+        if (call(GLCall.glShaderSource)) {
+            record(GLCall.glShaderSource, shader, shaderSource.length());
+        }
+        ShaderObject s = getShader(shader);
+        if (s != null) {
+            s.source = shaderSource;
+        }
+    }
+
+    @Override
+    public void glCompileShader(int shader) {
+        if (call(GLCall.glCompileShader)) {
+            record(GLCall.glCompileShader, shader);
+        }
+        ShaderObject s = getShader(shader);
+        if (s != null) {
+            s.compiled = s.source != null;
+        }
+    }
+
+    @Override
+    public void glValidateProgram(int program) {
+        if (call(GLCall.glValidateProgram)) {
+            record(GLCall.glValidateProgram, program);
+        }
+        ProgramObject p = getProgram(program);
+        if (p != null) {
+            p.validated = p.linked;
+        }
+    }
+
+    @Override
+    public int glCreateShader(int type) {
+        if (call(GLCall.glCreateShader)) {
+            record(GLCall.glCreateShader, type);
+        }
+        switch (type) {
+            case GLES20.GL_VERTEX_SHADER:
+            case GLES20.GL_FRAGMENT_SHADER:
+            case GLES31.GL_COMPUTE_SHADER:
+            case GLES32.GL_GEOMETRY_SHADER:
+            case GLES32.GL_TESS_CONTROL_SHADER:
+            case GLES32.GL_TESS_EVALUATION_SHADER:
+                return programObjects.create(new ShaderObject(type));
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return 0;
+        }
+    }
+
+    @Override
+    public int glCreateProgram() {
+        if (call(GLCall.glCreateProgram)) {
+            record(GLCall.glCreateProgram);
+        }
+        return programObjects.create(new ProgramObject());
+    }
+
+    @Override
+    public void glDeleteProgram(int program) {
+        if (call(GLCall.glDeleteProgram)) {
+            record(GLCall.glDeleteProgram, program);
+        }
+        if (program == 0) {
+            return;
+        }
+        ProgramObject p = getProgram(program);
+        if (p != null) {
+            if (program == currentProgram) {
+                p.deletePending = true;
+            } else {
+                deleteProgramObject(program);
+            }
+        }
+    }
+
+    @Override
+    public void glGenBuffers(int[] buffers) {
+        if (call(GLCall.glGenBuffers)) {
+            record(GLCall.glGenBuffers, buffers.length);
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = this.buffers.create(null);
+        }
+    }
+
+    @Override
+    public void glDeleteBuffers(int n, int[] buffers, int offset) {
+        if (call(GLCall.glDeleteBuffers)) {
+            record(GLCall.glDeleteBuffers, n, buffers, offset);
+        }
+        for (int i = 0; i < n; i++) {
+            int name = buffers[offset + i];
+            if (this.buffers.delete(name)) {
+                for (int target = 0; target < bufferBindings.length; target++) {
+                    if (bufferBindings[target] == name) {
+                        bufferBindings[target] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void glBindBuffer(int target, int buffer) {
+        if (call(GLCall.glBindBuffer)) {
+            record(GLCall.glBindBuffer, target, buffer);
+        }
+        int index = getBufferTargetIndex(target);
+        if (index < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return;
+        }
+        if (buffer != 0 && !buffers.isAllocated(buffer)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (buffer != 0 && buffers.get(buffer) == null) {
+            buffers.set(buffer, new BufferObject());
+        }
+        stateChange(bufferBindings[index] != buffer);
+        bufferBindings[index] = buffer;
+    }
+
+    @Override
+    public void glBufferData(int target, int size, Buffer data, int usage) {
+        if (call(GLCall.glBufferData)) {
+            record(GLCall.glBufferData, target, size, data, usage);
+        }
+        if (size < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        BufferObject buffer = getBoundBuffer(target);
+        if (buffer == null) {
+            return;
+        }
+        if (buffer.data == null || buffer.data.capacity() < size) {
+            buffer.data = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+        }
+        buffer.size = size;
+        buffer.usage = usage;
+        buffer.mapped = null;
+        if (data != null) {
+            copy(data, buffer.data, size);
+            uploadedBytes += size;
+        }
+    }
+
+    @Override
+    public void glGetShaderiv(int shader, int pname, IntBuffer params) {
+        if (call(GLCall.glGetShaderiv)) {
+            record(GLCall.glGetShaderiv, shader, pname);
+        }
+        ShaderObject s = getShader(shader);
+        if (s == null) {
+            return;
+        }
+        int value = 0;
+        switch (pname) {
+            case GLES20.GL_COMPILE_STATUS:
+                value = s.compiled ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            case GLES20.GL_SHADER_TYPE:
+                value = s.type;
+                break;
+            case GLES20.GL_DELETE_STATUS:
+                value = s.deletePending ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            case GLES20.GL_INFO_LOG_LENGTH:
+                value = 0;
+                break;
+            case GLES20.GL_SHADER_SOURCE_LENGTH:
+                value = s.source != null ? s.source.length() + 1 : 0;
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return;
+        }
+        params.put(params.position(), value);
+    }
+
+    @Override
+    public void glUseProgram(int program) {
+        if (call(GLCall.glUseProgram)) {
+            record(GLCall.glUseProgram, program);
+        }
+        if (program != 0) {
+            ProgramObject p = getProgram(program);
+            if (p == null) {
+                return;
+            }
+            if (!p.linked) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+        }
+        stateChange(currentProgram != program);
+        if (currentProgram != program && currentProgram != 0) {
+            Object previous = programObjects.get(currentProgram);
+            if (previous instanceof ProgramObject && ((ProgramObject) previous).deletePending) {
+                deleteProgramObject(currentProgram);
+            }
+        }
+        currentProgram = program;
+    }
+
+    @Override
+    public void glGetProgramiv(int program, int pname, int[] params, int offset) {
+        if (call(GLCall.glGetProgramiv)) {
+            record(GLCall.glGetProgramiv, program, pname);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return;
+        }
+        switch (pname) {
+            case GLES20.GL_LINK_STATUS:
+                params[offset] = p.linked ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            case GLES20.GL_VALIDATE_STATUS:
+                params[offset] = p.validated ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            case GLES20.GL_DELETE_STATUS:
+                params[offset] = p.deletePending ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            case GLES20.GL_INFO_LOG_LENGTH:
+                params[offset] = p.infoLog.length() > 0 ? p.infoLog.length() + 1 : 0;
+                break;
+            case GLES20.GL_ATTACHED_SHADERS:
+                params[offset] = p.shaders.size();
+                break;
+            case GLES20.GL_ACTIVE_ATTRIBUTES:
+                params[offset] = p.attributes.size();
+                break;
+            case GLES20.GL_ACTIVE_ATTRIBUTE_MAX_LENGTH:
+                params[offset] = getMaxNameLength(p.attributes);
+                break;
+            case GLES20.GL_ACTIVE_UNIFORMS:
+                params[offset] = p.uniforms.size();
+                break;
+            case GLES20.GL_ACTIVE_UNIFORM_MAX_LENGTH:
+                params[offset] = getMaxNameLength(p.uniforms);
+                break;
+            case GLES30.GL_ACTIVE_UNIFORM_BLOCKS:
+            case GLES30.GL_ACTIVE_UNIFORM_BLOCK_MAX_NAME_LENGTH:
+                // Uniform blocks are not reported
+                params[offset] = 0;
+                break;
+            case GLES31.GL_PROGRAM_SEPARABLE:
+                params[offset] = p.separable ? GLES20.GL_TRUE : GLES20.GL_FALSE;
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    @Override
+    public void glGetActiveAttrib(int program, int index, int[] length, int lengthOffset, int[] size,
+            int sizeOffset, int[] type, int typeOffset, byte[] name) {
+        if (call(GLCall.glGetActiveAttrib)) {
+            record(GLCall.glGetActiveAttrib, program, index);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return;
+        }
+        if (index < 0 || index >= p.attributes.size()) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        Variable v = p.attributes.get(index);
+        writeName(v.getActiveName(), length, lengthOffset, name);
+        size[sizeOffset] = v.size;
+        type[typeOffset] = v.type;
+    }
+
+    @Override
+    public void glGetActiveUniform(int program, int index, int[] length, int lengthOffset, int[] size,
+            int sizeOffset, int[] type, int typeOffset, byte[] name) {
+        if (call(GLCall.glGetActiveUniform)) {
+            record(GLCall.glGetActiveUniform, program, index);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return;
+        }
+        if (index < 0 || index >= p.uniforms.size()) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        Variable v = p.uniforms.get(index);
+        writeName(v.getActiveName(), length, lengthOffset, name);
+        size[sizeOffset] = v.size;
+        type[typeOffset] = v.type;
+    }
+
+    @Override
+    public int glGetUniformLocation(int program, String name) {
+        if (call(GLCall.glGetUniformLocation)) {
+            record(GLCall.glGetUniformLocation, program, name);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return -1;
+        }
+        if (!p.linked) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return -1;
+        }
+        int index = getVariableIndex(p.uniforms, name);
+        int element = getArrayIndex(name);
+        if (index < 0 || element < 0 || element >= p.uniforms.get(index).size) {
+            return -1;
+        }
+        return p.uniformLocations[index] + element;
+    }
+
+    @Override
+    public int glGetAttribLocation(int program, String name) {
+        if (call(GLCall.glGetAttribLocation)) {
+            record(GLCall.glGetAttribLocation, program, name);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return -1;
+        }
+        if (!p.linked) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return -1;
+        }
+        int index = getVariableIndex(p.attributes, name);
+        return index >= 0 ? p.attributeLocations[index] : -1;
+    }
+
+    @Override
+    public int glGetError() {
+        if (call(GLCall.glGetError)) {
+            record(GLCall.glGetError);
+        }
+        int result = error;
+        error = GLES20.GL_NO_ERROR;
+        return result;
+    }
+
+    @Override
+    public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride,
+            FloatBuffer ptr) {
+        if (call(GLCall.glVertexAttribPointer)) {
+            record(GLCall.glVertexAttribPointer, index, size, type, normalized, stride, ptr);
+        }
+        checkVertexAttribPointer(index, size, type);
+    }
+
+    @Override
+    public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride,
+            ByteBuffer ptr) {
+        if (call(GLCall.glVertexAttribPointer)) {
+            record(GLCall.glVertexAttribPointer, index, size, type, normalized, stride, ptr);
+        }
+        checkVertexAttribPointer(index, size, type);
+    }
+
+    @Override
+    public void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride,
+            int offset) {
+        if (call(GLCall.glVertexAttribPointer)) {
+            record(GLCall.glVertexAttribPointer, index, size, type, normalized, stride, offset);
+        }
+        checkVertexAttribPointer(index, size, type);
+    }
+
+    @Override
+    public void glEnableVertexAttribArray(int index) {
+        if (call(GLCall.glEnableVertexAttribArray)) {
+            record(GLCall.glEnableVertexAttribArray, index);
+        }
+        if (checkVertexAttrib(index)) {
+            stateChange(!vertexAttribArrays[index]);
+            vertexAttribArrays[index] = true;
+        }
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(int index) {
+        if (call(GLCall.glDisableVertexAttribArray)) {
+            record(GLCall.glDisableVertexAttribArray, index);
+        }
+        if (checkVertexAttrib(index)) {
+            stateChange(vertexAttribArrays[index]);
+            vertexAttribArrays[index] = false;
+        }
+    }
+
+    @Override
+    public void glUniformMatrix4fv(int location, int count, boolean transpose, FloatBuffer buffer) {
+        if (call(GLCall.glUniformMatrix4fv)) {
+            record(GLCall.glUniformMatrix4fv, location, count, transpose, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniformMatrix3fv(int location, int count, boolean transpose, FloatBuffer buffer) {
+        if (call(GLCall.glUniformMatrix3fv)) {
+            record(GLCall.glUniformMatrix3fv, location, count, transpose, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniformMatrix2fv(int location, int count, boolean transpose, FloatBuffer buffer) {
+        if (call(GLCall.glUniformMatrix2fv)) {
+            record(GLCall.glUniformMatrix2fv, location, count, transpose, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glDrawArrays(int mode, int first, int count) {
+        if (call(GLCall.glDrawArrays)) {
+            record(GLCall.glDrawArrays, mode, first, count);
+        }
+        if (checkDraw(mode, count)) {
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, Buffer indices) {
+        if (call(GLCall.glDrawElements)) {
+            record(GLCall.glDrawElements, mode, count, type, indices);
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glDrawElements(int mode, int count, int type, int offset) {
+        if (call(GLCall.glDrawElements)) {
+            record(GLCall.glDrawElements, mode, count, type, offset);
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            if (bufferBindings[1] == 0) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glBindAttribLocation(int program, int index, String name) {
+        if (call(GLCall.glBindAttribLocation)) {
+            record(GLCall.glBindAttribLocation, program, index, name);
+        }
+        ProgramObject p = getProgram(program);
+        if (p != null && checkVertexAttrib(index)) {
+            p.attributeBindings.put(name, index);
+        }
+    }
+
+    @Override
+    public void glViewport(int x, int y, int width, int height) {
+        if (call(GLCall.glViewport)) {
+            record(GLCall.glViewport, x, y, width, height);
+        }
+        if (width < 0 || height < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        stateChange(viewport[0] != x || viewport[1] != y || viewport[2] != width || viewport[3] != height);
+        viewport[0] = x;
+        viewport[1] = y;
+        viewport[2] = width;
+        viewport[3] = height;
+    }
+
+    @Override
+    public String glGetShaderInfoLog(int shader) {
+        if (call(GLCall.glGetShaderInfoLog)) {
+            record(GLCall.glGetShaderInfoLog, shader);
+        }
+        ShaderObject s = getShader(shader);
+        return s == null || s.compiled ? "" : "No shader source";
+    }
+
+    @Override
+    public String glGetProgramInfoLog(int program) {
+        if (call(GLCall.glGetProgramInfoLog)) {
+            record(GLCall.glGetProgramInfoLog, program);
+        }
+        ProgramObject p = getProgram(program);
+        return p != null ? p.infoLog : "";
+    }
+
+    @Override
+    public void glGenTextures(int[] textures) {
+        if (call(GLCall.glGenTextures)) {
+            record(GLCall.glGenTextures, textures.length);
+        }
+        for (int i = 0; i < textures.length; i++) {
+            textures[i] = this.textures.create(null);
+        }
+    }
+
+    @Override
+    public void glActiveTexture(int texture) {
+        if (call(GLCall.glActiveTexture)) {
+            record(GLCall.glActiveTexture, texture);
+        }
+        int unit = texture - GLES20.GL_TEXTURE0;
+        if (unit < 0 || unit >= MAX_TEXTURE_UNITS) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return;
+        }
+        stateChange(activeTexture != unit);
+        activeTexture = unit;
+    }
+
+    @Override
+    public void glBindTexture(int target, int texture) {
+        if (call(GLCall.glBindTexture)) {
+            record(GLCall.glBindTexture, target, texture);
+        }
+        int index = getTextureTargetIndex(target);
+        if (index < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+            return;
+        }
+        if (texture != 0) {
+            if (!textures.isAllocated(texture)) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+            TextureObject t = textures.get(texture);
+            if (t == null) {
+                textures.set(texture, new TextureObject(target));
+            } else if (t.target != target) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+        }
+        stateChange(textureBindings[activeTexture][index] != texture);
+        textureBindings[activeTexture][index] = texture;
+    }
+
+    @Override
+    public String glGetString(int name) {
+        if (call(GLCall.glGetString)) {
+            record(GLCall.glGetString, name);
+        }
+        switch (name) {
+            case GLES20.GL_VENDOR:
+                return VENDOR;
+            case GLES20.GL_RENDERER:
+                return RENDERER;
+            case GLES20.GL_VERSION:
+                return "OpenGL ES " + renderVersion.major + "." + renderVersion.minor + " " + RENDERER;
+            case GLES20.GL_SHADING_LANGUAGE_VERSION:
+                return renderVersion == Renderers.GLES20 ? "OpenGL ES GLSL ES 1.00"
+                        : "OpenGL ES GLSL ES " + renderVersion.major + "." + renderVersion.minor + "0";
+            case GLES20.GL_EXTENSIONS:
+                return "";
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return null;
+        }
+    }
+
+    @Override
+    public void glGetIntegerv(int pname, int[] params) {
+        if (call(GLCall.glGetIntegerv)) {
+            record(GLCall.glGetIntegerv, pname);
+        }
+        switch (pname) {
+            case GLES20.GL_MAX_TEXTURE_SIZE:
+            case GLES20.GL_MAX_CUBE_MAP_TEXTURE_SIZE:
+            case GLES20.GL_MAX_RENDERBUFFER_SIZE:
+                params[0] = MAX_TEXTURE_SIZE;
+                break;
+            case GLES20.GL_MAX_VERTEX_ATTRIBS:
+                params[0] = MAX_VERTEX_ATTRIBS;
+                break;
+            case GLES20.GL_MAX_TEXTURE_IMAGE_UNITS:
+                params[0] = MAX_TEXTURE_UNITS / 2;
+                break;
+            case GLES20.GL_MAX_COMBINED_TEXTURE_IMAGE_UNITS:
+                params[0] = MAX_TEXTURE_UNITS;
+                break;
+            case GLES20.GL_MAX_VERTEX_UNIFORM_VECTORS:
+            case GLES20.GL_MAX_FRAGMENT_UNIFORM_VECTORS:
+                params[0] = 256;
+                break;
+            case GLES20.GL_MAX_VARYING_VECTORS:
+                params[0] = 16;
+                break;
+            case GLES30.GL_MAX_UNIFORM_BUFFER_BINDINGS:
+                params[0] = 24;
+                break;
+            case GLES30.GL_MAX_UNIFORM_BLOCK_SIZE:
+                params[0] = 16384;
+                break;
+            case GLES30.GL_MAX_ELEMENTS_VERTICES:
+            case GLES30.GL_MAX_ELEMENTS_INDICES:
+                params[0] = 1 << 20;
+                break;
+            case GLES20.GL_VIEWPORT:
+                System.arraycopy(viewport, 0, params, 0, viewport.length);
+                break;
+            case GLES20.GL_CURRENT_PROGRAM:
+                params[0] = currentProgram;
+                break;
+            case GLES20.GL_ARRAY_BUFFER_BINDING:
+                params[0] = bufferBindings[0];
+                break;
+            case GLES20.GL_ELEMENT_ARRAY_BUFFER_BINDING:
+                params[0] = bufferBindings[1];
+                break;
+            case GLES20.GL_ACTIVE_TEXTURE:
+                params[0] = GLES20.GL_TEXTURE0 + activeTexture;
+                break;
+            case GLES20.GL_TEXTURE_BINDING_2D:
+                params[0] = textureBindings[activeTexture][0];
+                break;
+            case GLES20.GL_FRAMEBUFFER_BINDING:
+                params[0] = framebuffer;
+                break;
+            case GLES31.GL_PROGRAM_PIPELINE_BINDING:
+                params[0] = pipeline;
+                break;
+            case GLES30.GL_MAJOR_VERSION:
+                params[0] = renderVersion.major;
+                break;
+            case GLES30.GL_MINOR_VERSION:
+                params[0] = renderVersion.minor;
+                break;
+            case GLES30.GL_NUM_EXTENSIONS:
+                params[0] = 0;
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    @Override
+    public void glUniform4fv(int location, int count, FloatBuffer buffer) {
+        if (call(GLCall.glUniform4fv)) {
+            record(GLCall.glUniform4fv, location, count, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniform3fv(int location, int count, FloatBuffer buffer) {
+        if (call(GLCall.glUniform3fv)) {
+            record(GLCall.glUniform3fv, location, count, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniform2fv(int location, int count, FloatBuffer buffer) {
+        if (call(GLCall.glUniform2fv)) {
+            record(GLCall.glUniform2fv, location, count, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniform1fv(int location, int count, FloatBuffer buffer) {
+        if (call(GLCall.glUniform1fv)) {
+            record(GLCall.glUniform1fv, location, count, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniform1iv(int location, int count, IntBuffer buffer) {
+        if (call(GLCall.glUniform1iv)) {
+            record(GLCall.glUniform1iv, location, count, buffer);
+        }
+        checkUniform(getUniformProgram(), location, count);
+    }
+
+    @Override
+    public void glUniform1i(int location, int unit) {
+        if (call(GLCall.glUniform1i)) {
+            record(GLCall.glUniform1i, location, unit);
+        }
+        checkUniform(getUniformProgram(), location, 1);
+    }
+
+    @Override
+    public void glTexParameterf(int target, int pname, float param) {
+        if (call(GLCall.glTexParameterf)) {
+            record(GLCall.glTexParameterf, target, pname, param);
+        }
+        if (getTextureTargetIndex(target) < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    @Override
+    public void glTexParameteri(int target, int pname, int param) {
+        if (call(GLCall.glTexParameteri)) {
+            record(GLCall.glTexParameteri, target, pname, param);
+        }
+        if (getTextureTargetIndex(target) < 0) {
+            setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    @Override
+    public void glClearColor(float red, float green, float blue, float alpha) {
+        if (call(GLCall.glClearColor)) {
+            record(GLCall.glClearColor, red, green, blue, alpha);
+        }
+    }
+
+    @Override
+    public void glColorMask(boolean red, boolean green, boolean blue, boolean alpha) {
+        if (call(GLCall.glColorMask)) {
+            record(GLCall.glColorMask, red, green, blue, alpha);
+        }
+    }
+
+    @Override
+    public void glClear(int mask) {
+        if (call(GLCall.glClear)) {
+            record(GLCall.glClear, mask);
+        }
+        if ((mask & ~(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT | GLES20.GL_STENCIL_BUFFER_BIT)) != 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glDisable(int cap) {
+        if (call(GLCall.glDisable)) {
+            record(GLCall.glDisable, cap);
+        }
+        stateChange(enabledCaps.get(cap));
+        enabledCaps.clear(cap);
+    }
+
+    @Override
+    public void glEnable(int cap) {
+        if (call(GLCall.glEnable)) {
+            record(GLCall.glEnable, cap);
+        }
+        stateChange(!enabledCaps.get(cap));
+        enabledCaps.set(cap);
+    }
+
+    @Override
+    public void glCullFace(int mode) {
+        if (call(GLCall.glCullFace)) {
+            record(GLCall.glCullFace, mode);
+        }
+    }
+
+    @Override
+    public void glLineWidth(float width) {
+        if (call(GLCall.glLineWidth)) {
+            record(GLCall.glLineWidth, width);
+        }
+        if (width <= 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glDepthFunc(int func) {
+        if (call(GLCall.glDepthFunc)) {
+            record(GLCall.glDepthFunc, func);
+        }
+    }
+
+    @Override
+    public void glDepthMask(boolean flag) {
+        if (call(GLCall.glDepthMask)) {
+            record(GLCall.glDepthMask, flag);
+        }
+    }
+
+    @Override
+    public void glClearDepthf(float depth) {
+        if (call(GLCall.glClearDepthf)) {
+            record(GLCall.glClearDepthf, depth);
+        }
+    }
+
+    @Override
+    public void glDepthRangef(float nearVal, float farVal) {
+        if (call(GLCall.glDepthRangef)) {
+            record(GLCall.glDepthRangef, nearVal, farVal);
+        }
+    }
+
+    @Override
+    public void glTexImage2D(int target, int level, int internalformat, int width, int height, int border,
+            int format, int type, Buffer pixels) {
+        if (call(GLCall.glTexImage2D)) {
+            record(GLCall.glTexImage2D, target, level, internalformat, width, height, border, format, type, pixels);
+        }
+        if (level < 0 || width < 0 || height < 0 || width > MAX_TEXTURE_SIZE || height > MAX_TEXTURE_SIZE
+                || border != 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture == null) {
+            return;
+        }
+        if (texture.immutable) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (level == 0) {
+            texture.width = width;
+            texture.height = height;
+            texture.internalFormat = internalformat;
+        }
+        texture.levels = Math.max(texture.levels, level + 1);
+        uploadedBytes += getByteSize(pixels);
+    }
+
+    @Override
+    public void glPixelStorei(int pname, int param) {
+        if (call(GLCall.glPixelStorei)) {
+            record(GLCall.glPixelStorei, pname, param);
+        }
+        if (param != 1 && param != 2 && param != 4 && param != 8) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glDeleteTextures(int[] textures) {
+        if (call(GLCall.glDeleteTextures)) {
+            record(GLCall.glDeleteTextures, textures);
+        }
+        for (int name : textures) {
+            if (this.textures.delete(name)) {
+                for (int[] unit : textureBindings) {
+                    for (int i = 0; i < unit.length; i++) {
+                        if (unit[i] == name) {
+                            unit[i] = 0;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void glGenerateMipmap(int target) {
+        if (call(GLCall.glGenerateMipmap)) {
+            record(GLCall.glGenerateMipmap, target);
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture != null && !texture.immutable) {
+            int size = Math.max(1, Math.max(texture.width, texture.height));
+            texture.levels = 32 - Integer.numberOfLeadingZeros(size);
+        }
+    }
+
+    @Override
+    public void glBlendEquationSeparate(int modeRGB, int modeAlpha) {
+        if (call(GLCall.glBlendEquationSeparate)) {
+            record(GLCall.glBlendEquationSeparate, modeRGB, modeAlpha);
+        }
+    }
+
+    @Override
+    public void glBlendFuncSeparate(int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        if (call(GLCall.glBlendFuncSeparate)) {
+            record(GLCall.glBlendFuncSeparate, srcRGB, dstRGB, srcAlpha, dstAlpha);
+        }
+    }
+
+    @Override
+    public void glFinish() {
+        if (call(GLCall.glFinish)) {
+            record(GLCall.glFinish);
+        }
+    }
+
+    @Override
+    public int glCheckFramebufferStatus(int target) {
+        if (call(GLCall.glCheckFramebufferStatus)) {
+            record(GLCall.glCheckFramebufferStatus, target);
+        }
+        return GLES20.GL_FRAMEBUFFER_COMPLETE;
+    }
+
+    @Override
+    public void glGetShaderSource(int shader, int bufsize, int[] length, byte[] source) {
+        if (call(GLCall.glGetShaderSource)) {
+            record(GLCall.glGetShaderSource, shader, bufsize);
+        }
+        ShaderObject s = getShader(shader);
+        if (s == null) {
+            return;
+        }
+        String str = s.source != null ? s.source : "";
+        int count = Math.max(0, Math.min(str.length(), Math.min(bufsize, source.length) - 1));
+        for (int i = 0; i < count; i++) {
+            source[i] = (byte) str.charAt(i);
+        }
+        if (count < source.length) {
+            source[count] = 0;
+        }
+        length[0] = count;
+    }
+
+    /**
+     * ---------------------------------------------------
+     * GLES30 calls
+     * ---------------------------------------------------
+     */
+
+    @Override
+    public void glSamplerParameteri(int sampler, int pname, int param) {
+        if (call(GLCall.glSamplerParameteri)) {
+            record(GLCall.glSamplerParameteri, sampler, pname, param);
+        }
+    }
+
+    @Override
+    public void glBindBufferBase(int target, int index, int buffer) {
+        if (call(GLCall.glBindBufferBase)) {
+            record(GLCall.glBindBufferBase, target, index, buffer);
+        }
+        bindBufferIndexed(target, index, buffer);
+    }
+
+    @Override
+    public void glUniformBlockBinding(int program, int uniformBlockIndex, int uniformBlockBinding) {
+        if (call(GLCall.glUniformBlockBinding)) {
+            record(GLCall.glUniformBlockBinding, program, uniformBlockIndex, uniformBlockBinding);
+        }
+        if (getProgram(program) != null) {
+            // Uniform blocks are not reported, all block indexes are invalid.
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glBindBufferRange(int target, int index, int buffer, int ptroffset, int ptrsize) {
+        if (call(GLCall.glBindBufferRange)) {
+            record(GLCall.glBindBufferRange, target, index, buffer, ptroffset, ptrsize);
+        }
+        if (ptroffset < 0 || (buffer != 0 && ptrsize <= 0)) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        bindBufferIndexed(target, index, buffer);
+    }
+
+    /**
+     * Binds the buffer to the indexed target, this also sets the generic binding for target.
+     *
+     * @param target
+     * @param index
+     * @param buffer
+     */
+    private void bindBufferIndexed(int target, int index, int buffer) {
+        switch (target) {
+            case GLES30.GL_UNIFORM_BUFFER:
+            case GLES30.GL_TRANSFORM_FEEDBACK_BUFFER:
+            case GLES31.GL_ATOMIC_COUNTER_BUFFER:
+            case GLES31.GL_SHADER_STORAGE_BUFFER:
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return;
+        }
+        if (index < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        if (buffer != 0 && !buffers.isAllocated(buffer)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (buffer != 0 && buffers.get(buffer) == null) {
+            buffers.set(buffer, new BufferObject());
+        }
+        int targetIndex = getBufferTargetIndex(target);
+        stateChange(bufferBindings[targetIndex] != buffer);
+        bufferBindings[targetIndex] = buffer;
+    }
+
+    @Override
+    public int glGetUniformBlockIndex(int program, String uniformBlockName) {
+        if (call(GLCall.glGetUniformBlockIndex)) {
+            record(GLCall.glGetUniformBlockIndex, program, uniformBlockName);
+        }
+        getProgram(program);
+        return INVALID_INDEX;
+    }
+
+    @Override
+    public void glGetActiveUniformBlockiv(int program, int uniformBlockIndex, int pname, IntBuffer buffer) {
+        if (call(GLCall.glGetActiveUniformBlockiv)) {
+            record(GLCall.glGetActiveUniformBlockiv, program, uniformBlockIndex, pname);
+        }
+        if (getProgram(program) != null) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public String glGetActiveUniformBlockName(int program, int uniformBlockIndex) {
+        if (call(GLCall.glGetActiveUniformBlockName)) {
+            record(GLCall.glGetActiveUniformBlockName, program, uniformBlockIndex);
+        }
+        if (getProgram(program) != null) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+        return "";
+    }
+
+    @Override
+    public void glGetActiveUniformsiv(int program, int uniformCount, int[] uniformIndices, int indicesOffset,
+            int pname, int[] params, int paramsOffset) {
+        if (call(GLCall.glGetActiveUniformsiv)) {
+            record(GLCall.glGetActiveUniformsiv, program, uniformCount, pname);
+        }
+        ProgramObject p = getProgram(program);
+        if (p == null) {
+            return;
+        }
+        for (int i = 0; i < uniformCount; i++) {
+            int index = uniformIndices[indicesOffset + i];
+            if (index < 0 || index >= p.uniforms.size()) {
+                setError(GLES20.GL_INVALID_VALUE);
+                return;
+            }
+            Variable v = p.uniforms.get(index);
+            switch (pname) {
+                case GLES30.GL_UNIFORM_TYPE:
+                    params[paramsOffset + i] = v.type;
+                    break;
+                case GLES30.GL_UNIFORM_SIZE:
+                    params[paramsOffset + i] = v.size;
+                    break;
+                case GLES30.GL_UNIFORM_NAME_LENGTH:
+                    params[paramsOffset + i] = v.getActiveName().length() + 1;
+                    break;
+                case GLES30.GL_UNIFORM_BLOCK_INDEX:
+                case GLES30.GL_UNIFORM_OFFSET:
+                    params[paramsOffset + i] = -1;
+                    break;
+                default:
+                    setError(GLES20.GL_INVALID_ENUM);
+                    return;
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer glMapBufferRange(int target, int offset, int length, int access) {
+        if (call(GLCall.glMapBufferRange)) {
+            record(GLCall.glMapBufferRange, target, offset, length, access);
+        }
+        BufferObject buffer = getBoundBuffer(target);
+        if (buffer == null) {
+            return null;
+        }
+        if (buffer.mapped != null || buffer.data == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return null;
+        }
+        if (offset < 0 || length <= 0 || offset + length > buffer.size) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return null;
+        }
+        ByteBuffer data = buffer.data.duplicate();
+        data.limit(offset + length).position(offset);
+        buffer.mapped = data.slice().order(ByteOrder.nativeOrder());
+        return buffer.mapped;
+    }
+
+    @Override
+    public boolean glUnmapBuffer(int target) {
+        if (call(GLCall.glUnmapBuffer)) {
+            record(GLCall.glUnmapBuffer, target);
+        }
+        BufferObject buffer = getBoundBuffer(target);
+        if (buffer == null) {
+            return false;
+        }
+        if (buffer.mapped == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return false;
+        }
+        buffer.mapped = null;
+        return true;
+    }
+
+    @Override
+    public void glFlushMappedBufferRange(int target, int offset, int length) {
+        if (call(GLCall.glFlushMappedBufferRange)) {
+            record(GLCall.glFlushMappedBufferRange, target, offset, length);
+        }
+        BufferObject buffer = getBoundBuffer(target);
+        if (buffer != null && buffer.mapped == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glDrawRangeElements(int mode, int start, int end, int count, int type, int offset) {
+        if (call(GLCall.glDrawRangeElements)) {
+            record(GLCall.glDrawRangeElements, mode, start, end, count, type, offset);
+        }
+        if (end < start) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            if (bufferBindings[1] == 0) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glTexStorage2D(int target, int levels, int internalformat, int width, int height) {
+        if (call(GLCall.glTexStorage2D)) {
+            record(GLCall.glTexStorage2D, target, levels, internalformat, width, height);
+        }
+        if (levels < 1 || width < 1 || height < 1) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture == null) {
+            return;
+        }
+        if (texture.immutable) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        texture.width = width;
+        texture.height = height;
+        texture.internalFormat = internalformat;
+        texture.levels = levels;
+        texture.immutable = true;
+    }
+
+    /**
+     * ---------------------------------------------------
+     * GLES31 calls
+     * ---------------------------------------------------
+     */
+
+    @Override
+    public void glDispatchCompute(int num_groups_x, int num_groups_y, int num_groups_z) {
+        if (call(GLCall.glDispatchCompute)) {
+            record(GLCall.glDispatchCompute, num_groups_x, num_groups_y, num_groups_z);
+        }
+        checkProgram();
+    }
+
+    @Override
+    public void glDispatchComputeIndirect(int offset) {
+        if (call(GLCall.glDispatchComputeIndirect)) {
+            record(GLCall.glDispatchComputeIndirect, offset);
+        }
+        if (checkProgram() && bufferBindings[getBufferTargetIndex(GLES31.GL_DISPATCH_INDIRECT_BUFFER)] == 0) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glDrawArraysIndirect(int mode, int offset) {
+        if (call(GLCall.glDrawArraysIndirect)) {
+            record(GLCall.glDrawArraysIndirect, mode, offset);
+        }
+        drawIndirect(mode, offset, false);
+    }
+
+    @Override
+    public void glDrawElementsIndirect(int mode, int type, int offset) {
+        if (call(GLCall.glDrawElementsIndirect)) {
+            record(GLCall.glDrawElementsIndirect, mode, type, offset);
+        }
+        if (checkIndexType(type)) {
+            drawIndirect(mode, offset, true);
+        }
+    }
+
+    /**
+     * Reads the count and instancecount from the draw indirect buffer
+     *
+     * @param mode
+     * @param offset
+     * @param elements True for glDrawElementsIndirect
+     */
+    private void drawIndirect(int mode, int offset, boolean elements) {
+        if (!checkDraw(mode, 0)) {
+            return;
+        }
+        BufferObject command = buffers.get(bufferBindings[getBufferTargetIndex(GLES31.GL_DRAW_INDIRECT_BUFFER)]);
+        if (command == null || command.data == null || (elements && bufferBindings[1] == 0)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (offset < 0 || (offset & 3) != 0 || offset + 8 > command.size) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        draw(command.data.getInt(offset), command.data.getInt(offset + 4));
+    }
+
+    @Override
+    public void glGetFramebufferParameteriv(int target, int pname, IntBuffer params) {
+        if (call(GLCall.glGetFramebufferParameteriv)) {
+            record(GLCall.glGetFramebufferParameteriv, target, pname);
+        }
+        if (framebuffer == 0) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        params.put(params.position(), 0);
+    }
+
+    /**
+     * Returns the attributes or uniforms for the program interface, or null if not supported
+     *
+     * @param program
+     * @param programInterface
+     * @return
+     */
+    private ArrayList<Variable> getInterfaceVariables(ProgramObject program, int programInterface) {
+        switch (programInterface) {
+            case GLES31.GL_PROGRAM_INPUT:
+                return program.attributes;
+            case GLES31.GL_UNIFORM:
+                return program.uniforms;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return null;
+        }
+    }
+
+    private int getInterfaceLocation(ProgramObject program, int programInterface, int index) {
+        return programInterface == GLES31.GL_PROGRAM_INPUT ? program.attributeLocations[index]
+                : program.uniformLocations[index];
+    }
+
+    @Override
+    public void glGetProgramInterfaceiv(int program, int programInterface, int pname, IntBuffer params) {
+        if (call(GLCall.glGetProgramInterfaceiv)) {
+            record(GLCall.glGetProgramInterfaceiv, program, programInterface, pname);
+        }
+        ProgramObject p = getProgram(program);
+        ArrayList<Variable> variables = p != null ? getInterfaceVariables(p, programInterface) : null;
+        if (variables == null) {
+            return;
+        }
+        switch (pname) {
+            case GLES31.GL_ACTIVE_RESOURCES:
+                params.put(params.position(), variables.size());
+                break;
+            case GLES31.GL_MAX_NAME_LENGTH:
+                params.put(params.position(), getMaxNameLength(variables));
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+        }
+    }
+
+    @Override
+    public int glGetProgramResourceIndex(int program, int programInterface, String name) {
+        if (call(GLCall.glGetProgramResourceIndex)) {
+            record(GLCall.glGetProgramResourceIndex, program, programInterface, name);
+        }
+        ProgramObject p = getProgram(program);
+        ArrayList<Variable> variables = p != null ? getInterfaceVariables(p, programInterface) : null;
+        if (variables == null) {
+            return INVALID_INDEX;
+        }
+        int index = getVariableIndex(variables, name);
+        return index >= 0 && getArrayIndex(name) == 0 ? index : INVALID_INDEX;
+    }
+
+    @Override
+    public String glGetProgramResourceName(int program, int programInterface, int index) {
+        if (call(GLCall.glGetProgramResourceName)) {
+            record(GLCall.glGetProgramResourceName, program, programInterface, index);
+        }
+        ProgramObject p = getProgram(program);
+        ArrayList<Variable> variables = p != null ? getInterfaceVariables(p, programInterface) : null;
+        if (variables == null) {
+            return "";
+        }
+        if (index < 0 || index >= variables.size()) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return "";
+        }
+        return variables.get(index).getActiveName();
+    }
+
+    @Override
+    public void glGetProgramResourceiv(int program, int programInterface, int index, int propCount,
+            IntBuffer props, int bufSize, IntBuffer length, IntBuffer params) {
+        if (call(GLCall.glGetProgramResourceiv)) {
+            record(GLCall.glGetProgramResourceiv, program, programInterface, index, propCount);
+        }
+        ProgramObject p = getProgram(program);
+        ArrayList<Variable> variables = p != null ? getInterfaceVariables(p, programInterface) : null;
+        if (variables == null) {
+            return;
+        }
+        if (index < 0 || index >= variables.size()) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        Variable v = variables.get(index);
+        int count = Math.min(propCount, bufSize);
+        for (int i = 0; i < count; i++) {
+            int value;
+            switch (props.get(props.position() + i)) {
+                case GLES31.GL_NAME_LENGTH:
+                    value = v.getActiveName().length() + 1;
+                    break;
+                case GLES31.GL_TYPE:
+                    value = v.type;
+                    break;
+                case GLES31.GL_ARRAY_SIZE:
+                    value = v.size;
+                    break;
+                case GLES31.GL_LOCATION:
+                    value = getInterfaceLocation(p, programInterface, index);
+                    break;
+                default:
+                    setError(GLES20.GL_INVALID_ENUM);
+                    return;
+            }
+            params.put(params.position() + i, value);
+        }
+        if (length != null) {
+            length.put(length.position(), count);
+        }
+    }
+
+    @Override
+    public int glGetProgramResourceLocation(int program, int programInterface, String name) {
+        if (call(GLCall.glGetProgramResourceLocation)) {
+            record(GLCall.glGetProgramResourceLocation, program, programInterface, name);
+        }
+        ProgramObject p = getProgram(program);
+        ArrayList<Variable> variables = p != null ? getInterfaceVariables(p, programInterface) : null;
+        if (variables == null) {
+            return -1;
+        }
+        int index = getVariableIndex(variables, name);
+        int element = getArrayIndex(name);
+        if (index < 0 || element < 0 || element >= variables.get(index).size) {
+            return -1;
+        }
+        return getInterfaceLocation(p, programInterface, index) + element;
+    }
+
+    @Override
+    public void glUseProgramStages(int pipeline, int stages, int program) {
+        if (call(GLCall.glUseProgramStages)) {
+            record(GLCall.glUseProgramStages, pipeline, stages, program);
+        }
+        PipelineObject p = pipelines.get(pipeline);
+        if (p == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (program != 0) {
+            ProgramObject po = getProgram(program);
+            if (po == null) {
+                return;
+            }
+            if (!po.linked || !po.separable) {
+                setError(GLES20.GL_INVALID_OPERATION);
+                return;
+            }
+        }
+        if ((stages & GLES31.GL_VERTEX_SHADER_BIT) != 0) {
+            p.vertexProgram = program;
+        }
+        if ((stages & GLES31.GL_FRAGMENT_SHADER_BIT) != 0) {
+            p.fragmentProgram = program;
+        }
+        if ((stages & GLES31.GL_COMPUTE_SHADER_BIT) != 0) {
+            p.computeProgram = program;
+        }
+    }
+
+    @Override
+    public void glActiveShaderProgram(int pipeline, int program) {
+        if (call(GLCall.glActiveShaderProgram)) {
+            record(GLCall.glActiveShaderProgram, pipeline, program);
+        }
+        PipelineObject p = pipelines.get(pipeline);
+        if (p == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (program == 0 || getProgram(program) != null) {
+            p.activeProgram = program;
+        }
+    }
+
+    @Override
+    public int glCreateShaderProgramv(int type, String[] strings) {
+        if (call(GLCall.glCreateShaderProgramv)) {
+            record(GLCall.glCreateShaderProgramv, type, strings);
+        }
+        StringBuilder source = new StringBuilder();
+        for (String s : strings) {
+            source.append(s);
+        }
+        int shader = glCreateShader(type);
+        if (shader == 0) {
+            return 0;
+        }
+        glShaderSource(shader, source.toString());
+        glCompileShader(shader);
+        int program = glCreateProgram();
+        ((ProgramObject) programObjects.get(program)).separable = true;
+        glAttachShader(program, shader);
+        glLinkProgram(program);
+        programObjects.delete(shader);
+        return program;
+    }
+
+    @Override
+    public void glBindProgramPipeline(int pipeline) {
+        if (call(GLCall.glBindProgramPipeline)) {
+            record(GLCall.glBindProgramPipeline, pipeline);
+        }
+        if (pipeline != 0 && !pipelines.isAllocated(pipeline)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        if (pipeline != 0 && pipelines.get(pipeline) == null) {
+            pipelines.set(pipeline, new PipelineObject());
+        }
+        stateChange(this.pipeline != pipeline);
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public void glDeleteProgramPipelines(int n, IntBuffer pipelines) {
+        if (call(GLCall.glDeleteProgramPipelines)) {
+            record(GLCall.glDeleteProgramPipelines, n, pipelines);
+        }
+        for (int i = 0; i < n; i++) {
+            int name = pipelines.get(pipelines.position() + i);
+            if (this.pipelines.delete(name) && name == pipeline) {
+                pipeline = 0;
+            }
+        }
+    }
+
+    @Override
+    public void glGenProgramPipelines(int n, IntBuffer pipelines) {
+        if (call(GLCall.glGenProgramPipelines)) {
+            record(GLCall.glGenProgramPipelines, n);
+        }
+        for (int i = 0; i < n; i++) {
+            pipelines.put(pipelines.position() + i, this.pipelines.create(null));
+        }
+    }
+
+    @Override
+    public boolean glIsProgramPipeline(int pipeline) {
+        if (call(GLCall.glIsProgramPipeline)) {
+            record(GLCall.glIsProgramPipeline, pipeline);
+        }
+        return pipelines.get(pipeline) != null;
+    }
+
+    @Override
+    public void glGetProgramPipelineiv(int pipeline, int pname, IntBuffer params) {
+        if (call(GLCall.glGetProgramPipelineiv)) {
+            record(GLCall.glGetProgramPipelineiv, pipeline, pname);
+        }
+        PipelineObject p = pipelines.get(pipeline);
+        if (p == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        int value;
+        switch (pname) {
+            case GLES31.GL_ACTIVE_PROGRAM:
+                value = p.activeProgram;
+                break;
+            case GLES20.GL_VERTEX_SHADER:
+                value = p.vertexProgram;
+                break;
+            case GLES20.GL_FRAGMENT_SHADER:
+                value = p.fragmentProgram;
+                break;
+            case GLES31.GL_COMPUTE_SHADER:
+                value = p.computeProgram;
+                break;
+            case GLES20.GL_VALIDATE_STATUS:
+                value = GLES20.GL_TRUE;
+                break;
+            case GLES20.GL_INFO_LOG_LENGTH:
+                value = 0;
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return;
+        }
+        params.put(params.position(), value);
+    }
+
+    /**
+     * Checks the uniform location for the glProgramUniform calls
+     *
+     * @param program
+     * @param location
+     * @param count
+     */
+    private void checkProgramUniform(int program, int location, int count) {
+        ProgramObject p = getProgram(program);
+        if (p != null && !p.linked) {
+            setError(GLES20.GL_INVALID_OPERATION);
+            return;
+        }
+        checkUniform(p, location, count);
+    }
+
+    @Override
+    public void glProgramUniform1i(int program, int location, int v0) {
+        if (call(GLCall.glProgramUniform1i)) {
+            record(GLCall.glProgramUniform1i, program, location, v0);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glProgramUniform4i(int program, int location, int v0, int v1, int v2, int v3) {
+        if (call(GLCall.glProgramUniform4i)) {
+            record(GLCall.glProgramUniform4i, program, location, v0, v1, v2, v3);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glProgramUniform4ui(int program, int location, int v0, int v1, int v2, int v3) {
+        if (call(GLCall.glProgramUniform4ui)) {
+            record(GLCall.glProgramUniform4ui, program, location, v0, v1, v2, v3);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glProgramUniform4f(int program, int location, float v0, float v1, float v2, float v3) {
+        if (call(GLCall.glProgramUniform4f)) {
+            record(GLCall.glProgramUniform4f, program, location, v0, v1, v2, v3);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glProgramUniform4iv(int program, int location, int count, IntBuffer value) {
+        if (call(GLCall.glProgramUniform4iv)) {
+            record(GLCall.glProgramUniform4iv, program, location, count, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniform4uiv(int program, int location, int count, IntBuffer value) {
+        if (call(GLCall.glProgramUniform4uiv)) {
+            record(GLCall.glProgramUniform4uiv, program, location, count, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniform4fv(int program, int location, int count, FloatBuffer value) {
+        if (call(GLCall.glProgramUniform4fv)) {
+            record(GLCall.glProgramUniform4fv, program, location, count, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniformMatrix2fv(int program, int location, int count, boolean transpose,
+            FloatBuffer value) {
+        if (call(GLCall.glProgramUniformMatrix2fv)) {
+            record(GLCall.glProgramUniformMatrix2fv, program, location, count, transpose, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniformMatrix3fv(int program, int location, int count, boolean transpose,
+            FloatBuffer value) {
+        if (call(GLCall.glProgramUniformMatrix3fv)) {
+            record(GLCall.glProgramUniformMatrix3fv, program, location, count, transpose, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniformMatrix4fv(int program, int location, int count, boolean transpose,
+            FloatBuffer value) {
+        if (call(GLCall.glProgramUniformMatrix4fv)) {
+            record(GLCall.glProgramUniformMatrix4fv, program, location, count, transpose, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniformMatrix3x4fv(int program, int location, int count, boolean transpose,
+            FloatBuffer value) {
+        if (call(GLCall.glProgramUniformMatrix3x4fv)) {
+            record(GLCall.glProgramUniformMatrix3x4fv, program, location, count, transpose, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glProgramUniformMatrix4x3fv(int program, int location, int count, boolean transpose,
+            FloatBuffer value) {
+        if (call(GLCall.glProgramUniformMatrix4x3fv)) {
+            record(GLCall.glProgramUniformMatrix4x3fv, program, location, count, transpose, value);
+        }
+        checkProgramUniform(program, location, count);
+    }
+
+    @Override
+    public void glValidateProgramPipeline(int pipeline) {
+        if (call(GLCall.glValidateProgramPipeline)) {
+            record(GLCall.glValidateProgramPipeline, pipeline);
+        }
+        if (pipelines.get(pipeline) == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public String glGetProgramPipelineInfoLog(int program) {
+        if (call(GLCall.glGetProgramPipelineInfoLog)) {
+            record(GLCall.glGetProgramPipelineInfoLog, program);
+        }
+        return "";
+    }
+
+    @Override
+    public void glBindImageTexture(int unit, int texture, int level, boolean layered, int layer, int access,
+            int format) {
+        if (call(GLCall.glBindImageTexture)) {
+            record(GLCall.glBindImageTexture, unit, texture, level, layered, layer, access, format);
+        }
+        if (texture != 0 && textures.get(texture) == null) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glGetBooleani_v(int target, int index, IntBuffer data) {
+        if (call(GLCall.glGetBooleani_v)) {
+            record(GLCall.glGetBooleani_v, target, index);
+        }
+        data.put(data.position(), GLES20.GL_FALSE);
+    }
+
+    @Override
+    public void glMemoryBarrier(int barriers) {
+        if (call(GLCall.glMemoryBarrier)) {
+            record(GLCall.glMemoryBarrier, barriers);
+        }
+    }
+
+    @Override
+    public void glMemoryBarrierByRegion(int barriers) {
+        if (call(GLCall.glMemoryBarrierByRegion)) {
+            record(GLCall.glMemoryBarrierByRegion, barriers);
+        }
+    }
+
+    @Override
+    public void glTexStorage2DMultisample(int target, int samples, int internalformat, int width, int height,
+            boolean fixedsamplelocations) {
+        if (call(GLCall.glTexStorage2DMultisample)) {
+            record(GLCall.glTexStorage2DMultisample, target, samples, internalformat, width, height,
+                    fixedsamplelocations);
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture != null) {
+            texture.width = width;
+            texture.height = height;
+            texture.internalFormat = internalformat;
+            texture.levels = 1;
+            texture.immutable = true;
+        }
+    }
+
+    @Override
+    public void glGetMultisamplefv(int pname, int index, FloatBuffer val) {
+        if (call(GLCall.glGetMultisamplefv)) {
+            record(GLCall.glGetMultisamplefv, pname, index);
+        }
+        val.put(val.position(), 0.5f);
+        val.put(val.position() + 1, 0.5f);
+    }
+
+    @Override
+    public void glSampleMaski(int maskNumber, int mask) {
+        if (call(GLCall.glSampleMaski)) {
+            record(GLCall.glSampleMaski, maskNumber, mask);
+        }
+    }
+
+    @Override
+    public void glGetTexLevelParameteriv(int target, int level, int pname, IntBuffer params) {
+        if (call(GLCall.glGetTexLevelParameteriv)) {
+            record(GLCall.glGetTexLevelParameteriv, target, level, pname);
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture == null) {
+            return;
+        }
+        int value;
+        switch (pname) {
+            case GLES31.GL_TEXTURE_WIDTH:
+                value = level < texture.levels ? Math.max(1, texture.width >> level) : 0;
+                break;
+            case GLES31.GL_TEXTURE_HEIGHT:
+                value = level < texture.levels ? Math.max(1, texture.height >> level) : 0;
+                break;
+            case GLES31.GL_TEXTURE_INTERNAL_FORMAT:
+                value = texture.internalFormat;
+                break;
+            default:
+                setError(GLES20.GL_INVALID_ENUM);
+                return;
+        }
+        params.put(params.position(), value);
+    }
+
+    @Override
+    public void glGetTexLevelParameterfv(int target, int level, int pname, FloatBuffer params) {
+        if (call(GLCall.glGetTexLevelParameterfv)) {
+            record(GLCall.glGetTexLevelParameterfv, target, level, pname);
+        }
+        setError(GLES20.GL_INVALID_ENUM);
+    }
+
+    @Override
+    public void glBindVertexBuffer(int bindingindex, int buffer, long offset, int stride) {
+        if (call(GLCall.glBindVertexBuffer)) {
+            record(GLCall.glBindVertexBuffer, bindingindex, buffer, offset, stride);
+        }
+        if (bindingindex < 0 || bindingindex >= MAX_VERTEX_ATTRIBS || offset < 0 || stride < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+        } else if (buffer != 0 && !buffers.isAllocated(buffer)) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glVertexAttribFormat(int attribindex, int size, int type, boolean normalized,
+            int relativeoffset) {
+        if (call(GLCall.glVertexAttribFormat)) {
+            record(GLCall.glVertexAttribFormat, attribindex, size, type, normalized, relativeoffset);
+        }
+        checkVertexAttrib(attribindex);
+    }
+
+    @Override
+    public void glVertexAttribIFormat(int attribindex, int size, int type, int relativeoffset) {
+        if (call(GLCall.glVertexAttribIFormat)) {
+            record(GLCall.glVertexAttribIFormat, attribindex, size, type, relativeoffset);
+        }
+        checkVertexAttrib(attribindex);
+    }
+
+    @Override
+    public void glVertexAttribBinding(int attribindex, int bindingindex) {
+        if (call(GLCall.glVertexAttribBinding)) {
+            record(GLCall.glVertexAttribBinding, attribindex, bindingindex);
+        }
+        if (checkVertexAttrib(attribindex)) {
+            checkVertexAttrib(bindingindex);
+        }
+    }
+
+    @Override
+    public void glVertexBindingDivisor(int bindingindex, int divisor) {
+        if (call(GLCall.glVertexBindingDivisor)) {
+            record(GLCall.glVertexBindingDivisor, bindingindex, divisor);
+        }
+        checkVertexAttrib(bindingindex);
+    }
+
+    /**
+     * ---------------------------------------------------
+     * GLES32 calls
+     * ---------------------------------------------------
+     */
+
+    @Override
+    public void glDrawElementsBaseVertex(int mode, int count, int type, ByteBuffer indices, int basevertex) {
+        if (call(GLCall.glDrawElementsBaseVertex)) {
+            record(GLCall.glDrawElementsBaseVertex, mode, count, type, indices, basevertex);
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glDrawRangeElementsBaseVertex(int mode, int start, int end, int count, int type,
+            ByteBuffer indices, int basevertex) {
+        if (call(GLCall.glDrawRangeElementsBaseVertex)) {
+            record(GLCall.glDrawRangeElementsBaseVertex, mode, start, end, count, type, indices, basevertex);
+        }
+        if (end < start) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            draw(count, 1);
+        }
+    }
+
+    @Override
+    public void glDrawElementsInstancedBaseVertex(int mode, int count, int type, ByteBuffer indices,
+            int instancecount, int basevertex) {
+        if (call(GLCall.glDrawElementsInstancedBaseVertex)) {
+            record(GLCall.glDrawElementsInstancedBaseVertex, mode, count, type, indices, instancecount,
+                    basevertex);
+        }
+        if (instancecount < 0) {
+            setError(GLES20.GL_INVALID_VALUE);
+            return;
+        }
+        if (checkDraw(mode, count) && checkIndexType(type)) {
+            draw(count, instancecount);
+        }
+    }
+
+    @Override
+    public void glFramebufferTexture(int target, int attachment, int texture, int level) {
+        if (call(GLCall.glFramebufferTexture)) {
+            record(GLCall.glFramebufferTexture, target, attachment, texture, level);
+        }
+        if (framebuffer == 0 || (texture != 0 && !textures.isAllocated(texture))) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glPrimitiveBoundingBox(float minX, float minY, float minZ, float minW, float maxX, float maxY,
+            float maxZ, float maxW) {
+        if (call(GLCall.glPrimitiveBoundingBox)) {
+            record(GLCall.glPrimitiveBoundingBox, minX, minY, minZ, minW, maxX, maxY, maxZ, maxW);
+        }
+    }
+
+    @Override
+    public int glGetGraphicsResetStatus() {
+        if (call(GLCall.glGetGraphicsResetStatus)) {
+            record(GLCall.glGetGraphicsResetStatus);
+        }
+        return GLES20.GL_NO_ERROR;
+    }
+
+    @Override
+    public void glMinSampleShading(float value) {
+        if (call(GLCall.glMinSampleShading)) {
+            record(GLCall.glMinSampleShading, value);
+        }
+    }
+
+    @Override
+    public void glPatchParameteri(int pname, int value) {
+        if (call(GLCall.glPatchParameteri)) {
+            record(GLCall.glPatchParameteri, pname, value);
+        }
+    }
+
+    @Override
+    public void glTexParameterIiv(int target, int pname, IntBuffer params) {
+        if (call(GLCall.glTexParameterIiv)) {
+            record(GLCall.glTexParameterIiv, target, pname, params);
+        }
+        getBoundTexture(target);
+    }
+
+    @Override
+    public void glTexParameterIuiv(int target, int pname, IntBuffer params) {
+        if (call(GLCall.glTexParameterIuiv)) {
+            record(GLCall.glTexParameterIuiv, target, pname, params);
+        }
+        getBoundTexture(target);
+    }
+
+    @Override
+    public void glSamplerParameterIiv(int sampler, int pname, IntBuffer param) {
+        if (call(GLCall.glSamplerParameterIiv)) {
+            record(GLCall.glSamplerParameterIiv, sampler, pname, param);
+        }
+    }
+
+    @Override
+    public void glSamplerParameterIuiv(int sampler, int pname, IntBuffer param) {
+        if (call(GLCall.glSamplerParameterIuiv)) {
+            record(GLCall.glSamplerParameterIuiv, sampler, pname, param);
+        }
+    }
+
+    @Override
+    public void glTexBuffer(int target, int internalformat, int buffer) {
+        if (call(GLCall.glTexBuffer)) {
+            record(GLCall.glTexBuffer, target, internalformat, buffer);
+        }
+        if (buffer != 0 && buffers.get(buffer) == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        }
+    }
+
+    @Override
+    public void glTexBufferRange(int target, int internalformat, int buffer, int offset, int size) {
+        if (call(GLCall.glTexBufferRange)) {
+            record(GLCall.glTexBufferRange, target, internalformat, buffer, offset, size);
+        }
+        BufferObject b = buffers.get(buffer);
+        if (buffer != 0 && b == null) {
+            setError(GLES20.GL_INVALID_OPERATION);
+        } else if (b != null && (offset < 0 || size <= 0 || offset + size > b.size)) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glTexStorage3DMultisample(int target, int samples, int internalformat, int width, int height,
+            int depth, boolean fixedsamplelocations) {
+        if (call(GLCall.glTexStorage3DMultisample)) {
+            record(GLCall.glTexStorage3DMultisample, target, samples, internalformat, width, height, depth,
+                    fixedsamplelocations);
+        }
+        TextureObject texture = getBoundTexture(target);
+        if (texture != null) {
+            texture.width = width;
+            texture.height = height;
+            texture.internalFormat = internalformat;
+            texture.levels = 1;
+            texture.immutable = true;
+        }
+    }
+
+    @Override
+    public void glBlendBarrier() {
+        if (call(GLCall.glBlendBarrier)) {
+            record(GLCall.glBlendBarrier);
+        }
+    }
+
+    @Override
+    public void glCopyImageSubData(int srcName, int srcTarget, int srcLevel, int srcX, int srcY, int srcZ,
+            int dstName, int dstTarget, int dstLevel, int dstX, int dstY, int dstZ, int srcWidth, int srcHeight,
+            int srcDepth) {
+        if (call(GLCall.glCopyImageSubData)) {
+            record(GLCall.glCopyImageSubData, srcName, srcTarget, srcLevel, srcX, srcY, srcZ, dstName, dstTarget,
+                    dstLevel, dstX, dstY, dstZ, srcWidth, srcHeight, srcDepth);
+        }
+        if (textures.get(srcName) == null || textures.get(dstName) == null) {
+            setError(GLES20.GL_INVALID_VALUE);
+        }
+    }
+
+    @Override
+    public void glDebugMessageControl(int source, int type, int severity, int count, IntBuffer ids,
+            boolean enabled) {
+        if (call(GLCall.glDebugMessageControl)) {
+            record(GLCall.glDebugMessageControl, source, type, severity, count, ids, enabled);
+        }
+    }
+
+    @Override
+    public void glDebugMessageInsert(int source, int type, int id, int severity, int length, String buf) {
+        if (call(GLCall.glDebugMessageInsert)) {
+            record(GLCall.glDebugMessageInsert, source, type, id, severity, length, buf);
+        }
+    }
+
+    @Override
+    public int glGetDebugMessageLog(int count, int bufSize, IntBuffer sources, IntBuffer types, IntBuffer ids,
+            IntBuffer severities, IntBuffer lengths, ByteBuffer messageLog) {
+        if (call(GLCall.glGetDebugMessageLog)) {
+            record(GLCall.glGetDebugMessageLog, count, bufSize);
+        }
+        return 0;
+    }
+
+    @Override
+    public void glPushDebugGroup(int source, int id, int length, String message) {
+        if (call(GLCall.glPushDebugGroup)) {
+            record(GLCall.glPushDebugGroup, source, id, length, message);
+        }
+    }
+
+    @Override
+    public void glPopDebugGroup() {
+        if (call(GLCall.glPopDebugGroup)) {
+            record(GLCall.glPopDebugGroup);
+        }
+    }
+
+    @Override
+    public void glObjectLabel(int identifier, int name, int length, String label) {
+        if (call(GLCall.glObjectLabel)) {
+            record(GLCall.glObjectLabel, identifier, name, length, label);
+        }
+        labels.put(((long) identifier << 32) | (name & 0xffffffffL), label);
+    }
+
+    @Override
+    public String glGetObjectLabel(int identifier, int name) {
+        if (call(GLCall.glGetObjectLabel)) {
+            record(GLCall.glGetObjectLabel, identifier, name);
+        }
+        String label = labels.get(((long) identifier << 32) | (name & 0xffffffffL));
+        return label != null ? label : "";
+    }
+
+    @Override
+    public void glObjectPtrLabel(long ptr, String label) {
+        if (call(GLCall.glObjectPtrLabel)) {
+            record(GLCall.glObjectPtrLabel, ptr, label);
+        }
+    }
+
+    @Override
+    public String glGetObjectPtrLabel(long ptr) {
+        if (call(GLCall.glGetObjectPtrLabel)) {
+            record(GLCall.glGetObjectPtrLabel, ptr);
+        }
+        return "";
+    }
+
+    @Override
+    public long glGetPointerv(int pname) {
+        if (call(GLCall.glGetPointerv)) {
+            record(GLCall.glGetPointerv, pname);
+        }
+        return 0;
+    }
+
+    @Override
+    public void glEnablei(int target, int index) {
+        if (call(GLCall.glEnablei)) {
+            record(GLCall.glEnablei, target, index);
+        }
+        stateChange(!enabledCaps.get(target));
+        enabledCaps.set(target);
+    }
+
+    @Override
+    public void glDisablei(int target, int index) {
+        if (call(GLCall.glDisablei)) {
+            record(GLCall.glDisablei, target, index);
+        }
+        stateChange(enabledCaps.get(target));
+        enabledCaps.clear(target);
+    }
+
+    @Override
+    public void glBlendEquationi(int buf, int mode) {
+        if (call(GLCall.glBlendEquationi)) {
+            record(GLCall.glBlendEquationi, buf, mode);
+        }
+    }
+
+    @Override
+    public void glBlendEquationSeparatei(int buf, int modeRGB, int modeAlpha) {
+        if (call(GLCall.glBlendEquationSeparatei)) {
+            record(GLCall.glBlendEquationSeparatei, buf, modeRGB, modeAlpha);
+        }
+    }
+
+    @Override
+    public void glBlendFunci(int buf, int src, int dst) {
+        if (call(GLCall.glBlendFunci)) {
+            record(GLCall.glBlendFunci, buf, src, dst);
+        }
+    }
+
+    @Override
+    public void glBlendFuncSeparatei(int buf, int srcRGB, int dstRGB, int srcAlpha, int dstAlpha) {
+        if (call(GLCall.glBlendFuncSeparatei)) {
+            record(GLCall.glBlendFuncSeparatei, buf, srcRGB, dstRGB, srcAlpha, dstAlpha);
+        }
+    }
+
+    @Override
+    public void glColorMaski(int index, boolean r, boolean g, boolean b, boolean a) {
+        if (call(GLCall.glColorMaski)) {
+            record(GLCall.glColorMaski, index, r, g, b, a);
+        }
+    }
+
+    @Override
+    public boolean glIsEnabledi(int target, int index) {
+        if (call(GLCall.glIsEnabledi)) {
+            record(GLCall.glIsEnabledi, target, index);
+        }
+        return enabledCaps.get(target);
+    }
+
+    @Override
+    public void glReadnPixels(int x, int y, int width, int height, int format, int type, int bufSize,
+            Buffer data) {
+        if (call(GLCall.glReadnPixels)) {
+            record(GLCall.glReadnPixels, x, y, width, height, format, type, bufSize, data);
+        }
+    }
+
+    @Override
+    public void glGetnUniformfv(int program, int location, int bufSize, FloatBuffer params) {
+        if (call(GLCall.glGetnUniformfv)) {
+            record(GLCall.glGetnUniformfv, program, location, bufSize);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glGetnUniformiv(int program, int location, int bufSize, IntBuffer params) {
+        if (call(GLCall.glGetnUniformiv)) {
+            record(GLCall.glGetnUniformiv, program, location, bufSize);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glGetnUniformuiv(int program, int location, int bufSize, IntBuffer params) {
+        if (call(GLCall.glGetnUniformuiv)) {
+            record(GLCall.glGetnUniformuiv, program, location, bufSize);
+        }
+        checkProgramUniform(program, location, 1);
+    }
+
+    @Override
+    public void glGetTexParameterIiv(int target, int pname, IntBuffer params) {
+        if (call(GLCall.glGetTexParameterIiv)) {
+            record(GLCall.glGetTexParameterIiv, target, pname);
+        }
+        getBoundTexture(target);
+    }
+
+    @Override
+    public void glGetTexParameterIuiv(int target, int pname, IntBuffer params) {
+        if (call(GLCall.glGetTexParameterIuiv)) {
+            record(GLCall.glGetTexParameterIuiv, target, pname);
+        }
+        getBoundTexture(target);
+    }
+
+    @Override
+    public void glGetSamplerParameterIiv(int sampler, int pname, IntBuffer params) {
+        if (call(GLCall.glGetSamplerParameterIiv)) {
+            record(GLCall.glGetSamplerParameterIiv, sampler, pname);
+        }
+    }
+
+    @Override
+    public void glGetSamplerParameterIuiv(int sampler, int pname, IntBuffer params) {
+        if (call(GLCall.glGetSamplerParameterIuiv)) {
+            record(GLCall.glGetSamplerParameterIuiv, sampler, pname);
+        }
+    }
+
+}
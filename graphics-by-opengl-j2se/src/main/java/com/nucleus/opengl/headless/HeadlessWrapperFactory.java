@@ -0,0 +1,26 @@
+package com.nucleus.opengl.headless;
+
+import com.nucleus.Backend;
+import com.nucleus.Backend.BackendFactory;
+import com.nucleus.renderer.NucleusRenderer.Renderers;
+
+/**
+ * Creates the headless GLES backend, window and context are not used.
+ *
+ */
+public class HeadlessWrapperFactory implements BackendFactory {
+
+    @Override
+    public Backend createBackend(Renderers version, Object window, Object context) {
+        switch (version) {
+            case GLES20:
+            case GLES30:
+            case GLES31:
+            case GLES32:
+                return new HeadlessGLESWrapper(version);
+            default:
+                throw new IllegalArgumentException("Not implemented for " + version);
+        }
+    }
+
+}
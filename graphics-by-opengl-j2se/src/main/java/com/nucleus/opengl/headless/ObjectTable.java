@@ -0,0 +1,110 @@
+package com.nucleus.opengl.headless;
+
+/**
+ * Table of GL objects indexed by the object name, names are allocated from 1 since 0 is the default object.
+ * Deleted names are reused.
+ *
+ * @param <T> The object type
+ */
+class ObjectTable<T> {
+
+    private static final int DEFAULT_SIZE = 64;
+
+    private Object[] objects = new Object[DEFAULT_SIZE];
+    /**
+     * True if the name is allocated, the object may be null until the name is bound
+     */
+    private boolean[] allocated = new boolean[DEFAULT_SIZE];
+    private int next = 1;
+    private int count;
+
+    /**
+     * Allocates a new name, the object is set to the specified value.
+     *
+     * @param object The object for the name, or null
+     * @return The allocated name
+     */
+    int create(T object) {
+        while (next < allocated.length && allocated[next]) {
+            next++;
+        }
+        if (next >= allocated.length) {
+            grow(next + 1);
+        }
+        int name = next++;
+        allocated[name] = true;
+        objects[name] = object;
+        count++;
+        return name;
+    }
+
+    /**
+     * Sets the object for a name that has been allocated
+     *
+     * @param name
+     * @param object
+     */
+    void set(int name, T object) {
+        objects[name] = object;
+    }
+
+    /**
+     * Returns the object for the name, or null if not allocated
+     *
+     * @param name
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    T get(int name) {
+        return name > 0 && name < objects.length ? (T) objects[name] : null;
+    }
+
+    /**
+     * Returns true if the name has been allocated and not deleted
+     *
+     * @param name
+     * @return
+     */
+    boolean isAllocated(int name) {
+        return name > 0 && name < allocated.length && allocated[name];
+    }
+
+    /**
+     * Deletes the name, unallocated names are ignored
+     *
+     * @param name
+     * @return True if the name was deleted
+     */
+    boolean delete(int name) {
+        if (!isAllocated(name)) {
+            return false;
+        }
+        allocated[name] = false;
+        objects[name] = null;
+        count--;
+        if (name < next) {
+            next = name;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of allocated names
+     *
+     * @return
+     */
+    int size() {
+        return count;
+    }
+
+    private void grow(int minSize) {
+        int size = Math.max(minSize, objects.length * 2);
+        Object[] o = new Object[size];
+        boolean[] a = new boolean[size];
+        System.arraycopy(objects, 0, o, 0, objects.length);
+        System.arraycopy(allocated, 0, a, 0, allocated.length);
+        objects = o;
+        allocated = a;
+    }
+
+}
@@ -0,0 +1,443 @@
+package com.nucleus.opengl.headless;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.StringTokenizer;
+
+import com.nucleus.opengl.GLESWrapper.GLES20;
+import com.nucleus.opengl.GLESWrapper.GLES30;
+import com.nucleus.opengl.GLESWrapper.GLES31;
+import com.nucleus.opengl.GLESWrapper.GLES32;
+
+/**
+ * Finds the attribute and uniform declarations in GLSL shader sources, this is used by the headless backend
+ * instead of a GLSL compiler.
+ * Preprocessor #define, #undef, #ifdef, #ifndef, #if defined(), #elif, #else and #endif are evaluated, other #if
+ * expressions are treated as true.
+ * Only declarations in global scope are used. Uniforms of struct type and uniform blocks are not reported.
+ * Variables are active if the name is referenced inside a function body, this is close to a GLSL compiler that only
+ * reports variables that are used.
+ *
+ */
+class ShaderReflection {
+
+    /**
+     * A declared attribute or uniform
+     */
+    static class Variable {
+        final String name;
+        /**
+         * The GL type, eg GL_FLOAT_VEC4
+         */
+        final int type;
+        /**
+         * Number of array elements, 1 if not array
+         */
+        final int size;
+        final boolean array;
+
+        Variable(String name, int type, int size, boolean array) {
+            this.name = name;
+            this.type = type;
+            this.size = size;
+            this.array = array;
+        }
+
+        /**
+         * Returns the name as reported by glGetActiveXXX, arrays are reported with [0]
+         *
+         * @return
+         */
+        String getActiveName() {
+            return array ? name + "[0]" : name;
+        }
+
+        /**
+         * Returns the number of attribute locations used by the variable
+         *
+         * @return
+         */
+        int getAttributeSlots() {
+            switch (type) {
+                case GLES20.GL_FLOAT_MAT2:
+                case GLES30.GL_FLOAT_MAT2x3:
+                case GLES30.GL_FLOAT_MAT2x4:
+                    return 2 * size;
+                case GLES20.GL_FLOAT_MAT3:
+                case GLES30.GL_FLOAT_MAT3x2:
+                case GLES30.GL_FLOAT_MAT3x4:
+                    return 3 * size;
+                case GLES20.GL_FLOAT_MAT4:
+                case GLES30.GL_FLOAT_MAT4x2:
+                case GLES30.GL_FLOAT_MAT4x3:
+                    return 4 * size;
+                default:
+                    return size;
+            }
+        }
+    }
+
+    private static final String[] SKIP_QUALIFIERS = new String[] { "highp", "mediump", "lowp", "flat", "smooth",
+            "centroid", "invariant", "const", "readonly", "writeonly", "coherent", "volatile", "restrict" };
+
+    private static final HashMap<String, Integer> TYPES = new HashMap<>();
+
+    static {
+        TYPES.put("float", GLES20.GL_FLOAT);
+        TYPES.put("vec2", GLES20.GL_FLOAT_VEC2);
+        TYPES.put("vec3", GLES20.GL_FLOAT_VEC3);
+        TYPES.put("vec4", GLES20.GL_FLOAT_VEC4);
+        TYPES.put("int", GLES20.GL_INT);
+        TYPES.put("ivec2", GLES20.GL_INT_VEC2);
+        TYPES.put("ivec3", GLES20.GL_INT_VEC3);
+        TYPES.put("ivec4", GLES20.GL_INT_VEC4);
+        TYPES.put("uint", GLES20.GL_UNSIGNED_INT);
+        TYPES.put("uvec2", GLES30.GL_UNSIGNED_INT_VEC2);
+        TYPES.put("uvec3", GLES30.GL_UNSIGNED_INT_VEC3);
+        TYPES.put("uvec4", GLES30.GL_UNSIGNED_INT_VEC4);
+        TYPES.put("bool", GLES20.GL_BOOL);
+        TYPES.put("bvec2", GLES20.GL_BOOL_VEC2);
+        TYPES.put("bvec3", GLES20.GL_BOOL_VEC3);
+        TYPES.put("bvec4", GLES20.GL_BOOL_VEC4);
+        TYPES.put("mat2", GLES20.GL_FLOAT_MAT2);
+        TYPES.put("mat3", GLES20.GL_FLOAT_MAT3);
+        TYPES.put("mat4", GLES20.GL_FLOAT_MAT4);
+        TYPES.put("mat2x2", GLES20.GL_FLOAT_MAT2);
+        TYPES.put("mat3x3", GLES20.GL_FLOAT_MAT3);
+        TYPES.put("mat4x4", GLES20.GL_FLOAT_MAT4);
+        TYPES.put("mat2x3", GLES30.GL_FLOAT_MAT2x3);
+        TYPES.put("mat2x4", GLES30.GL_FLOAT_MAT2x4);
+        TYPES.put("mat3x2", GLES30.GL_FLOAT_MAT3x2);
+        TYPES.put("mat3x4", GLES30.GL_FLOAT_MAT3x4);
+        TYPES.put("mat4x2", GLES30.GL_FLOAT_MAT4x2);
+        TYPES.put("mat4x3", GLES30.GL_FLOAT_MAT4x3);
+        TYPES.put("sampler2D", GLES20.GL_SAMPLER_2D);
+        TYPES.put("samplerCube", GLES20.GL_SAMPLER_CUBE);
+        TYPES.put("sampler3D", GLES30.GL_SAMPLER_3D);
+        TYPES.put("sampler2DShadow", GLES30.GL_SAMPLER_2D_SHADOW);
+        TYPES.put("sampler2DArray", GLES30.GL_SAMPLER_2D_ARRAY);
+        TYPES.put("sampler2DArrayShadow", GLES30.GL_SAMPLER_2D_ARRAY_SHADOW);
+        TYPES.put("samplerCubeShadow", GLES30.GL_SAMPLER_CUBE_SHADOW);
+        TYPES.put("samplerBuffer", GLES32.GL_SAMPLER_BUFFER);
+        TYPES.put("samplerCubeArray", GLES32.GL_SAMPLER_CUBE_MAP_ARRAY);
+        TYPES.put("sampler2DMS", GLES31.GL_SAMPLER_2D_MULTISAMPLE);
+    }
+
+    private final HashMap<String, String> defines = new HashMap<>();
+    private final ArrayList<Variable> attributes = new ArrayList<>();
+    private final ArrayList<Variable> uniforms = new ArrayList<>();
+    private final StringBuilder usage = new StringBuilder();
+
+    /**
+     * Parses the shader source and adds the declared attributes and uniforms.
+     * Uniforms that are already declared, for instance in another stage, are not added again.
+     *
+     * @param source The shader source
+     * @param vertexShader True if this is the vertex shader, attributes are only declared in vertex shader.
+     */
+    void parse(String source, boolean vertexShader) {
+        defines.clear();
+        String code = preprocess(removeComments(source));
+        StringBuilder statement = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            switch (c) {
+                case '{':
+                    depth++;
+                    statement.setLength(0);
+                    usage.append(' ');
+                    break;
+                case '}':
+                    depth--;
+                    statement.setLength(0);
+                    usage.append(' ');
+                    break;
+                case ';':
+                    if (depth == 0) {
+                        addDeclaration(statement.toString(), vertexShader);
+                    } else {
+                        usage.append(c);
+                    }
+                    statement.setLength(0);
+                    break;
+                default:
+                    if (depth == 0) {
+                        statement.append(c);
+                    } else {
+                        usage.append(c);
+                    }
+            }
+        }
+    }
+
+    /**
+     * Removes the attributes and uniforms that are not referenced in a function body, call this when all
+     * shader stages have been parsed.
+     */
+    void removeUnused() {
+        removeUnused(attributes);
+        removeUnused(uniforms);
+    }
+
+    private void removeUnused(ArrayList<Variable> list) {
+        for (int i = list.size() - 1; i >= 0; i--) {
+            if (!isUsed(list.get(i).name)) {
+                list.remove(i);
+            }
+        }
+    }
+
+    private boolean isUsed(String name) {
+        int index = 0;
+        while ((index = usage.indexOf(name, index)) >= 0) {
+            int end = index + name.length();
+            if ((index == 0 || !isIdentifier(usage.charAt(index - 1)))
+                    && (end >= usage.length() || !isIdentifier(usage.charAt(end)))) {
+                return true;
+            }
+            index = end;
+        }
+        return false;
+    }
+
+    private boolean isIdentifier(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * Returns the declared attributes
+     *
+     * @return
+     */
+    ArrayList<Variable> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns the declared uniforms
+     *
+     * @return
+     */
+    ArrayList<Variable> getUniforms() {
+        return uniforms;
+    }
+
+    private void addDeclaration(String statement, boolean vertexShader) {
+        // Remove layout qualifier
+        int layout = statement.indexOf("layout");
+        if (layout >= 0) {
+            int end = statement.indexOf(')', layout);
+            if (end > 0) {
+                statement = statement.substring(0, layout) + statement.substring(end + 1);
+            }
+        }
+        StringTokenizer st = new StringTokenizer(statement.replace(",", " , ").replace("[", " [").trim());
+        if (!st.hasMoreTokens()) {
+            return;
+        }
+        String storage = st.nextToken();
+        ArrayList<Variable> list = null;
+        if (storage.equals("uniform")) {
+            list = uniforms;
+        } else if (vertexShader && (storage.equals("attribute") || storage.equals("in"))) {
+            list = attributes;
+        } else {
+            return;
+        }
+        String type = nextToken(st);
+        while (type != null && isQualifier(type)) {
+            type = nextToken(st);
+        }
+        Integer glType = type != null ? TYPES.get(type) : null;
+        if (glType == null) {
+            // Struct or unknown type
+            return;
+        }
+        String name = null;
+        int size = 1;
+        boolean array = false;
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken();
+            if (token.equals(",")) {
+                addVariable(list, name, glType, size, array);
+                name = null;
+                size = 1;
+                array = false;
+            } else if (token.startsWith("[")) {
+                array = true;
+                size = getArraySize(token.substring(1, token.indexOf(']') > 0 ? token.indexOf(']') : token.length()));
+            } else {
+                name = token;
+            }
+        }
+        addVariable(list, name, glType, size, array);
+    }
+
+    private void addVariable(ArrayList<Variable> list, String name, int type, int size, boolean array) {
+        if (name == null) {
+            return;
+        }
+        for (Variable v : list) {
+            if (v.name.equals(name)) {
+                return;
+            }
+        }
+        list.add(new Variable(name, type, size, array));
+    }
+
+    private int getArraySize(String size) {
+        size = size.trim();
+        String define = defines.get(size);
+        if (define != null) {
+            size = define.trim();
+        }
+        try {
+            return Math.max(1, Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private String nextToken(StringTokenizer st) {
+        return st.hasMoreTokens() ? st.nextToken() : null;
+    }
+
+    private boolean isQualifier(String token) {
+        for (String q : SKIP_QUALIFIERS) {
+            if (q.equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes line and block comments, newlines are kept.
+     *
+     * @param source
+     * @return
+     */
+    private String removeComments(String source) {
+        StringBuilder result = new StringBuilder(source.length());
+        int i = 0;
+        int length = source.length();
+        while (i < length) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < length && source.charAt(i + 1) == '/') {
+                while (i < length && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && source.charAt(i + 1) == '*') {
+                i += 2;
+                while (i + 1 < length && !(source.charAt(i) == '*' && source.charAt(i + 1) == '/')) {
+                    if (source.charAt(i) == '\n') {
+                        result.append('\n');
+                    }
+                    i++;
+                }
+                i += 2;
+            } else {
+                result.append(c);
+                i++;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Evaluates the preprocessor directives, returns the source lines that are active.
+     *
+     * @param source
+     * @return
+     */
+    private String preprocess(String source) {
+        StringBuilder result = new StringBuilder(source.length());
+        // For each level: bit 0 is active, bit 1 is if any branch has been taken, bit 2 is parent active
+        int[] stack = new int[64];
+        int level = 0;
+        boolean active = true;
+        StringTokenizer lines = new StringTokenizer(source, "\n");
+        while (lines.hasMoreTokens()) {
+            String line = lines.nextToken().trim();
+            if (line.startsWith("#")) {
+                StringTokenizer st = new StringTokenizer(line.substring(1));
+                String directive = nextToken(st);
+                String argument = st.hasMoreTokens() ? st.nextToken("").trim() : "";
+                if (directive == null) {
+                    continue;
+                }
+                switch (directive) {
+                    case "define":
+                        if (active) {
+                            StringTokenizer define = new StringTokenizer(argument);
+                            if (define.hasMoreTokens()) {
+                                String name = define.nextToken();
+                                defines.put(name, define.hasMoreTokens() ? define.nextToken("").trim() : "");
+                            }
+                        }
+                        break;
+                    case "undef":
+                        if (active) {
+                            defines.remove(argument);
+                        }
+                        break;
+                    case "ifdef":
+                    case "ifndef":
+                    case "if":
+                        boolean condition = evaluate(directive, argument);
+                        stack[level++] = (active ? 4 : 0) | (condition ? 2 : 0) | (active && condition ? 1 : 0);
+                        active = active && condition;
+                        break;
+                    case "elif":
+                    case "else":
+                        if (level > 0) {
+                            int state = stack[level - 1];
+                            boolean parent = (state & 4) != 0;
+                            boolean taken = (state & 2) != 0;
+                            boolean branch = !taken && (directive.equals("else") || evaluate("if", argument));
+                            active = parent && branch;
+                            stack[level - 1] = (state & 4) | (taken || branch ? 2 : 0) | (active ? 1 : 0);
+                        }
+                        break;
+                    case "endif":
+                        if (level > 0) {
+                            level--;
+                            active = (stack[level] & 4) != 0;
+                        }
+                        break;
+                    default:
+                        // #version, #extension, #line, #pragma
+                        break;
+                }
+            } else if (active) {
+                result.append(line).append('\n');
+            }
+        }
+        return result.toString();
+    }
+
+    private boolean evaluate(String directive, String argument) {
+        switch (directive) {
+            case "ifdef":
+                return defines.containsKey(argument);
+            case "ifndef":
+                return !defines.containsKey(argument);
+            default:
+                String expression = argument.replace(" ", "");
+                boolean not = expression.startsWith("!");
+                if (not) {
+                    expression = expression.substring(1);
+                }
+                if (expression.startsWith("defined")) {
+                    String name = expression.substring("defined".length()).replace("(", "").replace(")", "");
+                    return defines.containsKey(name) != not;
+                }
+                if (expression.equals("0")) {
+                    return not;
+                }
+                return !not;
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.nucleus.opengl.shader;
 import java.nio.IntBuffer;
 
 import com.nucleus.BackendException;
+import com.nucleus.GraphicsPipeline.Sampler;
 import com.nucleus.common.BufferUtils;
 import com.nucleus.common.Environment;
 import com.nucleus.common.Environment.Property;
@@ -129,13 +130,13 @@ public class GLTFShaderProgram extends GenericShaderProgram {
     public void initUniformData() {
         // Init may be called several times
         if (pbrDataUniform == null) {
-            pbrDataUniform = getUniformByName(Attributes._PBRDATA.name());
+            pbrDataUniform = getUniform(Attributes._PBRDATA);
             if (pbrDataUniform != null) {
                 // Will be null in vector debug shader
                 pbrData = new float[pbrDataUniform.getSizeInFloats()];
             }
-            light0Uniform = getUniformByName(Attributes._LIGHT_0.name());
-            viewPosUniform = getUniformByName(Attributes._VIEWPOS.name());
+            light0Uniform = getUniform(Attributes._LIGHT_0);
+            viewPosUniform = getUniform(Attributes._VIEWPOS);
         }
     }
 
@@ -193,6 +194,24 @@ public class GLTFShaderProgram extends GenericShaderProgram {
      */
     public void prepareTexture(NucleusRenderer renderer, GLTF gltf, Primitive primitive, NamedShaderVariable attribute,
             NamedShaderVariable texUniform, TextureInfo texInfo) throws BackendException {
+        prepareTexture(renderer, gltf, primitive, attribute, texUniform, texInfo, true);
+    }
+
+    /**
+     * Prepares a texture used before rendering starts, if bindTexture is false only the texture coordinates are
+     * set - use this when the texture is already bound to the texture unit.
+     * 
+     * @param renderer
+     * @param gltf
+     * @param primitive
+     * @param attribute
+     * @param texUniform
+     * @param texInfo
+     * @param bindTexture True to activate and bind texture, false to only set texture coordinates.
+     * @throws BackendException
+     */
+    public void prepareTexture(NucleusRenderer renderer, GLTF gltf, Primitive primitive, NamedShaderVariable attribute,
+            NamedShaderVariable texUniform, TextureInfo texInfo, boolean bindTexture) throws BackendException {
         if (texInfo == null || attribute == null || texUniform == null) {
             return;
         }
@@ -200,8 +219,8 @@ public class GLTFShaderProgram extends GenericShaderProgram {
         samplerUniformBuffer.put(texInfo.getIndex());
         samplerUniformBuffer.rewind();
         Accessor accessor = primitive.getAccessor(Attributes.getTextureCoord(texInfo.getTexCoord()));
-        renderer.prepareTexture(gltf.getTexture(texInfo), texUniform.getOffset(), accessor, attribute, texUniform,
-                samplerUniformBuffer);
+        renderer.prepareTexture(bindTexture ? gltf.getTexture(texInfo) : null, texUniform.getOffset(), accessor,
+                attribute, texUniform, samplerUniformBuffer);
 
     }
 
@@ -215,30 +234,47 @@ public class GLTFShaderProgram extends GenericShaderProgram {
      */
     public void prepareTextures(NucleusRenderer renderer, GLTF gltf, Primitive primitive, Material material)
             throws BackendException {
+        prepareTextures(renderer, gltf, primitive, material, true);
+    }
+
+    /**
+     * Prepares the textures needed for this primitive, if bindTextures is false the textures are not bound,
+     * use this when the previous primitive was rendered using the same program and material.
+     * 
+     * @param renderer
+     * @param gltf
+     * @param primitive
+     * @param material
+     * @param bindTextures True to activate and bind textures, false to only set texture coordinates.
+     * @throws BackendException
+     */
+    public void prepareTextures(NucleusRenderer renderer, GLTF gltf, Primitive primitive, Material material,
+            boolean bindTextures) throws BackendException {
         if (material == null) {
             return;
         }
         if (renderNormalMap && material.getNormalTexture() != null
                 && material.getPbrMetallicRoughness().getBaseColorTexture() != null) {
-            prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes._TEXCOORDNORMAL.name()),
-                    getUniformByName("uTexture0"),
-                    material.getNormalTexture());
+            prepareTexture(renderer, gltf, primitive, getAttribute(Attributes._TEXCOORDNORMAL),
+                    getSampler(Sampler.TEXTURE_0),
+                    material.getNormalTexture(), bindTextures);
         } else if (renderMRMap && material.getPbrMetallicRoughness().getMetallicRoughnessTexture() != null
                 && material.getPbrMetallicRoughness().getBaseColorTexture() != null) {
-            prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes._TEXCOORDMR.name()),
-                    getUniformByName("uTexture0"),
-                    material.getPbrMetallicRoughness().getMetallicRoughnessTexture());
+            prepareTexture(renderer, gltf, primitive, getAttribute(Attributes._TEXCOORDMR),
+                    getSampler(Sampler.TEXTURE_0),
+                    material.getPbrMetallicRoughness().getMetallicRoughnessTexture(), bindTextures);
         } else {
-            prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes.TEXCOORD_0.name()),
-                    getUniformByName("uTexture0"),
-                    material.getPbrMetallicRoughness().getBaseColorTexture());
+            prepareTexture(renderer, gltf, primitive, getAttribute(Attributes.TEXCOORD_0),
+                    getSampler(Sampler.TEXTURE_0),
+                    material.getPbrMetallicRoughness().getBaseColorTexture(), bindTextures);
         }
-        prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes._TEXCOORDNORMAL.name()),
-                getUniformByName("uTextureNormal"), material.getNormalTexture());
-        prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes._TEXCOORDMR.name()),
-                getUniformByName("uTextureMR"), material.getPbrMetallicRoughness().getMetallicRoughnessTexture());
-        prepareTexture(renderer, gltf, primitive, getAttributeByName(Attributes._TEXCOORDOCCLUSION.name()),
-                getUniformByName("uTextureOcclusion"), material.getOcclusionTexture());
+        prepareTexture(renderer, gltf, primitive, getAttribute(Attributes._TEXCOORDNORMAL),
+                getSampler(Sampler.TEXTURE_NORMAL), material.getNormalTexture(), bindTextures);
+        prepareTexture(renderer, gltf, primitive, getAttribute(Attributes._TEXCOORDMR),
+                getSampler(Sampler.TEXTURE_MR), material.getPbrMetallicRoughness().getMetallicRoughnessTexture(),
+                bindTextures);
+        prepareTexture(renderer, gltf, primitive, getAttribute(Attributes._TEXCOORDOCCLUSION),
+                getSampler(Sampler.TEXTURE_OCCLUSION), material.getOcclusionTexture(), bindTextures);
     }
 
     @Override
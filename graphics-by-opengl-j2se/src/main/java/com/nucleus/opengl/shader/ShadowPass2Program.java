@@ -1,6 +1,7 @@
 package com.nucleus.opengl.shader;
 
 import com.nucleus.BackendException;
+import com.nucleus.GraphicsPipeline.Sampler;
 import com.nucleus.common.Constants;
 import com.nucleus.io.ExternalReference;
 import com.nucleus.opengl.GLES20Wrapper;
@@ -100,20 +101,14 @@ public class ShadowPass2Program extends ShadowPassProgram {
             renderer.getAssets().getIdReference(shadow);
             textureID = shadow.getName();
         }
-        /**
-         * TODO - make texture names into enums
-         */
-        int unit = (int) getUniformData().get(getUniformByName("uShadowTexture").getOffset());
+        int unit = (int) getUniformData().get(getSampler(Sampler.SHADOW_TEXTURE).getOffset());
         GLES20Wrapper gles = (GLES20Wrapper) renderer.getBackend();
         renderer.prepareTexture(shadow, unit);
         gles.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES30.GL_TEXTURE_COMPARE_MODE,
                 GLES30.GL_COMPARE_REF_TO_TEXTURE);
         gles.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES30.GL_TEXTURE_COMPARE_FUNC, GLES20.GL_LESS);
         if (texture != null && texture.textureType != TextureType.Untextured) {
-            /**
-             * TODO - make texture names into enums
-             */
-            renderer.prepareTexture(texture, getUniformByName("uTexture").getOffset());
+            renderer.prepareTexture(texture, getSampler(Sampler.TEXTURE).getOffset());
         }
     }
 
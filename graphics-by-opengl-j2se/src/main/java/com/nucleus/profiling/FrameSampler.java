@@ -1,15 +1,25 @@
 package com.nucleus.profiling;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.nucleus.SimpleLogger;
+import com.nucleus.common.Constants;
 
 /**
  * Utility class for keeping track of delta times, normally used to calculate the delta time from one frame to the next.
  * Singleton class that can be
  * 
+ * For high resolution sampling register the sample using {@link #registerSample(String, Level)} and use the returned
+ * id with {@link #begin(int)} and {@link #end(int)} or {@link #addNanos(int, long, long)}.
+ * Each registered sample keeps a {@link SampleHistogram} of nanosecond values, percentiles can be exported using
+ * {@link #exportCSV(Appendable)} or {@link #exportJSON(Appendable)}.
+ * Recording a sample using id does not allocate any objects or take any lock, the values of one sample id shall be
+ * recorded by one thread.
+ * 
  * @author Richard Sahlin
  *
  */
@@ -132,14 +142,19 @@ public class FrameSampler {
         }
     }
 
+    /**
+     * Predefined samples, these are registered when the sampler is created and the id is the same as ordinal.
+     */
     public enum Samples implements SampleInfo {
 
+        FRAME(Level.LOW),
         DISPLAY_SPLASH(Level.NORMAL),
         SET_ROOT_NODE(Level.NORMAL),
         LOAD_SCENE(Level.NORMAL),
         CREATE_SCENE(Level.NORMAL),
         CREATE_NODE(Level.NORMAL),
         LOAD_MAP(Level.NORMAL),
+        LOAD_GLTF(Level.NORMAL),
         LOAD_BUFFERS(Level.NORMAL),
         PROCESS_BUFFERS(Level.NORMAL),
         CREATE_SHADER(Level.NORMAL),
@@ -150,6 +165,7 @@ public class FrameSampler {
         LOAD_IMAGE(Level.NORMAL),
         COPY_IMAGE(Level.NORMAL),
         UPLOAD_TEXTURE(Level.NORMAL),
+        CREATE_VBO(Level.NORMAL),
         EGLSWAPBUFFERS(Level.HIGH),
         EGLWAITNATIVE(Level.HIGH),
         POINTER_INPUT(Level.NORMAL);
@@ -170,6 +186,35 @@ public class FrameSampler {
             return detail;
         }
 
+        /**
+         * Returns the id of the sample, use this when recording values for the sample.
+         * 
+         * @return
+         */
+        public int getId() {
+            return ordinal();
+        }
+
+    }
+
+    /**
+     * A registered high resolution sample
+     */
+    private static class RegisteredSample {
+        private final String tag;
+        private final Level detail;
+        private final SampleHistogram histogram = new SampleHistogram();
+        /**
+         * The sample that values are added to in millis if the sample is auto logged, otherwise null
+         */
+        private final Sample logSample;
+        private long startNanos;
+
+        private RegisteredSample(String tag, Level detail, Sample logSample) {
+            this.tag = tag;
+            this.detail = detail;
+            this.logSample = logSample;
+        }
     }
 
     public static int DEFAULT_MIN_FPS = 0;
@@ -177,6 +222,7 @@ public class FrameSampler {
     private static FrameSampler frameSampler = new FrameSampler();
 
     private final static int DEFAULT_LOG_DELAY = 5000;
+    private final static double[] PERCENTILES = new double[] { 50, 95, 99 };
 
     /**
      * Start time of sampler
@@ -184,6 +230,7 @@ public class FrameSampler {
     private final long samplerStart = System.currentTimeMillis();
     private long previousTime;
     private long currentTime;
+    private long previousNanos;
     private int minFPS = DEFAULT_MIN_FPS;
     private float delta = DEFAULT_FRAMEDELTA;
     private float maxDelta;
@@ -197,11 +244,20 @@ public class FrameSampler {
     private long vertices;
     private long indices;
     private int drawCalls;
+    private int stateChanges;
+    private int skippedStateChanges;
     private long sampleStart;
 
     private Map<String, Sample> tagTimings = new HashMap<>();
     private Map<String, ArrayList<Long>> tagStartTimes = new HashMap<>();
 
+    /**
+     * Registered high resolution samples, the id of a sample is the index into the array.
+     * The array is replaced, not modified, when a sample is registered so values can be recorded without locking.
+     */
+    private volatile RegisteredSample[] samples = new RegisteredSample[0];
+    private Map<String, Integer> sampleIds = new HashMap<>();
+
     public enum Level {
         LOW(1),
         NORMAL(2),
@@ -219,6 +275,13 @@ public class FrameSampler {
      */
     public Level sampleDetail = Level.NORMAL;
 
+    private FrameSampler() {
+        for (Samples sample : Samples.values()) {
+            // Frame time is not logged, the other predefined samples are logged as when added using addTag()
+            registerSample(sample.getTag(), sample.getDetail(), sample != Samples.FRAME);
+        }
+    }
+
     /**
      * Returns the sampler instance
      * 
@@ -235,14 +298,19 @@ public class FrameSampler {
      * @return Delta time in seconds from previous frame, this value will be checked for minimum fps. If min fps is 10
      * then this value will not be greater than 1/10 second.
      * First frame the value {@link #DEFAULT_FRAMEDELTA} will be returned
+     * The nanosecond frame time is recorded to the {@link Samples#FRAME} sample.
      */
     public float update() {
         previousTime = currentTime;
         currentTime = System.currentTimeMillis();
+        long nanos = System.nanoTime();
+        long frameNanos = nanos - previousNanos;
+        previousNanos = nanos;
         if (previousTime == 0) {
             return DEFAULT_FRAMEDELTA;
         }
-        delta = (float) (currentTime - previousTime) / 1000;
+        addNanos(Samples.FRAME.getId(), frameNanos);
+        delta = (float) frameNanos / 1000000000;
         frames++;
         totalDelta += delta;
         if (minFPS > 0) {
@@ -279,6 +347,18 @@ public class FrameSampler {
         drawCalls++;
     }
 
+    /**
+     * Adds the number of render state changes, program, uniform or texture updates, that were made and the number
+     * that were skipped because the state was already set.
+     * 
+     * @param changes Number of state changes made
+     * @param skipped Number of state changes skipped
+     */
+    public void addStateChanges(int changes, int skipped) {
+        stateChanges += changes;
+        skippedStateChanges += skipped;
+    }
+
     /**
      * Returns the current delta value, time in seconds from previous frame.
      * If a call to {@link #setMinFPS(int)} has been made then the delta value is limited according to this.
@@ -330,6 +410,8 @@ public class FrameSampler {
         indices = 0;
         vertices = 0;
         drawCalls = 0;
+        stateChanges = 0;
+        skippedStateChanges = 0;
     }
 
     /**
@@ -353,7 +435,8 @@ public class FrameSampler {
         int fps = (int) (frames / totalDelta);
         return "Average FPS: " + fps + "(" + frames + " frames), " + vertices / frames + " vertices, "
                 + indices / frames
-                + " indices, " + drawCalls / frames + " drawcall - per frame";
+                + " indices, " + drawCalls / frames + " drawcall, " + stateChanges / frames + " state changes ("
+                + skippedStateChanges / frames + " skipped) - per frame";
     }
 
     /**
@@ -550,6 +633,218 @@ public class FrameSampler {
         tagTimings.put(tag, sample);
     }
 
+    /**
+     * Registers a high resolution sample, if a sample with the tag is already registered the id of that sample is
+     * returned.
+     * Register samples when initializing, before values are recorded.
+     * 
+     * @param tag
+     * @param detail The sample level, if current level is equal or higher then values are recorded.
+     * @return The sample id to use when recording values
+     */
+    public int registerSample(String tag, Level detail) {
+        return registerSample(tag, detail, false);
+    }
+
+    /**
+     * Registers a high resolution sample, if a sample with the tag is already registered the id of that sample is
+     * returned.
+     * If autoLog is true then values are also added, in millis, to the {@link Sample} for the tag and min/max/average
+     * is logged at the log interval - the same way as when using {@link #addTag(String, long, long, Level)}
+     * The Sample for the tag is created, if needed, when the sample is registered.
+     * 
+     * @param tag
+     * @param detail The sample level, if current level is equal or higher then values are recorded.
+     * @param autoLog True to log the sample at the log interval
+     * @return The sample id to use when recording values
+     */
+    public synchronized int registerSample(String tag, Level detail, boolean autoLog) {
+        Integer id = sampleIds.get(tag);
+        if (id != null) {
+            return id;
+        }
+        Sample logSample = null;
+        if (autoLog) {
+            logSample = tagTimings.get(tag);
+            if (logSample == null) {
+                logSample = new Sample();
+                logSample.reset();
+                tagTimings.put(tag, logSample);
+            }
+        }
+        int count = samples.length;
+        RegisteredSample[] registered = Arrays.copyOf(samples, count + 1);
+        registered[count] = new RegisteredSample(tag, detail, logSample);
+        samples = registered;
+        sampleIds.put(tag, count);
+        return count;
+    }
+
+    /**
+     * Registers a high resolution sample
+     * 
+     * @param info
+     * @return The sample id to use when recording values
+     */
+    public int registerSample(SampleInfo info) {
+        return registerSample(info.getTag(), info.getDetail());
+    }
+
+    /**
+     * Returns the id of a registered sample
+     * 
+     * @param tag
+     * @return The sample id or {@link Constants#NO_VALUE} if no sample registered with the tag.
+     */
+    public synchronized int getSampleId(String tag) {
+        Integer id = sampleIds.get(tag);
+        return id != null ? id : Constants.NO_VALUE;
+    }
+
+    /**
+     * Returns true if values for the sample are recorded, ie the sample detail level is equal or lower than
+     * the current detail level.
+     * 
+     * @param id
+     * @return
+     */
+    public boolean isEnabled(int id) {
+        return sampleDetail.value >= samples[id].detail.value;
+    }
+
+    /**
+     * Stores the current nano time as start of the sample, call {@link #end(int)} to record the value.
+     * Nested begin/end of the same sample id is not supported.
+     * 
+     * @param id
+     */
+    public void begin(int id) {
+        samples[id].startNanos = System.nanoTime();
+    }
+
+    /**
+     * Records the time since {@link #begin(int)} was called for the sample
+     * 
+     * @param id
+     */
+    public void end(int id) {
+        RegisteredSample sample = samples[id];
+        record(sample, System.nanoTime() - sample.startNanos);
+    }
+
+    /**
+     * Records the time between start and end for the sample
+     * 
+     * @param id
+     * @param startNanos Start time as returned by System.nanoTime()
+     * @param endNanos End time as returned by System.nanoTime()
+     */
+    public void addNanos(int id, long startNanos, long endNanos) {
+        addNanos(id, endNanos - startNanos);
+    }
+
+    /**
+     * Records a nanosecond value for the sample
+     * 
+     * @param id
+     * @param nanos
+     */
+    public void addNanos(int id, long nanos) {
+        record(samples[id], nanos);
+    }
+
+    /**
+     * Records the value in the histogram and, if the sample is auto logged, adds the value to the log sample that is
+     * logged at the log interval.
+     */
+    private void record(RegisteredSample sample, long nanos) {
+        if (sampleDetail.value >= sample.detail.value) {
+            sample.histogram.record(nanos);
+            Sample logSample = sample.logSample;
+            if (logSample != null) {
+                logSample.add((int) (nanos / 1000000));
+                logSample.addNano((int) (nanos % 1000000));
+                autoLog(sample.tag, logSample);
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram for the sample, this is a reference to the histogram used to record values.
+     * 
+     * @param id
+     * @return
+     */
+    public SampleHistogram getHistogram(int id) {
+        return samples[id].histogram;
+    }
+
+    /**
+     * Removes all recorded values from the sample histograms
+     */
+    public synchronized void resetHistograms() {
+        for (RegisteredSample sample : samples) {
+            sample.histogram.reset();
+        }
+    }
+
+    /**
+     * Writes count, min, mean, percentiles and max of the samples that have values as CSV, one line per sample.
+     * Values are in nanoseconds.
+     * 
+     * @param out
+     * @throws IOException
+     */
+    public synchronized void exportCSV(Appendable out) throws IOException {
+        out.append("tag,count,min,mean");
+        for (double p : PERCENTILES) {
+            out.append(",p").append(Integer.toString((int) p));
+        }
+        out.append(",max\n");
+        for (RegisteredSample sample : samples) {
+            SampleHistogram h = sample.histogram;
+            if (h.getCount() > 0) {
+                out.append(sample.tag).append(',').append(Long.toString(h.getCount())).append(',')
+                        .append(Long.toString(h.getMin())).append(',').append(Long.toString(h.getMean()));
+                for (double p : PERCENTILES) {
+                    out.append(',').append(Long.toString(h.getPercentile(p)));
+                }
+                out.append(',').append(Long.toString(h.getMax())).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes count, min, mean, percentiles and max of the samples that have values as a JSON object with
+     * an array of samples. Values are in nanoseconds.
+     * 
+     * @param out
+     * @throws IOException
+     */
+    public synchronized void exportJSON(Appendable out) throws IOException {
+        out.append("{\"samples\":[");
+        boolean first = true;
+        for (RegisteredSample sample : samples) {
+            SampleHistogram h = sample.histogram;
+            if (h.getCount() > 0) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append("{\"tag\":\"").append(sample.tag.replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append("\",\"count\":").append(Long.toString(h.getCount()))
+                        .append(",\"min\":").append(Long.toString(h.getMin()))
+                        .append(",\"mean\":").append(Long.toString(h.getMean()));
+                for (double p : PERCENTILES) {
+                    out.append(",\"p").append(Integer.toString((int) p)).append("\":")
+                            .append(Long.toString(h.getPercentile(p)));
+                }
+                out.append(",\"max\":").append(Long.toString(h.getMax())).append('}');
+            }
+        }
+        out.append("]}");
+    }
+
     private void logAverage(String tag, Sample sample) {
         SimpleLogger.d(getClass(), "Sampler tag " + tag + " : " + sample.toString());
     }
@@ -0,0 +1,180 @@
+package com.nucleus.profiling;
+
+/**
+ * Fixed size histogram of nanosecond values, used to track the distribution of sample times so that
+ * percentiles and spikes can be reported.
+ * Values are stored in log-linear buckets, each power of 2 range is divided into {@link #SUB_BUCKETS} linear
+ * buckets. This gives a relative error of less than 1 / {@link #SUB_BUCKETS} for all values, min and max are
+ * tracked exactly.
+ * No allocations are made after the histogram is created.
+ * This class is not thread safe, values for one histogram shall be recorded from one thread.
+ *
+ */
+public class SampleHistogram {
+
+    /**
+     * Number of linear buckets for each power of 2 range
+     */
+    public static final int SUB_BUCKET_BITS = 5;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Number of power of 2 ranges, values larger than 2^(RANGES + SUB_BUCKET_BITS - 1) nanos (about 19 hours) are
+     * stored in the last bucket.
+     */
+    public static final int RANGES = 42;
+    private static final int BUCKET_COUNT = (RANGES + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long count;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Records a value, negative values are recorded as 0
+     *
+     * @param nanos
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[getBucket(nanos)]++;
+        count++;
+        total += nanos;
+        if (nanos < min) {
+            min = nanos;
+        }
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Returns the number of recorded values
+     *
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if no values recorded
+     *
+     * @return
+     */
+    public long getMin() {
+        return count > 0 ? min : 0;
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if no values recorded
+     *
+     * @return
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the average of recorded values, or 0 if no values recorded
+     *
+     * @return
+     */
+    public long getMean() {
+        return count > 0 ? total / count : 0;
+    }
+
+    /**
+     * Returns the value at the percentile, the returned value is the upper bound of the bucket holding the value
+     * clamped to the recorded min and max.
+     *
+     * @param percentile The percentile, 0 - 100, eg 99 for p99
+     * @return The value at the percentile, or 0 if no values recorded
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil((percentile / 100.0) * count);
+        if (rank < 1) {
+            rank = 1;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        long accumulated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+            if (accumulated >= rank) {
+                return Math.max(min, Math.min(max, getBucketMax(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Adds the values from the source histogram to this histogram
+     *
+     * @param source
+     */
+    public void add(SampleHistogram source) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += source.counts[i];
+        }
+        if (source.count > 0) {
+            min = Math.min(min, source.min);
+            max = Math.max(max, source.max);
+        }
+        count += source.count;
+        total += source.total;
+    }
+
+    /**
+     * Removes all values
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    /**
+     * Returns the bucket index for the value, values smaller than {@link #SUB_BUCKETS} are stored exact.
+     *
+     * @param value Positive value
+     * @return
+     */
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int range = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS + 1;
+        if (range > RANGES) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (range - 1)) - SUB_BUCKETS;
+        return range * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest value that is stored in the bucket
+     *
+     * @param bucket
+     * @return
+     */
+    static long getBucketMax(int bucket) {
+        int range = bucket >>> SUB_BUCKET_BITS;
+        if (range == 0) {
+            return bucket;
+        }
+        long sub = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((sub + 1) << (range - 1)) - 1;
+    }
+
+}
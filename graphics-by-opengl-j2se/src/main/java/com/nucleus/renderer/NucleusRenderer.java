@@ -382,7 +382,8 @@ public interface NucleusRenderer {
      * Activates texturing, binds the texture and sets texture parameters
      * Checks if texture is an id (dynamic) reference and sets the texture name if not present.
      * 
-     * @param texture Texture to prepare or null
+     * @param texture Texture to prepare or null to only set the texture coordinate attribute, use this when
+     * the texture is already bound to the unit.
      * @param unit The texture unit number to use, 0 and up
      * @param accessor
      * @param attribute
@@ -5,8 +5,12 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.BackendException;
+import com.nucleus.SimpleLogger;
 import com.nucleus.camera.ViewFrustum;
 import com.nucleus.common.Constants;
 import com.nucleus.common.Type;
@@ -16,6 +20,7 @@ import com.nucleus.geometry.Mesh;
 import com.nucleus.geometry.MeshBuilder;
 import com.nucleus.geometry.shape.ShapeBuilder;
 import com.nucleus.io.ExternalReference;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.profiling.FrameSampler;
 import com.nucleus.renderer.DefaultNodeRenderer;
 import com.nucleus.renderer.NodeRenderer;
@@ -23,6 +28,7 @@ import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.Pass;
 import com.nucleus.renderer.RenderPass;
 import com.nucleus.shader.GraphicsShader;
+import com.nucleus.texturing.Texture2D;
 import com.nucleus.vecmath.Matrix;
 import com.nucleus.vecmath.Rectangle;
 import com.nucleus.vecmath.Transform;
@@ -38,6 +44,9 @@ public abstract class AbstractMeshNode<T> extends AbstractNode implements Render
 
     public final static String NULL_PROGRAM_STRING = "Pipeline is null";
 
+    private static final TypeToken<ArrayList<RenderPass>> RENDERPASS_LIST = new TypeToken<ArrayList<RenderPass>>() {
+    };
+
     @SerializedName(Transform.TRANSFORM)
     protected Transform transform;
     @SerializedName(ViewFrustum.VIEWFRUSTUM)
@@ -202,11 +211,36 @@ public abstract class AbstractMeshNode<T> extends AbstractNode implements Render
 
     @Override
     public void destroy(NucleusRenderer renderer) {
+        releaseTextures(renderer);
         super.destroy(renderer);
         transform = null;
         viewFrustum = null;
     }
 
+    /**
+     * Releases the textures used by meshes in this node, each texture is released once.
+     * Textures that are not reference counted by {@link com.nucleus.assets.Assets} are ignored.
+     * 
+     * @param renderer
+     */
+    protected void releaseTextures(NucleusRenderer renderer) {
+        Set<Texture2D> released = new HashSet<>();
+        for (T mesh : meshes) {
+            if (mesh instanceof Mesh) {
+                for (Texture2D texture : ((Mesh) mesh).getTextures()) {
+                    if (texture != null && released.add(texture)) {
+                        try {
+                            renderer.getAssets().releaseTexture(renderer, texture);
+                        } catch (BackendException e) {
+                            SimpleLogger.d(getClass(), "Could not release texture " + texture.getId() + " : "
+                                    + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public void addMesh(T mesh) {
         if (mesh != null) {
@@ -473,4 +507,27 @@ public abstract class AbstractMeshNode<T> extends AbstractNode implements Render
         return super.toString() + ", " + meshes.size() + " meshes" + (renderPass != null ? ", has renderpass" : "");
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case Transform.TRANSFORM:
+                transform = StreamTypeAdapterFactory.read(reader, gson, Transform.class);
+                return true;
+            case ViewFrustum.VIEWFRUSTUM:
+                viewFrustum = StreamTypeAdapterFactory.read(reader, gson, ViewFrustum.class);
+                return true;
+            case Material.MATERIAL:
+                material = StreamTypeAdapterFactory.read(reader, gson, Material.class);
+                return true;
+            case RenderPass.RENDERPASS:
+                renderPass = StreamTypeAdapterFactory.read(reader, gson, RENDERPASS_LIST);
+                return true;
+            case TEXTUREREF:
+                textureRef = StreamTypeAdapterFactory.read(reader, gson, ExternalReference.class);
+                return true;
+            default:
+                return super.readProperty(property, reader, gson);
+        }
+    }
+
 }
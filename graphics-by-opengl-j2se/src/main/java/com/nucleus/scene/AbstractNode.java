@@ -1,10 +1,15 @@
 package com.nucleus.scene;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.google.gson.Gson;
+import com.google.gson.InstanceCreator;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.bounds.Bounds;
 import com.nucleus.bounds.CircularBounds;
 import com.nucleus.bounds.RectangularBounds;
@@ -12,6 +17,7 @@ import com.nucleus.camera.ViewFrustum;
 import com.nucleus.common.Type;
 import com.nucleus.event.EventManager;
 import com.nucleus.io.BaseReference;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.NucleusRenderer.Layer;
 import com.nucleus.renderer.Pass;
@@ -35,7 +41,7 @@ public abstract class AbstractNode extends BaseReference implements Node {
     /**
      * Known node types
      */
-    public enum NodeTypes implements Type<Node> {
+    public enum NodeTypes implements Type<Node>, InstanceCreator<Node> {
 
         layernode(LayerNode.class),
         switchnode(SwitchNode.class),
@@ -67,6 +73,29 @@ public abstract class AbstractNode extends BaseReference implements Node {
             return name();
         }
 
+        /**
+         * Creates an empty node to be deserialized, the type of the node is not set.
+         */
+        @Override
+        public Node createInstance(java.lang.reflect.Type type) {
+            switch (this) {
+                case layernode:
+                    return new LayerNode();
+                case switchnode:
+                    return new SwitchNode();
+                case linedrawernode:
+                    return new LineDrawerNode();
+                case componentnode:
+                    return new ComponentNode();
+                case meshnode:
+                    return new MeshNode();
+                case gltfnode:
+                    return new GLTFNode();
+                default:
+                    throw new IllegalArgumentException("Not implemented for " + this);
+            }
+        }
+
     }
 
     public static final String STATE = "state";
@@ -94,6 +123,14 @@ public abstract class AbstractNode extends BaseReference implements Node {
 
     }
 
+    /**
+     * Type of list with child nodes, used when reading the children from JSON
+     */
+    static final TypeToken<ArrayList<Node>> NODE_LIST = new TypeToken<ArrayList<Node>>() {
+    };
+    private static final TypeToken<Map<String, String>> PROPERTY_MAP = new TypeToken<Map<String, String>>() {
+    };
+
     @SerializedName(TYPE)
     private String type;
     /**
@@ -564,4 +601,30 @@ public abstract class AbstractNode extends BaseReference implements Node {
     public void onCreated() {
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case TYPE:
+                type = StreamTypeAdapterFactory.readString(reader);
+                return true;
+            case CHILDREN:
+                children = StreamTypeAdapterFactory.read(reader, gson, NODE_LIST);
+                return true;
+            case Bounds.BOUNDS:
+                bounds = StreamTypeAdapterFactory.read(reader, gson, Bounds.class);
+                return true;
+            case STATE:
+                state = StreamTypeAdapterFactory.read(reader, gson, State.class);
+                return true;
+            case PROPERTIES:
+                properties = StreamTypeAdapterFactory.read(reader, gson, PROPERTY_MAP);
+                return true;
+            case PASS:
+                pass = StreamTypeAdapterFactory.read(reader, gson, Pass.class);
+                return true;
+            default:
+                return super.readProperty(property, reader, gson);
+        }
+    }
+
 }
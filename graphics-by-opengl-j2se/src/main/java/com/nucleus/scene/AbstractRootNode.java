@@ -1,14 +1,19 @@
 package com.nucleus.scene;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Map;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.common.ManagedList;
 import com.nucleus.io.BaseReference;
 import com.nucleus.io.SceneSerializer.NodeInflaterListener;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.ui.UIElementInput;
 
@@ -39,6 +44,9 @@ public abstract class AbstractRootNode extends BaseReference implements RootNode
         about(),
     }
 
+    private static final TypeToken<Map<String, String>> PROPERTY_MAP = new TypeToken<Map<String, String>>() {
+    };
+
     /**
      * Properties for this node
      */
@@ -169,4 +177,13 @@ public abstract class AbstractRootNode extends BaseReference implements RootNode
         return defaultValue;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (PROPERTIES.equals(property)) {
+            properties = StreamTypeAdapterFactory.read(reader, gson, PROPERTY_MAP);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
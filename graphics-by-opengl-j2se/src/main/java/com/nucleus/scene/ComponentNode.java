@@ -3,7 +3,10 @@ package com.nucleus.scene;
 import java.io.IOException;
 import java.util.ArrayList;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.common.TypeResolver;
 import com.nucleus.component.Component;
 import com.nucleus.component.ComponentController;
@@ -11,6 +14,7 @@ import com.nucleus.component.ComponentException;
 import com.nucleus.geometry.Mesh;
 import com.nucleus.geometry.MeshBuilder;
 import com.nucleus.geometry.shape.ShapeBuilder;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.system.ComponentHandler;
 import com.nucleus.system.System;
@@ -60,9 +64,13 @@ public class ComponentNode extends AbstractMeshNode<Mesh> implements ComponentCo
 
     }
 
+    public static final String COMPONENTS = "components";
+    private static final TypeToken<ArrayList<Component>> COMPONENT_LIST = new TypeToken<ArrayList<Component>>() {
+    };
+
     transient public ComponentState componentState = ComponentState.CREATED;
 
-    @SerializedName("components")
+    @SerializedName(COMPONENTS)
     private ArrayList<Component> components = new ArrayList<>();
 
     /**
@@ -223,4 +231,13 @@ public class ComponentNode extends AbstractMeshNode<Mesh> implements ComponentCo
         return null;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (COMPONENTS.equals(property)) {
+            components = StreamTypeAdapterFactory.read(reader, gson, COMPONENT_LIST);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
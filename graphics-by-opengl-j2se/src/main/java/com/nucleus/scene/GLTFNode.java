@@ -3,7 +3,9 @@ package com.nucleus.scene;
 import java.io.IOException;
 import java.util.ArrayList;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.Backend.DrawMode;
 import com.nucleus.BackendException;
 import com.nucleus.SimpleLogger;
@@ -13,6 +15,7 @@ import com.nucleus.geometry.Material;
 import com.nucleus.geometry.MeshBuilder;
 import com.nucleus.geometry.shape.ShapeBuilder;
 import com.nucleus.io.ExternalReference;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.opengl.GLTFNodeRenderer;
 import com.nucleus.opengl.shader.GLTFShaderProgram;
 import com.nucleus.renderer.NodeRenderer;
@@ -107,9 +110,10 @@ public class GLTFNode extends AbstractMeshNode<RenderableMesh> implements MeshBu
     }
 
     /**
-     * Destroys the gltf asset in this node.
-     * If the gltf asset is loaded, all resource are released - buffers and textures but not programs.
-     * The resources are destroyed immediately, hence it is important not to call while rendering is taking place.
+     * Releases the gltf asset in this node.
+     * If the gltf asset is not used by other nodes the resources may be released - buffers and textures but not
+     * programs. Resources are released immediately, hence it is important not to call while rendering is taking
+     * place.
      * 
      * @param renderer
      * @param glTFName
@@ -118,7 +122,7 @@ public class GLTFNode extends AbstractMeshNode<RenderableMesh> implements MeshBu
     public void deleteAsset(NucleusRenderer renderer) throws BackendException {
         if (glTF != null) {
 
-            renderer.getAssets().deleteGLTFAssets(renderer, glTF);
+            renderer.getAssets().releaseGLTFAsset(renderer, glTF);
             glTF = null;
             glTFName = null;
         } else {
@@ -328,4 +332,13 @@ public class GLTFNode extends AbstractMeshNode<RenderableMesh> implements MeshBu
         return null;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (GLTF_NAME.equals(property)) {
+            glTFName = StreamTypeAdapterFactory.readString(reader);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
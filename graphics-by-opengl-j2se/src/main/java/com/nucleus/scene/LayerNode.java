@@ -2,10 +2,13 @@ package com.nucleus.scene;
 
 import java.io.IOException;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.geometry.Mesh;
 import com.nucleus.geometry.MeshBuilder;
 import com.nucleus.geometry.shape.ShapeBuilder;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.NucleusRenderer.Layer;
 import com.nucleus.renderer.Window;
@@ -26,13 +29,15 @@ import com.nucleus.vecmath.Transform;
  */
 public class LayerNode extends MeshNode {
 
+    public static final String LAYER = "layer";
+
     /**
      * This can be used to find nodes based on layer, it can also be used to render based on layer.
      * Each time a layer is defined the Node view transform shall be re-set.
      * This means layer can be used to create object that is separate from transform hierarchy, for instance adding UI
      * elements from within children.
      */
-    @SerializedName("layer")
+    @SerializedName(LAYER)
     private Layer layer;
 
     transient ViewController viewController;
@@ -131,4 +136,13 @@ public class LayerNode extends MeshNode {
         return null;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (LAYER.equals(property)) {
+            layer = StreamTypeAdapterFactory.read(reader, gson, Layer.class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
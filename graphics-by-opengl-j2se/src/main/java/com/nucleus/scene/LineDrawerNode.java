@@ -2,7 +2,9 @@ package com.nucleus.scene;
 
 import java.io.IOException;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.Backend.DrawMode;
 import com.nucleus.BackendException;
 import com.nucleus.common.Constants;
@@ -13,6 +15,7 @@ import com.nucleus.geometry.AttributeUpdater.Consumer;
 import com.nucleus.geometry.Mesh;
 import com.nucleus.geometry.MeshBuilder;
 import com.nucleus.geometry.shape.ShapeBuilder;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.opengl.geometry.GLMesh;
 import com.nucleus.opengl.shader.LineProgram.LineProgramIndexer;
 import com.nucleus.renderer.NucleusRenderer;
@@ -277,4 +280,18 @@ public class LineDrawerNode extends AbstractMeshNode<Mesh> implements AttributeU
         drawOffset = offset;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case LINE_COUNT:
+                lineCount = StreamTypeAdapterFactory.readInt(reader, lineCount);
+                return true;
+            case LINE_MODE:
+                lineMode = StreamTypeAdapterFactory.read(reader, gson, DrawMode.class);
+                return true;
+            default:
+                return super.readProperty(property, reader, gson);
+        }
+    }
+
 }
@@ -2,7 +2,9 @@ package com.nucleus.scene;
 
 import java.io.IOException;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.Backend.DrawMode;
 import com.nucleus.BackendException;
 import com.nucleus.SimpleLogger;
@@ -14,6 +16,7 @@ import com.nucleus.geometry.shape.RectangleShapeBuilder;
 import com.nucleus.geometry.shape.RectangleShapeBuilder.RectangleConfiguration;
 import com.nucleus.geometry.shape.ShapeBuilder;
 import com.nucleus.geometry.shape.ShapeBuilderFactory;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.opengl.geometry.GLMesh;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.texturing.BaseImageFactory;
@@ -103,4 +106,13 @@ public class MeshNode extends AbstractMeshNode<Mesh> {
         // TODO Auto-generated method stub
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (Shape.SHAPE.equals(property)) {
+            shape = StreamTypeAdapterFactory.read(reader, gson, Shape.class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
@@ -1,9 +1,13 @@
 package com.nucleus.scene;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 
 /**
  * Implementation of RootNode - used to get unified support when loading/instantiating scenes
@@ -72,4 +76,13 @@ public class RootNodeImpl extends AbstractRootNode implements RootNode {
         return copy;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (CHILDREN.equals(property)) {
+            childNodes = StreamTypeAdapterFactory.read(reader, gson, AbstractNode.NODE_LIST);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
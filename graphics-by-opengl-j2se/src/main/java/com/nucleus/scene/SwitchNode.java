@@ -1,7 +1,12 @@
 package com.nucleus.scene;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.io.gson.PostDeserializable;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 
 /**
  * Node that can switch between one active child node, the active node is set by calling {@link #setActive(String)}
@@ -10,13 +15,14 @@ import com.nucleus.io.gson.PostDeserializable;
  */
 public class SwitchNode extends AbstractNode implements PostDeserializable {
 
+    public static final String ACTIVE = "active";
     private static final int MAX_CHILD_COUNT = 2;
 
     /**
      * The Id of the current active child Node, if null all child nodes will be returned when {@link #getChildren()}
      * is called.
      */
-    @SerializedName("active")
+    @SerializedName(ACTIVE)
     private String active;
 
     /**
@@ -99,4 +105,14 @@ public class SwitchNode extends AbstractNode implements PostDeserializable {
         // TODO Auto-generated method stub
         return false;
     }
+
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (ACTIVE.equals(property)) {
+            active = StreamTypeAdapterFactory.readString(reader);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
@@ -1,11 +1,13 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.SimpleLogger;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 
@@ -98,6 +100,10 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
 
     public static final int DEFAULT_BYTE_OFFSET = 0;
     public static final boolean DEFAULT_NORMALIZED = false;
+    /**
+     * Max number of components read at once when copying strided data
+     */
+    private static final int COPY_CHUNK_SIZE = 4096;
 
     @SerializedName(BUFFER_VIEW)
     private int bufferViewIndex = -1;
@@ -131,6 +137,22 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
 
     transient ComponentType componentType;
     transient BufferView bufferViewRef;
+    /**
+     * Views of the data for this accessor, position 0 is the first element. Created the first time they are
+     * used after the buffer is loaded, data is written last.
+     */
+    transient private FloatBuffer floatView;
+    transient private ShortBuffer shortView;
+    transient private IntBuffer intView;
+    transient private ByteBuffer readOnlyView;
+    transient private volatile ByteBuffer data;
+
+    /**
+     * Used by gson so that the default values are set for properties that are not present, for instance
+     * bufferView is not present for Draco compressed attributes.
+     */
+    protected Accessor() {
+    }
 
     public Accessor(BufferView bufferView, int byteOffset, ComponentType componentType, int count, Type type) {
         this.bufferViewRef = bufferView;
@@ -144,6 +166,74 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
         }
     }
 
+    /**
+     * Creates an accessor for integer data that is normalized to [0, 1] or [-1, 1] when read by the shader.
+     * 
+     * @param bufferView
+     * @param byteOffset
+     * @param componentType BYTE, UNSIGNED_BYTE, SHORT or UNSIGNED_SHORT
+     * @param count
+     * @param type
+     * @param normalized
+     */
+    public Accessor(BufferView bufferView, int byteOffset, ComponentType componentType, int count, Type type,
+            boolean normalized) {
+        this(bufferView, byteOffset, componentType, count, type);
+        this.normalized = normalized;
+    }
+
+    /**
+     * Creates an accessor with the component type, type, normalized, max, min and name of the source, for data
+     * stored in the bufferView. Use this when the data of an accessor is moved to a new buffer.
+     * 
+     * @param bufferView
+     * @param byteOffset
+     * @param count
+     * @param source
+     */
+    Accessor(BufferView bufferView, int byteOffset, int count, Accessor source) {
+        this(bufferView, byteOffset, source.componentType, count, source.type);
+        this.normalized = source.normalized;
+        this.max = source.max;
+        this.min = source.min;
+        this.name = source.name;
+    }
+
+    /**
+     * Sets the max and min values of each component, use when the accessor is restored from processed data.
+     * 
+     * @param max Max value of each component, or null
+     * @param min Min value of each component, or null
+     */
+    void setMaxMin(float[] max, float[] min) {
+        this.max = max;
+        this.min = min;
+    }
+
+    /**
+     * Sets the bufferView holding the data of this accessor, byteOffset is set to 0 and max, min are kept.
+     * Use this when data is decoded into a new buffer, for instance from Draco compressed data.
+     * 
+     * @param bufferView
+     */
+    synchronized void setBufferView(BufferView bufferView) {
+        bufferViewRef = bufferView;
+        byteOffset = 0;
+        clearViews();
+    }
+
+    /**
+     * Removes the views of the data, call this when the storage of the buffer is released. The views are created
+     * again when used.
+     */
+    synchronized void clearViews() {
+        data = null;
+        readOnlyView = null;
+        floatView = null;
+        shortView = null;
+        intView = null;
+    }
+
     public int getBufferViewIndex() {
         return bufferViewIndex;
     }
@@ -206,14 +296,193 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
     }
 
     /**
-     * Returns the ByteBuffer positioned according to this accessor and bufferview
+     * Returns the number of bytes from the start of one element to the next, this is the byteStride of the
+     * bufferView or the size of one element if data is tightly packed.
      * 
      * @return
      */
+    public int getByteStride() {
+        int byteStride = bufferViewRef.getByteStride();
+        return byteStride > 0 ? byteStride : componentType.size * type.size;
+    }
+
+    /**
+     * Returns the ByteBuffer for this accessor, position 0 is the first byte of the first element and limit is the
+     * last byte of the last element.
+     * The ByteBuffer is shared by all users of this accessor, position and limit must not be changed - use absolute
+     * get/put or call duplicate() to read or write using position.
+     * 
+     * @return
+     * @throws IllegalArgumentException If the buffer has not been loaded
+     */
     public ByteBuffer getBuffer() {
-        ByteBuffer buffer = bufferViewRef.getBuffer().buffer;
-        buffer.position(byteOffset + bufferViewRef.getByteOffset());
-        return buffer;
+        ByteBuffer result = data;
+        return result != null ? result : createViews();
+    }
+
+    /**
+     * Returns a read only view of the data for this accessor, with position 0 at the first element.
+     * The view is shared, use absolute get or call duplicate() before reading using position.
+     * 
+     * @return
+     * @throws IllegalArgumentException If the buffer has not been loaded
+     */
+    public ByteBuffer getReadOnlyBuffer() {
+        getBuffer();
+        return readOnlyView;
+    }
+
+    /**
+     * Returns a read only view of the float data for this accessor, with position 0 at the first component of the
+     * first element. The view is shared, use absolute get or call duplicate() before reading using position.
+     * 
+     * @return
+     * @throws IllegalArgumentException If component type is not FLOAT, or the buffer has not been loaded
+     */
+    public FloatBuffer getFloatView() {
+        checkComponentType(ComponentType.FLOAT);
+        getBuffer();
+        return floatView;
+    }
+
+    /**
+     * Returns a read only view of the short data for this accessor, with position 0 at the first component of the
+     * first element. The view is shared, use absolute get or call duplicate() before reading using position.
+     * 
+     * @return
+     * @throws IllegalArgumentException If component type is not SHORT or UNSIGNED_SHORT, or the buffer has not been
+     * loaded
+     */
+    public ShortBuffer getShortView() {
+        if (componentType != ComponentType.UNSIGNED_SHORT) {
+            checkComponentType(ComponentType.SHORT);
+        }
+        getBuffer();
+        return shortView;
+    }
+
+    /**
+     * Returns a read only view of the int data for this accessor, with position 0 at the first component of the
+     * first element. The view is shared, use absolute get or call duplicate() before reading using position.
+     * 
+     * @return
+     * @throws IllegalArgumentException If component type is not UNSIGNED_INT, or the buffer has not been loaded
+     */
+    public IntBuffer getIntView() {
+        checkComponentType(ComponentType.UNSIGNED_INT);
+        getBuffer();
+        return intView;
+    }
+
+    private void checkComponentType(ComponentType expected) {
+        if (componentType != expected) {
+            throw new IllegalArgumentException("Component type is " + componentType + ", not " + expected);
+        }
+    }
+
+    private synchronized ByteBuffer createViews() {
+        if (data != null) {
+            return data;
+        }
+        Buffer buffer = bufferViewRef.getBuffer();
+        if (buffer == null || buffer.buffer == null) {
+            throw new IllegalArgumentException("Buffer not loaded for accessor " + getName());
+        }
+        int start = byteOffset + bufferViewRef.getByteOffset();
+        int length = count > 0 ? (count - 1) * getByteStride() + componentType.size * type.size : 0;
+        ByteBuffer slice = buffer.buffer.duplicate();
+        slice.clear();
+        slice.position(start);
+        slice.limit(start + length);
+        slice = slice.slice().order(buffer.buffer.order());
+        readOnlyView = slice.asReadOnlyBuffer().order(slice.order());
+        switch (componentType) {
+            case FLOAT:
+                floatView = readOnlyView.asFloatBuffer();
+                break;
+            case SHORT:
+            case UNSIGNED_SHORT:
+                shortView = readOnlyView.asShortBuffer();
+                break;
+            case UNSIGNED_INT:
+                intView = readOnlyView.asIntBuffer();
+                break;
+            default:
+                // No typed view
+        }
+        data = slice;
+        return slice;
+    }
+
+    /**
+     * Calculates the max and min values of the first 3 components, type must be VEC3 or larger.
+     * Integer components are converted as in {@link #copy(float[], int)}.
+     * Use this when max and min are not present.
+     * 
+     * @return The max and min values
+     * @throws IllegalArgumentException If type is smaller than VEC3 or the buffer has not been loaded
+     */
+    public MaxMin calculateMaxMin() {
+        if (type.size < 3) {
+            throw new IllegalArgumentException("Type must be VEC3 or larger: " + type);
+        }
+        float[] max = new float[] { -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE };
+        float[] min = new float[] { Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE };
+        if (componentType == ComponentType.FLOAT) {
+            FloatBuffer view = getFloatView();
+            int stride = getByteStride() / ComponentType.FLOAT.size;
+            int index = 0;
+            for (int i = 0; i < count; i++) {
+                for (int c = 0; c < 3; c++) {
+                    float value = view.get(index + c);
+                    max[c] = Math.max(max[c], value);
+                    min[c] = Math.min(min[c], value);
+                }
+                index += stride;
+            }
+        } else {
+            float[] values = new float[count * type.size];
+            copy(values, 0);
+            for (int index = 0; index < values.length; index += type.size) {
+                for (int c = 0; c < 3; c++) {
+                    max[c] = Math.max(max[c], values[index + c]);
+                    min[c] = Math.min(min[c], values[index + c]);
+                }
+            }
+        }
+        return new MaxMin(max, min);
+    }
+
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case BUFFER_VIEW:
+                bufferViewIndex = GLTFReader.readInt(reader, bufferViewIndex);
+                break;
+            case BYTE_OFFSET:
+                byteOffset = GLTFReader.readInt(reader, byteOffset);
+                break;
+            case COMPONENT_TYPE:
+                componentTypeValue = GLTFReader.readInt(reader, componentTypeValue);
+                break;
+            case NORMALIZED:
+                normalized = GLTFReader.readBoolean(reader, normalized);
+                break;
+            case COUNT:
+                count = GLTFReader.readInt(reader, count);
+                break;
+            case TYPE:
+                type = GLTFReader.readEnum(reader, Type.class);
+                break;
+            case MAX:
+                max = GLTFReader.readFloatArray(reader);
+                break;
+            case MIN:
+                min = GLTFReader.readFloatArray(reader);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
     }
 
     @Override
@@ -221,7 +490,10 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
         if (bufferViewRef != null) {
             throw new GLTFException("Already resolved Accessor with name " + getName());
         }
-        bufferViewRef = asset.getBufferViews()[bufferViewIndex];
+        if (bufferViewIndex >= 0) {
+            // Accessors for compressed data have no bufferView until decoded
+            bufferViewRef = asset.getBufferViews()[bufferViewIndex];
+        }
         componentType = ComponentType.get(componentTypeValue);
     }
 
@@ -230,18 +502,22 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
         String str = "Bufferviewindex: " + bufferViewIndex + ", count: " + count + ", offset: " + byteOffset
                 + ", component: " + componentType
                 + ", type: " + type + (getName() != null ? (", name: " + getName()) : "") + "\n";
-        bufferViewRef.getBuffer().getBuffer().position(byteOffset);
+        ByteBuffer storage = bufferViewRef.getBuffer().buffer;
+        if (storage == null) {
+            return str + "Buffer not loaded";
+        }
+        storage = storage.duplicate().order(storage.order());
         switch (componentType) {
             case BYTE:
             case UNSIGNED_BYTE:
-                str += bufferViewRef.toString(bufferViewRef.getBuffer().getBuffer());
+                str += bufferViewRef.toString(storage);
                 break;
             case SHORT:
             case UNSIGNED_SHORT:
-                str += bufferViewRef.toString(bufferViewRef.getBuffer().getBuffer().asShortBuffer());
+                str += bufferViewRef.toString(storage.asShortBuffer());
                 break;
             case FLOAT:
-                str += bufferViewRef.toString(bufferViewRef.getBuffer().getBuffer().asFloatBuffer());
+                str += bufferViewRef.toString(storage.asFloatBuffer());
                 break;
             default:
                 str += "Not implemented toString() for " + componentType;
@@ -251,45 +527,150 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
     }
 
     /**
-     * Copies all data in this accessor to short buffer
+     * Copies all data in this accessor to int array.
      * If componentType in accessor is float then nothing is done.
-     * If componentType is int then values are truncated to short.
-     * No conversion is made.
+     * Unsigned values are copied as positive values, no other conversion is made.
+     * This does not change the position of any shared buffer and may be called by multiple threads.
      * 
      * @param dest
      * @param index Index into dest where data is copied
      */
     public void copy(int[] dest, int index) {
+        final int size = type.size;
         switch (componentType) {
             case BYTE:
             case UNSIGNED_BYTE:
-                ByteBuffer byteBuffer = getBuffer();
-
+                ByteBuffer byteBuffer = getReadOnlyBuffer();
+                int stride = getByteStride();
+                int mask = componentType == ComponentType.UNSIGNED_BYTE ? 0x0ff : 0xffffffff;
                 for (int i = 0; i < count; i++) {
-                    dest[index++] = byteBuffer.get();
+                    int pos = i * stride;
+                    for (int c = 0; c < size; c++) {
+                        dest[index++] = byteBuffer.get(pos + c) & mask;
+                    }
                 }
                 break;
             case UNSIGNED_INT:
-                IntBuffer intBuffer = getBuffer().asIntBuffer();
-                intBuffer.get(dest, index, count);
+                copyRows(getIntView().duplicate(), dest, index, size,
+                        getByteStride() / ComponentType.UNSIGNED_INT.size);
                 break;
+            case SHORT:
+            case UNSIGNED_SHORT:
+                short[] shorts = new short[count * size];
+                copyRows(getShortView().duplicate(), shorts, 0, size, getByteStride() / componentType.size);
+                if (componentType == ComponentType.UNSIGNED_SHORT) {
+                    for (int i = 0; i < shorts.length; i++) {
+                        dest[index++] = (shorts[i] & 0x0ffff);
+                    }
+                } else {
+                    for (int i = 0; i < shorts.length; i++) {
+                        dest[index++] = shorts[i];
+                    }
+                }
+                break;
+            default:
+                SimpleLogger.d(getClass(), "Wrong component type, cannot copy " + componentType + " to dest buffer");
+        }
+    }
 
+    /**
+     * Stores count elements from source into this accessor, this is the opposite of {@link #copy(int[], int)}.
+     * Values are truncated to the component type, no other conversion is made.
+     * Only the elements of this accessor are written, using absolute put, so that accessors in the same buffer can
+     * be written by multiple threads.
+     * 
+     * @param source
+     * @param index Index into source where the first value is read
+     * @throws IllegalArgumentException If component type is FLOAT
+     */
+    public void put(int[] source, int index) {
+        ByteBuffer buffer = getBuffer();
+        final int size = type.size;
+        final int stride = getByteStride();
+        switch (componentType) {
+            case BYTE:
+            case UNSIGNED_BYTE:
+                for (int i = 0; i < count; i++) {
+                    int pos = i * stride;
+                    for (int c = 0; c < size; c++) {
+                        buffer.put(pos + c, (byte) source[index++]);
+                    }
+                }
+                break;
             case SHORT:
             case UNSIGNED_SHORT:
-                ShortBuffer shortBuffer = getBuffer().asShortBuffer();
-                short[] ushort = new short[count];
-                shortBuffer.get(ushort, index, count);
                 for (int i = 0; i < count; i++) {
-                    dest[index++] = (ushort[i] & 0x0ffff);
+                    int pos = i * stride;
+                    for (int c = 0; c < size; c++) {
+                        buffer.putShort(pos + (c << 1), (short) source[index++]);
+                    }
+                }
+                break;
+            case UNSIGNED_INT:
+                for (int i = 0; i < count; i++) {
+                    int pos = i * stride;
+                    for (int c = 0; c < size; c++) {
+                        buffer.putInt(pos + (c << 2), source[index++]);
+                    }
                 }
                 break;
             default:
-                SimpleLogger.d(getClass(), "Wrong component type, cannot copy " + componentType + " to dest buffer");
+                throw new IllegalArgumentException("Cannot put int values to " + componentType);
         }
     }
 
     /**
-     * Copies all data in this accessor to float buffer, component type must be FLOAT otherwise nothing is done.
+     * Stores count elements from source into this accessor, this is the opposite of {@link #copy(float[], int)}
+     * for FLOAT components.
+     * Only the elements of this accessor are written, using absolute put, so that accessors in the same buffer can
+     * be written by multiple threads.
+     * 
+     * @param source
+     * @param index Index into source where the first value is read
+     * @throws IllegalArgumentException If component type is not FLOAT
+     */
+    public void put(float[] source, int index) {
+        checkComponentType(ComponentType.FLOAT);
+        ByteBuffer buffer = getBuffer();
+        final int size = type.size;
+        final int stride = getByteStride();
+        for (int i = 0; i < count; i++) {
+            int pos = i * stride;
+            for (int c = 0; c < size; c++) {
+                buffer.putFloat(pos + (c << 2), source[index++]);
+            }
+        }
+    }
+
+    /**
+     * Moves the elements of this accessor so that element n is stored at position remap[n], elements are moved
+     * in the buffer of this accessor. All values in remap must be unique and less than count.
+     * 
+     * @param remap The new position of each element
+     */
+    public void reorder(int[] remap) {
+        if (remap.length < count) {
+            throw new IllegalArgumentException("Remap length " + remap.length + " is less than count " + count);
+        }
+        final int size = componentType.size * type.size;
+        final int stride = getByteStride();
+        ByteBuffer buffer = getBuffer().duplicate();
+        byte[] elements = new byte[count * size];
+        for (int i = 0; i < count; i++) {
+            buffer.position(i * stride);
+            buffer.get(elements, i * size, size);
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.position(remap[i] * stride);
+            buffer.put(elements, i * size, size);
+        }
+    }
+
+    /**
+     * Copies all data in this accessor to float buffer.
+     * Integer components of normalized accessors are converted to [0, 1] or [-1, 1] the same way as when read by
+     * a shader, other integer components are converted to float values as is.
+     * This does not change the position of any shared buffer and may be called by multiple threads.
      * 
      * @param dest
      * @param index
@@ -297,32 +678,128 @@ public class Accessor extends GLTFNamedValue implements GLTF.RuntimeResolver {
     public void copy(float[] dest, int index) {
         switch (componentType) {
             case FLOAT:
-                copy(dest, index, getBuffer().asFloatBuffer());
+                copyRows(getFloatView().duplicate(), dest, index, type.size,
+                        getByteStride() / ComponentType.FLOAT.size);
                 break;
             default:
-                SimpleLogger.d(getClass(), "Wrong component type, cannot copy " + componentType + " to float buffer");
+                int[] values = new int[count * type.size];
+                copy(values, 0);
+                if (normalized) {
+                    float scale = 1f / getMaxValue(componentType);
+                    for (int i = 0; i < values.length; i++) {
+                        dest[index++] = Math.max(values[i] * scale, -1f);
+                    }
+                } else {
+                    for (int i = 0; i < values.length; i++) {
+                        dest[index++] = values[i];
+                    }
+                }
         }
     }
 
     /**
+     * Returns the max value of a normalized component, this is the value that is read as 1.0 by a shader.
      * 
+     * @param componentType
+     * @return The max value of the component type
+     * @throws IllegalArgumentException If componentType cannot be normalized
+     */
+    public static int getMaxValue(ComponentType componentType) {
+        switch (componentType) {
+            case BYTE:
+                return Byte.MAX_VALUE;
+            case UNSIGNED_BYTE:
+                return 0x0ff;
+            case SHORT:
+                return Short.MAX_VALUE;
+            case UNSIGNED_SHORT:
+                return 0x0ffff;
+            default:
+                throw new IllegalArgumentException("Cannot normalize " + componentType);
+        }
+    }
+
+    /**
+     * Copies count elements from the source, if data is strided a number of elements are read at once and then
+     * copied to dest.
+     * 
+     * @param source Source with position at the first element, position is changed
      * @param dest
      * @param index
-     * @param buffer The source data
+     * @param size Number of components in one element
+     * @param stride Number of components from one element to the next
      */
-    private void copy(float[] dest, int index, FloatBuffer buffer) {
-        BufferView bv = getBufferView();
-        if (bv.getByteStride() <= type.size) {
+    private void copyRows(FloatBuffer source, float[] dest, int index, int size, int stride) {
+        if (stride == size || count == 0) {
             // Straight copy of all data
-            buffer.get(dest, index, count * type.size);
-        } else {
-            final int size = getType().size;
-            int stride = bv.getByteStride() / getComponentType().size;
-            int pos = buffer.position();
-            for (int i = 0; i < count; i++) {
-                buffer.get(dest, index + i * size, size);
-                pos += stride;
-                buffer.position(pos);
+            source.get(dest, index, count * size);
+            return;
+        }
+        int rows = Math.min(count, Math.max(1, COPY_CHUNK_SIZE / stride));
+        float[] chunk = new float[(rows - 1) * stride + size];
+        for (int row = 0; row < count; row += rows) {
+            int read = Math.min(rows, count - row);
+            source.position(row * stride);
+            source.get(chunk, 0, (read - 1) * stride + size);
+            for (int i = 0; i < read; i++) {
+                System.arraycopy(chunk, i * stride, dest, index, size);
+                index += size;
+            }
+        }
+    }
+
+    /**
+     * Copies count elements from the source, if data is strided a number of elements are read at once and then
+     * copied to dest.
+     * 
+     * @param source Source with position at the first element, position is changed
+     * @param dest
+     * @param index
+     * @param size Number of components in one element
+     * @param stride Number of components from one element to the next
+     */
+    private void copyRows(ShortBuffer source, short[] dest, int index, int size, int stride) {
+        if (stride == size || count == 0) {
+            source.get(dest, index, count * size);
+            return;
+        }
+        int rows = Math.min(count, Math.max(1, COPY_CHUNK_SIZE / stride));
+        short[] chunk = new short[(rows - 1) * stride + size];
+        for (int row = 0; row < count; row += rows) {
+            int read = Math.min(rows, count - row);
+            source.position(row * stride);
+            source.get(chunk, 0, (read - 1) * stride + size);
+            for (int i = 0; i < read; i++) {
+                System.arraycopy(chunk, i * stride, dest, index, size);
+                index += size;
+            }
+        }
+    }
+
+    /**
+     * Copies count elements from the source, if data is strided a number of elements are read at once and then
+     * copied to dest.
+     * 
+     * @param source Source with position at the first element, position is changed
+     * @param dest
+     * @param index
+     * @param size Number of components in one element
+     * @param stride Number of components from one element to the next
+     */
+    private void copyRows(IntBuffer source, int[] dest, int index, int size, int stride) {
+        if (stride == size || count == 0) {
+            source.get(dest, index, count * size);
+            return;
+        }
+        int rows = Math.min(count, Math.max(1, COPY_CHUNK_SIZE / stride));
+        int[] chunk = new int[(rows - 1) * stride + size];
+        for (int row = 0; row < count; row += rows) {
+            int read = Math.min(rows, count - row);
+            source.position(row * stride);
+            source.get(chunk, 0, (read - 1) * stride + size);
+            for (int i = 0; i < read; i++) {
+                System.arraycopy(chunk, i * stride, dest, index, size);
+                index += size;
             }
         }
     }
@@ -138,6 +138,7 @@ public class AlignedNodeTransform {
         Matrix.mul4(transformMatrix, rotationMatrix, resultMatrix);
         if (target != null) {
             Matrix.copy(resultMatrix, 0, target.getSceneTransform().getMatrix(), 0);
+            target.getSceneTransform().invalidateTransform();
         }
         return resultMatrix;
     }
@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The Asset as it is loaded using the glTF format.
@@ -17,7 +20,7 @@ import com.google.gson.annotations.SerializedName;
  * extensions object Dictionary object with extension-specific objects. No
  * extras any Application-specific data. No
  */
-public class Asset {
+public class Asset implements GLTFReader.JsonReadable {
 
     private static final String COPYRIGHT = "copyright";
     private static final String GENERATOR = "generator";
@@ -49,4 +52,24 @@ public class Asset {
         return minVersion;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case COPYRIGHT:
+                copyright = GLTFReader.readString(reader);
+                break;
+            case GENERATOR:
+                generator = GLTFReader.readString(reader);
+                break;
+            case VERSION:
+                version = GLTFReader.readString(reader);
+                break;
+            case MIN_VERSION:
+                minVersion = GLTFReader.readString(reader);
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
 }
@@ -0,0 +1,238 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.nucleus.SimpleLogger;
+import com.nucleus.common.WorkerPool;
+import com.nucleus.common.WorkerPool.RangeWork;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * Quantizes float vertex attributes to normalized integer attributes as defined by KHR_mesh_quantization.
+ * Normals, tangents and bitangents are stored as normalized BYTE, texture coordinates in the range [0, 1] are
+ * stored as normalized UNSIGNED_SHORT. Each element is padded to 4 bytes.
+ * Positions are not quantized since that requires the dequantization scale and offset to be added to the nodes
+ * referencing the mesh.
+ * The quantized attributes are stored in a new buffer and the accessors of the primitives are replaced, this shall
+ * be done after buffers are loaded and TBN has been calculated, and before buffers are uploaded.
+ *
+ */
+public class AttributeQuantizer {
+
+    /**
+     * The result of quantizing the attributes of a glTF
+     */
+    public static class Result {
+        private int accessors;
+        private int bytesBefore;
+        private int bytesAfter;
+
+        /**
+         * Returns the number of accessors that have been quantized
+         *
+         * @return
+         */
+        public int getAccessors() {
+            return accessors;
+        }
+
+        /**
+         * Returns the size, in bytes, of the quantized attributes before quantization
+         *
+         * @return
+         */
+        public int getBytesBefore() {
+            return bytesBefore;
+        }
+
+        /**
+         * Returns the size, in bytes, of the quantized attributes after quantization
+         *
+         * @return
+         */
+        public int getBytesAfter() {
+            return bytesAfter;
+        }
+
+        @Override
+        public String toString() {
+            return "Quantized " + accessors + " accessors, bytes " + bytesBefore + " -> " + bytesAfter;
+        }
+    }
+
+    private static final String BUFFER_NAME = "Quantized";
+    /**
+     * Alignment of elements in the created buffer, vertex attributes must be aligned to 4 bytes
+     */
+    private static final int ALIGNMENT = 4;
+
+    /**
+     * Quantizes the normal, tangent, bitangent and texture coordinate attributes of all primitives in the glTF.
+     * Accessors that are shared by several primitives are quantized once. If any attribute is quantized then
+     * {@link GLTF#KHR_MESH_QUANTIZATION} is added to the required extensions.
+     *
+     * @param gltf
+     * @return The result
+     */
+    public Result quantize(GLTF gltf) {
+        Result result = new Result();
+        Mesh[] meshes = gltf.getMeshes();
+        if (meshes == null) {
+            return result;
+        }
+        final ArrayList<Accessor> sources = new ArrayList<>();
+        final ArrayList<ComponentType> types = new ArrayList<>();
+        IdentityHashMap<Accessor, Accessor> quantized = new IdentityHashMap<>();
+        for (Mesh mesh : meshes) {
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    ArrayList<Attributes> attributes = p.getAttributesArray();
+                    for (int i = 0; attributes != null && i < attributes.size(); i++) {
+                        Accessor accessor = p.getAccessorArray().get(i);
+                        ComponentType type = getComponentType(attributes.get(i), accessor);
+                        if (type != null && !quantized.containsKey(accessor)) {
+                            quantized.put(accessor, accessor);
+                            sources.add(accessor);
+                            types.add(type);
+                        }
+                    }
+                }
+            }
+        }
+        // Read values and check the range in parallel
+        final float[][] values = new float[sources.size()][];
+        WorkerPool.getInstance().invokeRange(sources.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    Accessor source = sources.get(i);
+                    float[] data = new float[source.getCount() * source.getType().size];
+                    source.copy(data, 0);
+                    values[i] = isInRange(data, types.get(i)) ? data : null;
+                }
+            }
+        });
+        int size = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            if (values[i] != null) {
+                size += getElementStride(types.get(i), sources.get(i).getType()) * sources.get(i).getCount();
+            }
+        }
+        if (size == 0) {
+            return result;
+        }
+        Buffer buffer = gltf.getBuffer(gltf.createBuffer(BUFFER_NAME, size));
+        final Accessor[] dest = new Accessor[sources.size()];
+        int byteOffset = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            if (values[i] != null) {
+                Accessor source = sources.get(i);
+                int stride = getElementStride(types.get(i), source.getType());
+                BufferView view = gltf.createBufferView(buffer, null, byteOffset, stride, Target.ARRAY_BUFFER);
+                dest[i] = new Accessor(view, 0, types.get(i), source.getCount(), source.getType(), true);
+                quantized.put(source, dest[i]);
+                byteOffset += stride * source.getCount();
+                result.accessors++;
+                result.bytesBefore += source.getCount() * source.getType().size * ComponentType.FLOAT.size;
+                result.bytesAfter += stride * source.getCount();
+            } else {
+                quantized.remove(sources.get(i));
+            }
+        }
+        WorkerPool.getInstance().invokeRange(sources.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    if (dest[i] != null) {
+                        dest[i].put(quantize(values[i], dest[i].getComponentType()), 0);
+                    }
+                }
+            }
+        });
+        for (Mesh mesh : meshes) {
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    ArrayList<Attributes> attributes = p.getAttributesArray();
+                    for (int i = 0; attributes != null && i < attributes.size(); i++) {
+                        Accessor replacement = quantized.get(p.getAccessorArray().get(i));
+                        if (replacement != null) {
+                            p.setAccessor(attributes.get(i), replacement);
+                        }
+                    }
+                }
+            }
+        }
+        gltf.addExtension(GLTF.KHR_MESH_QUANTIZATION, true);
+        SimpleLogger.d(getClass(), result.toString());
+        return result;
+    }
+
+    /**
+     * Returns the component type to quantize the attribute to, or null if the attribute is not quantized.
+     *
+     * @param attribute
+     * @param accessor
+     * @return
+     */
+    private ComponentType getComponentType(Attributes attribute, Accessor accessor) {
+        if (accessor.getComponentType() != ComponentType.FLOAT) {
+            return null;
+        }
+        switch (attribute) {
+            case NORMAL:
+            case TANGENT:
+            case BITANGENT:
+                return accessor.getType() == Type.VEC3 || accessor.getType() == Type.VEC4 ? ComponentType.BYTE
+                        : null;
+            case TEXCOORD_0:
+            case TEXCOORD_1:
+            case TEXCOORD_2:
+            case TEXCOORD_3:
+            case TEXCOORD_4:
+            case TEXCOORD_5:
+                return accessor.getType() == Type.VEC2 ? ComponentType.UNSIGNED_SHORT : null;
+            default:
+                return null;
+        }
+    }
+
+    private static int getElementStride(ComponentType componentType, Type type) {
+        return (componentType.size * type.size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Returns true if all values can be stored as normalized values of the component type
+     */
+    private static boolean isInRange(float[] values, ComponentType componentType) {
+        float min = componentType == ComponentType.BYTE || componentType == ComponentType.SHORT ? -1f : 0f;
+        for (float value : values) {
+            if (!(value >= min && value <= 1f)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quantizes values in the range [-1, 1] or [0, 1] to normalized integer values of the component type, rounding
+     * to nearest.
+     *
+     * @param values
+     * @param componentType BYTE, UNSIGNED_BYTE, SHORT or UNSIGNED_SHORT
+     * @return The quantized values
+     */
+    public static int[] quantize(float[] values, ComponentType componentType) {
+        int max = Accessor.getMaxValue(componentType);
+        int min = componentType == ComponentType.BYTE || componentType == ComponentType.SHORT ? -max : 0;
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = Math.max(min, Math.min(max, Math.round(values[i] * max)));
+        }
+        return result;
+    }
+
+}
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.SimpleLogger;
 import com.nucleus.common.BufferUtils;
 import com.nucleus.common.FileUtils;
@@ -34,18 +35,49 @@ public class Buffer extends GLTFNamedValue {
      * Max number of dataelements to print from buffer in toString()
      */
     public static final int MAX_BUFFER_PRINT = 100;
+    /**
+     * Max number of bytes read at once when copying strided data
+     */
+    private static final int COPY_CHUNK_SIZE = 16384;
 
     private static final String URI = "uri";
     private static final String BYTE_LENGTH = "byteLength";
+    private static final String EXTENSIONS = "extensions";
+
+    /**
+     * The supported extensions of a buffer
+     */
+    public static class Extensions implements GLTFReader.JsonReadable {
+        @SerializedName(MeshoptCompression.EXT_MESHOPT_COMPRESSION)
+        private MeshoptCompression.BufferExtension meshoptCompression;
+
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (MeshoptCompression.EXT_MESHOPT_COMPRESSION.equals(property)) {
+                meshoptCompression = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new MeshoptCompression.BufferExtension());
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
 
     @SerializedName(URI)
     private String uri;
     @SerializedName(BYTE_LENGTH)
     private int byteLength;
+    @SerializedName(EXTENSIONS)
+    private Extensions extensions;
 
     transient ByteBuffer buffer;
     transient int bufferName;
 
+    /**
+     * Used when the buffer is read from the glTF document.
+     */
+    protected Buffer() {
+    }
+
     /**
      * Creates a new buffer with the specified byteLength - the buffer will be created by calling
      * {@link #createBuffer()}
@@ -60,6 +92,19 @@ public class Buffer extends GLTFNamedValue {
         createBuffer();
     }
 
+    /**
+     * Creates a new buffer using the storage, no data is copied and byteLength is the capacity of the storage.
+     * Use this for data that is already processed, for instance memory mapped from {@link GLTFCache}.
+     * 
+     * @param name Name of the buffer
+     * @param buffer Storage for the buffer, position 0 must be the first byte.
+     */
+    Buffer(String name, ByteBuffer buffer) {
+        this.name = name;
+        this.byteLength = buffer.capacity();
+        this.buffer = buffer;
+    }
+
     /**
      * Returns the URI as a String - '\\' char will be replaced by FileUtils.DIRECTORY_SEPARATOR
      * 
@@ -73,6 +118,24 @@ public class Buffer extends GLTFNamedValue {
         return byteLength;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case URI:
+                uri = GLTFReader.readString(reader);
+                break;
+            case BYTE_LENGTH:
+                byteLength = GLTFReader.readInt(reader, byteLength);
+                break;
+            case EXTENSIONS:
+                extensions = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Extensions());
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     /**
      * Returns the underlying ByteBuffer, or null if serialized and not called {@link #createBuffer()}
      * Deprecated use {@link Accessor#getBuffer()} instead
@@ -118,6 +181,79 @@ public class Buffer extends GLTFNamedValue {
 
     }
 
+    /**
+     * Sets the storage for a buffer that is already loaded, for instance the BIN chunk of a glb file.
+     * The buffer is used as is, no data is copied.
+     * 
+     * @param buffer Buffer with the data for this Buffer, position 0 must be the first byte.
+     * @throws IllegalArgumentException If buffer has already been created, or capacity is less than byteLength
+     */
+    public void setBuffer(ByteBuffer buffer) {
+        if (this.buffer != null) {
+            throw new IllegalArgumentException("Buffer already created");
+        }
+        if (buffer.capacity() < byteLength) {
+            throw new IllegalArgumentException(
+                    "Buffer capacity " + buffer.capacity() + " is less than byteLength " + byteLength);
+        }
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns true if this is a fallback buffer for EXT_meshopt_compression, the data is created by decoding the
+     * compressed bufferViews and the buffer shall not be loaded.
+     * 
+     * @return
+     */
+    public boolean isFallback() {
+        return extensions != null && extensions.meshoptCompression != null
+                && extensions.meshoptCompression.isFallback();
+    }
+
+    /**
+     * Releases the storage for this buffer, use this when the data has been uploaded to a buffer object and is not
+     * needed in CPU memory. The memory is freed immediately if this buffer owns the storage, otherwise the
+     * memory is released by the garbage collector.
+     * Views of the storage must not be used after calling this method, see {@link Accessor#clearViews()}
+     * 
+     * @return True if the memory was freed immediately
+     */
+    public boolean releaseBuffer() {
+        ByteBuffer released = buffer;
+        buffer = null;
+        return BufferUtils.freeBuffer(released);
+    }
+
+    /**
+     * Copies the storage into a new buffer if the storage is read only, for instance when the buffer is memory
+     * mapped from file. Views of the storage must be created again after calling this method, see
+     * {@link GLTF#makeBuffersWritable(java.util.List)}
+     * 
+     * @return True if the storage was copied
+     */
+    public boolean makeWritable() {
+        if (buffer == null || !buffer.isReadOnly()) {
+            return false;
+        }
+        ByteBuffer source = buffer.duplicate();
+        source.clear();
+        ByteBuffer copy = BufferUtils.createByteBuffer(source.capacity());
+        copy.put(source);
+        copy.clear();
+        copy.order(buffer.order());
+        buffer = copy;
+        return true;
+    }
+
+    /**
+     * Returns true if the storage for this buffer is created, loaded or set.
+     * 
+     * @return
+     */
+    public boolean hasBuffer() {
+        return buffer != null;
+    }
+
     /**
      * Stores the float array at position
      * 
@@ -134,50 +270,56 @@ public class Buffer extends GLTFNamedValue {
      * Copies the contents of the bufferview in the source into the current position of this buffer.
      * Copy will use bytestride of source and copy tighly packed into this buffer.
      * Use if data should be packed into this buffer.
+     * The source is read using a duplicate of the accessor buffer, position of the source is not changed.
      * 
      * @param source
      */
     public void put(Accessor source) {
-        BufferView view = source.getBufferView();
-        ByteBuffer sourceBuffer = source.getBuffer();
-        int limit = sourceBuffer.limit();
-        if (view.getByteStride() <= source.getComponentType().size * source.getType().size) {
-            sourceBuffer.limit(sourceBuffer.position() + buffer.remaining());
+        ByteBuffer sourceBuffer = source.getReadOnlyBuffer().duplicate();
+        int count = source.getCount();
+        int size = source.getType().size * source.getComponentType().size;
+        int byteStride = source.getByteStride();
+        if (byteStride == size) {
+            sourceBuffer.limit(count * size);
             buffer.put(sourceBuffer);
         } else {
-            // Must copy one type at a time
-            int count = source.getCount();
-            int size = source.getType().size * source.getComponentType().size;
-            byte[] d = new byte[size];
-            int pos = sourceBuffer.position();
-            int byteStride = view.getByteStride();
-            for (int i = 0; i < count; i++) {
-                sourceBuffer.get(d);
-                buffer.put(d);
-                pos += byteStride;
-                sourceBuffer.position(pos);
+            // Read a number of elements at once, then put one element at a time
+            int rows = Math.min(count, Math.max(1, COPY_CHUNK_SIZE / byteStride));
+            byte[] chunk = new byte[rows > 0 ? (rows - 1) * byteStride + size : 0];
+            for (int row = 0; row < count; row += rows) {
+                int read = Math.min(rows, count - row);
+                sourceBuffer.position(row * byteStride);
+                sourceBuffer.get(chunk, 0, (read - 1) * byteStride + size);
+                for (int i = 0; i < read; i++) {
+                    buffer.put(chunk, i * byteStride, size);
+                }
             }
-
         }
-        sourceBuffer.limit(limit);
     }
 
     /**
-     * Loads data from the uri into this buffer, must call {@link #createBuffer()} to create buffer before
-     * loading data into this buffer
+     * Loads data from the uri into this buffer.
+     * If buffer storage has not been created and the uri is a file on the filesystem, the file is memory mapped
+     * read only - otherwise storage is created by calling {@link #createBuffer()} and data is read into it.
+     * Call {@link #makeWritable()} before changing the data of a mapped buffer.
      * 
      * @param glTF
      * @param uri
-     * @throws IllegalArgumentException If buffer has not bee created
      */
     public void load(GLTF glTF, String uri) throws IOException, URISyntaxException {
+        String path = glTF.getPath(uri);
         if (buffer == null) {
-            throw new IllegalArgumentException("Buffer storage has not bee created, must call createBuffer()");
+            ByteBuffer mapped = StreamUtils.mapFromName(path, byteLength);
+            if (mapped != null && mapped.capacity() == byteLength) {
+                SimpleLogger.d(getClass(), "Mapped buffer with size " + byteLength + " from " + path);
+                buffer = mapped;
+                return;
+            }
+            createBuffer();
         }
-        SimpleLogger.d(getClass(),
-                "Loading into buffer with size " + buffer.capacity() + " from " + glTF.getPath(uri));
+        SimpleLogger.d(getClass(), "Loading into buffer with size " + buffer.capacity() + " from " + path);
         buffer.rewind();
-        int total = StreamUtils.readFromName(glTF.getPath(uri), buffer);
+        int total = StreamUtils.readFromName(path, buffer);
         if (total != byteLength) {
             SimpleLogger.d(getClass(), "Loaded " + total + " bytes into buffer with capacity " + byteLength);
         }
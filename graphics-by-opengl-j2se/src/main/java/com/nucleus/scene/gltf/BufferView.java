@@ -1,10 +1,12 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.common.BufferUtils;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
@@ -67,6 +69,25 @@ public class BufferView extends GLTFNamedValue implements RuntimeResolver {
     private static final String BYTE_STRIDE = "byteStride";
     private static final String TARGET = "target";
     private static final String NAME = "name";
+    private static final String EXTENSIONS = "extensions";
+
+    /**
+     * The supported extensions of a bufferView
+     */
+    public static class Extensions implements GLTFReader.JsonReadable {
+        @SerializedName(MeshoptCompression.EXT_MESHOPT_COMPRESSION)
+        private MeshoptCompression meshoptCompression;
+
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (MeshoptCompression.EXT_MESHOPT_COMPRESSION.equals(property)) {
+                meshoptCompression = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new MeshoptCompression());
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
 
     @SerializedName(BUFFER)
     private int bufferIndex = -1;
@@ -83,10 +104,19 @@ public class BufferView extends GLTFNamedValue implements RuntimeResolver {
      */
     @SerializedName(TARGET)
     private int targetValue = -1;
+    @SerializedName(EXTENSIONS)
+    private Extensions extensions;
 
     transient private Target target;
     transient private Buffer buffer;
 
+    /**
+     * Used when the bufferView is read from the glTF document, so that the default values are set for properties
+     * that are not present.
+     */
+    protected BufferView() {
+    }
+
     /**
      * Creates a BufferView based on the specified Buffer
      * Do not call this directly - use {@link GLTF#createBufferView(String, int, int, int, Target)}
@@ -152,9 +182,68 @@ public class BufferView extends GLTFNamedValue implements RuntimeResolver {
         return buffer;
     }
 
+    /**
+     * Returns the EXT_meshopt_compression extension, if not null the data of this view must be decoded using
+     * {@link MeshoptDecoder} before it is used.
+     * 
+     * @return The meshopt compression extension or null
+     */
+    public MeshoptCompression getMeshoptCompression() {
+        return extensions != null ? extensions.meshoptCompression : null;
+    }
+
+    /**
+     * Returns a new ByteBuffer that shares the data of this view, position 0 is the first byte of the view and
+     * limit is byteLength. Position and limit are independent of the buffer - use this when the data shall be read as
+     * a whole, for instance an image stored in a bufferView.
+     * 
+     * @return Slice of the buffer for this view
+     * @throws IllegalArgumentException If the buffer has not been loaded
+     */
+    public ByteBuffer getSlice() {
+        if (buffer == null || buffer.buffer == null) {
+            throw new IllegalArgumentException("Buffer not loaded for bufferView " + toString());
+        }
+        ByteBuffer data = buffer.buffer.duplicate();
+        data.clear();
+        data.limit(byteOffset + byteLength);
+        data.position(byteOffset);
+        return data.slice().order(buffer.buffer.order());
+    }
+
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case BUFFER:
+                bufferIndex = GLTFReader.readInt(reader, bufferIndex);
+                break;
+            case BYTE_OFFSET:
+                byteOffset = GLTFReader.readInt(reader, byteOffset);
+                break;
+            case BYTE_LENGTH:
+                byteLength = GLTFReader.readInt(reader, byteLength);
+                break;
+            case BYTE_STRIDE:
+                byteStride = GLTFReader.readInt(reader, byteStride);
+                break;
+            case TARGET:
+                targetValue = GLTFReader.readInt(reader, targetValue);
+                break;
+            case EXTENSIONS:
+                extensions = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Extensions());
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) throws GLTFException {
         this.buffer = asset.getBuffer(bufferIndex);
+        if (getMeshoptCompression() != null) {
+            getMeshoptCompression().resolve(asset);
+        }
         if (targetValue >= 0) {
             target = Target.getTarget(targetValue);
 
@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.vecmath.Matrix;
 
 /**
@@ -42,7 +45,7 @@ public class Camera extends GLTFNamedValue {
      * extras any Application-specific data. No
      *
      */
-    public static class Perspective {
+    public static class Perspective implements GLTFReader.JsonReadable {
 
         private static final String ASPECT_RATIO = "aspectRatio";
         private static final String YFOV = "yfov";
@@ -101,6 +104,26 @@ public class Camera extends GLTFNamedValue {
             return Matrix.createProjectionMatrix(aspectRatio, yfov, zfar, znear);
         }
 
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            switch (property) {
+                case ASPECT_RATIO:
+                    aspectRatio = GLTFReader.readFloat(reader, aspectRatio);
+                    break;
+                case YFOV:
+                    yfov = GLTFReader.readFloat(reader, yfov);
+                    break;
+                case ZFAR:
+                    zfar = GLTFReader.readFloat(reader, zfar);
+                    break;
+                case ZNEAR:
+                    znear = GLTFReader.readFloat(reader, znear);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
     }
 
     /**
@@ -117,7 +140,7 @@ public class Camera extends GLTFNamedValue {
      * extensions object Dictionary object with extension-specific objects. No
      * extras any Application-specific data. No *
      */
-    public class Orthographic {
+    public class Orthographic implements GLTFReader.JsonReadable {
 
         private static final String XMAG = "xmag";
         private static final String YMAG = "ymag";
@@ -133,6 +156,12 @@ public class Camera extends GLTFNamedValue {
         @SerializedName(ZNEAR)
         private float znear;
 
+        /**
+         * Used when the camera is read from the glTF document
+         */
+        Orthographic() {
+        }
+
         public Orthographic(Orthographic source) {
             xmag = source.xmag;
             ymag = source.ymag;
@@ -171,6 +200,26 @@ public class Camera extends GLTFNamedValue {
             return projection;
         }
 
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            switch (property) {
+                case XMAG:
+                    xmag = GLTFReader.readFloat(reader, xmag);
+                    break;
+                case YMAG:
+                    ymag = GLTFReader.readFloat(reader, ymag);
+                    break;
+                case ZFAR:
+                    zfar = GLTFReader.readFloat(reader, zfar);
+                    break;
+                case ZNEAR:
+                    znear = GLTFReader.readFloat(reader, znear);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
     }
 
     @SerializedName(PERSPECTIVE)
@@ -324,4 +373,23 @@ public class Camera extends GLTFNamedValue {
         System.arraycopy(inverseMatrix, 0, matrix, index, Matrix.MATRIX_ELEMENTS);
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case PERSPECTIVE:
+                perspective = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Perspective());
+                break;
+            case ORTHOGRAPHIC:
+                orthographic = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Orthographic());
+                break;
+            case TYPE:
+                type = GLTFReader.readEnum(reader, Type.class);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
 }
@@ -0,0 +1,913 @@
+package com.nucleus.scene.gltf;
+
+import com.nucleus.scene.gltf.DracoBuffer.RAnsBitDecoder;
+import com.nucleus.scene.gltf.DracoDecoder.DracoAttribute;
+import com.nucleus.scene.gltf.DracoDecoder.EncodingData;
+
+/**
+ * Decodes the values of one Draco attribute, values are first decoded into portable integer values using the
+ * prediction scheme and then transformed to the original format - dequantized or converted from octahedral
+ * coordinates.
+ *
+ */
+class DracoAttributeDecoder {
+
+    /**
+     * Sequential attribute decoder types
+     */
+    static final int GENERIC = 0;
+    static final int INTEGER = 1;
+    static final int QUANTIZATION = 2;
+    static final int NORMALS = 3;
+
+    private static final int PREDICTION_NONE = -2;
+    private static final int PREDICTION_DIFFERENCE = 0;
+    private static final int MESH_PREDICTION_PARALLELOGRAM = 1;
+    private static final int MESH_PREDICTION_MULTI_PARALLELOGRAM = 2;
+    private static final int MESH_PREDICTION_CONSTRAINED_MULTI_PARALLELOGRAM = 4;
+    private static final int MESH_PREDICTION_TEX_COORDS_PORTABLE = 5;
+    private static final int MESH_PREDICTION_GEOMETRIC_NORMAL = 6;
+
+    private static final int TRANSFORM_DELTA = 0;
+    private static final int TRANSFORM_WRAP = 1;
+    private static final int TRANSFORM_NORMAL_OCTAHEDRON = 2;
+    private static final int TRANSFORM_NORMAL_OCTAHEDRON_CANONICALIZED = 3;
+
+    private static final int MAX_PARALLELOGRAMS = 4;
+    private static final long NORMAL_UPPER_BOUND = 1 << 29;
+
+    /**
+     * Conversion between unit vectors and quantized octahedral coordinates
+     */
+    static class Octahedron {
+        final int maxQuantizedValue;
+        final int maxValue;
+        final int center;
+        final float dequantizationScale;
+
+        Octahedron(int quantizationBits) {
+            if (quantizationBits < 2 || quantizationBits > 30) {
+                throw new IllegalArgumentException("Invalid octahedron quantization bits " + quantizationBits);
+            }
+            maxQuantizedValue = (1 << quantizationBits) - 1;
+            maxValue = maxQuantizedValue - 1;
+            center = maxValue / 2;
+            dequantizationScale = 2f / maxValue;
+        }
+
+        int modMax(int x) {
+            if (x > center) {
+                return x - maxQuantizedValue;
+            }
+            if (x < -center) {
+                return x + maxQuantizedValue;
+            }
+            return x;
+        }
+
+        boolean isInDiamond(int s, int t) {
+            return Math.abs(s) + Math.abs(t) <= center;
+        }
+
+        /**
+         * Mirrors the point, centered at origin, to the other side of the diamond
+         *
+         * @param st s and t coordinate, the result is stored here
+         */
+        void invertDiamond(int[] st) {
+            int signS;
+            int signT;
+            if (st[0] >= 0 && st[1] >= 0) {
+                signS = 1;
+                signT = 1;
+            } else if (st[0] <= 0 && st[1] <= 0) {
+                signS = -1;
+                signT = -1;
+            } else {
+                signS = st[0] > 0 ? 1 : -1;
+                signT = st[1] > 0 ? 1 : -1;
+            }
+            int cornerS = signS * center;
+            int cornerT = signT * center;
+            int us = st[0] * 2 - cornerS;
+            int ut = st[1] * 2 - cornerT;
+            if (signS * signT >= 0) {
+                int temp = us;
+                us = -ut;
+                ut = -temp;
+            } else {
+                int temp = us;
+                us = ut;
+                ut = temp;
+            }
+            st[0] = (us + cornerS) / 2;
+            st[1] = (ut + cornerT) / 2;
+        }
+
+        void canonicalizeIntegerVector(long[] vector) {
+            long absSum = Math.abs(vector[0]) + Math.abs(vector[1]) + Math.abs(vector[2]);
+            if (absSum == 0) {
+                vector[0] = center;
+            } else {
+                vector[0] = (vector[0] * center) / absSum;
+                vector[1] = (vector[1] * center) / absSum;
+                long z = center - Math.abs(vector[0]) - Math.abs(vector[1]);
+                vector[2] = vector[2] >= 0 ? z : -z;
+            }
+        }
+
+        void integerVectorToQuantizedCoords(long[] vector, int[] st) {
+            int s;
+            int t;
+            if (vector[0] >= 0) {
+                s = (int) vector[1] + center;
+                t = (int) vector[2] + center;
+            } else {
+                s = vector[1] < 0 ? (int) Math.abs(vector[2]) : maxValue - (int) Math.abs(vector[2]);
+                t = vector[2] < 0 ? (int) Math.abs(vector[1]) : maxValue - (int) Math.abs(vector[1]);
+            }
+            if ((s == 0 && t == 0) || (s == 0 && t == maxValue) || (s == maxValue && t == 0)) {
+                s = maxValue;
+                t = maxValue;
+            } else if (s == 0 && t > center) {
+                t = center - (t - center);
+            } else if (s == maxValue && t < center) {
+                t = center + (center - t);
+            } else if (t == maxValue && s < center) {
+                s = center + (center - s);
+            } else if (t == 0 && s > center) {
+                s = center - (s - center);
+            }
+            st[0] = s;
+            st[1] = t;
+        }
+
+        void quantizedCoordsToUnitVector(int s, int t, float[] result, int offset) {
+            float y = s * dequantizationScale - 1f;
+            float z = t * dequantizationScale - 1f;
+            float x = 1f - Math.abs(y) - Math.abs(z);
+            float xOffset = Math.max(0, -x);
+            y += y < 0 ? xOffset : -xOffset;
+            z += z < 0 ? xOffset : -xOffset;
+            float normSquared = x * x + y * y + z * z;
+            if (normSquared < 1e-6) {
+                result[offset] = 0;
+                result[offset + 1] = 0;
+                result[offset + 2] = 0;
+            } else {
+                float d = (float) (1.0 / Math.sqrt(normSquared));
+                result[offset] = x * d;
+                result[offset + 1] = y * d;
+                result[offset + 2] = z * d;
+            }
+        }
+    }
+
+    private final DracoAttribute attribute;
+    private final int type;
+    /**
+     * Number of components of the portable values
+     */
+    private final int components;
+    private int[] portable;
+    private int entryCount;
+    private int[] pointIds;
+
+    private int method = PREDICTION_NONE;
+    private int transform = -1;
+    private int wrapMin;
+    private int wrapMax;
+    private Octahedron transformOctahedron;
+
+    private DracoCornerTable table;
+    private EncodingData encoding;
+    private DracoAttribute position;
+
+    private boolean[][] creaseEdges;
+    private boolean[] orientations;
+    private int orientationCount;
+    private RAnsBitDecoder flipDecoder;
+
+    /**
+     * Creates the decoder for the attribute
+     *
+     * @param attribute
+     * @param type Type of sequential decoder
+     * @throws IllegalArgumentException If the decoder type is not valid for the attribute
+     */
+    DracoAttributeDecoder(DracoAttribute attribute, int type) {
+        this.attribute = attribute;
+        this.type = type;
+        switch (type) {
+            case GENERIC:
+            case INTEGER:
+                components = attribute.components;
+                if (type == INTEGER && attribute.dataType == DracoDecoder.DT_FLOAT32) {
+                    throw new IllegalArgumentException("Integer decoder for float attribute");
+                }
+                break;
+            case QUANTIZATION:
+                components = attribute.components;
+                if (attribute.dataType != DracoDecoder.DT_FLOAT32) {
+                    throw new IllegalArgumentException("Quantization decoder for non float attribute");
+                }
+                break;
+            case NORMALS:
+                components = 2;
+                if (attribute.components != 3) {
+                    throw new IllegalArgumentException("Normal decoder for " + attribute.components + " components");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid attribute decoder type " + type);
+        }
+    }
+
+    DracoAttribute getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Sets the connectivity used by mesh prediction schemes, if table is null the difference prediction is used.
+     *
+     * @param table The corner table used by the attribute, or null
+     * @param encoding The mapping between vertices and encoded values
+     * @param position The position attribute with portable values, used by predictions that depend on position,
+     * or null
+     */
+    void setMeshData(DracoCornerTable table, EncodingData encoding, DracoAttribute position) {
+        this.table = table;
+        this.encoding = encoding;
+        this.position = position;
+    }
+
+    /**
+     * Decodes the portable values, one entry for each point id.
+     *
+     * @param buffer
+     * @param pointIds The point of each encoded entry
+     * @param count Number of entries
+     */
+    void decodePortable(DracoBuffer buffer, int[] pointIds, int count) {
+        this.pointIds = pointIds;
+        entryCount = count;
+        if (type == GENERIC) {
+            decodeGeneric(buffer);
+            return;
+        }
+        method = buffer.readByte();
+        if (method != PREDICTION_NONE) {
+            transform = buffer.readByte();
+            createPrediction();
+        }
+        int valueCount = count * components;
+        portable = new int[valueCount];
+        if (buffer.readUnsignedByte() > 0) {
+            buffer.decodeSymbols(valueCount, components, portable);
+        } else {
+            int bytes = buffer.readUnsignedByte();
+            if (bytes < 1 || bytes > 4) {
+                throw new IllegalArgumentException("Invalid number of bytes " + bytes);
+            }
+            for (int i = 0; i < valueCount; i++) {
+                portable[i] = buffer.readInt(bytes);
+            }
+        }
+        if (valueCount > 0 && (method == PREDICTION_NONE || !areCorrectionsPositive())) {
+            DracoBuffer.convertSymbolsToSignedInts(portable, valueCount);
+        }
+        if (method != PREDICTION_NONE) {
+            decodePredictionData(buffer);
+            if (valueCount > 0) {
+                computeOriginalValues();
+            }
+        }
+        attribute.portableValues = portable;
+    }
+
+    private void decodeGeneric(DracoBuffer buffer) {
+        int valueCount = entryCount * components;
+        if (attribute.dataType == DracoDecoder.DT_FLOAT32) {
+            float[] values = new float[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                values[i] = buffer.readFloat();
+            }
+            attribute.floatValues = values;
+            return;
+        }
+        int size = getDataTypeSize(attribute.dataType);
+        boolean signed = attribute.dataType == DracoDecoder.DT_INT8 || attribute.dataType == DracoDecoder.DT_INT16
+                || attribute.dataType == DracoDecoder.DT_INT32;
+        int[] values = new int[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            int value = buffer.readInt(size);
+            values[i] = signed && size < 4 ? (value << (32 - size * 8)) >> (32 - size * 8) : value;
+        }
+        attribute.intValues = values;
+        attribute.portableValues = values;
+    }
+
+    private static int getDataTypeSize(int dataType) {
+        switch (dataType) {
+            case DracoDecoder.DT_INT8:
+            case DracoDecoder.DT_UINT8:
+                return 1;
+            case DracoDecoder.DT_INT16:
+            case DracoDecoder.DT_UINT16:
+                return 2;
+            case DracoDecoder.DT_INT32:
+            case DracoDecoder.DT_UINT32:
+                return 4;
+            default:
+                throw new IllegalArgumentException("Unsupported data type " + dataType);
+        }
+    }
+
+    private void createPrediction() {
+        if (type == NORMALS) {
+            if (transform != TRANSFORM_NORMAL_OCTAHEDRON && transform != TRANSFORM_NORMAL_OCTAHEDRON_CANONICALIZED) {
+                throw new IllegalArgumentException("Invalid transform for normals " + transform);
+            }
+        } else if (transform != TRANSFORM_WRAP && transform != TRANSFORM_DELTA) {
+            throw new IllegalArgumentException("Invalid prediction transform " + transform);
+        }
+        switch (method) {
+            case PREDICTION_DIFFERENCE:
+                break;
+            case MESH_PREDICTION_PARALLELOGRAM:
+            case MESH_PREDICTION_MULTI_PARALLELOGRAM:
+            case MESH_PREDICTION_CONSTRAINED_MULTI_PARALLELOGRAM:
+            case MESH_PREDICTION_TEX_COORDS_PORTABLE:
+            case MESH_PREDICTION_GEOMETRIC_NORMAL:
+                if (table == null) {
+                    // Mesh predictions fall back to difference when there is no connectivity
+                    method = PREDICTION_DIFFERENCE;
+                } else if ((method == MESH_PREDICTION_TEX_COORDS_PORTABLE
+                        || method == MESH_PREDICTION_GEOMETRIC_NORMAL)
+                        && (position == null || position.portableValues == null || position.components != 3)) {
+                    throw new IllegalArgumentException("No position attribute for prediction " + method);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported prediction method " + method);
+        }
+    }
+
+    private boolean areCorrectionsPositive() {
+        return transform == TRANSFORM_NORMAL_OCTAHEDRON || transform == TRANSFORM_NORMAL_OCTAHEDRON_CANONICALIZED;
+    }
+
+    private void decodePredictionData(DracoBuffer buffer) {
+        if (method == MESH_PREDICTION_CONSTRAINED_MULTI_PARALLELOGRAM) {
+            creaseEdges = new boolean[MAX_PARALLELOGRAMS][];
+            for (int i = 0; i < MAX_PARALLELOGRAMS; i++) {
+                int count = buffer.readCount(table.getCornerCount());
+                creaseEdges[i] = new boolean[count];
+                if (count > 0) {
+                    RAnsBitDecoder decoder = new RAnsBitDecoder(buffer);
+                    for (int j = 0; j < count; j++) {
+                        creaseEdges[i][j] = decoder.decodeNextBit();
+                    }
+                }
+            }
+        } else if (method == MESH_PREDICTION_TEX_COORDS_PORTABLE) {
+            orientationCount = buffer.readInt();
+            if (orientationCount < 0 || orientationCount > entryCount) {
+                throw new IllegalArgumentException("Invalid number of orientations " + orientationCount);
+            }
+            orientations = new boolean[orientationCount];
+            boolean last = true;
+            RAnsBitDecoder decoder = new RAnsBitDecoder(buffer);
+            for (int i = 0; i < orientationCount; i++) {
+                if (!decoder.decodeNextBit()) {
+                    last = !last;
+                }
+                orientations[i] = last;
+            }
+        }
+        decodePredictionTransform(buffer);
+        if (method == MESH_PREDICTION_GEOMETRIC_NORMAL) {
+            flipDecoder = new RAnsBitDecoder(buffer);
+        }
+    }
+
+    private void decodePredictionTransform(DracoBuffer buffer) {
+        switch (transform) {
+            case TRANSFORM_WRAP:
+                wrapMin = buffer.readInt();
+                wrapMax = buffer.readInt();
+                if (wrapMin > wrapMax) {
+                    throw new IllegalArgumentException("Invalid wrap transform " + wrapMin + ", " + wrapMax);
+                }
+                break;
+            case TRANSFORM_NORMAL_OCTAHEDRON:
+            case TRANSFORM_NORMAL_OCTAHEDRON_CANONICALIZED:
+                int maxQuantized = buffer.readInt();
+                // Center value is not used
+                buffer.readInt();
+                if (maxQuantized <= 0 || (maxQuantized & 1) == 0) {
+                    throw new IllegalArgumentException("Invalid max quantized value " + maxQuantized);
+                }
+                transformOctahedron = new Octahedron(32 - Integer.numberOfLeadingZeros(maxQuantized));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Computes the original value from the prediction and correction using the prediction transform
+     */
+    private void computeOriginal(int[] prediction, int predictionOffset, int correctionOffset, int[] st) {
+        int out = correctionOffset;
+        switch (transform) {
+            case TRANSFORM_WRAP:
+                long maxDif = 1L + wrapMax - wrapMin;
+                for (int i = 0; i < components; i++) {
+                    int predicted = Math.max(wrapMin, Math.min(wrapMax, prediction[predictionOffset + i]));
+                    long value = (long) predicted + portable[correctionOffset + i];
+                    if (value > wrapMax) {
+                        value -= maxDif;
+                    } else if (value < wrapMin) {
+                        value += maxDif;
+                    }
+                    portable[out + i] = (int) value;
+                }
+                break;
+            case TRANSFORM_NORMAL_OCTAHEDRON:
+            case TRANSFORM_NORMAL_OCTAHEDRON_CANONICALIZED:
+                computeOriginalOctahedron(prediction, predictionOffset, correctionOffset, st);
+                break;
+            default:
+                for (int i = 0; i < components; i++) {
+                    portable[out + i] = prediction[predictionOffset + i] + portable[correctionOffset + i];
+                }
+                break;
+        }
+    }
+
+    private void computeOriginalOctahedron(int[] prediction, int predictionOffset, int offset, int[] st) {
+        Octahedron o = transformOctahedron;
+        st[0] = prediction[predictionOffset] - o.center;
+        st[1] = prediction[predictionOffset + 1] - o.center;
+        boolean inDiamond = o.isInDiamond(st[0], st[1]);
+        if (!inDiamond) {
+            o.invertDiamond(st);
+        }
+        if (transform == TRANSFORM_NORMAL_OCTAHEDRON) {
+            st[0] = o.modMax(st[0] + portable[offset]);
+            st[1] = o.modMax(st[1] + portable[offset + 1]);
+        } else {
+            boolean bottomLeft = (st[0] == 0 && st[1] == 0) || (st[0] < 0 && st[1] <= 0);
+            int rotation = getRotationCount(st[0], st[1]);
+            if (!bottomLeft) {
+                rotate(st, rotation);
+            }
+            st[0] = o.modMax(st[0] + portable[offset]);
+            st[1] = o.modMax(st[1] + portable[offset + 1]);
+            if (!bottomLeft) {
+                rotate(st, (4 - rotation) % 4);
+            }
+        }
+        if (!inDiamond) {
+            o.invertDiamond(st);
+        }
+        portable[offset] = st[0] + o.center;
+        portable[offset + 1] = st[1] + o.center;
+    }
+
+    private static int getRotationCount(int x, int y) {
+        if (x == 0) {
+            return y == 0 ? 0 : y > 0 ? 3 : 1;
+        } else if (x > 0) {
+            return y >= 0 ? 2 : 1;
+        }
+        return y <= 0 ? 0 : 3;
+    }
+
+    private static void rotate(int[] st, int rotation) {
+        int s = st[0];
+        int t = st[1];
+        switch (rotation) {
+            case 1:
+                st[0] = t;
+                st[1] = -s;
+                break;
+            case 2:
+                st[0] = -s;
+                st[1] = -t;
+                break;
+            case 3:
+                st[0] = -t;
+                st[1] = s;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void computeOriginalValues() {
+        int[] st = new int[2];
+        switch (method) {
+            case PREDICTION_DIFFERENCE:
+                computeDifference(st);
+                break;
+            case MESH_PREDICTION_PARALLELOGRAM:
+                computeParallelogram(st);
+                break;
+            case MESH_PREDICTION_MULTI_PARALLELOGRAM:
+                computeMultiParallelogram(st);
+                break;
+            case MESH_PREDICTION_CONSTRAINED_MULTI_PARALLELOGRAM:
+                computeConstrainedMultiParallelogram(st);
+                break;
+            case MESH_PREDICTION_TEX_COORDS_PORTABLE:
+                computeTexCoords(st);
+                break;
+            case MESH_PREDICTION_GEOMETRIC_NORMAL:
+                computeGeometricNormal(st);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported prediction method " + method);
+        }
+    }
+
+    private void computeDifference(int[] st) {
+        computeOriginal(new int[components], 0, 0, st);
+        for (int i = components; i < entryCount * components; i += components) {
+            computeOriginal(portable, i - components, i, st);
+        }
+    }
+
+    private int getEntryCount() {
+        if (encoding.entryCount > entryCount) {
+            throw new IllegalArgumentException("Invalid number of encoded entries");
+        }
+        return encoding.entryCount;
+    }
+
+    /**
+     * Computes the parallelogram prediction for the entry at the corner
+     *
+     * @return true if the prediction could be computed, false if the opposite face is not decoded
+     */
+    private boolean computeParallelogram(int entry, int corner, int[] result, int offset) {
+        int opposite = table.opposite(corner);
+        if (opposite == DracoCornerTable.INVALID) {
+            return false;
+        }
+        int[] vertexToEntry = encoding.vertexToEntry;
+        int oppositeEntry = vertexToEntry[table.vertex(opposite)];
+        int nextEntry = vertexToEntry[table.vertex(DracoCornerTable.next(opposite))];
+        int prevEntry = vertexToEntry[table.vertex(DracoCornerTable.previous(opposite))];
+        if (oppositeEntry < entry && nextEntry < entry && prevEntry < entry) {
+            for (int c = 0; c < components; c++) {
+                result[offset + c] = portable[nextEntry * components + c] + portable[prevEntry * components + c]
+                        - portable[oppositeEntry * components + c];
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void computeParallelogram(int[] st) {
+        int[] prediction = new int[components];
+        computeOriginal(prediction, 0, 0, st);
+        int count = getEntryCount();
+        for (int p = 1; p < count; p++) {
+            int offset = p * components;
+            if (computeParallelogram(p, encoding.entryToCorner[p], prediction, 0)) {
+                computeOriginal(prediction, 0, offset, st);
+            } else {
+                computeOriginal(portable, offset - components, offset, st);
+            }
+        }
+    }
+
+    private void computeMultiParallelogram(int[] st) {
+        int[] prediction = new int[components];
+        int[] parallelogram = new int[components];
+        computeOriginal(prediction, 0, 0, st);
+        int count = getEntryCount();
+        for (int p = 1; p < count; p++) {
+            int start = encoding.entryToCorner[p];
+            int corner = start;
+            int parallelograms = 0;
+            for (int i = 0; i < components; i++) {
+                prediction[i] = 0;
+            }
+            while (corner != DracoCornerTable.INVALID) {
+                if (computeParallelogram(p, corner, parallelogram, 0)) {
+                    for (int c = 0; c < components; c++) {
+                        prediction[c] += parallelogram[c];
+                    }
+                    parallelograms++;
+                }
+                corner = table.swingRight(corner);
+                if (corner == start) {
+                    corner = DracoCornerTable.INVALID;
+                }
+            }
+            int offset = p * components;
+            if (parallelograms == 0) {
+                computeOriginal(portable, offset - components, offset, st);
+            } else {
+                for (int c = 0; c < components; c++) {
+                    prediction[c] /= parallelograms;
+                }
+                computeOriginal(prediction, 0, offset, st);
+            }
+        }
+    }
+
+    private void computeConstrainedMultiParallelogram(int[] st) {
+        int[] predictions = new int[MAX_PARALLELOGRAMS * components];
+        int[] prediction = new int[components];
+        int[] creasePositions = new int[MAX_PARALLELOGRAMS];
+        computeOriginal(predictions, 0, 0, st);
+        int count = getEntryCount();
+        for (int p = 1; p < count; p++) {
+            int start = encoding.entryToCorner[p];
+            int corner = start;
+            int parallelograms = 0;
+            boolean firstPass = true;
+            while (corner != DracoCornerTable.INVALID) {
+                if (computeParallelogram(p, corner, predictions, parallelograms * components)) {
+                    if (++parallelograms == MAX_PARALLELOGRAMS) {
+                        break;
+                    }
+                }
+                corner = firstPass ? table.swingLeft(corner) : table.swingRight(corner);
+                if (corner == start) {
+                    break;
+                }
+                if (corner == DracoCornerTable.INVALID && firstPass) {
+                    firstPass = false;
+                    corner = table.swingRight(start);
+                }
+            }
+            int used = 0;
+            if (parallelograms > 0) {
+                for (int i = 0; i < components; i++) {
+                    prediction[i] = 0;
+                }
+                int context = parallelograms - 1;
+                for (int i = 0; i < parallelograms; i++) {
+                    int position = creasePositions[context]++;
+                    if (position >= creaseEdges[context].length) {
+                        throw new IllegalArgumentException("No crease edges left for context " + context);
+                    }
+                    if (!creaseEdges[context][position]) {
+                        used++;
+                        for (int c = 0; c < components; c++) {
+                            prediction[c] += predictions[i * components + c];
+                        }
+                    }
+                }
+            }
+            int offset = p * components;
+            if (used == 0) {
+                computeOriginal(portable, offset - components, offset, st);
+            } else {
+                for (int c = 0; c < components; c++) {
+                    prediction[c] /= used;
+                }
+                computeOriginal(prediction, 0, offset, st);
+            }
+        }
+    }
+
+    /**
+     * Returns the portable position of the point of the encoded entry
+     */
+    private void getPosition(int entry, long[] result) {
+        int offset = position.getValueIndex(pointIds[entry]) * 3;
+        result[0] = position.portableValues[offset];
+        result[1] = position.portableValues[offset + 1];
+        result[2] = position.portableValues[offset + 2];
+    }
+
+    private void computeTexCoords(int[] st) {
+        if (components != 2) {
+            throw new IllegalArgumentException("Tex coords prediction for " + components + " components");
+        }
+        int[] prediction = new int[2];
+        long[] tip = new long[3];
+        long[] next = new long[3];
+        long[] prev = new long[3];
+        int count = getEntryCount();
+        for (int p = 0; p < count; p++) {
+            int corner = encoding.entryToCorner[p];
+            int nextEntry = encoding.vertexToEntry[table.vertex(DracoCornerTable.next(corner))];
+            int prevEntry = encoding.vertexToEntry[table.vertex(DracoCornerTable.previous(corner))];
+            if (!predictTexCoord(p, nextEntry, prevEntry, tip, next, prev, prediction)) {
+                int offset = 0;
+                if (prevEntry < p) {
+                    offset = prevEntry * 2;
+                }
+                if (nextEntry < p) {
+                    offset = nextEntry * 2;
+                } else if (p > 0) {
+                    offset = (p - 1) * 2;
+                } else {
+                    offset = -1;
+                }
+                prediction[0] = offset < 0 ? 0 : portable[offset];
+                prediction[1] = offset < 0 ? 0 : portable[offset + 1];
+            }
+            computeOriginal(prediction, 0, p * 2, st);
+        }
+    }
+
+    /**
+     * Predicts the texture coordinate using the positions and texture coordinates of the triangle
+     *
+     * @return true if predicted, false if the previous value shall be used as prediction
+     */
+    private boolean predictTexCoord(int entry, int nextEntry, int prevEntry, long[] tip, long[] next, long[] prev,
+            int[] prediction) {
+        if (prevEntry >= entry || nextEntry >= entry) {
+            return false;
+        }
+        long nU = portable[nextEntry * 2];
+        long nV = portable[nextEntry * 2 + 1];
+        long pU = portable[prevEntry * 2];
+        long pV = portable[prevEntry * 2 + 1];
+        if (pU == nU && pV == nV) {
+            prediction[0] = (int) pU;
+            prediction[1] = (int) pV;
+            return true;
+        }
+        getPosition(entry, tip);
+        getPosition(nextEntry, next);
+        getPosition(prevEntry, prev);
+        long[] pn = new long[] { prev[0] - next[0], prev[1] - next[1], prev[2] - next[2] };
+        long pnNormSquared = pn[0] * pn[0] + pn[1] * pn[1] + pn[2] * pn[2];
+        if (pnNormSquared == 0) {
+            return false;
+        }
+        long cnDotPn = pn[0] * (tip[0] - next[0]) + pn[1] * (tip[1] - next[1]) + pn[2] * (tip[2] - next[2]);
+        long pnU = pU - nU;
+        long pnV = pV - nV;
+        if (Math.max(Math.abs(nU), Math.abs(nV)) > Long.MAX_VALUE / pnNormSquared
+                || cnDotPn > Long.MAX_VALUE / Math.max(Math.abs(pnU), Math.abs(pnV))) {
+            throw new IllegalArgumentException("Overflow in tex coords prediction");
+        }
+        long xU = nU * pnNormSquared + cnDotPn * pnU;
+        long xV = nV * pnNormSquared + cnDotPn * pnV;
+        long pnAbsMax = Math.max(Math.max(Math.abs(pn[0]), Math.abs(pn[1])), Math.abs(pn[2]));
+        if (cnDotPn > Long.MAX_VALUE / pnAbsMax) {
+            throw new IllegalArgumentException("Overflow in tex coords prediction");
+        }
+        long cxNormSquared = 0;
+        for (int i = 0; i < 3; i++) {
+            long cx = tip[i] - (next[i] + (cnDotPn * pn[i]) / pnNormSquared);
+            cxNormSquared += cx * cx;
+        }
+        long norm = intSqrt(cxNormSquared * pnNormSquared);
+        long cxU = pnV * norm;
+        long cxV = -pnU * norm;
+        if (orientationCount == 0) {
+            throw new IllegalArgumentException("No orientations left");
+        }
+        boolean orientation = orientations[--orientationCount];
+        if (orientation) {
+            prediction[0] = (int) ((xU + cxU) / pnNormSquared);
+            prediction[1] = (int) ((xV + cxV) / pnNormSquared);
+        } else {
+            prediction[0] = (int) ((xU - cxU) / pnNormSquared);
+            prediction[1] = (int) ((xV - cxV) / pnNormSquared);
+        }
+        return true;
+    }
+
+    /**
+     * Integer square root of the unsigned value
+     */
+    static long intSqrt(long number) {
+        if (number == 0) {
+            return 0;
+        }
+        long act = number;
+        long root = 1;
+        while (Long.compareUnsigned(act, 2) >= 0) {
+            root *= 2;
+            act = act >>> 2;
+        }
+        do {
+            root = (root + Long.divideUnsigned(number, root)) >>> 1;
+        } while (Long.compareUnsigned(root * root, number) > 0);
+        return root;
+    }
+
+    private void computeGeometricNormal(int[] st) {
+        if (components != 2) {
+            throw new IllegalArgumentException("Geometric normal prediction for " + components + " components");
+        }
+        Octahedron octahedron = transformOctahedron;
+        long[] normal = new long[3];
+        long[] center = new long[3];
+        long[] next = new long[3];
+        long[] prev = new long[3];
+        int[] prediction = new int[2];
+        int count = getEntryCount();
+        for (int p = 0; p < count; p++) {
+            int corner = encoding.entryToCorner[p];
+            predictNormal(corner, normal, center, next, prev);
+            octahedron.canonicalizeIntegerVector(normal);
+            if (flipDecoder.decodeNextBit()) {
+                normal[0] = -normal[0];
+                normal[1] = -normal[1];
+                normal[2] = -normal[2];
+            }
+            octahedron.integerVectorToQuantizedCoords(normal, prediction);
+            computeOriginal(prediction, 0, p * 2, st);
+        }
+    }
+
+    private void getCornerPosition(int corner, long[] result) {
+        getPosition(encoding.vertexToEntry[table.vertex(corner)], result);
+    }
+
+    /**
+     * Predicts the normal at the corner as the area weighted sum of the normals of the faces around the vertex
+     */
+    private void predictNormal(int start, long[] normal, long[] center, long[] next, long[] prev) {
+        getCornerPosition(start, center);
+        normal[0] = 0;
+        normal[1] = 0;
+        normal[2] = 0;
+        int corner = start;
+        boolean left = true;
+        while (corner != DracoCornerTable.INVALID) {
+            getCornerPosition(DracoCornerTable.next(corner), next);
+            getCornerPosition(DracoCornerTable.previous(corner), prev);
+            long nx = next[0] - center[0];
+            long ny = next[1] - center[1];
+            long nz = next[2] - center[2];
+            long px = prev[0] - center[0];
+            long py = prev[1] - center[1];
+            long pz = prev[2] - center[2];
+            normal[0] += ny * pz - nz * py;
+            normal[1] += nz * px - nx * pz;
+            normal[2] += nx * py - ny * px;
+            if (left) {
+                corner = table.swingLeft(corner);
+                if (corner == DracoCornerTable.INVALID) {
+                    left = false;
+                    corner = table.swingRight(start);
+                } else if (corner == start) {
+                    corner = DracoCornerTable.INVALID;
+                }
+            } else {
+                corner = table.swingRight(corner);
+            }
+        }
+        long absSum = Math.abs(normal[0]) + Math.abs(normal[1]) + Math.abs(normal[2]);
+        if (absSum > NORMAL_UPPER_BOUND) {
+            long quotient = absSum / NORMAL_UPPER_BOUND;
+            normal[0] /= quotient;
+            normal[1] /= quotient;
+            normal[2] /= quotient;
+        }
+        normal[0] = (int) normal[0];
+        normal[1] = (int) normal[1];
+        normal[2] = (int) normal[2];
+    }
+
+    /**
+     * Decodes the data needed to transform portable values to the original format, quantization or octahedron
+     * parameters.
+     *
+     * @param buffer
+     */
+    void decodeTransformData(DracoBuffer buffer) {
+        if (type == QUANTIZATION) {
+            float[] min = new float[components];
+            for (int i = 0; i < components; i++) {
+                min[i] = buffer.readFloat();
+            }
+            float range = buffer.readFloat();
+            int bits = buffer.readUnsignedByte();
+            if (bits < 1 || bits > 30) {
+                throw new IllegalArgumentException("Invalid quantization bits " + bits);
+            }
+            float delta = range / ((1 << bits) - 1);
+            float[] values = new float[portable.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = portable[i] * delta + min[i % components];
+            }
+            attribute.floatValues = values;
+        } else if (type == NORMALS) {
+            Octahedron octahedron = new Octahedron(buffer.readUnsignedByte());
+            float[] values = new float[entryCount * 3];
+            for (int i = 0; i < entryCount; i++) {
+                octahedron.quantizedCoordsToUnitVector(portable[i * 2], portable[i * 2 + 1], values, i * 3);
+            }
+            attribute.floatValues = values;
+        } else if (type == INTEGER) {
+            attribute.intValues = portable;
+        }
+    }
+
+}
@@ -0,0 +1,452 @@
+package com.nucleus.scene.gltf;
+
+/**
+ * Reads the data of a Draco bitstream, this is the little endian values, varints, direct bit coded data and the
+ * rANS entropy coded bits and symbols used by {@link DracoDecoder}.
+ * Only bitstream version 2.2 is supported.
+ * Reading past the end of the data will throw IllegalArgumentException.
+ *
+ */
+class DracoBuffer {
+
+    /**
+     * Number of bits in the largest symbol that can be decoded with raw symbol coding
+     */
+    private static final int MAX_RAW_BIT_LENGTH = 18;
+    private static final int TAGGED_SYMBOLS = 0;
+    private static final int RAW_SYMBOLS = 1;
+    private static final int TAG_BIT_LENGTH = 5;
+    private static final int ANS_IO_BASE = 256;
+    private static final int ANS_L_BASE = 4096;
+    private static final int ANS_P8_PRECISION = 256;
+
+    private final byte[] data;
+    private int pos;
+    private final int end;
+    /**
+     * Start and current bit when bit decoding is active, bitStart is -1 when not in bit mode.
+     */
+    private int bitStart = -1;
+    private long bitOffset;
+
+    DracoBuffer(byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " or length " + length);
+        }
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Returns a new buffer that starts at the current position of this buffer, reading one of the buffers does not
+     * change the other.
+     *
+     * @return
+     */
+    DracoBuffer copy() {
+        return new DracoBuffer(data, pos, end - pos);
+    }
+
+    int getRemaining() {
+        return end - pos;
+    }
+
+    int getPosition() {
+        return pos;
+    }
+
+    private void checkRemaining(long bytes) {
+        if (bytes < 0 || bytes > end - pos) {
+            throw new IllegalArgumentException("Draco data too short, need " + bytes + " bytes at " + pos);
+        }
+        if (bitStart >= 0) {
+            throw new IllegalArgumentException("Cannot read bytes when bit decoding is active");
+        }
+    }
+
+    void skip(long bytes) {
+        checkRemaining(bytes);
+        pos += (int) bytes;
+    }
+
+    int readUnsignedByte() {
+        checkRemaining(1);
+        return data[pos++] & 0xff;
+    }
+
+    int readByte() {
+        checkRemaining(1);
+        return data[pos++];
+    }
+
+    int readUnsignedShort() {
+        checkRemaining(2);
+        int value = (data[pos] & 0xff) | ((data[pos + 1] & 0xff) << 8);
+        pos += 2;
+        return value;
+    }
+
+    /**
+     * Reads an integer using the specified number of little endian bytes, 1 to 4
+     *
+     * @param bytes
+     * @return
+     */
+    int readInt(int bytes) {
+        checkRemaining(bytes);
+        int value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value |= (data[pos++] & 0xff) << (i << 3);
+        }
+        return value;
+    }
+
+    int readInt() {
+        return readInt(4);
+    }
+
+    float readFloat() {
+        return Float.intBitsToFloat(readInt(4));
+    }
+
+    /**
+     * Reads an unsigned varint, 7 bits per byte and the high bit set when more bytes follows.
+     *
+     * @return
+     * @throws IllegalArgumentException If the value does not fit in 32 bits
+     */
+    int readVarint() {
+        long value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                if (value > 0xffffffffL) {
+                    break;
+                }
+                return (int) value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid varint at " + pos);
+    }
+
+    /**
+     * Reads a varint that is used as a count or size, the value must be positive and not larger than max
+     *
+     * @param max
+     * @return
+     */
+    int readCount(long max) {
+        int value = readVarint();
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException("Invalid count " + (value & 0xffffffffL) + " at " + pos);
+        }
+        return value;
+    }
+
+    /**
+     * Starts decoding of bits, bits are read from the least significant bit of each byte.
+     *
+     * @param decodeSize True if the size, in bytes, of the bit data is stored as a varint before the bits.
+     * @return The size of the bit data, or 0 if decodeSize is false
+     */
+    int startBitDecoding(boolean decodeSize) {
+        int size = 0;
+        if (decodeSize) {
+            size = readCount(getRemaining());
+        }
+        bitStart = pos;
+        bitOffset = 0;
+        return size;
+    }
+
+    /**
+     * Ends decoding of bits, the position is moved past the decoded bits.
+     */
+    void endBitDecoding() {
+        long bytes = (bitOffset + 7) >>> 3;
+        bitStart = -1;
+        skip(Math.min(bytes, getRemaining()));
+    }
+
+    /**
+     * Returns the next bits, least significant bit first. Reading past the end of the data returns 0 bits.
+     *
+     * @param count Number of bits, 0 to 32
+     * @return
+     */
+    int readBits(int count) {
+        int value = 0;
+        for (int bit = 0; bit < count; bit++) {
+            long byteOffset = bitStart + (bitOffset >>> 3);
+            if (byteOffset < end) {
+                value |= ((data[(int) byteOffset] >>> (int) (bitOffset & 7)) & 1) << bit;
+            }
+            bitOffset++;
+        }
+        return value;
+    }
+
+    /**
+     * Converts zigzag symbols, as used for signed values, to signed values
+     *
+     * @param symbols
+     * @param count
+     */
+    static void convertSymbolsToSignedInts(int[] symbols, int count) {
+        for (int i = 0; i < count; i++) {
+            int value = symbols[i];
+            symbols[i] = (value & 1) == 0 ? value >>> 1 : -(value >>> 1) - 1;
+        }
+    }
+
+    /**
+     * Decodes entropy coded symbols using either the tagged or raw scheme.
+     *
+     * @param count Number of values to decode
+     * @param components Number of components in each value, used by the tagged scheme
+     * @param dest Destination for the symbols, starting at index 0
+     */
+    void decodeSymbols(int count, int components, int[] dest) {
+        if (count == 0) {
+            return;
+        }
+        int scheme = readUnsignedByte();
+        switch (scheme) {
+            case TAGGED_SYMBOLS:
+                decodeTaggedSymbols(count, components, dest);
+                break;
+            case RAW_SYMBOLS:
+                int maxBitLength = readUnsignedByte();
+                if (maxBitLength < 1 || maxBitLength > MAX_RAW_BIT_LENGTH) {
+                    throw new IllegalArgumentException("Invalid max bit length " + maxBitLength);
+                }
+                RAnsSymbolDecoder decoder = new RAnsSymbolDecoder(this, maxBitLength);
+                if (decoder.symbolCount == 0) {
+                    throw new IllegalArgumentException("No symbols for " + count + " values");
+                }
+                decoder.startDecoding(this);
+                for (int i = 0; i < count; i++) {
+                    dest[i] = decoder.decodeSymbol();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid symbol coding scheme " + scheme);
+        }
+    }
+
+    private void decodeTaggedSymbols(int count, int components, int[] dest) {
+        RAnsSymbolDecoder tagDecoder = new RAnsSymbolDecoder(this, TAG_BIT_LENGTH);
+        if (tagDecoder.symbolCount == 0) {
+            throw new IllegalArgumentException("No tags for " + count + " values");
+        }
+        tagDecoder.startDecoding(this);
+        startBitDecoding(false);
+        int index = 0;
+        for (int i = 0; i < count; i += components) {
+            int bitLength = tagDecoder.decodeSymbol();
+            if (bitLength > 32) {
+                throw new IllegalArgumentException("Invalid bit length " + bitLength);
+            }
+            for (int c = 0; c < components && index < count; c++) {
+                dest[index++] = readBits(bitLength);
+            }
+        }
+        endBitDecoding();
+    }
+
+    /**
+     * Reads the initial rANS state from the end of the data, the state is stored using 1 to 4 bytes with the number
+     * of bytes in the 2 high bits of the last byte.
+     *
+     * @param offset The offset of the remaining rANS data, relative start, is stored at index 0
+     * @param allow32 True if the state may be stored using 4 bytes
+     * @return The initial state, without the lower bound
+     */
+    private static int readAnsState(byte[] data, int start, int length, int[] offset, boolean allow32) {
+        if (length < 1) {
+            throw new IllegalArgumentException("No rANS data");
+        }
+        int last = data[start + length - 1] & 0xff;
+        int x = last >>> 6;
+        int bytes = x + 1;
+        if (x == 3 && !allow32) {
+            throw new IllegalArgumentException("Invalid rANS state");
+        }
+        if (length < bytes) {
+            throw new IllegalArgumentException("rANS data too short");
+        }
+        int state = 0;
+        for (int i = 0; i < bytes; i++) {
+            state |= (data[start + length - bytes + i] & 0xff) << (i << 3);
+        }
+        state &= (1 << (6 + (x << 3))) - 1;
+        offset[0] = length - bytes;
+        return state;
+    }
+
+    /**
+     * Decodes bits using rANS with 8 bit probability, the probability of zero is stored first followed by the
+     * size of the rANS data.
+     */
+    static class RAnsBitDecoder {
+        private int probZero;
+        private byte[] data;
+        private int start;
+        private int offset;
+        private int state;
+
+        /**
+         * Reads the header and the initial state, the buffer is moved past the rANS data.
+         *
+         * @param buffer
+         */
+        RAnsBitDecoder(DracoBuffer buffer) {
+            probZero = buffer.readUnsignedByte();
+            int size = buffer.readCount(buffer.getRemaining());
+            data = buffer.data;
+            start = buffer.pos;
+            int[] result = new int[1];
+            state = readAnsState(data, start, size, result, false) + ANS_L_BASE;
+            offset = result[0];
+            if (state >= ANS_L_BASE * ANS_IO_BASE) {
+                throw new IllegalArgumentException("Invalid rANS state");
+            }
+            buffer.skip(size);
+        }
+
+        boolean decodeNextBit() {
+            int p = ANS_P8_PRECISION - probZero;
+            if (state < ANS_L_BASE && offset > 0) {
+                state = state * ANS_IO_BASE + (data[start + --offset] & 0xff);
+            }
+            int quot = state / ANS_P8_PRECISION;
+            int rem = state % ANS_P8_PRECISION;
+            int xn = quot * p;
+            if (rem < p) {
+                state = xn + rem;
+                return true;
+            }
+            state = state - xn - p;
+            return false;
+        }
+
+        /**
+         * Decodes bits, most significant bit first
+         *
+         * @param count
+         * @return
+         */
+        int decodeLeastSignificantBits(int count) {
+            int result = 0;
+            while (count-- > 0) {
+                result = (result << 1) + (decodeNextBit() ? 1 : 0);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Decodes symbols using rANS, the probability table is stored before the rANS data.
+     */
+    static class RAnsSymbolDecoder {
+        private final int precision;
+        private final int lBase;
+        private int symbolCount;
+        private int[] probabilities;
+        private int[] cumulative;
+        private int[] lookup;
+        private byte[] data;
+        private int start;
+        private int offset;
+        private int state;
+
+        /**
+         * Creates the decoder by reading the probability table
+         *
+         * @param buffer
+         * @param uniqueSymbolsBitLength
+         */
+        RAnsSymbolDecoder(DracoBuffer buffer, int uniqueSymbolsBitLength) {
+            int bits = Math.max(12, Math.min(20, (3 * uniqueSymbolsBitLength) / 2));
+            precision = 1 << bits;
+            lBase = precision * 4;
+            symbolCount = buffer.readCount(Integer.MAX_VALUE);
+            if (symbolCount / 64 > buffer.getRemaining()) {
+                throw new IllegalArgumentException("Invalid number of symbols " + symbolCount);
+            }
+            probabilities = new int[symbolCount];
+            for (int i = 0; i < symbolCount; i++) {
+                int probData = buffer.readUnsignedByte();
+                int token = probData & 3;
+                if (token == 3) {
+                    int zeros = probData >>> 2;
+                    if (i + zeros >= symbolCount) {
+                        throw new IllegalArgumentException("Invalid zero probability run " + zeros);
+                    }
+                    // Entries are already zero
+                    i += zeros;
+                } else {
+                    int prob = probData >>> 2;
+                    for (int b = 0; b < token; b++) {
+                        prob |= buffer.readUnsignedByte() << (8 * (b + 1) - 2);
+                    }
+                    probabilities[i] = prob;
+                }
+            }
+            if (symbolCount > 0) {
+                buildLookupTable();
+            }
+        }
+
+        private void buildLookupTable() {
+            lookup = new int[precision];
+            cumulative = new int[symbolCount];
+            long sum = 0;
+            for (int i = 0; i < symbolCount; i++) {
+                cumulative[i] = (int) sum;
+                sum += probabilities[i];
+                if (sum > precision) {
+                    throw new IllegalArgumentException("Invalid probability table");
+                }
+                for (int j = cumulative[i]; j < sum; j++) {
+                    lookup[j] = i;
+                }
+            }
+            if (sum != precision) {
+                throw new IllegalArgumentException("Invalid probability table sum " + sum);
+            }
+        }
+
+        /**
+         * Reads the size of the rANS data and the initial state, the buffer is moved past the rANS data.
+         *
+         * @param buffer
+         */
+        void startDecoding(DracoBuffer buffer) {
+            int size = buffer.readCount(buffer.getRemaining());
+            data = buffer.data;
+            start = buffer.pos;
+            int[] result = new int[1];
+            state = readAnsState(data, start, size, result, true) + lBase;
+            offset = result[0];
+            if ((long) state >= (long) lBase * ANS_IO_BASE) {
+                throw new IllegalArgumentException("Invalid rANS state");
+            }
+            buffer.skip(size);
+        }
+
+        int decodeSymbol() {
+            while (state < lBase && offset > 0) {
+                state = state * ANS_IO_BASE + (data[start + --offset] & 0xff);
+            }
+            int quot = state / precision;
+            int rem = state & (precision - 1);
+            int symbol = lookup[rem];
+            state = quot * probabilities[symbol] + rem - cumulative[symbol];
+            return symbol;
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.nucleus.scene.gltf;
+
+import java.util.Arrays;
+
+/**
+ * The corner table used when decoding Draco meshes, each triangle has 3 corners and each corner references one
+ * vertex and the opposite corner in the neighbouring triangle.
+ * Corners, faces and vertices are referenced by index, -1 is used for invalid.
+ * The {@link AttributeCornerTable} adds the seams of an attribute to the corner table of the positions.
+ *
+ */
+class DracoCornerTable {
+
+    static final int INVALID = -1;
+
+    private int[] cornerToVertex;
+    private int[] oppositeCorners;
+    private int[] vertexCorners;
+    private int vertexCount;
+    private final int faceCount;
+
+    /**
+     * Used by subclass that wraps another table
+     */
+    protected DracoCornerTable(int faceCount, boolean allocate) {
+        this.faceCount = faceCount;
+        if (allocate) {
+            cornerToVertex = new int[faceCount * 3];
+            oppositeCorners = new int[faceCount * 3];
+            Arrays.fill(cornerToVertex, INVALID);
+            Arrays.fill(oppositeCorners, INVALID);
+            vertexCorners = new int[16];
+        }
+    }
+
+    /**
+     * Creates an empty corner table, with no vertices, for the number of faces.
+     *
+     * @param faceCount
+     */
+    DracoCornerTable(int faceCount) {
+        this(faceCount, true);
+    }
+
+    int getFaceCount() {
+        return faceCount;
+    }
+
+    int getCornerCount() {
+        return faceCount * 3;
+    }
+
+    int getVertexCount() {
+        return vertexCount;
+    }
+
+    static int next(int corner) {
+        if (corner < 0) {
+            return INVALID;
+        }
+        return (corner % 3) == 2 ? corner - 2 : corner + 1;
+    }
+
+    static int previous(int corner) {
+        if (corner < 0) {
+            return INVALID;
+        }
+        return (corner % 3) == 0 ? corner + 2 : corner - 1;
+    }
+
+    int opposite(int corner) {
+        return corner < 0 ? INVALID : oppositeCorners[corner];
+    }
+
+    int vertex(int corner) {
+        return corner < 0 ? INVALID : cornerToVertex[corner];
+    }
+
+    int leftMostCorner(int vertex) {
+        return vertexCorners[vertex];
+    }
+
+    int swingRight(int corner) {
+        return previous(opposite(previous(corner)));
+    }
+
+    int swingLeft(int corner) {
+        return next(opposite(next(corner)));
+    }
+
+    int getRightCorner(int corner) {
+        return opposite(next(corner));
+    }
+
+    int getLeftCorner(int corner) {
+        return opposite(previous(corner));
+    }
+
+    boolean isOnBoundary(int vertex) {
+        int corner = leftMostCorner(vertex);
+        return corner == INVALID || swingLeft(corner) == INVALID;
+    }
+
+    void setOppositeCorners(int corner1, int corner2) {
+        oppositeCorners[corner1] = corner2;
+        oppositeCorners[corner2] = corner1;
+    }
+
+    void mapCornerToVertex(int corner, int vertex) {
+        cornerToVertex[corner] = vertex;
+    }
+
+    void setLeftMostCorner(int vertex, int corner) {
+        vertexCorners[vertex] = corner;
+    }
+
+    void makeVertexIsolated(int vertex) {
+        vertexCorners[vertex] = INVALID;
+    }
+
+    /**
+     * Adds a vertex without corners
+     *
+     * @return Index of the new vertex
+     */
+    int addNewVertex() {
+        if (vertexCount == vertexCorners.length) {
+            vertexCorners = Arrays.copyOf(vertexCorners, vertexCount * 2);
+        }
+        vertexCorners[vertexCount] = INVALID;
+        return vertexCount++;
+    }
+
+    /**
+     * The corner table of an attribute that has seams, vertices are split at the seam edges so that each vertex
+     * of this table has one attribute value.
+     */
+    static class AttributeCornerTable extends DracoCornerTable {
+
+        private final DracoCornerTable table;
+        private final boolean[] edgeOnSeam;
+        private final boolean[] vertexOnSeam;
+        private final int[] cornerToVertex;
+        private int[] leftMostCorners;
+        private int vertexCount;
+
+        /**
+         * Creates an attribute table without seams for the position corner table
+         *
+         * @param table
+         */
+        AttributeCornerTable(DracoCornerTable table) {
+            super(table.getFaceCount(), false);
+            this.table = table;
+            edgeOnSeam = new boolean[table.getCornerCount()];
+            vertexOnSeam = new boolean[table.getVertexCount()];
+            cornerToVertex = new int[table.getCornerCount()];
+            Arrays.fill(cornerToVertex, INVALID);
+        }
+
+        /**
+         * Marks the edge opposite the corner, and the opposite edge, as a seam
+         *
+         * @param corner
+         */
+        void addSeamEdge(int corner) {
+            edgeOnSeam[corner] = true;
+            vertexOnSeam[table.vertex(next(corner))] = true;
+            vertexOnSeam[table.vertex(previous(corner))] = true;
+            int opposite = table.opposite(corner);
+            if (opposite != INVALID) {
+                edgeOnSeam[opposite] = true;
+                vertexOnSeam[table.vertex(next(opposite))] = true;
+                vertexOnSeam[table.vertex(previous(opposite))] = true;
+            }
+        }
+
+        /**
+         * Creates the vertices of this table by splitting the position vertices at the seams, call this when all
+         * seams have been added.
+         */
+        void recomputeVertices() {
+            int count = 0;
+            leftMostCorners = new int[table.getVertexCount() + 16];
+            for (int v = 0; v < table.getVertexCount(); v++) {
+                int c = table.leftMostCorner(v);
+                if (c == INVALID) {
+                    continue;
+                }
+                int firstVertex = count++;
+                int firstCorner = c;
+                if (vertexOnSeam[v]) {
+                    // Find the first corner on the seam when swinging left
+                    int act = swingLeft(firstCorner);
+                    while (act != INVALID) {
+                        firstCorner = act;
+                        act = swingLeft(act);
+                        if (act == c) {
+                            throw new IllegalArgumentException("Invalid attribute seams at vertex " + v);
+                        }
+                    }
+                }
+                cornerToVertex[firstCorner] = firstVertex;
+                addLeftMostCorner(firstVertex, firstCorner);
+                int act = table.swingRight(firstCorner);
+                while (act != INVALID && act != firstCorner) {
+                    if (edgeOnSeam[next(act)]) {
+                        firstVertex = count++;
+                        addLeftMostCorner(firstVertex, act);
+                    }
+                    cornerToVertex[act] = firstVertex;
+                    act = table.swingRight(act);
+                }
+            }
+            vertexCount = count;
+        }
+
+        private void addLeftMostCorner(int vertex, int corner) {
+            if (vertex == leftMostCorners.length) {
+                leftMostCorners = Arrays.copyOf(leftMostCorners, vertex * 2);
+            }
+            leftMostCorners[vertex] = corner;
+        }
+
+        /**
+         * Returns true if the vertex of the corner, in the position table, is on a seam
+         *
+         * @param corner
+         * @return
+         */
+        boolean isCornerOnSeam(int corner) {
+            return vertexOnSeam[table.vertex(corner)];
+        }
+
+        @Override
+        int getVertexCount() {
+            return vertexCount;
+        }
+
+        @Override
+        int opposite(int corner) {
+            if (corner < 0 || edgeOnSeam[corner]) {
+                return INVALID;
+            }
+            return table.opposite(corner);
+        }
+
+        @Override
+        int vertex(int corner) {
+            return corner < 0 ? INVALID : cornerToVertex[corner];
+        }
+
+        @Override
+        int leftMostCorner(int vertex) {
+            return leftMostCorners[vertex];
+        }
+
+    }
+
+}
@@ -0,0 +1,1250 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.nucleus.scene.gltf.DracoBuffer.RAnsBitDecoder;
+import com.nucleus.scene.gltf.DracoCornerTable.AttributeCornerTable;
+
+/**
+ * Pure Java decoder for Draco compressed meshes, as used by the KHR_draco_mesh_compression extension.
+ * Supports triangle meshes using bitstream version 2.2 with sequential or edgebreaker (standard and valence)
+ * connectivity, and the attribute decoders, prediction schemes and transforms produced by the Draco encoder for
+ * that version.
+ * The decoded mesh has one value per attribute for each point and the indices reference the points.
+ * Decoding of one mesh is not threadsafe in itself, but separate meshes may be decoded by separate threads.
+ *
+ */
+public class DracoDecoder {
+
+    /**
+     * Draco attribute types
+     */
+    public static final int POSITION = 0;
+    public static final int NORMAL = 1;
+    public static final int COLOR = 2;
+    public static final int TEX_COORD = 3;
+    public static final int GENERIC = 4;
+
+    /**
+     * Draco data types
+     */
+    public static final int DT_INT8 = 1;
+    public static final int DT_UINT8 = 2;
+    public static final int DT_INT16 = 3;
+    public static final int DT_UINT16 = 4;
+    public static final int DT_INT32 = 5;
+    public static final int DT_UINT32 = 6;
+    public static final int DT_FLOAT32 = 9;
+
+    private static final String MAGIC = "DRACO";
+    private static final int VERSION_MAJOR = 2;
+    private static final int VERSION_MINOR = 2;
+    private static final int TRIANGULAR_MESH = 1;
+    private static final int SEQUENTIAL_ENCODING = 0;
+    private static final int EDGEBREAKER_ENCODING = 1;
+    private static final int METADATA_FLAG = 0x8000;
+    private static final int STANDARD_TRAVERSAL = 0;
+    private static final int VALENCE_TRAVERSAL = 2;
+    private static final int COMPRESSED_INDICES = 0;
+
+    static final int TOPOLOGY_C = 0;
+    static final int TOPOLOGY_S = 1;
+    static final int TOPOLOGY_L = 3;
+    static final int TOPOLOGY_R = 5;
+    static final int TOPOLOGY_E = 7;
+    private static final int[] VALENCE_SYMBOLS = new int[] { TOPOLOGY_C, TOPOLOGY_S, TOPOLOGY_L, TOPOLOGY_R,
+            TOPOLOGY_E };
+    private static final int MIN_VALENCE = 2;
+    private static final int MAX_VALENCE = 7;
+    private static final int VALENCE_MODE_2_7 = 0;
+    private static final int RIGHT_FACE_EDGE = 1;
+
+    static final int MESH_VERTEX_ATTRIBUTE = 0;
+    static final int MESH_CORNER_ATTRIBUTE = 1;
+    static final int TRAVERSAL_DEPTH_FIRST = 0;
+    static final int TRAVERSAL_PREDICTION_DEGREE = 1;
+
+    /**
+     * A decoded Draco mesh, faces are stored as triangle indices referencing the points.
+     */
+    public static class DracoMesh {
+        private int[] indices;
+        private int pointCount;
+        private ArrayList<DracoAttribute> attributes = new ArrayList<>();
+
+        /**
+         * Returns the indices of the triangles, 3 for each face
+         *
+         * @return
+         */
+        public int[] getIndices() {
+            return indices;
+        }
+
+        /**
+         * Returns the number of points (vertices) in the mesh
+         *
+         * @return
+         */
+        public int getPointCount() {
+            return pointCount;
+        }
+
+        /**
+         * Returns the attribute with the unique id, as referenced by the attributes of the
+         * KHR_draco_mesh_compression extension.
+         *
+         * @param uniqueId
+         * @return The attribute or null if not found
+         */
+        public DracoAttribute getAttribute(int uniqueId) {
+            for (DracoAttribute attribute : attributes) {
+                if (attribute.uniqueId == uniqueId) {
+                    return attribute;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the number of attributes
+         *
+         * @return
+         */
+        public int getAttributeCount() {
+            return attributes.size();
+        }
+    }
+
+    /**
+     * A decoded attribute, values are stored for each unique value and are mapped to points.
+     */
+    public static class DracoAttribute {
+        final int type;
+        final int dataType;
+        final int components;
+        final boolean normalized;
+        final int uniqueId;
+        /**
+         * Decoded values for float and integer attributes, one of these is set.
+         */
+        float[] floatValues;
+        int[] intValues;
+        /**
+         * The portable (quantized) integer values, used when predicting other attributes.
+         */
+        int[] portableValues;
+        /**
+         * The value index for each point, null if point and value index are the same.
+         */
+        int[] pointToValue;
+
+        DracoAttribute(int type, int dataType, int components, boolean normalized, int uniqueId) {
+            this.type = type;
+            this.dataType = dataType;
+            this.components = components;
+            this.normalized = normalized;
+            this.uniqueId = uniqueId;
+        }
+
+        /**
+         * Returns the Draco attribute type, eg {@link DracoDecoder#POSITION}
+         *
+         * @return
+         */
+        public int getType() {
+            return type;
+        }
+
+        /**
+         * Returns the Draco data type of the attribute, eg {@link DracoDecoder#DT_FLOAT32}
+         *
+         * @return
+         */
+        public int getDataType() {
+            return dataType;
+        }
+
+        public int getComponents() {
+            return components;
+        }
+
+        public boolean isNormalized() {
+            return normalized;
+        }
+
+        public int getUniqueId() {
+            return uniqueId;
+        }
+
+        /**
+         * Returns true if the values are float, otherwise they are integer
+         *
+         * @return
+         */
+        public boolean isFloat() {
+            return floatValues != null;
+        }
+
+        int getValueIndex(int point) {
+            return pointToValue != null ? pointToValue[point] : point;
+        }
+
+        /**
+         * Returns the values of the points as float, integer values are converted to float.
+         *
+         * @param pointCount
+         * @return Array with components values for each point
+         */
+        public float[] getFloatValues(int pointCount) {
+            float[] result = new float[pointCount * components];
+            for (int p = 0; p < pointCount; p++) {
+                int source = getValueIndex(p) * components;
+                for (int c = 0; c < components; c++) {
+                    result[p * components + c] = floatValues != null ? floatValues[source + c]
+                            : intValues[source + c];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the values of the points as integer
+         *
+         * @param pointCount
+         * @return Array with components values for each point
+         * @throws IllegalArgumentException If the values are float
+         */
+        public int[] getIntValues(int pointCount) {
+            if (intValues == null) {
+                throw new IllegalArgumentException("Attribute has float values");
+            }
+            int[] result = new int[pointCount * components];
+            for (int p = 0; p < pointCount; p++) {
+                System.arraycopy(intValues, getValueIndex(p) * components, result, p * components, components);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The mapping between vertices of a corner table and the encoded attribute values, set when the attribute
+     * values are traversed.
+     */
+    static class EncodingData {
+        int[] vertexToEntry;
+        int[] entryToCorner;
+        int entryCount;
+
+        EncodingData(int vertexCount) {
+            vertexToEntry = new int[vertexCount];
+            entryToCorner = new int[vertexCount];
+        }
+
+        void addEntry(int vertex, int corner) {
+            if (entryCount == entryToCorner.length) {
+                entryToCorner = Arrays.copyOf(entryToCorner, Math.max(16, entryCount * 2));
+            }
+            entryToCorner[entryCount] = corner;
+            vertexToEntry[vertex] = entryCount++;
+        }
+    }
+
+    /**
+     * Connectivity of an attribute with seams, one for each attribute decoder of per corner attributes
+     */
+    private static class AttributeData {
+        int decoderId = -1;
+        AttributeCornerTable connectivity;
+        int[] seamCorners = new int[16];
+        int seamCount;
+        boolean connectivityUsed = true;
+        EncodingData encoding;
+
+        void addSeamCorner(int corner) {
+            if (seamCount == seamCorners.length) {
+                seamCorners = Arrays.copyOf(seamCorners, seamCount * 2);
+            }
+            seamCorners[seamCount++] = corner;
+        }
+    }
+
+    /**
+     * Decodes the symbols of the edgebreaker traversal, the standard traversal decodes the symbols from a bit
+     * buffer.
+     */
+    private class StandardTraversal {
+        DracoBuffer symbolBuffer;
+        RAnsBitDecoder startFaceDecoder;
+        RAnsBitDecoder[] seamDecoders;
+
+        void start(int attributeDataCount) {
+            int size = buffer.readCount(buffer.getRemaining());
+            symbolBuffer = buffer.copy();
+            symbolBuffer.startBitDecoding(false);
+            buffer.skip(size);
+            startFaces(attributeDataCount);
+        }
+
+        void startFaces(int attributeDataCount) {
+            startFaceDecoder = new RAnsBitDecoder(buffer);
+            seamDecoders = new RAnsBitDecoder[attributeDataCount];
+            for (int i = 0; i < attributeDataCount; i++) {
+                seamDecoders[i] = new RAnsBitDecoder(buffer);
+            }
+        }
+
+        int decodeSymbol() {
+            int symbol = symbolBuffer.readBits(1);
+            if (symbol == TOPOLOGY_C) {
+                return symbol;
+            }
+            return symbol | (symbolBuffer.readBits(2) << 1);
+        }
+
+        void newActiveCornerReached(int corner) {
+        }
+
+        void mergeVertices(int dest, int source) {
+        }
+    }
+
+    /**
+     * Predicts the edgebreaker symbols using the valence of the vertices, symbols are decoded for each valence
+     * context.
+     */
+    private class ValenceTraversal extends StandardTraversal {
+        int[][] contextSymbols;
+        int[] contextCounters;
+        int[] vertexValences;
+        int activeContext = -1;
+        int lastSymbol;
+
+        void start(int attributeDataCount, int vertexCount) {
+            startFaces(attributeDataCount);
+            int splitSymbols = buffer.readCount(vertexCount - 1);
+            int mode = buffer.readByte();
+            if (mode != VALENCE_MODE_2_7) {
+                throw new IllegalArgumentException("Unsupported valence mode " + mode);
+            }
+            int contexts = MAX_VALENCE - MIN_VALENCE + 1;
+            contextSymbols = new int[contexts][];
+            contextCounters = new int[contexts];
+            for (int i = 0; i < contexts; i++) {
+                int count = buffer.readCount(cornerTable.getFaceCount());
+                contextSymbols[i] = new int[count];
+                buffer.decodeSymbols(count, 1, contextSymbols[i]);
+                contextCounters[i] = count;
+            }
+            vertexValences = new int[vertexCount + splitSymbols];
+        }
+
+        @Override
+        int decodeSymbol() {
+            if (activeContext != -1) {
+                int counter = --contextCounters[activeContext];
+                if (counter < 0) {
+                    throw new IllegalArgumentException("No symbols left for valence context " + activeContext);
+                }
+                int symbol = contextSymbols[activeContext][counter];
+                if (symbol < 0 || symbol >= VALENCE_SYMBOLS.length) {
+                    throw new IllegalArgumentException("Invalid valence symbol " + symbol);
+                }
+                lastSymbol = VALENCE_SYMBOLS[symbol];
+            } else {
+                // The first symbol is always E
+                lastSymbol = TOPOLOGY_E;
+            }
+            return lastSymbol;
+        }
+
+        @Override
+        void newActiveCornerReached(int corner) {
+            int next = DracoCornerTable.next(corner);
+            int prev = DracoCornerTable.previous(corner);
+            int vertex = cornerTable.vertex(corner);
+            int nextVertex = cornerTable.vertex(next);
+            int prevVertex = cornerTable.vertex(prev);
+            switch (lastSymbol) {
+                case TOPOLOGY_C:
+                case TOPOLOGY_S:
+                    vertexValences[nextVertex] += 1;
+                    vertexValences[prevVertex] += 1;
+                    break;
+                case TOPOLOGY_R:
+                    vertexValences[vertex] += 1;
+                    vertexValences[nextVertex] += 1;
+                    vertexValences[prevVertex] += 2;
+                    break;
+                case TOPOLOGY_L:
+                    vertexValences[vertex] += 1;
+                    vertexValences[nextVertex] += 2;
+                    vertexValences[prevVertex] += 1;
+                    break;
+                case TOPOLOGY_E:
+                    vertexValences[vertex] += 2;
+                    vertexValences[nextVertex] += 2;
+                    vertexValences[prevVertex] += 2;
+                    break;
+                default:
+                    break;
+            }
+            int valence = Math.max(MIN_VALENCE, Math.min(MAX_VALENCE, vertexValences[nextVertex]));
+            activeContext = valence - MIN_VALENCE;
+        }
+
+        @Override
+        void mergeVertices(int dest, int source) {
+            vertexValences[dest] += vertexValences[source];
+        }
+    }
+
+    private final DracoBuffer buffer;
+    private DracoCornerTable cornerTable;
+    private boolean[] vertexHole;
+    private AttributeData[] attributeData;
+    private EncodingData positionEncoding;
+    /**
+     * Source symbol, split symbol and edge of the topology splits, in encoder order.
+     */
+    private int[][] topologySplits;
+    private int topologySplitCount;
+    private final DracoMesh mesh = new DracoMesh();
+
+    private DracoDecoder(byte[] data, int offset, int length) {
+        buffer = new DracoBuffer(data, offset, length);
+    }
+
+    /**
+     * Decodes a Draco compressed mesh
+     *
+     * @param data The compressed data, position is the start and limit is the end of data. Position is not changed.
+     * @return The decoded mesh
+     * @throws IllegalArgumentException If the data is not a valid Draco mesh or uses unsupported features
+     */
+    public static DracoMesh decode(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes a Draco compressed mesh
+     *
+     * @param data
+     * @param offset Offset to the start of compressed data
+     * @param length Number of bytes of compressed data
+     * @return The decoded mesh
+     * @throws IllegalArgumentException If the data is not a valid Draco mesh or uses unsupported features
+     */
+    public static DracoMesh decode(byte[] data, int offset, int length) {
+        DracoDecoder decoder = new DracoDecoder(data, offset, length);
+        decoder.decodeHeader();
+        decoder.decodeAttributes(decoder.decodeConnectivity());
+        return decoder.mesh;
+    }
+
+    private void decodeHeader() {
+        for (int i = 0; i < MAGIC.length(); i++) {
+            if (buffer.readUnsignedByte() != MAGIC.charAt(i)) {
+                throw new IllegalArgumentException("Not Draco data");
+            }
+        }
+        int major = buffer.readUnsignedByte();
+        int minor = buffer.readUnsignedByte();
+        if (major != VERSION_MAJOR || minor != VERSION_MINOR) {
+            throw new IllegalArgumentException("Unsupported Draco version " + major + "." + minor);
+        }
+        int encoderType = buffer.readUnsignedByte();
+        if (encoderType != TRIANGULAR_MESH) {
+            throw new IllegalArgumentException("Not a Draco mesh, encoder type " + encoderType);
+        }
+        int method = buffer.readUnsignedByte();
+        int flags = buffer.readUnsignedShort();
+        if ((flags & METADATA_FLAG) != 0) {
+            skipMetadata();
+        }
+        if (method != SEQUENTIAL_ENCODING && method != EDGEBREAKER_ENCODING) {
+            throw new IllegalArgumentException("Unsupported Draco encoding method " + method);
+        }
+        // Store method in the corner table being null or not
+        cornerTable = method == EDGEBREAKER_ENCODING ? new DracoCornerTable(0) : null;
+    }
+
+    /**
+     * Skips the attribute and geometry metadata, metadata is not used.
+     */
+    private void skipMetadata() {
+        int attributeMetadata = buffer.readCount(buffer.getRemaining());
+        int pending = attributeMetadata + 1;
+        for (int i = 0; i < attributeMetadata; i++) {
+            buffer.readVarint();
+            pending += skipMetadataEntries(false) - 1;
+        }
+        // Geometry metadata followed by all sub metadata
+        boolean named = false;
+        while (pending > 0) {
+            pending += skipMetadataEntries(named) - 1;
+            named = true;
+        }
+    }
+
+    /**
+     * Skips the name and entries of one metadata
+     *
+     * @return Number of sub metadata
+     */
+    private int skipMetadataEntries(boolean named) {
+        if (named) {
+            buffer.skip(buffer.readUnsignedByte());
+        }
+        int entries = buffer.readCount(buffer.getRemaining());
+        for (int i = 0; i < entries; i++) {
+            buffer.skip(buffer.readUnsignedByte());
+            buffer.skip(buffer.readCount(buffer.getRemaining()));
+        }
+        return buffer.readCount(buffer.getRemaining());
+    }
+
+    /**
+     * Decodes the faces and sets the number of points
+     *
+     * @return The number of attribute decoders
+     */
+    private int decodeConnectivity() {
+        if (cornerTable == null) {
+            decodeSequentialConnectivity();
+        } else {
+            int traversal = buffer.readUnsignedByte();
+            if (traversal != STANDARD_TRAVERSAL && traversal != VALENCE_TRAVERSAL) {
+                throw new IllegalArgumentException("Unsupported edgebreaker traversal " + traversal);
+            }
+            decodeEdgebreakerConnectivity(traversal == VALENCE_TRAVERSAL);
+        }
+        return buffer.readUnsignedByte();
+    }
+
+    private void decodeSequentialConnectivity() {
+        int faceCount = buffer.readCount(Integer.MAX_VALUE / 3);
+        int pointCount = buffer.readCount(Integer.MAX_VALUE);
+        int method = buffer.readUnsignedByte();
+        int[] indices = new int[faceCount * 3];
+        if (method == COMPRESSED_INDICES) {
+            buffer.decodeSymbols(indices.length, 1, indices);
+            int last = 0;
+            for (int i = 0; i < indices.length; i++) {
+                int encoded = indices[i];
+                int delta = encoded >>> 1;
+                last += (encoded & 1) != 0 ? -delta : delta;
+                indices[i] = last;
+            }
+        } else {
+            for (int i = 0; i < indices.length; i++) {
+                if (pointCount < 256) {
+                    indices[i] = buffer.readUnsignedByte();
+                } else if (pointCount < (1 << 16)) {
+                    indices[i] = buffer.readUnsignedShort();
+                } else if (pointCount < (1 << 21)) {
+                    indices[i] = buffer.readVarint();
+                } else {
+                    indices[i] = buffer.readInt();
+                }
+            }
+        }
+        for (int index : indices) {
+            if (index < 0 || index >= pointCount) {
+                throw new IllegalArgumentException("Invalid index " + index + " for " + pointCount + " points");
+            }
+        }
+        mesh.indices = indices;
+        mesh.pointCount = pointCount;
+    }
+
+    private void decodeEdgebreakerConnectivity(boolean valence) {
+        int encodedVertices = buffer.readCount(Integer.MAX_VALUE);
+        int faceCount = buffer.readCount(Integer.MAX_VALUE / 3);
+        int attributeDataCount = buffer.readUnsignedByte();
+        int symbolCount = buffer.readCount(faceCount);
+        if (faceCount > symbolCount + symbolCount / 3) {
+            throw new IllegalArgumentException("Invalid number of faces " + faceCount);
+        }
+        int splitSymbols = buffer.readCount(symbolCount);
+        decodeTopologySplits(faceCount);
+        cornerTable = new DracoCornerTable(faceCount);
+        vertexHole = new boolean[encodedVertices + splitSymbols];
+        Arrays.fill(vertexHole, true);
+        attributeData = new AttributeData[attributeDataCount];
+        for (int i = 0; i < attributeDataCount; i++) {
+            attributeData[i] = new AttributeData();
+        }
+        StandardTraversal traversal;
+        if (valence) {
+            ValenceTraversal valenceTraversal = new ValenceTraversal();
+            valenceTraversal.start(attributeDataCount, encodedVertices + splitSymbols);
+            traversal = valenceTraversal;
+        } else {
+            traversal = new StandardTraversal();
+            traversal.start(attributeDataCount);
+        }
+        int vertexCount = decodeFaces(traversal, symbolCount);
+        if (attributeDataCount > 0) {
+            for (int c = 0; c < cornerTable.getCornerCount(); c += 3) {
+                decodeAttributeSeams(traversal, c);
+            }
+        }
+        for (AttributeData data : attributeData) {
+            data.connectivity = new AttributeCornerTable(cornerTable);
+            for (int i = 0; i < data.seamCount; i++) {
+                data.connectivity.addSeamEdge(data.seamCorners[i]);
+            }
+            data.connectivity.recomputeVertices();
+            data.encoding = new EncodingData(
+                    Math.max(data.connectivity.getVertexCount(), cornerTable.getVertexCount()));
+        }
+        positionEncoding = new EncodingData(cornerTable.getVertexCount());
+        assignPointsToCorners(vertexCount);
+    }
+
+    private void decodeTopologySplits(int faceCount) {
+        topologySplitCount = buffer.readCount(faceCount);
+        topologySplits = new int[topologySplitCount][3];
+        int lastSource = 0;
+        for (int i = 0; i < topologySplitCount; i++) {
+            int source = buffer.readCount(Integer.MAX_VALUE - lastSource) + lastSource;
+            int delta = buffer.readCount(source);
+            topologySplits[i][0] = source;
+            topologySplits[i][1] = source - delta;
+            lastSource = source;
+        }
+        if (topologySplitCount > 0) {
+            buffer.startBitDecoding(false);
+            for (int i = 0; i < topologySplitCount; i++) {
+                topologySplits[i][2] = buffer.readBits(1);
+            }
+            buffer.endBitDecoding();
+        }
+    }
+
+    /**
+     * Decodes the edgebreaker symbols and creates the faces of the corner table, faces are created in reverse order
+     * of the encoder.
+     *
+     * @return The number of vertices
+     */
+    private int decodeFaces(StandardTraversal traversal, int symbolCount) {
+        int[] activeCorners = new int[16];
+        int active = 0;
+        HashMap<Integer, Integer> splitActiveCorners = new HashMap<>();
+        ArrayList<Integer> invalidVertices = new ArrayList<>();
+        boolean removeInvalidVertices = attributeData.length == 0;
+        int maxVertices = vertexHole.length;
+        int faceCount = 0;
+        for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+            int corner = 3 * faceCount++;
+            boolean checkTopologySplit = false;
+            int symbol = traversal.decodeSymbol();
+            switch (symbol) {
+                case TOPOLOGY_C: {
+                    if (active == 0) {
+                        throw new IllegalArgumentException("No active corner for C");
+                    }
+                    int cornerA = activeCorners[active - 1];
+                    int vertexX = cornerTable.vertex(DracoCornerTable.next(cornerA));
+                    int cornerB = DracoCornerTable.next(cornerTable.leftMostCorner(vertexX));
+                    if (cornerA == cornerB || cornerTable.opposite(cornerA) != DracoCornerTable.INVALID
+                            || cornerTable.opposite(cornerB) != DracoCornerTable.INVALID) {
+                        throw new IllegalArgumentException("Invalid corners for C");
+                    }
+                    cornerTable.setOppositeCorners(cornerA, corner + 1);
+                    cornerTable.setOppositeCorners(cornerB, corner + 2);
+                    int vertexAPrev = cornerTable.vertex(DracoCornerTable.previous(cornerA));
+                    int vertexBNext = cornerTable.vertex(DracoCornerTable.next(cornerB));
+                    if (vertexX == vertexAPrev || vertexX == vertexBNext) {
+                        throw new IllegalArgumentException("Degenerate face for C");
+                    }
+                    cornerTable.mapCornerToVertex(corner, vertexX);
+                    cornerTable.mapCornerToVertex(corner + 1, vertexBNext);
+                    cornerTable.mapCornerToVertex(corner + 2, vertexAPrev);
+                    cornerTable.setLeftMostCorner(vertexAPrev, corner + 2);
+                    vertexHole[vertexX] = false;
+                    activeCorners[active - 1] = corner;
+                    break;
+                }
+                case TOPOLOGY_R:
+                case TOPOLOGY_L: {
+                    if (active == 0) {
+                        throw new IllegalArgumentException("No active corner for R/L");
+                    }
+                    int cornerA = activeCorners[active - 1];
+                    if (cornerTable.opposite(cornerA) != DracoCornerTable.INVALID) {
+                        throw new IllegalArgumentException("Invalid corner for R/L");
+                    }
+                    int oppositeCorner;
+                    int cornerL;
+                    int cornerR;
+                    if (symbol == TOPOLOGY_R) {
+                        oppositeCorner = corner + 2;
+                        cornerL = corner + 1;
+                        cornerR = corner;
+                    } else {
+                        oppositeCorner = corner + 1;
+                        cornerL = corner;
+                        cornerR = corner + 2;
+                    }
+                    cornerTable.setOppositeCorners(oppositeCorner, cornerA);
+                    int newVertex = cornerTable.addNewVertex();
+                    if (cornerTable.getVertexCount() > maxVertices) {
+                        throw new IllegalArgumentException("Too many vertices");
+                    }
+                    cornerTable.mapCornerToVertex(oppositeCorner, newVertex);
+                    cornerTable.setLeftMostCorner(newVertex, oppositeCorner);
+                    int vertexR = cornerTable.vertex(DracoCornerTable.previous(cornerA));
+                    cornerTable.mapCornerToVertex(cornerR, vertexR);
+                    cornerTable.setLeftMostCorner(vertexR, cornerR);
+                    cornerTable.mapCornerToVertex(cornerL, cornerTable.vertex(DracoCornerTable.next(cornerA)));
+                    activeCorners[active - 1] = corner;
+                    checkTopologySplit = true;
+                    break;
+                }
+                case TOPOLOGY_S: {
+                    if (active == 0) {
+                        throw new IllegalArgumentException("No active corner for S");
+                    }
+                    int cornerB = activeCorners[--active];
+                    Integer split = splitActiveCorners.get(symbolId);
+                    if (split != null) {
+                        activeCorners = push(activeCorners, active++, split);
+                    }
+                    if (active == 0) {
+                        throw new IllegalArgumentException("No active corner for S");
+                    }
+                    int cornerA = activeCorners[active - 1];
+                    if (cornerA == cornerB || cornerTable.opposite(cornerA) != DracoCornerTable.INVALID
+                            || cornerTable.opposite(cornerB) != DracoCornerTable.INVALID) {
+                        throw new IllegalArgumentException("Invalid corners for S");
+                    }
+                    cornerTable.setOppositeCorners(cornerA, corner + 2);
+                    cornerTable.setOppositeCorners(cornerB, corner + 1);
+                    int vertexP = cornerTable.vertex(DracoCornerTable.previous(cornerA));
+                    cornerTable.mapCornerToVertex(corner, vertexP);
+                    cornerTable.mapCornerToVertex(corner + 1, cornerTable.vertex(DracoCornerTable.next(cornerA)));
+                    int vertexBPrev = cornerTable.vertex(DracoCornerTable.previous(cornerB));
+                    cornerTable.mapCornerToVertex(corner + 2, vertexBPrev);
+                    cornerTable.setLeftMostCorner(vertexBPrev, corner + 2);
+                    int cornerN = DracoCornerTable.next(cornerB);
+                    int vertexN = cornerTable.vertex(cornerN);
+                    traversal.mergeVertices(vertexP, vertexN);
+                    cornerTable.setLeftMostCorner(vertexP, cornerTable.leftMostCorner(vertexN));
+                    int first = cornerN;
+                    while (cornerN != DracoCornerTable.INVALID) {
+                        cornerTable.mapCornerToVertex(cornerN, vertexP);
+                        cornerN = cornerTable.swingLeft(cornerN);
+                        if (cornerN == first) {
+                            throw new IllegalArgumentException("Invalid split");
+                        }
+                    }
+                    cornerTable.makeVertexIsolated(vertexN);
+                    if (removeInvalidVertices) {
+                        invalidVertices.add(vertexN);
+                    }
+                    activeCorners[active - 1] = corner;
+                    break;
+                }
+                case TOPOLOGY_E: {
+                    int first = cornerTable.addNewVertex();
+                    cornerTable.mapCornerToVertex(corner, first);
+                    cornerTable.mapCornerToVertex(corner + 1, cornerTable.addNewVertex());
+                    cornerTable.mapCornerToVertex(corner + 2, cornerTable.addNewVertex());
+                    if (cornerTable.getVertexCount() > maxVertices) {
+                        throw new IllegalArgumentException("Too many vertices");
+                    }
+                    cornerTable.setLeftMostCorner(first, corner);
+                    cornerTable.setLeftMostCorner(first + 1, corner + 1);
+                    cornerTable.setLeftMostCorner(first + 2, corner + 2);
+                    activeCorners = push(activeCorners, active++, corner);
+                    checkTopologySplit = true;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Invalid edgebreaker symbol " + symbol);
+            }
+            traversal.newActiveCornerReached(activeCorners[active - 1]);
+            if (checkTopologySplit) {
+                int encoderSymbolId = symbolCount - symbolId - 1;
+                while (topologySplitCount > 0) {
+                    int[] split = topologySplits[topologySplitCount - 1];
+                    if (split[0] > encoderSymbolId) {
+                        throw new IllegalArgumentException("Invalid topology split");
+                    }
+                    if (split[0] != encoderSymbolId) {
+                        break;
+                    }
+                    topologySplitCount--;
+                    int activeCorner = activeCorners[active - 1];
+                    int newActiveCorner = split[2] == RIGHT_FACE_EDGE ? DracoCornerTable.next(activeCorner)
+                            : DracoCornerTable.previous(activeCorner);
+                    splitActiveCorners.put(symbolCount - split[1] - 1, newActiveCorner);
+                }
+            }
+        }
+        if (cornerTable.getVertexCount() > maxVertices) {
+            throw new IllegalArgumentException("Too many vertices");
+        }
+        faceCount = decodeStartFaces(traversal, activeCorners, active, faceCount);
+        if (faceCount != cornerTable.getFaceCount()) {
+            throw new IllegalArgumentException("Invalid number of faces " + faceCount);
+        }
+        return removeInvalidVertices(invalidVertices);
+    }
+
+    private static int[] push(int[] stack, int index, int value) {
+        int[] result = index < stack.length ? stack : Arrays.copyOf(stack, stack.length * 2);
+        result[index] = value;
+        return result;
+    }
+
+    /**
+     * Decodes the start faces and connects them to the faces of the active corners
+     *
+     * @return The number of faces
+     */
+    private int decodeStartFaces(StandardTraversal traversal, int[] activeCorners, int active, int faceCount) {
+        while (active > 0) {
+            int corner = activeCorners[--active];
+            if (!traversal.startFaceDecoder.decodeNextBit()) {
+                // Start face on an open boundary, no new face
+                continue;
+            }
+            if (faceCount >= cornerTable.getFaceCount()) {
+                throw new IllegalArgumentException("Too many faces");
+            }
+            int vertexN = cornerTable.vertex(DracoCornerTable.next(corner));
+            int cornerB = DracoCornerTable.next(cornerTable.leftMostCorner(vertexN));
+            int vertexX = cornerTable.vertex(DracoCornerTable.next(cornerB));
+            int cornerC = DracoCornerTable.next(cornerTable.leftMostCorner(vertexX));
+            if (corner == cornerB || corner == cornerC || cornerB == cornerC
+                    || cornerTable.opposite(corner) != DracoCornerTable.INVALID
+                    || cornerTable.opposite(cornerB) != DracoCornerTable.INVALID
+                    || cornerTable.opposite(cornerC) != DracoCornerTable.INVALID) {
+                throw new IllegalArgumentException("Invalid start face");
+            }
+            int vertexP = cornerTable.vertex(DracoCornerTable.next(cornerC));
+            int newCorner = 3 * faceCount++;
+            cornerTable.setOppositeCorners(newCorner, corner);
+            cornerTable.setOppositeCorners(newCorner + 1, cornerB);
+            cornerTable.setOppositeCorners(newCorner + 2, cornerC);
+            cornerTable.mapCornerToVertex(newCorner, vertexX);
+            cornerTable.mapCornerToVertex(newCorner + 1, vertexP);
+            cornerTable.mapCornerToVertex(newCorner + 2, vertexN);
+            for (int i = 0; i < 3; i++) {
+                vertexHole[cornerTable.vertex(newCorner + i)] = false;
+            }
+        }
+        return faceCount;
+    }
+
+    /**
+     * Moves the last valid vertices to the isolated vertices so that all vertices are valid
+     *
+     * @return The number of vertices
+     */
+    private int removeInvalidVertices(ArrayList<Integer> invalidVertices) {
+        int vertexCount = cornerTable.getVertexCount();
+        for (int invalid : invalidVertices) {
+            int source = vertexCount - 1;
+            while (cornerTable.leftMostCorner(source) == DracoCornerTable.INVALID) {
+                source = --vertexCount - 1;
+            }
+            if (source < invalid) {
+                continue;
+            }
+            int start = cornerTable.leftMostCorner(source);
+            int corner = start;
+            boolean left = true;
+            while (corner != DracoCornerTable.INVALID) {
+                if (cornerTable.vertex(corner) != source) {
+                    throw new IllegalArgumentException("Vertex mapped to wrong corner");
+                }
+                cornerTable.mapCornerToVertex(corner, invalid);
+                if (left) {
+                    corner = cornerTable.swingLeft(corner);
+                    if (corner == DracoCornerTable.INVALID) {
+                        left = false;
+                        corner = cornerTable.swingRight(start);
+                    } else if (corner == start) {
+                        corner = DracoCornerTable.INVALID;
+                    }
+                } else {
+                    corner = cornerTable.swingRight(corner);
+                }
+            }
+            cornerTable.setLeftMostCorner(invalid, start);
+            cornerTable.makeVertexIsolated(source);
+            vertexHole[invalid] = vertexHole[source];
+            vertexHole[source] = false;
+            vertexCount--;
+        }
+        return vertexCount;
+    }
+
+    private void decodeAttributeSeams(StandardTraversal traversal, int corner) {
+        int[] corners = new int[] { corner, DracoCornerTable.next(corner), DracoCornerTable.previous(corner) };
+        int face = corner / 3;
+        for (int c : corners) {
+            int opposite = cornerTable.opposite(c);
+            if (opposite == DracoCornerTable.INVALID) {
+                // Boundary edges are always seams
+                for (AttributeData data : attributeData) {
+                    data.addSeamCorner(c);
+                }
+                continue;
+            }
+            if (opposite / 3 < face) {
+                continue;
+            }
+            for (int i = 0; i < attributeData.length; i++) {
+                if (traversal.seamDecoders[i].decodeNextBit()) {
+                    attributeData[i].addSeamCorner(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the points by splitting the vertices where any of the attributes has a seam and sets the faces
+     */
+    private void assignPointsToCorners(int vertexCount) {
+        int cornerCount = cornerTable.getCornerCount();
+        int[] indices = new int[cornerCount];
+        if (attributeData.length == 0) {
+            for (int c = 0; c < cornerCount; c++) {
+                indices[c] = cornerTable.vertex(c);
+            }
+            mesh.indices = indices;
+            mesh.pointCount = vertexCount;
+            return;
+        }
+        int points = 0;
+        for (int v = 0; v < cornerTable.getVertexCount(); v++) {
+            int c = cornerTable.leftMostCorner(v);
+            if (c == DracoCornerTable.INVALID) {
+                continue;
+            }
+            int first = c;
+            if (!vertexHole[v]) {
+                // Start from a seam, if any
+                for (AttributeData data : attributeData) {
+                    if (!data.connectivity.isCornerOnSeam(c)) {
+                        continue;
+                    }
+                    int vertex = data.connectivity.vertex(c);
+                    int act = cornerTable.swingRight(c);
+                    boolean seamFound = false;
+                    while (act != c) {
+                        if (act == DracoCornerTable.INVALID) {
+                            throw new IllegalArgumentException("Invalid seam at vertex " + v);
+                        }
+                        if (data.connectivity.vertex(act) != vertex) {
+                            first = act;
+                            seamFound = true;
+                            break;
+                        }
+                        act = cornerTable.swingRight(act);
+                    }
+                    if (seamFound) {
+                        break;
+                    }
+                }
+            }
+            c = first;
+            indices[c] = points++;
+            int prev = c;
+            c = cornerTable.swingRight(c);
+            while (c != DracoCornerTable.INVALID && c != first) {
+                boolean seam = false;
+                for (AttributeData data : attributeData) {
+                    if (data.connectivity.vertex(c) != data.connectivity.vertex(prev)) {
+                        seam = true;
+                        break;
+                    }
+                }
+                indices[c] = seam ? points++ : indices[prev];
+                prev = c;
+                c = cornerTable.swingRight(c);
+            }
+        }
+        mesh.indices = indices;
+        mesh.pointCount = points;
+    }
+
+    /**
+     * Traverses the faces of a corner table and adds the points in the order the attribute values are encoded.
+     */
+    private class Traverser {
+        private static final int MAX_PRIORITY = 3;
+        final DracoCornerTable table;
+        final EncodingData encoding;
+        final boolean[] visitedFaces;
+        final boolean[] visitedVertices;
+        int[] pointIds;
+        int pointCount;
+
+        Traverser(DracoCornerTable table, EncodingData encoding) {
+            this.table = table;
+            this.encoding = encoding;
+            visitedFaces = new boolean[table.getFaceCount()];
+            visitedVertices = new boolean[table.getVertexCount()];
+            pointIds = new int[table.getVertexCount()];
+        }
+
+        boolean isFaceVisited(int corner) {
+            return corner == DracoCornerTable.INVALID || visitedFaces[corner / 3];
+        }
+
+        void visitVertex(int vertex, int corner) {
+            if (vertex < 0 || vertex >= visitedVertices.length) {
+                throw new IllegalArgumentException("Invalid vertex " + vertex);
+            }
+            if (visitedVertices[vertex]) {
+                return;
+            }
+            visitedVertices[vertex] = true;
+            pointIds = push(pointIds, pointCount++, mesh.indices[corner]);
+            encoding.addEntry(vertex, corner);
+        }
+
+        int[] traverse(int method) {
+            int[] stack = new int[16];
+            int[] degrees = method == TRAVERSAL_PREDICTION_DEGREE ? new int[visitedVertices.length] : null;
+            for (int corner = 0; corner < table.getCornerCount(); corner += 3) {
+                if (degrees != null) {
+                    traversePredictionDegree(corner, degrees);
+                } else {
+                    stack = traverseDepthFirst(corner, stack);
+                }
+            }
+            return Arrays.copyOf(pointIds, pointCount);
+        }
+
+        private int[] traverseDepthFirst(int start, int[] stack) {
+            if (isFaceVisited(start)) {
+                return stack;
+            }
+            int size = 0;
+            stack = push(stack, size++, start);
+            visitVertex(table.vertex(DracoCornerTable.next(start)), DracoCornerTable.next(start));
+            visitVertex(table.vertex(DracoCornerTable.previous(start)), DracoCornerTable.previous(start));
+            while (size > 0) {
+                int corner = stack[size - 1];
+                if (isFaceVisited(corner)) {
+                    size--;
+                    continue;
+                }
+                while (true) {
+                    visitedFaces[corner / 3] = true;
+                    int vertex = table.vertex(corner);
+                    if (vertex == DracoCornerTable.INVALID) {
+                        throw new IllegalArgumentException("Invalid vertex at corner " + corner);
+                    }
+                    if (!visitedVertices[vertex]) {
+                        boolean onBoundary = table.isOnBoundary(vertex);
+                        visitVertex(vertex, corner);
+                        if (!onBoundary) {
+                            corner = table.getRightCorner(corner);
+                            continue;
+                        }
+                    }
+                    int right = table.getRightCorner(corner);
+                    int left = table.getLeftCorner(corner);
+                    if (isFaceVisited(right)) {
+                        if (isFaceVisited(left)) {
+                            size--;
+                            break;
+                        }
+                        corner = left;
+                    } else if (isFaceVisited(left)) {
+                        corner = right;
+                    } else {
+                        // Traverse right face first and then the left
+                        stack[size - 1] = left;
+                        stack = push(stack, size++, right);
+                        break;
+                    }
+                }
+            }
+            return stack;
+        }
+
+        private void traversePredictionDegree(int start, int[] degrees) {
+            if (visitedVertices.length == 0) {
+                return;
+            }
+            int[][] stacks = new int[MAX_PRIORITY][16];
+            int[] sizes = new int[MAX_PRIORITY];
+            stacks[0][sizes[0]++] = start;
+            int bestPriority = 0;
+            visitVertex(table.vertex(DracoCornerTable.next(start)), DracoCornerTable.next(start));
+            visitVertex(table.vertex(DracoCornerTable.previous(start)), DracoCornerTable.previous(start));
+            visitVertex(table.vertex(start), start);
+            while (true) {
+                int corner = DracoCornerTable.INVALID;
+                for (int i = bestPriority; i < MAX_PRIORITY; i++) {
+                    if (sizes[i] > 0) {
+                        corner = stacks[i][--sizes[i]];
+                        bestPriority = i;
+                        break;
+                    }
+                }
+                if (corner == DracoCornerTable.INVALID) {
+                    return;
+                }
+                if (isFaceVisited(corner)) {
+                    continue;
+                }
+                while (true) {
+                    visitedFaces[corner / 3] = true;
+                    visitVertex(table.vertex(corner), corner);
+                    int right = table.getRightCorner(corner);
+                    int left = table.getLeftCorner(corner);
+                    boolean rightVisited = isFaceVisited(right);
+                    if (!isFaceVisited(left)) {
+                        int priority = computePriority(left, degrees);
+                        if (rightVisited && priority <= bestPriority) {
+                            corner = left;
+                            continue;
+                        }
+                        stacks[priority] = push(stacks[priority], sizes[priority]++, left);
+                        bestPriority = Math.min(bestPriority, priority);
+                    }
+                    if (!rightVisited) {
+                        int priority = computePriority(right, degrees);
+                        if (priority <= bestPriority) {
+                            corner = right;
+                            continue;
+                        }
+                        stacks[priority] = push(stacks[priority], sizes[priority]++, right);
+                        bestPriority = Math.min(bestPriority, priority);
+                    }
+                    break;
+                }
+            }
+        }
+
+        private int computePriority(int corner, int[] degrees) {
+            int vertex = table.vertex(corner);
+            if (visitedVertices[vertex]) {
+                return 0;
+            }
+            return ++degrees[vertex] > 1 ? 1 : 2;
+        }
+    }
+
+    /**
+     * Decodes the attribute decoders and the values of all attributes, attributes are decoded in the order of the
+     * attribute decoders so that positions are available when predicting the following attributes.
+     */
+    private void decodeAttributes(int decoderCount) {
+        int[] dataIds = new int[decoderCount];
+        int[] decoderTypes = new int[decoderCount];
+        int[] traversals = new int[decoderCount];
+        boolean positionDecoder = false;
+        for (int i = 0; i < decoderCount && cornerTable != null; i++) {
+            dataIds[i] = buffer.readByte();
+            decoderTypes[i] = buffer.readUnsignedByte();
+            traversals[i] = buffer.readUnsignedByte();
+            int dataId = dataIds[i];
+            if (dataId >= 0) {
+                if (dataId >= attributeData.length || attributeData[dataId].decoderId >= 0) {
+                    throw new IllegalArgumentException("Invalid attribute data " + dataId);
+                }
+                attributeData[dataId].decoderId = i;
+            } else if (positionDecoder) {
+                throw new IllegalArgumentException("More than one position attribute decoder");
+            } else {
+                positionDecoder = true;
+            }
+            if (decoderTypes[i] == MESH_VERTEX_ATTRIBUTE) {
+                if (traversals[i] != TRAVERSAL_DEPTH_FIRST && traversals[i] != TRAVERSAL_PREDICTION_DEGREE) {
+                    throw new IllegalArgumentException("Invalid traversal " + traversals[i]);
+                }
+                if (dataId >= 0) {
+                    attributeData[dataId].connectivityUsed = false;
+                }
+            } else if (traversals[i] != TRAVERSAL_DEPTH_FIRST || dataId < 0) {
+                throw new IllegalArgumentException("Invalid corner attribute decoder " + i);
+            }
+        }
+        DracoAttributeDecoder[][] decoders = new DracoAttributeDecoder[decoderCount][];
+        for (int i = 0; i < decoderCount; i++) {
+            int count = buffer.readCount(buffer.getRemaining());
+            if (count == 0) {
+                throw new IllegalArgumentException("No attributes in decoder " + i);
+            }
+            decoders[i] = new DracoAttributeDecoder[count];
+            DracoAttribute[] decoded = new DracoAttribute[count];
+            for (int a = 0; a < count; a++) {
+                int type = buffer.readUnsignedByte();
+                int dataType = buffer.readUnsignedByte();
+                int components = buffer.readUnsignedByte();
+                boolean normalized = buffer.readUnsignedByte() != 0;
+                int uniqueId = buffer.readVarint();
+                if (type > GENERIC || dataType < DT_INT8 || dataType > 11 || components == 0) {
+                    throw new IllegalArgumentException("Invalid attribute " + type + ", " + dataType);
+                }
+                decoded[a] = new DracoAttribute(type, dataType, components, normalized, uniqueId);
+                mesh.attributes.add(decoded[a]);
+            }
+            for (int a = 0; a < count; a++) {
+                decoders[i][a] = new DracoAttributeDecoder(decoded[a], buffer.readUnsignedByte());
+            }
+        }
+        for (int i = 0; i < decoderCount; i++) {
+            decodeAttributeValues(decoders[i], dataIds[i], decoderTypes[i], traversals[i]);
+        }
+    }
+
+    private void decodeAttributeValues(DracoAttributeDecoder[] decoders, int dataId, int decoderType,
+            int traversal) {
+        DracoCornerTable table = null;
+        EncodingData encoding = null;
+        int[] pointIds;
+        int[] pointToValue = null;
+        if (cornerTable == null) {
+            pointIds = new int[mesh.pointCount];
+            for (int i = 0; i < pointIds.length; i++) {
+                pointIds[i] = i;
+            }
+        } else {
+            encoding = dataId < 0 ? positionEncoding : attributeData[dataId].encoding;
+            table = decoderType == MESH_VERTEX_ATTRIBUTE ? cornerTable : attributeData[dataId].connectivity;
+            pointIds = new Traverser(table, encoding).traverse(traversal);
+            pointToValue = new int[mesh.pointCount];
+            for (int c = 0; c < mesh.indices.length; c++) {
+                int vertex = table.vertex(c);
+                if (vertex == DracoCornerTable.INVALID) {
+                    throw new IllegalArgumentException("Invalid vertex at corner " + c);
+                }
+                pointToValue[mesh.indices[c]] = encoding.vertexToEntry[vertex];
+            }
+        }
+        DracoAttribute position = null;
+        for (DracoAttribute attribute : mesh.attributes) {
+            if (attribute.type == POSITION) {
+                position = attribute.portableValues != null ? attribute : null;
+                break;
+            }
+        }
+        for (DracoAttributeDecoder decoder : decoders) {
+            decoder.getAttribute().pointToValue = pointToValue;
+            decoder.setMeshData(table, encoding, position);
+            decoder.decodePortable(buffer, pointIds, pointIds.length);
+        }
+        for (DracoAttributeDecoder decoder : decoders) {
+            decoder.decodeTransformData(buffer);
+        }
+    }
+
+}
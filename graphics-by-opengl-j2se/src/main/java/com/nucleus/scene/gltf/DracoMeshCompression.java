@@ -0,0 +1,101 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+import java.util.HashMap;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * The KHR_draco_mesh_compression extension of a primitive, the indices and attributes of the primitive are stored
+ * as Draco compressed data in a bufferView and are decoded using {@link DracoDecoder}.
+ * The accessors of the primitive have no bufferView until the data is decoded.
+ *
+ * Properties
+ *
+ * Type Description Required
+ * bufferView integer The index of the bufferView with compressed data. ✅ Yes
+ * attributes object Map from attribute name to the unique id of the Draco attribute. ✅ Yes
+ *
+ * This class can be serialized using gson
+ */
+public class DracoMeshCompression implements RuntimeResolver, GLTFReader.JsonReadable {
+
+    /**
+     * Name of the extension
+     */
+    public static final String KHR_DRACO_MESH_COMPRESSION = "KHR_draco_mesh_compression";
+
+    private static final String BUFFER_VIEW = "bufferView";
+    private static final String ATTRIBUTES = "attributes";
+
+    @SerializedName(BUFFER_VIEW)
+    private int bufferViewIndex = -1;
+    @SerializedName(ATTRIBUTES)
+    private HashMap<Attributes, Integer> attributes;
+
+    transient private BufferView bufferView;
+
+    /**
+     * Returns the index of the bufferView with compressed data
+     *
+     * @return
+     */
+    public int getBufferViewIndex() {
+        return bufferViewIndex;
+    }
+
+    /**
+     * Returns the bufferView with compressed data
+     *
+     * @return
+     */
+    public BufferView getBufferView() {
+        return bufferView;
+    }
+
+    /**
+     * Returns the map from attribute to Draco attribute unique id
+     *
+     * @return
+     */
+    public HashMap<Attributes, Integer> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case BUFFER_VIEW:
+                bufferViewIndex = GLTFReader.readInt(reader, bufferViewIndex);
+                break;
+            case ATTRIBUTES:
+                attributes = GLTFReader.readAttributes(reader);
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    public void resolve(GLTF asset) throws GLTFException {
+        BufferView[] views = asset.getBufferViews();
+        if (views == null || bufferViewIndex < 0 || bufferViewIndex >= views.length) {
+            throw new GLTFException(
+                    "Invalid bufferView for " + KHR_DRACO_MESH_COMPRESSION + ": " + bufferViewIndex);
+        }
+        bufferView = views[bufferViewIndex];
+        if (attributes == null) {
+            throw new GLTFException("No attributes for " + KHR_DRACO_MESH_COMPRESSION);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BufferView: " + bufferViewIndex + ", attributes: " + attributes;
+    }
+
+}
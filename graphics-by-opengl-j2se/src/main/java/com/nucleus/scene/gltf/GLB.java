@@ -0,0 +1,122 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+
+/**
+ * The glTF binary container (.glb)
+ *
+ * A 12 byte header followed by one JSON chunk and an optional BIN chunk.
+ * Header
+ * magic uint32 0x46546C67 (ASCII glTF)
+ * version uint32 Container version, must be 2
+ * length uint32 Total length of the file in bytes
+ *
+ * Chunk
+ * chunkLength uint32 Length of chunkData in bytes
+ * chunkType uint32 0x4E4F534A (JSON) or 0x004E4942 (BIN)
+ * chunkData ubyte[]
+ *
+ * All values are little endian.
+ * The chunks are returned as slices of the source buffer, no data is copied.
+ */
+public class GLB {
+
+    public static final String FILE_SUFFIX = ".glb";
+    public static final int MAGIC = 0x46546C67;
+    public static final int VERSION = 2;
+    public static final int HEADER_LENGTH = 12;
+    public static final int CHUNK_HEADER_LENGTH = 8;
+    public static final int CHUNK_TYPE_JSON = 0x4E4F534A;
+    public static final int CHUNK_TYPE_BIN = 0x004E4942;
+
+    private final ByteBuffer json;
+    private final ByteBuffer binary;
+
+    /**
+     * Reads the glb header and chunks from the source, the source is read from position 0.
+     *
+     * @param source The glb file contents, position, limit and byte order of the source are not changed.
+     * @throws GLTFException If the source is not a valid version 2 glb.
+     */
+    public GLB(ByteBuffer source) throws GLTFException {
+        ByteBuffer glb = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        glb.clear();
+        if (glb.capacity() < HEADER_LENGTH || glb.getInt() != MAGIC) {
+            throw new GLTFException("Not a glb file, invalid magic");
+        }
+        int version = glb.getInt();
+        if (version != VERSION) {
+            throw new GLTFException("Invalid glb version: " + version);
+        }
+        int length = glb.getInt();
+        if (length > glb.capacity()) {
+            throw new GLTFException("Invalid glb length " + length + ", data is " + glb.capacity());
+        }
+        glb.limit(length);
+        json = getChunk(glb, CHUNK_TYPE_JSON);
+        if (json == null) {
+            throw new GLTFException("No JSON chunk in glb");
+        }
+        binary = getChunk(glb, CHUNK_TYPE_BIN);
+    }
+
+    /**
+     * Returns the next chunk of the specified type, chunks of other type are skipped.
+     *
+     * @param glb Positioned at the start of a chunk
+     * @param chunkType
+     * @return Slice containing the chunk data or null if no more chunks
+     * @throws GLTFException If a chunk is outside of the glb
+     */
+    private ByteBuffer getChunk(ByteBuffer glb, int chunkType) throws GLTFException {
+        while (glb.remaining() >= CHUNK_HEADER_LENGTH) {
+            int chunkLength = glb.getInt();
+            int type = glb.getInt();
+            if (chunkLength < 0 || chunkLength > glb.remaining()) {
+                throw new GLTFException("Invalid glb chunk length: " + chunkLength);
+            }
+            int start = glb.position();
+            glb.position(start + chunkLength);
+            if (type == chunkType) {
+                ByteBuffer chunk = glb.duplicate();
+                chunk.position(start);
+                chunk.limit(start + chunkLength);
+                return chunk.slice().order(ByteOrder.nativeOrder());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the JSON chunk, UTF-8 encoded
+     *
+     * @return
+     */
+    public ByteBuffer getJSON() {
+        return json;
+    }
+
+    /**
+     * Returns the BIN chunk, this is the data for the first buffer in the glTF, the buffer that does not have an
+     * uri.
+     *
+     * @return The binary chunk or null if glb does not contain a binary chunk
+     */
+    public ByteBuffer getBinary() {
+        return binary;
+    }
+
+    /**
+     * Returns true if the filename has the glb suffix
+     *
+     * @param fileName
+     * @return
+     */
+    public static boolean isGLB(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(FILE_SUFFIX);
+    }
+
+}
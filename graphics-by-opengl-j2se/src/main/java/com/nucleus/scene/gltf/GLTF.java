@@ -1,12 +1,27 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.SimpleLogger;
+import com.nucleus.common.Environment;
+import com.nucleus.common.Environment.Property;
 import com.nucleus.common.FileUtils;
+import com.nucleus.common.WorkerPool;
+import com.nucleus.common.WorkerPool.RangeWork;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
 import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.DracoDecoder.DracoAttribute;
+import com.nucleus.scene.gltf.DracoDecoder.DracoMesh;
+import com.nucleus.scene.gltf.Primitive.Attributes;
 
 /**
  * 
@@ -38,7 +53,7 @@ import com.nucleus.scene.gltf.BufferView.Target;
  *
  */
 
-public class GLTF {
+public class GLTF implements GLTFReader.JsonReadable {
 
     private static final String ACCESSORS = "accessors";
     private static final String ASSET = "asset";
@@ -53,6 +68,43 @@ public class GLTF {
     private static final String SCENE = "scene";
     private static final String SAMPLERS = "samplers";
     private static final String TEXTURES = "textures";
+    private static final String EXTENSIONS_USED = "extensionsUsed";
+    private static final String EXTENSIONS_REQUIRED = "extensionsRequired";
+
+    /**
+     * Vertex attributes may use normalized and non normalized BYTE, UNSIGNED_BYTE, SHORT and UNSIGNED_SHORT
+     * components.
+     */
+    public static final String KHR_MESH_QUANTIZATION = "KHR_mesh_quantization";
+    /**
+     * The extensions that are supported when rendering
+     */
+    public static final String[] SUPPORTED_EXTENSIONS = new String[] { KHR_MESH_QUANTIZATION,
+            MeshoptCompression.EXT_MESHOPT_COMPRESSION, DracoMeshCompression.KHR_DRACO_MESH_COMPRESSION };
+    /**
+     * Name of the buffer created for decoded Draco data
+     */
+    private static final String DRACO_BUFFER_NAME = "Draco";
+
+    /**
+     * How the CPU copy of buffers is kept after the buffers are uploaded to buffer objects
+     */
+    public enum Residency {
+        /**
+         * Buffers are kept in CPU memory
+         */
+        KEEP(),
+        /**
+         * Buffers are released when uploaded, mesh bounds are calculated before releasing.
+         */
+        RELEASE(),
+        /**
+         * Buffers holding POSITION or indices of a primitive are kept so that picking and bounds can use the
+         * geometry, other buffers are released when uploaded.
+         * A buffer that holds other attributes as well, for instance interleaved vertices, is kept.
+         */
+        KEEP_PICKING();
+    }
 
     public static class GLTFException extends Throwable {
         public GLTFException(String reason) {
@@ -105,6 +157,11 @@ public class GLTF {
     @SerializedName(TEXTURES)
     private Texture[] textures;
 
+    @SerializedName(EXTENSIONS_USED)
+    private ArrayList<String> extensionsUsed;
+    @SerializedName(EXTENSIONS_REQUIRED)
+    private ArrayList<String> extensionsRequired;
+
     @SerializedName(SCENE)
     private int scene = -1;
     @SerializedName(SCENES)
@@ -122,6 +179,14 @@ public class GLTF {
      * Set to true to render Tangent, Bitangent and Normal buffers using lines
      */
     transient static public boolean debugTBN = true;
+    /**
+     * Set when binary buffers and images are loaded and TBN buffers are built, only GL objects remain to be created.
+     */
+    transient private volatile boolean prepared;
+    /**
+     * What buffers to keep in CPU memory after upload, defaults to {@link Property#GLTF_RESIDENCY}
+     */
+    transient private Residency residency;
 
     /**
      * Copies the list of Buffers.
@@ -138,6 +203,46 @@ public class GLTF {
         return buffers;
     }
 
+    /**
+     * Returns the buffers referenced by the attribute and index accessors of the mesh primitives, these are the
+     * buffers that need to be uploaded to render the meshes.
+     * Buffers that are no longer used, for instance when primitive data has been moved to a new buffer, or that are
+     * only used by images, are not returned.
+     * 
+     * @param buffers Array to add buffers to, or null to create a new array
+     * @return Array with buffers used by primitives
+     */
+    public ArrayList<Buffer> getPrimitiveBuffers(ArrayList<Buffer> buffers) {
+        if (buffers == null) {
+            buffers = new ArrayList<>();
+        }
+        Set<Buffer> added = Collections.newSetFromMap(new IdentityHashMap<Buffer, Boolean>());
+        if (meshes != null) {
+            for (Mesh m : meshes) {
+                if (m.getPrimitives() != null) {
+                    for (Primitive p : m.getPrimitives()) {
+                        if (p.getIndices() != null) {
+                            addBuffer(buffers, added, p.getIndices());
+                        }
+                        if (p.getAccessorArray() != null) {
+                            for (Accessor a : p.getAccessorArray()) {
+                                addBuffer(buffers, added, a);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return buffers;
+    }
+
+    private void addBuffer(ArrayList<Buffer> buffers, Set<Buffer> added, Accessor accessor) {
+        Buffer buffer = accessor.getBufferView().getBuffer();
+        if (added.add(buffer)) {
+            buffers.add(buffer);
+        }
+    }
+
     /**
      * Returns the buffer at the specified index
      * 
@@ -323,6 +428,359 @@ public class GLTF {
         return path + FileUtils.DIRECTORY_SEPARATOR + uri;
     }
 
+    /**
+     * Decodes the bufferViews that are compressed using EXT_meshopt_compression, storage is created for fallback
+     * buffers that have not been loaded. The buffers with compressed data must be loaded.
+     * BufferViews are decoded in parallel.
+     * 
+     * @return Number of decoded bufferViews
+     * @throws IllegalArgumentException If the compressed data is not valid
+     */
+    public int decompressBufferViews() {
+        final ArrayList<BufferView> compressed = new ArrayList<>();
+        if (bufferViews != null) {
+            for (BufferView view : bufferViews) {
+                if (view.getMeshoptCompression() != null) {
+                    compressed.add(view);
+                }
+            }
+        }
+        if (compressed.isEmpty()) {
+            return 0;
+        }
+        for (Buffer buffer : buffers) {
+            if (buffer.isFallback() && !buffer.hasBuffer()) {
+                buffer.createBuffer();
+            }
+        }
+        WorkerPool.getInstance().invokeRange(compressed.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    MeshoptDecoder.decode(compressed.get(i));
+                }
+            }
+        });
+        SimpleLogger.d(getClass(), "Decoded " + compressed.size() + " compressed bufferViews");
+        return compressed.size();
+    }
+
+    /**
+     * Decodes the primitives that are compressed using KHR_draco_mesh_compression, the decoded indices and
+     * attributes are stored in a new buffer and the accessors of the primitives are set to use it.
+     * The buffers with compressed data must be loaded. Primitives are decoded in parallel.
+     * 
+     * @return Number of decoded primitives
+     * @throws IllegalArgumentException If the compressed data is not valid or does not match the accessors
+     */
+    public int decompressPrimitives() {
+        final ArrayList<Primitive> compressed = new ArrayList<>();
+        if (meshes != null) {
+            for (Mesh mesh : meshes) {
+                if (mesh.getPrimitives() != null) {
+                    for (Primitive primitive : mesh.getPrimitives()) {
+                        if (primitive.getDracoMeshCompression() != null) {
+                            compressed.add(primitive);
+                        }
+                    }
+                }
+            }
+        }
+        if (compressed.isEmpty()) {
+            return 0;
+        }
+        final DracoMesh[] decoded = new DracoMesh[compressed.size()];
+        WorkerPool.getInstance().invokeRange(compressed.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    BufferView view = compressed.get(i).getDracoMeshCompression().getBufferView();
+                    decoded[i] = DracoDecoder.decode(view.getSlice());
+                }
+            }
+        });
+        int size = 0;
+        for (int i = 0; i < decoded.length; i++) {
+            size += getDracoSize(compressed.get(i), decoded[i]);
+        }
+        Buffer buffer = getBuffer(createBuffer(DRACO_BUFFER_NAME, size));
+        int byteOffset = 0;
+        for (Primitive primitive : compressed) {
+            Accessor indices = primitive.getIndices();
+            if (indices != null) {
+                indices.setBufferView(createBufferView(buffer, null, byteOffset, 0, Target.ELEMENT_ARRAY_BUFFER));
+                byteOffset += getAlignedSize(indices);
+            }
+            for (Attributes attribute : primitive.getDracoMeshCompression().getAttributes().keySet()) {
+                Accessor accessor = primitive.getAccessor(attribute);
+                accessor.setBufferView(createBufferView(buffer, null, byteOffset, 0, Target.ARRAY_BUFFER));
+                byteOffset += getAlignedSize(accessor);
+            }
+            primitive.updateBufferList();
+        }
+        WorkerPool.getInstance().invokeRange(compressed.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    storeDracoMesh(compressed.get(i), decoded[i]);
+                }
+            }
+        });
+        SimpleLogger.d(getClass(), "Decoded " + compressed.size() + " Draco compressed primitives");
+        return compressed.size();
+    }
+
+    private static int getAlignedSize(Accessor accessor) {
+        int size = accessor.getCount() * accessor.getComponentType().size * accessor.getType().size;
+        return (size + 3) & ~3;
+    }
+
+    /**
+     * Checks that the decoded mesh matches the accessors of the primitive and returns the size needed to store
+     * the indices and attributes.
+     */
+    private int getDracoSize(Primitive primitive, DracoMesh mesh) {
+        int size = 0;
+        Accessor indices = primitive.getIndices();
+        if (indices != null) {
+            if (indices.getCount() != mesh.getIndices().length) {
+                throw new IllegalArgumentException("Draco indices " + mesh.getIndices().length
+                        + " does not match accessor count " + indices.getCount());
+            }
+            size += getAlignedSize(indices);
+        }
+        HashMap<Attributes, Integer> attributes = primitive.getDracoMeshCompression().getAttributes();
+        for (Attributes attribute : attributes.keySet()) {
+            Accessor accessor = primitive.getAccessor(attribute);
+            DracoAttribute decoded = mesh.getAttribute(attributes.get(attribute));
+            if (accessor == null || decoded == null) {
+                throw new IllegalArgumentException("No Draco attribute for " + attribute);
+            }
+            if (accessor.getCount() != mesh.getPointCount()
+                    || accessor.getType().size != decoded.getComponents()) {
+                throw new IllegalArgumentException("Draco attribute " + attribute + " does not match accessor");
+            }
+            if ((accessor.getComponentType() == ComponentType.FLOAT) != decoded.isFloat()) {
+                throw new IllegalArgumentException("Draco attribute " + attribute + " does not match "
+                        + accessor.getComponentType());
+            }
+            size += getAlignedSize(accessor);
+        }
+        return size;
+    }
+
+    private void storeDracoMesh(Primitive primitive, DracoMesh mesh) {
+        if (primitive.getIndices() != null) {
+            primitive.getIndices().put(mesh.getIndices(), 0);
+        }
+        HashMap<Attributes, Integer> attributes = primitive.getDracoMeshCompression().getAttributes();
+        for (Attributes attribute : attributes.keySet()) {
+            Accessor accessor = primitive.getAccessor(attribute);
+            DracoAttribute decoded = mesh.getAttribute(attributes.get(attribute));
+            if (decoded.isFloat()) {
+                accessor.put(decoded.getFloatValues(mesh.getPointCount()), 0);
+            } else {
+                accessor.put(decoded.getIntValues(mesh.getPointCount()), 0);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the extension is used in this asset
+     * 
+     * @param extension Name of the extension, eg {@value #KHR_MESH_QUANTIZATION}
+     * @return
+     */
+    public boolean isExtensionUsed(String extension) {
+        return extensionsUsed != null && extensionsUsed.contains(extension);
+    }
+
+    /**
+     * Returns true if the extension is required to load this asset
+     * 
+     * @param extension Name of the extension, eg {@value #KHR_MESH_QUANTIZATION}
+     * @return
+     */
+    public boolean isExtensionRequired(String extension) {
+        return extensionsRequired != null && extensionsRequired.contains(extension);
+    }
+
+    /**
+     * Adds an extension to the extensions used, call this when the asset is changed to use an extension.
+     * 
+     * @param extension
+     * @param required True if the extension is also required
+     */
+    public void addExtension(String extension, boolean required) {
+        if (extensionsUsed == null) {
+            extensionsUsed = new ArrayList<>();
+        }
+        if (!extensionsUsed.contains(extension)) {
+            extensionsUsed.add(extension);
+        }
+        if (required) {
+            if (extensionsRequired == null) {
+                extensionsRequired = new ArrayList<>();
+            }
+            if (!extensionsRequired.contains(extension)) {
+                extensionsRequired.add(extension);
+            }
+        }
+    }
+
+    /**
+     * Returns true if binary buffers and images have been loaded and TBN buffers built, ie the asset is ready for
+     * GL objects (textures, buffer objects) to be created.
+     * 
+     * @return
+     */
+    public boolean isPrepared() {
+        return prepared;
+    }
+
+    /**
+     * Sets the prepared flag, this shall only be done by the AssetManager when buffers and images are loaded.
+     * 
+     * @param prepared
+     */
+    public void setPrepared(boolean prepared) {
+        this.prepared = prepared;
+    }
+
+    /**
+     * Returns the residency of buffers, if not set the value of {@link Property#GLTF_RESIDENCY} is returned, or
+     * {@link Residency#KEEP} if the property is not set or not valid.
+     * 
+     * @return
+     */
+    public Residency getResidency() {
+        if (residency == null) {
+            String value = Environment.getInstance().getProperty(Property.GLTF_RESIDENCY);
+            if (value != null && value.trim().length() > 0) {
+                try {
+                    return Residency.valueOf(value.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    SimpleLogger.d(getClass(), "Invalid value for " + Property.GLTF_RESIDENCY.key + ": " + value
+                            + ", using " + Residency.KEEP);
+                }
+            }
+            return Residency.KEEP;
+        }
+        return residency;
+    }
+
+    /**
+     * Sets the residency of buffers, call before the assets are loaded.
+     * 
+     * @param residency The residency, or null to use {@link Property#GLTF_RESIDENCY}
+     */
+    public void setResidency(Residency residency) {
+        this.residency = residency;
+    }
+
+    /**
+     * Releases the CPU copy of buffers that are uploaded to buffer objects, according to the residency.
+     * Bounds of the meshes are calculated before buffers are released. Views of released buffers are removed from
+     * accessors, reading the data of an accessor after the buffer is released will throw
+     * IllegalArgumentException.
+     * This shall only be done by the AssetManager after buffer objects are created.
+     * 
+     * @return Number of bytes released
+     */
+    public int releaseBuffers() {
+        Residency r = getResidency();
+        if (r == Residency.KEEP || meshes == null) {
+            return 0;
+        }
+        Set<Buffer> keep = Collections.newSetFromMap(new IdentityHashMap<Buffer, Boolean>());
+        for (Mesh m : meshes) {
+            m.getBounds();
+            if (r == Residency.KEEP_PICKING && m.getPrimitives() != null) {
+                for (Primitive p : m.getPrimitives()) {
+                    Accessor position = p.getAccessor(Attributes.POSITION);
+                    if (position != null) {
+                        keep.add(position.getBufferView().getBuffer());
+                    }
+                    if (p.getIndices() != null) {
+                        keep.add(p.getIndices().getBufferView().getBuffer());
+                    }
+                }
+            }
+        }
+        int released = 0;
+        int freed = 0;
+        Set<Buffer> releasedBuffers = Collections.newSetFromMap(new IdentityHashMap<Buffer, Boolean>());
+        for (Buffer buffer : getPrimitiveBuffers(null)) {
+            if (buffer.getBufferName() > 0 && buffer.hasBuffer() && !keep.contains(buffer)) {
+                released += buffer.getByteLength();
+                freed += buffer.releaseBuffer() ? 1 : 0;
+                releasedBuffers.add(buffer);
+            }
+        }
+        if (released > 0) {
+            clearViews(releasedBuffers);
+            SimpleLogger.d(getClass(), "Released " + released + " bytes of buffers, freed " + freed
+                    + " buffers immediately, for " + filename);
+        }
+        return released;
+    }
+
+    /**
+     * Copies the data of buffers used by the accessors that are read only, for instance buffers that are memory
+     * mapped from file, into new buffers that can be written. Call this before the data of the accessors is changed
+     * in place. Buffers that are not used by the accessors are not copied.
+     * Views of the copied buffers are removed from accessors and created again when used.
+     * 
+     * @param accessorList The accessors that will be changed
+     * @return Number of bytes copied
+     */
+    public int makeBuffersWritable(List<Accessor> accessorList) {
+        int copied = 0;
+        Set<Buffer> copiedBuffers = Collections.newSetFromMap(new IdentityHashMap<Buffer, Boolean>());
+        for (Accessor accessor : accessorList) {
+            BufferView view = accessor.getBufferView();
+            Buffer buffer = view != null ? view.getBuffer() : null;
+            if (buffer != null && !copiedBuffers.contains(buffer) && buffer.makeWritable()) {
+                copied += buffer.getByteLength();
+                copiedBuffers.add(buffer);
+            }
+        }
+        if (copied > 0) {
+            clearViews(copiedBuffers);
+            SimpleLogger.d(getClass(), "Copied " + copied + " bytes of read only buffers for " + filename);
+        }
+        return copied;
+    }
+
+    /**
+     * Removes the views of accessors that use one of the buffers
+     */
+    private void clearViews(Set<Buffer> bufferSet) {
+        clearViews(accessors, bufferSet);
+        if (meshes != null) {
+            for (Mesh m : meshes) {
+                if (m.getPrimitives() != null) {
+                    for (Primitive p : m.getPrimitives()) {
+                        clearViews(p.getAccessorArray(), bufferSet);
+                        if (p.getIndices() != null) {
+                            clearViews(Arrays.asList(p.getIndices()), bufferSet);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void clearViews(List<Accessor> accessorList, Set<Buffer> bufferSet) {
+        if (accessorList != null) {
+            for (Accessor a : accessorList) {
+                if (a.getBufferView() != null && bufferSet.contains(a.getBufferView().getBuffer())) {
+                    a.clearViews();
+                }
+            }
+        }
+    }
+
     public Asset getAsset() {
         return asset;
     }
@@ -492,14 +950,75 @@ public class GLTF {
         return null;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case ACCESSORS:
+                accessors = GLTFReader.readList(reader, GLTFReader.ACCESSOR);
+                break;
+            case ASSET:
+                asset = GLTFReader.readObject(reader, GLTFReader.ASSET);
+                break;
+            case BUFFERS:
+                buffers = GLTFReader.readList(reader, GLTFReader.BUFFER);
+                break;
+            case BUFFER_VIEWS:
+                bufferViews = GLTFReader.readArray(reader, GLTFReader.BUFFER_VIEW);
+                break;
+            case CAMERAS:
+                cameras = GLTFReader.readList(reader, GLTFReader.CAMERA);
+                break;
+            case IMAGES:
+                images = GLTFReader.readArray(reader, GLTFReader.IMAGE);
+                break;
+            case MATERIALS:
+                materials = GLTFReader.readArray(reader, GLTFReader.MATERIAL);
+                break;
+            case MESHES:
+                meshes = GLTFReader.readArray(reader, GLTFReader.MESH);
+                break;
+            case NODES:
+                nodes = GLTFReader.readArray(reader, GLTFReader.NODE);
+                break;
+            case SAMPLERS:
+                samplers = GLTFReader.readArray(reader, GLTFReader.SAMPLER);
+                break;
+            case TEXTURES:
+                textures = GLTFReader.readArray(reader, GLTFReader.TEXTURE);
+                break;
+            case EXTENSIONS_USED:
+                extensionsUsed = GLTFReader.readStringList(reader);
+                break;
+            case EXTENSIONS_REQUIRED:
+                extensionsRequired = GLTFReader.readStringList(reader);
+                break;
+            case SCENE:
+                scene = GLTFReader.readInt(reader, scene);
+                break;
+            case SCENES:
+                scenes = GLTFReader.readList(reader, GLTFReader.SCENE);
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
     /**
      * Resolves all glTF objects so they can be used without reference to glTF asset
      * Call this method only once, normally done when glTF is loaded using the {@link Loader}
      * 
      * @throws GLTFException If an instance to resolve already has been resolved, ie method has already been called.
      * For instance if the {@link Loader} is used.
+     * Or if an extension in extensionsRequired is not supported.
      */
     public void resolve() throws GLTFException {
+        if (extensionsRequired != null) {
+            for (String extension : extensionsRequired) {
+                if (!Arrays.asList(SUPPORTED_EXTENSIONS).contains(extension)) {
+                    throw new GLTFException("Required extension not supported: " + extension);
+                }
+            }
+        }
         List<RuntimeResolver> resolves = getResolves();
         for (RuntimeResolver rr : resolves) {
             rr.resolve(this);
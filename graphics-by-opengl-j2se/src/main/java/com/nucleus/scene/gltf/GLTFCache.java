@@ -0,0 +1,580 @@
+package com.nucleus.scene.gltf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32;
+
+import com.nucleus.SimpleLogger;
+import com.nucleus.io.ByteBufferInputStream;
+import com.nucleus.io.StreamUtils;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+import com.nucleus.texturing.BufferImage;
+import com.nucleus.texturing.BufferImage.ImageFormat;
+
+/**
+ * On disk cache of processed glTF assets, the geometry of the primitives - after welding, TBN generation,
+ * quantization and so on - and the decoded texture images are stored in one file per asset.
+ * When an asset is loaded again the file is memory mapped, the accessors of the primitives are replaced by accessors
+ * for the mapped data and the images use the mapped pixels, so that no processing or image decoding is needed.
+ *
+ * Cache files are keyed by the SHA-1 of the source glTF, or glb, and the processing settings - if the source or
+ * settings change a new key is used. External buffers and images are recorded using length and last modified time
+ * for files, or CRC32 for resources that are not files, and are checked when the cache is read.
+ *
+ * The glTF JSON is still parsed and resolved since nodes, materials and textures are used as is - the cache contains
+ * a binary description of the processed primitives, not of the whole asset.
+ * Buffers that are not used by primitives, for instance compressed data or images stored in bufferViews, are not
+ * stored and are not loaded when the cache is used.
+ *
+ */
+public class GLTFCache {
+
+    /**
+     * Version of the cache file format, increase when the format or the processing changes
+     */
+    public static final int VERSION = 1;
+    /**
+     * File suffix of cache files
+     */
+    public static final String SUFFIX = ".nglc";
+
+    /**
+     * 'NGLC'
+     */
+    private static final int MAGIC = 0x4e474c43;
+    /**
+     * Alignment of data, relative the first byte of the data
+     */
+    private static final int ALIGNMENT = 16;
+    private static final int HEADER_SIZE = 12;
+    private static final String BUFFER_NAME = "Cache";
+    private static final String DATA_URI = "data:";
+    private static final String NO_TARGET = "";
+
+    private final File directory;
+
+    /**
+     * Creates a cache that stores files in the directory, the directory is created when the first file is stored.
+     *
+     * @param directory
+     */
+    public GLTFCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory where cache files are stored
+     *
+     * @return
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the key for the glTF asset, this is the SHA-1 of the source file and processing settings.
+     * The source file is read using the filename of the gltf.
+     *
+     * @param gltf The loaded glTF
+     * @param settings The settings used when the asset is processed
+     * @return The key
+     * @throws IOException If the source file cannot be read
+     */
+    public String getKey(GLTF gltf, String settings) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(StreamUtils.readBufferFromName(gltf.getFilename()));
+            digest.update((VERSION + ":" + settings).getBytes("UTF-8"));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(Character.forDigit((b >> 4) & 0x0f, 16)).append(Character.forDigit(b & 0x0f, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException | URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Returns the cache file for the key
+     *
+     * @param key
+     * @return
+     */
+    public File getFile(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    /**
+     * Stores the processed primitives and the decoded images of the glTF, the buffers used by primitives must be
+     * loaded. An existing file for the key is replaced.
+     *
+     * @param gltf The processed glTF
+     * @param key The key returned by {@link #getKey(GLTF, String)}
+     * @return Number of bytes written
+     * @throws IOException If the file cannot be written
+     */
+    public long store(GLTF gltf, String key) throws IOException {
+        ArrayList<Buffer> buffers = gltf.getPrimitiveBuffers(null);
+        IdentityHashMap<Buffer, Integer> bufferOffsets = new IdentityHashMap<>();
+        int geometryLength = 0;
+        for (Buffer b : buffers) {
+            geometryLength = align(geometryLength);
+            bufferOffsets.put(b, geometryLength);
+            geometryLength += b.getByteLength();
+        }
+        ArrayList<BufferView> views = new ArrayList<>();
+        IdentityHashMap<BufferView, Integer> viewIndexes = new IdentityHashMap<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        IdentityHashMap<Accessor, Integer> accessorIndexes = new IdentityHashMap<>();
+        Mesh[] meshes = gltf.getMeshes();
+        if (meshes != null) {
+            for (Mesh mesh : meshes) {
+                if (mesh.getPrimitives() != null) {
+                    for (Primitive p : mesh.getPrimitives()) {
+                        if (p.getIndices() != null) {
+                            addAccessor(p.getIndices(), accessors, accessorIndexes, views, viewIndexes);
+                        }
+                        if (p.getAccessorArray() != null) {
+                            for (Accessor a : p.getAccessorArray()) {
+                                addAccessor(a, accessors, accessorIndexes, views, viewIndexes);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        Image[] images = gltf.getImages();
+        ArrayList<Integer> imageIndexes = new ArrayList<>();
+        if (images != null) {
+            for (int i = 0; i < images.length; i++) {
+                if (images[i].getBufferImage() != null && images[i].getBufferImage().getFormat() != null) {
+                    imageIndexes.add(i);
+                }
+            }
+        }
+
+        ByteArrayOutputStream description = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(description);
+        out.writeUTF(key);
+        writeDependencies(gltf, out);
+        out.writeInt(geometryLength);
+        out.writeInt(views.size());
+        for (BufferView view : views) {
+            out.writeInt(bufferOffsets.get(view.getBuffer()) + view.getByteOffset());
+            out.writeInt(view.getByteStride());
+            out.writeUTF(view.getTarget() != null ? view.getTarget().name() : NO_TARGET);
+        }
+        out.writeInt(accessors.size());
+        for (Accessor a : accessors) {
+            out.writeInt(viewIndexes.get(a.getBufferView()));
+            out.writeInt(a.getByteOffset());
+            out.writeUTF(a.getComponentType().name());
+            out.writeUTF(a.getType().name());
+            out.writeBoolean(a.isNormalized());
+            out.writeInt(a.getCount());
+            writeFloats(out, a.getMax());
+            writeFloats(out, a.getMin());
+        }
+        out.writeInt(meshes != null ? meshes.length : 0);
+        if (meshes != null) {
+            for (Mesh mesh : meshes) {
+                Primitive[] primitives = mesh.getPrimitives();
+                out.writeInt(primitives != null ? primitives.length : 0);
+                if (primitives != null) {
+                    for (Primitive p : primitives) {
+                        out.writeInt(p.getIndices() != null ? accessorIndexes.get(p.getIndices()) : -1);
+                        ArrayList<Attributes> attributes = p.getAttributesArray();
+                        ArrayList<Accessor> attributeAccessors = p.getAccessorArray();
+                        int attributeCount = attributes != null ? attributes.size() : 0;
+                        out.writeInt(attributeCount);
+                        for (int i = 0; i < attributeCount; i++) {
+                            out.writeUTF(attributes.get(i).name());
+                            out.writeInt(accessorIndexes.get(attributeAccessors.get(i)));
+                        }
+                    }
+                }
+            }
+        }
+        int dataOffset = align(geometryLength);
+        out.writeInt(imageIndexes.size());
+        for (int index : imageIndexes) {
+            BufferImage image = images[index].getBufferImage();
+            out.writeInt(index);
+            out.writeInt(image.getWidth());
+            out.writeInt(image.getHeight());
+            out.writeUTF(image.getFormat().name());
+            out.writeInt(dataOffset);
+            dataOffset = align(dataOffset + image.getSizeInBytes());
+        }
+        out.close();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create cache directory " + directory);
+        }
+        File file = getFile(key);
+        File temp = new File(directory, key + ".tmp");
+        FileOutputStream fos = new FileOutputStream(temp);
+        long written = 0;
+        try {
+            FileChannel channel = fos.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(description.size()).flip();
+            written += write(channel, header);
+            written += write(channel, ByteBuffer.wrap(description.toByteArray()));
+            written += pad(channel, getDataOffset(description.size()) - (int) written);
+            int position = 0;
+            for (Buffer b : buffers) {
+                position += pad(channel, bufferOffsets.get(b) - position);
+                ByteBuffer data = b.buffer.duplicate();
+                data.clear();
+                data.limit(b.getByteLength());
+                position += write(channel, data);
+            }
+            for (int index : imageIndexes) {
+                position += pad(channel, align(position) - position);
+                ByteBuffer pixels = ((ByteBuffer) images[index].getBufferImage().getBuffer()).duplicate();
+                pixels.clear();
+                pixels.limit(images[index].getBufferImage().getSizeInBytes());
+                position += write(channel, pixels);
+            }
+            written += position;
+        } finally {
+            fos.close();
+        }
+        if (file.exists() && !file.delete()) {
+            temp.delete();
+            throw new IOException("Could not replace cache file " + file);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not rename cache file " + temp);
+        }
+        SimpleLogger.d(getClass(), "Stored " + written + " bytes, " + accessors.size() + " accessors and "
+                + imageIndexes.size() + " images for " + gltf.getFilename() + " in " + file);
+        return written;
+    }
+
+    /**
+     * Restores the processed primitives of a glTF, the gltf must be loaded and resolved but buffers do not need to
+     * be loaded. The accessors and indices of primitives are replaced by accessors for the memory mapped cache file.
+     * Nothing is changed if there is no valid cache file for the key, or if external buffers or images have changed.
+     *
+     * @param gltf The resolved glTF
+     * @param key The key returned by {@link #getKey(GLTF, String)}
+     * @return The images stored in the cache, indexed as {@link GLTF#getImages()}, an image that is not stored is
+     * null. Returns null if there is no valid cache file.
+     * @throws IOException If the cache file cannot be read or is not valid
+     */
+    public BufferImage[] restore(GLTF gltf, String key) throws IOException {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        ByteBuffer mapped = map(file);
+        if (mapped.capacity() < HEADER_SIZE || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            SimpleLogger.d(getClass(), "Invalid or old cache file " + file);
+            return null;
+        }
+        int descriptionLength = mapped.getInt(8);
+        int dataOffset = getDataOffset(descriptionLength);
+        if (descriptionLength < 0 || dataOffset > mapped.capacity()) {
+            throw new IOException("Invalid cache file " + file);
+        }
+        ByteBuffer slice = slice(mapped, HEADER_SIZE, descriptionLength);
+        DataInputStream in = new DataInputStream(new ByteBufferInputStream(slice));
+        if (!key.equals(in.readUTF()) || !checkDependencies(gltf, in)) {
+            SimpleLogger.d(getClass(), "Cache file is not valid for " + gltf.getFilename());
+            return null;
+        }
+        ByteBuffer data = slice(mapped, dataOffset, mapped.capacity() - dataOffset);
+        int geometryLength = in.readInt();
+        checkRange(data, 0, geometryLength);
+        int[] viewData = new int[in.readInt() * 2];
+        Target[] targets = new Target[viewData.length / 2];
+        for (int i = 0; i < targets.length; i++) {
+            viewData[i * 2] = in.readInt();
+            viewData[i * 2 + 1] = in.readInt();
+            String target = in.readUTF();
+            targets[i] = NO_TARGET.equals(target) ? null : Target.valueOf(target);
+            checkRange(data, viewData[i * 2], 0);
+        }
+        int accessorCount = in.readInt();
+        int[] accessorData = new int[accessorCount * 3];
+        ComponentType[] componentTypes = new ComponentType[accessorCount];
+        Type[] types = new Type[accessorCount];
+        boolean[] normalized = new boolean[accessorCount];
+        float[][] maxMin = new float[accessorCount * 2][];
+        for (int i = 0; i < accessorCount; i++) {
+            accessorData[i * 3] = checkIndex(in.readInt(), targets.length);
+            accessorData[i * 3 + 1] = in.readInt();
+            componentTypes[i] = ComponentType.valueOf(in.readUTF());
+            types[i] = Type.valueOf(in.readUTF());
+            normalized[i] = in.readBoolean();
+            accessorData[i * 3 + 2] = in.readInt();
+            maxMin[i * 2] = readFloats(in);
+            maxMin[i * 2 + 1] = readFloats(in);
+        }
+        Mesh[] meshes = gltf.getMeshes();
+        int meshCount = in.readInt();
+        if (meshCount != (meshes != null ? meshes.length : 0)) {
+            throw new IOException("Cache file does not match meshes of " + gltf.getFilename());
+        }
+        int[][] primitiveData = new int[meshCount][];
+        Attributes[][][] primitiveAttributes = new Attributes[meshCount][][];
+        for (int m = 0; m < meshCount; m++) {
+            int primitiveCount = in.readInt();
+            Primitive[] primitives = meshes[m].getPrimitives();
+            if (primitiveCount != (primitives != null ? primitives.length : 0)) {
+                throw new IOException("Cache file does not match primitives of " + gltf.getFilename());
+            }
+            ArrayList<Integer> indexes = new ArrayList<>();
+            primitiveAttributes[m] = new Attributes[primitiveCount][];
+            for (int p = 0; p < primitiveCount; p++) {
+                int indices = in.readInt();
+                indexes.add(indices < 0 ? -1 : checkIndex(indices, accessorCount));
+                primitiveAttributes[m][p] = new Attributes[in.readInt()];
+                for (int i = 0; i < primitiveAttributes[m][p].length; i++) {
+                    primitiveAttributes[m][p][i] = Attributes.valueOf(in.readUTF());
+                    indexes.add(checkIndex(in.readInt(), accessorCount));
+                }
+            }
+            primitiveData[m] = new int[indexes.size()];
+            for (int i = 0; i < primitiveData[m].length; i++) {
+                primitiveData[m][i] = indexes.get(i);
+            }
+        }
+        Image[] images = gltf.getImages();
+        BufferImage[] bufferImages = new BufferImage[images != null ? images.length : 0];
+        int imageCount = in.readInt();
+        for (int i = 0; i < imageCount; i++) {
+            int index = checkIndex(in.readInt(), bufferImages.length);
+            int width = in.readInt();
+            int height = in.readInt();
+            ImageFormat format = ImageFormat.valueOf(in.readUTF());
+            int offset = in.readInt();
+            checkRange(data, offset, width * height * format.size);
+            bufferImages[index] = new BufferImage(width, height, format,
+                    slice(data, offset, width * height * format.size));
+        }
+
+        // All data is read and checked, create the buffer, views and accessors and set in primitives
+        Buffer buffer = new Buffer(BUFFER_NAME, slice(data, 0, geometryLength));
+        gltf.addBuffer(buffer);
+        BufferView[] views = new BufferView[targets.length];
+        for (int i = 0; i < views.length; i++) {
+            views[i] = gltf.createBufferView(buffer, null, viewData[i * 2], viewData[i * 2 + 1], targets[i]);
+        }
+        Accessor[] accessors = new Accessor[accessorCount];
+        for (int i = 0; i < accessorCount; i++) {
+            accessors[i] = new Accessor(views[accessorData[i * 3]], accessorData[i * 3 + 1], componentTypes[i],
+                    accessorData[i * 3 + 2], types[i], normalized[i]);
+            accessors[i].setMaxMin(maxMin[i * 2], maxMin[i * 2 + 1]);
+        }
+        for (int m = 0; m < meshCount; m++) {
+            Primitive[] primitives = meshes[m].getPrimitives();
+            int read = 0;
+            for (int p = 0; p < primitiveAttributes[m].length; p++) {
+                int indices = primitiveData[m][read++];
+                ArrayList<Attributes> attributes = new ArrayList<>();
+                ArrayList<Accessor> attributeAccessors = new ArrayList<>();
+                for (Attributes attribute : primitiveAttributes[m][p]) {
+                    attributes.add(attribute);
+                    attributeAccessors.add(accessors[primitiveData[m][read++]]);
+                }
+                primitives[p].setGeometry(attributes, attributeAccessors, indices >= 0 ? accessors[indices] : null);
+            }
+        }
+        SimpleLogger.d(getClass(), "Restored " + accessorCount + " accessors and " + imageCount + " images for "
+                + gltf.getFilename() + " from " + file);
+        return bufferImages;
+    }
+
+    private void addAccessor(Accessor accessor, ArrayList<Accessor> accessors,
+            IdentityHashMap<Accessor, Integer> accessorIndexes, ArrayList<BufferView> views,
+            IdentityHashMap<BufferView, Integer> viewIndexes) {
+        if (!accessorIndexes.containsKey(accessor)) {
+            accessorIndexes.put(accessor, accessors.size());
+            accessors.add(accessor);
+            BufferView view = accessor.getBufferView();
+            if (!viewIndexes.containsKey(view)) {
+                viewIndexes.put(view, views.size());
+                views.add(view);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the external buffers and images of the glTF, data uris and buffers without uri are not
+     * included.
+     */
+    private ArrayList<String> getDependencies(GLTF gltf) {
+        ArrayList<String> dependencies = new ArrayList<>();
+        for (Buffer b : gltf.getBuffers(null)) {
+            if (b.getUri() != null && !b.getUri().startsWith(DATA_URI)) {
+                dependencies.add(gltf.getPath(b.getUri()));
+            }
+        }
+        if (gltf.getImages() != null) {
+            for (Image image : gltf.getImages()) {
+                if (image.getUri() != null && !image.getUri().startsWith(DATA_URI)) {
+                    dependencies.add(gltf.getPath(image.getUri()));
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    private void writeDependencies(GLTF gltf, DataOutputStream out) throws IOException {
+        ArrayList<String> dependencies = getDependencies(gltf);
+        out.writeInt(dependencies.size());
+        for (String name : dependencies) {
+            long[] stamp = getStamp(name);
+            out.writeUTF(name);
+            out.writeLong(stamp[0]);
+            out.writeLong(stamp[1]);
+        }
+    }
+
+    private boolean checkDependencies(GLTF gltf, DataInputStream in) throws IOException {
+        ArrayList<String> dependencies = getDependencies(gltf);
+        if (in.readInt() != dependencies.size()) {
+            return false;
+        }
+        for (String name : dependencies) {
+            if (!name.equals(in.readUTF())) {
+                return false;
+            }
+            long[] stamp = getStamp(name);
+            if (stamp[0] != in.readLong() || stamp[1] != in.readLong()) {
+                SimpleLogger.d(getClass(), "Changed " + name);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the length and last modified time of the file for the resource, or the length and CRC32 of the content
+     * if the resource is not a file. Returns -1 as length if the resource cannot be found.
+     */
+    private long[] getStamp(String name) throws IOException {
+        try {
+            File file = StreamUtils.getFile(name);
+            if (file != null) {
+                return new long[] { file.length(), file.lastModified() };
+            }
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        InputStream is = getClass().getClassLoader().getResourceAsStream(name);
+        if (is == null) {
+            return new long[] { -1, 0 };
+        }
+        try {
+            CRC32 crc = new CRC32();
+            byte[] chunk = new byte[8192];
+            long length = 0;
+            int read;
+            while ((read = is.read(chunk)) > 0) {
+                crc.update(chunk, 0, read);
+                length += read;
+            }
+            return new long[] { length, crc.getValue() };
+        } finally {
+            is.close();
+        }
+    }
+
+    private void writeFloats(DataOutputStream out, float[] values) throws IOException {
+        out.writeInt(values != null ? values.length : -1);
+        if (values != null) {
+            for (float value : values) {
+                out.writeFloat(value);
+            }
+        }
+    }
+
+    private float[] readFloats(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readFloat();
+        }
+        return values;
+    }
+
+    private ByteBuffer map(File file) throws IOException {
+        // Private mapping needs a read/write channel, the file itself is never written.
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            return channel.map(MapMode.PRIVATE, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+    }
+
+    private ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer data = buffer.duplicate();
+        data.clear();
+        data.limit(offset + length);
+        data.position(offset);
+        return data.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private void checkRange(ByteBuffer data, int offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > data.capacity()) {
+            throw new IOException("Invalid range in cache file: " + offset + ", " + length);
+        }
+    }
+
+    private int checkIndex(int index, int count) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IOException("Invalid index in cache file: " + index);
+        }
+        return index;
+    }
+
+    private int write(FileChannel channel, ByteBuffer data) throws IOException {
+        int written = 0;
+        while (data.hasRemaining()) {
+            written += channel.write(data);
+        }
+        return written;
+    }
+
+    private int pad(FileChannel channel, int length) throws IOException {
+        return length > 0 ? write(channel, ByteBuffer.allocate(length)) : 0;
+    }
+
+    private static int getDataOffset(int descriptionLength) {
+        return align(HEADER_SIZE + descriptionLength);
+    }
+
+    private static int align(int offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 
 /**
  * Base class for GLTF named value that is serialized from JSON
@@ -8,7 +11,7 @@ import com.google.gson.annotations.SerializedName;
  * extensions object Dictionary object with extension-specific objects. No
  * extras any Application-specific data. No
  */
-public class GLTFNamedValue {
+public class GLTFNamedValue implements GLTFReader.JsonReadable {
 
     private static final String NAME = "name";
 
@@ -24,4 +27,13 @@ public class GLTFNamedValue {
         return name;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        if (NAME.equals(property)) {
+            name = GLTFReader.readString(reader);
+        } else {
+            reader.skipValue();
+        }
+    }
+
 }
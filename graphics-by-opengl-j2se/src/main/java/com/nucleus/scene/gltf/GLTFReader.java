@@ -0,0 +1,465 @@
+package com.nucleus.scene.gltf;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+
+/**
+ * Streaming reader of glTF JSON documents, the glTF model is created directly from the tokens of the document
+ * without reflection.
+ * Each glTF class reads its own properties by implementing {@link JsonReadable}, properties that are not known are
+ * skipped. The result is the same as when the document is deserialized using gson, default values of fields are
+ * kept if a property is not present and a JSON null sets objects to null while primitive values are not changed.
+ * References between the glTF objects are resolved when the whole document has been read, since glTF objects may
+ * reference objects that come later in the document.
+ *
+ */
+public class GLTFReader {
+
+    /**
+     * Implemented by the glTF classes that are read from the JSON document
+     */
+    public interface JsonReadable {
+        /**
+         * Reads the value of one property of the object, the name of the property has been read from the reader.
+         * If the property is not known the value shall be skipped.
+         *
+         * @param property The name of the property
+         * @param reader The reader positioned at the value of the property
+         * @throws IOException If the value cannot be read
+         */
+        public void readProperty(String property, JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Creates the objects that are read from the document
+     *
+     * @param <T>
+     */
+    abstract static class Factory<T extends JsonReadable> {
+        abstract T create();
+
+        abstract T[] createArray(int size);
+    }
+
+    static final Factory<Accessor> ACCESSOR = new Factory<Accessor>() {
+        @Override
+        Accessor create() {
+            return new Accessor();
+        }
+
+        @Override
+        Accessor[] createArray(int size) {
+            return new Accessor[size];
+        }
+    };
+
+    static final Factory<Asset> ASSET = new Factory<Asset>() {
+        @Override
+        Asset create() {
+            return new Asset();
+        }
+
+        @Override
+        Asset[] createArray(int size) {
+            return new Asset[size];
+        }
+    };
+
+    static final Factory<Buffer> BUFFER = new Factory<Buffer>() {
+        @Override
+        Buffer create() {
+            return new Buffer();
+        }
+
+        @Override
+        Buffer[] createArray(int size) {
+            return new Buffer[size];
+        }
+    };
+
+    static final Factory<BufferView> BUFFER_VIEW = new Factory<BufferView>() {
+        @Override
+        BufferView create() {
+            return new BufferView();
+        }
+
+        @Override
+        BufferView[] createArray(int size) {
+            return new BufferView[size];
+        }
+    };
+
+    static final Factory<Camera> CAMERA = new Factory<Camera>() {
+        @Override
+        Camera create() {
+            return new Camera();
+        }
+
+        @Override
+        Camera[] createArray(int size) {
+            return new Camera[size];
+        }
+    };
+
+    static final Factory<GLTF> GLTF = new Factory<GLTF>() {
+        @Override
+        GLTF create() {
+            return new GLTF();
+        }
+
+        @Override
+        GLTF[] createArray(int size) {
+            return new GLTF[size];
+        }
+    };
+
+    static final Factory<Image> IMAGE = new Factory<Image>() {
+        @Override
+        Image create() {
+            return new Image();
+        }
+
+        @Override
+        Image[] createArray(int size) {
+            return new Image[size];
+        }
+    };
+
+    static final Factory<Material> MATERIAL = new Factory<Material>() {
+        @Override
+        Material create() {
+            return new Material();
+        }
+
+        @Override
+        Material[] createArray(int size) {
+            return new Material[size];
+        }
+    };
+
+    static final Factory<Mesh> MESH = new Factory<Mesh>() {
+        @Override
+        Mesh create() {
+            return new Mesh();
+        }
+
+        @Override
+        Mesh[] createArray(int size) {
+            return new Mesh[size];
+        }
+    };
+
+    static final Factory<Node> NODE = new Factory<Node>() {
+        @Override
+        Node create() {
+            return new Node();
+        }
+
+        @Override
+        Node[] createArray(int size) {
+            return new Node[size];
+        }
+    };
+
+    static final Factory<Primitive> PRIMITIVE = new Factory<Primitive>() {
+        @Override
+        Primitive create() {
+            return new Primitive();
+        }
+
+        @Override
+        Primitive[] createArray(int size) {
+            return new Primitive[size];
+        }
+    };
+
+    static final Factory<Sampler> SAMPLER = new Factory<Sampler>() {
+        @Override
+        Sampler create() {
+            return new Sampler();
+        }
+
+        @Override
+        Sampler[] createArray(int size) {
+            return new Sampler[size];
+        }
+    };
+
+    static final Factory<Scene> SCENE = new Factory<Scene>() {
+        @Override
+        Scene create() {
+            return new Scene();
+        }
+
+        @Override
+        Scene[] createArray(int size) {
+            return new Scene[size];
+        }
+    };
+
+    static final Factory<Texture> TEXTURE = new Factory<Texture>() {
+        @Override
+        Texture create() {
+            return new Texture();
+        }
+
+        @Override
+        Texture[] createArray(int size) {
+            return new Texture[size];
+        }
+    };
+
+    /**
+     * Reads the glTF from the JSON document and resolves the references between the glTF objects.
+     * The path and filename of the glTF is not set.
+     *
+     * @param reader Reader of the JSON document, the reader is not closed.
+     * @return The glTF, or null if the document is empty or the JSON null value.
+     * @throws IOException If the document could not be read or is not a valid glTF
+     * @throws GLTFException If the references between glTF objects could not be resolved
+     */
+    public GLTF read(Reader reader) throws IOException, GLTFException {
+        JsonReader json = new JsonReader(reader);
+        json.setLenient(true);
+        try {
+            json.peek();
+        } catch (EOFException e) {
+            // Empty document
+            return null;
+        }
+        GLTF gltf = null;
+        try {
+            gltf = readObject(json, GLTF);
+            if (json.peek() != JsonToken.END_DOCUMENT) {
+                throw new MalformedJsonException("JSON document was not fully consumed.");
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Invalid glTF: " + e.getMessage(), e);
+        }
+        if (gltf != null) {
+            gltf.resolve();
+        }
+        return gltf;
+    }
+
+    /**
+     * Returns true and consumes the value if the next value is the JSON null
+     */
+    static boolean nextNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads an object, or null
+     */
+    static <T extends JsonReadable> T readObject(JsonReader reader, Factory<T> factory) throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        return readProperties(reader, factory.create());
+    }
+
+    /**
+     * Reads the properties of an object into the value
+     *
+     * @return The value
+     */
+    static <T extends JsonReadable> T readProperties(JsonReader reader, T value) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            value.readProperty(reader.nextName(), reader);
+        }
+        reader.endObject();
+        return value;
+    }
+
+    /**
+     * Reads an array of objects into a list, or null
+     */
+    static <T extends JsonReadable> ArrayList<T> readList(JsonReader reader, Factory<T> factory)
+            throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        ArrayList<T> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            list.add(readObject(reader, factory));
+        }
+        reader.endArray();
+        return list;
+    }
+
+    /**
+     * Reads an array of objects, or null
+     */
+    static <T extends JsonReadable> T[] readArray(JsonReader reader, Factory<T> factory) throws IOException {
+        ArrayList<T> list = readList(reader, factory);
+        return list != null ? list.toArray(factory.createArray(list.size())) : null;
+    }
+
+    /**
+     * Reads a string, or null
+     */
+    static String readString(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return Boolean.toString(reader.nextBoolean());
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /**
+     * Reads a boolean value, if the value is null then the current value is returned.
+     */
+    static boolean readBoolean(JsonReader reader, boolean value) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return value;
+            case STRING:
+                return Boolean.parseBoolean(reader.nextString());
+            default:
+                return reader.nextBoolean();
+        }
+    }
+
+    /**
+     * Reads an int value, if the value is null then the current value is returned.
+     */
+    static int readInt(JsonReader reader, int value) throws IOException {
+        return nextNull(reader) ? value : reader.nextInt();
+    }
+
+    /**
+     * Reads a float value, if the value is null then the current value is returned.
+     */
+    static float readFloat(JsonReader reader, float value) throws IOException {
+        return nextNull(reader) ? value : (float) reader.nextDouble();
+    }
+
+    /**
+     * Reads an array of float values, or null
+     */
+    static float[] readFloatArray(JsonReader reader) throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        float[] values = new float[16];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                float[] grow = new float[count * 2];
+                System.arraycopy(values, 0, grow, 0, count);
+                values = grow;
+            }
+            values[count++] = (float) reader.nextDouble();
+        }
+        reader.endArray();
+        if (count == values.length) {
+            return values;
+        }
+        float[] result = new float[count];
+        System.arraycopy(values, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Reads an array of int values, or null
+     */
+    static int[] readIntArray(JsonReader reader) throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        int[] values = new int[16];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count == values.length) {
+                int[] grow = new int[count * 2];
+                System.arraycopy(values, 0, grow, 0, count);
+                values = grow;
+            }
+            values[count++] = reader.nextInt();
+        }
+        reader.endArray();
+        if (count == values.length) {
+            return values;
+        }
+        int[] result = new int[count];
+        System.arraycopy(values, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Reads an array of strings, or null
+     */
+    static ArrayList<String> readStringList(JsonReader reader) throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        ArrayList<String> list = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            list.add(readString(reader));
+        }
+        reader.endArray();
+        return list;
+    }
+
+    /**
+     * Reads the name of an enum constant, null is returned if the value is null or not a name of the enum.
+     */
+    static <E extends Enum<E>> E readEnum(JsonReader reader, Class<E> type) throws IOException {
+        String name = readString(reader);
+        return name != null ? getEnum(type, name) : null;
+    }
+
+    /**
+     * Reads an object with attribute names and integer indexes, or null.
+     * Attribute names that are not known are stored using the null key.
+     */
+    static HashMap<Primitive.Attributes, Integer> readAttributes(JsonReader reader) throws IOException {
+        if (nextNull(reader)) {
+            return null;
+        }
+        HashMap<Primitive.Attributes, Integer> attributes = new HashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            Primitive.Attributes key = getEnum(Primitive.Attributes.class, reader.nextName());
+            Integer value = nextNull(reader) ? null : reader.nextInt();
+            if (attributes.containsKey(key)) {
+                throw new MalformedJsonException("Duplicate attribute key: " + key);
+            }
+            attributes.put(key, value);
+        }
+        reader.endObject();
+        return attributes;
+    }
+
+    private static <E extends Enum<E>> E getEnum(Class<E> type, String name) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
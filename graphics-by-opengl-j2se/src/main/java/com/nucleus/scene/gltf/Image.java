@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.texturing.BufferImage;
 
 /**
@@ -65,4 +68,21 @@ public class Image extends GLTFNamedValue {
         return bufferView;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case URI:
+                uri = GLTFReader.readString(reader);
+                break;
+            case MIME_TYPE:
+                mimeType = GLTFReader.readString(reader);
+                break;
+            case BUFFER_VIEW:
+                bufferView = GLTFReader.readInt(reader, bufferView);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
 }
@@ -1,9 +1,11 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.common.Environment;
 import com.nucleus.common.Environment.Property;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
@@ -335,6 +337,38 @@ public class Material extends GLTFNamedValue implements RuntimeResolver {
         return doubleSided;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case PBR_METALLIC_ROUGHNESS:
+                pbrMetallicRoughness = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new PBRMetallicRoughness());
+                break;
+            case NORMAL_TEXTURE:
+                normalTexture = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Texture.NormalTextureInfo());
+                break;
+            case OCCLUSION_TEXTURE:
+                occlusionTexture = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Texture.OcclusionTextureInfo());
+                break;
+            case EMISSIVE_FACTOR:
+                emissiveFactor = GLTFReader.readFloatArray(reader);
+                break;
+            case ALPHA_MODE:
+                alphaMode = GLTFReader.readEnum(reader, AlphaMode.class);
+                break;
+            case ALPHA_CUTOFF:
+                alphaCutoff = GLTFReader.readFloat(reader, alphaCutoff);
+                break;
+            case DOUBLE_SIDED:
+                doubleSided = GLTFReader.readBoolean(reader, doubleSided);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) throws GLTFException {
 
@@ -53,6 +53,74 @@ public class MaxMin {
         this.maxmin[5] = Float.min(Float.min(vec[2], vec[5]), this.maxmin[5]);
     }
 
+    /**
+     * Sets this maxmin to the axis aligned bounds of the source box transformed by the matrix.
+     * The transformed box is enclosed, the center is transformed and the extents are projected onto each axis
+     * using the absolute values of the matrix.
+     * 
+     * @param source The bounds to transform, if empty this maxmin is cleared
+     * @param matrix Column major transform matrix
+     */
+    public void transform(MaxMin source, float[] matrix) {
+        if (source.isEmpty()) {
+            clear();
+            return;
+        }
+        float[] mm = source.maxmin;
+        float cx = (mm[0] + mm[3]) * 0.5f;
+        float cy = (mm[1] + mm[4]) * 0.5f;
+        float cz = (mm[2] + mm[5]) * 0.5f;
+        float ex = (mm[0] - mm[3]) * 0.5f;
+        float ey = (mm[1] - mm[4]) * 0.5f;
+        float ez = (mm[2] - mm[5]) * 0.5f;
+        for (int i = 0; i < COMPONENTS; i++) {
+            float center = matrix[i] * cx + matrix[4 + i] * cy + matrix[8 + i] * cz + matrix[12 + i];
+            float extent = Math.abs(matrix[i]) * ex + Math.abs(matrix[4 + i]) * ey + Math.abs(matrix[8 + i]) * ez;
+            maxmin[i] = center + extent;
+            maxmin[COMPONENTS + i] = center - extent;
+        }
+    }
+
+    /**
+     * Expands this maxmin to include the bounds in other, no transform is made.
+     * 
+     * @param other
+     */
+    public void expand(MaxMin other) {
+        for (int i = 0; i < COMPONENTS; i++) {
+            maxmin[i] = Float.max(maxmin[i], other.maxmin[i]);
+            maxmin[COMPONENTS + i] = Float.min(maxmin[COMPONENTS + i], other.maxmin[COMPONENTS + i]);
+        }
+    }
+
+    /**
+     * Clears the maxmin so that it does not contain any values.
+     */
+    public void clear() {
+        for (int i = 0; i < COMPONENTS; i++) {
+            maxmin[i] = -Float.MAX_VALUE;
+            maxmin[COMPONENTS + i] = Float.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns true if no values have been added to this maxmin, ie max is less than min.
+     * 
+     * @return
+     */
+    public boolean isEmpty() {
+        return maxmin[0] < maxmin[3] || maxmin[1] < maxmin[4] || maxmin[2] < maxmin[5];
+    }
+
+    /**
+     * Returns a reference to the values, max x,y,z then min x,y,z - do not modify.
+     * 
+     * @return
+     */
+    public float[] getValues() {
+        return maxmin;
+    }
+
     /**
      * Returns the max of the 3 components
      * 
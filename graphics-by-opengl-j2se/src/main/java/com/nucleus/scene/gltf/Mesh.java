@@ -1,14 +1,17 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.Backend.DrawMode;
 import com.nucleus.geometry.AttributeBuffer;
 import com.nucleus.geometry.AttributeUpdater;
 import com.nucleus.opengl.GLES20Wrapper;
 import com.nucleus.opengl.GLException;
 import com.nucleus.renderer.NucleusRenderer;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
 import com.nucleus.scene.gltf.Primitive.Attributes;
@@ -42,6 +45,12 @@ public class Mesh extends GLTFNamedValue implements AttributeUpdater, RuntimeRes
     @SerializedName(WEIGHTS)
     private int[] weights;
 
+    /**
+     * The POSITION bounds of all primitives, in mesh space - calculated when {@link #getBounds()} is called.
+     */
+    transient private MaxMin bounds;
+    transient private boolean boundsCalculated = false;
+
     /**
      * Used to debug TBN vectors
      */
@@ -118,6 +127,58 @@ public class Mesh extends GLTFNamedValue implements AttributeUpdater, RuntimeRes
         return debugTBNPrimitives;
     }
 
+    /**
+     * Returns the bounds of the POSITION accessors for the primitives in this mesh, not transformed.
+     * The bounds are calculated the first time this method is called, do not modify the returned value.
+     * 
+     * If POSITION does not have min and max values they are calculated from the data if the buffer is loaded.
+     * 
+     * @return The mesh bounds, or null if a primitive does not have POSITION with min and max values, or data to
+     * calculate them.
+     */
+    public MaxMin getBounds() {
+        if (!boundsCalculated) {
+            bounds = calculateBounds();
+            boundsCalculated = true;
+        }
+        return bounds;
+    }
+
+    private MaxMin calculateBounds() {
+        if (primitives == null) {
+            return null;
+        }
+        MaxMin result = new MaxMin();
+        for (Primitive p : primitives) {
+            Accessor position = p.getAccessor(Attributes.POSITION);
+            if (position == null) {
+                return null;
+            }
+            if (position.getMax() == null || position.getMin() == null
+                    || position.getMax().length < 3 || position.getMin().length < 3) {
+                if (!canCalculateMaxMin(position)) {
+                    return null;
+                }
+                result.expand(position.calculateMaxMin());
+            } else {
+                result.expand(new MaxMin(position.getMax(), position.getMin()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the max min values can be calculated from the data of the accessor
+     * 
+     * @param position
+     * @return
+     */
+    private boolean canCalculateMaxMin(Accessor position) {
+        return position.getComponentType() != ComponentType.UNSIGNED_INT && position.getType().size >= 3
+                && position.getBufferView() != null && position.getBufferView().getBuffer() != null
+                && position.getBufferView().getBuffer().hasBuffer();
+    }
+
     /**
      * Returns the optional weights for morph targets
      * 
@@ -157,6 +218,20 @@ public class Mesh extends GLTFNamedValue implements AttributeUpdater, RuntimeRes
         return null;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case PRIMITIVES:
+                primitives = GLTFReader.readArray(reader, GLTFReader.PRIMITIVE);
+                break;
+            case WEIGHTS:
+                weights = GLTFReader.readIntArray(reader);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) throws GLTFException {
         if (primitives != null) {
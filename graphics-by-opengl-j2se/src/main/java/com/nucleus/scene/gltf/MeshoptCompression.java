@@ -0,0 +1,224 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
+
+/**
+ * The EXT_meshopt_compression extension of a bufferView, the compressed data is stored in another buffer and
+ * is decoded into the buffer of the bufferView using {@link MeshoptDecoder}.
+ *
+ * Properties
+ *
+ * Type Description Required
+ * buffer integer The index of the buffer with compressed data. ✅ Yes
+ * byteOffset integer The offset into the buffer in bytes. No, default: 0
+ * byteLength integer The length of the compressed data in bytes. ✅ Yes
+ * byteStride integer The stride, in bytes. ✅ Yes
+ * count integer The number of elements. ✅ Yes
+ * mode string The compression mode. ✅ Yes
+ * filter string The compression filter. No, default: "NONE"
+ *
+ * This class can be serialized using gson
+ */
+public class MeshoptCompression implements RuntimeResolver, GLTFReader.JsonReadable {
+
+    /**
+     * Name of the extension
+     */
+    public static final String EXT_MESHOPT_COMPRESSION = "EXT_meshopt_compression";
+
+    public enum Mode {
+        /**
+         * Vertex attribute data, byteStride is the size of one vertex
+         */
+        ATTRIBUTES(),
+        /**
+         * Triangle list indices, byteStride is 2 or 4
+         */
+        TRIANGLES(),
+        /**
+         * Index sequence, byteStride is 2 or 4
+         */
+        INDICES();
+    }
+
+    public enum Filter {
+        NONE(),
+        /**
+         * 4 component normals or tangents stored as octahedral coordinates, byteStride is 4 or 8
+         */
+        OCTAHEDRAL(),
+        /**
+         * Unit quaternions stored as 3 components and the index of the largest component, byteStride is 8
+         */
+        QUATERNION(),
+        /**
+         * 32 bit float values stored with a 24 bit mantissa and 8 bit exponent, byteStride is a multiple of 4
+         */
+        EXPONENTIAL();
+    }
+
+    /**
+     * The extension object of a buffer, a fallback buffer has no data of its own - the data is created when the
+     * bufferViews are decoded.
+     */
+    public static class BufferExtension implements GLTFReader.JsonReadable {
+        private static final String FALLBACK = "fallback";
+
+        @SerializedName(FALLBACK)
+        private boolean fallback;
+
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (FALLBACK.equals(property)) {
+                fallback = GLTFReader.readBoolean(reader, fallback);
+            } else {
+                reader.skipValue();
+            }
+        }
+
+        /**
+         * Returns true if the buffer is a fallback buffer that shall not be loaded
+         *
+         * @return
+         */
+        public boolean isFallback() {
+            return fallback;
+        }
+    }
+
+    private static final String BUFFER = "buffer";
+    private static final String BYTE_OFFSET = "byteOffset";
+    private static final String BYTE_LENGTH = "byteLength";
+    private static final String BYTE_STRIDE = "byteStride";
+    private static final String COUNT = "count";
+    private static final String MODE = "mode";
+    private static final String FILTER = "filter";
+
+    @SerializedName(BUFFER)
+    private int bufferIndex = -1;
+    @SerializedName(BYTE_OFFSET)
+    private int byteOffset = 0;
+    @SerializedName(BYTE_LENGTH)
+    private int byteLength = -1;
+    @SerializedName(BYTE_STRIDE)
+    private int byteStride = -1;
+    @SerializedName(COUNT)
+    private int count = -1;
+    @SerializedName(MODE)
+    private Mode mode;
+    @SerializedName(FILTER)
+    private Filter filter = Filter.NONE;
+
+    transient private Buffer buffer;
+
+    /**
+     * Returns the index of the buffer with compressed data
+     *
+     * @return
+     */
+    public int getBufferIndex() {
+        return bufferIndex;
+    }
+
+    /**
+     * Returns the buffer with compressed data
+     *
+     * @return
+     */
+    public Buffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the offset of the compressed data in the buffer
+     *
+     * @return
+     */
+    public int getByteOffset() {
+        return byteOffset;
+    }
+
+    /**
+     * Returns the size of the compressed data
+     *
+     * @return
+     */
+    public int getByteLength() {
+        return byteLength;
+    }
+
+    /**
+     * Returns the size of one decoded element
+     *
+     * @return
+     */
+    public int getByteStride() {
+        return byteStride;
+    }
+
+    /**
+     * Returns the number of decoded elements
+     *
+     * @return
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Filter getFilter() {
+        return filter != null ? filter : Filter.NONE;
+    }
+
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case BUFFER:
+                bufferIndex = GLTFReader.readInt(reader, bufferIndex);
+                break;
+            case BYTE_OFFSET:
+                byteOffset = GLTFReader.readInt(reader, byteOffset);
+                break;
+            case BYTE_LENGTH:
+                byteLength = GLTFReader.readInt(reader, byteLength);
+                break;
+            case BYTE_STRIDE:
+                byteStride = GLTFReader.readInt(reader, byteStride);
+                break;
+            case COUNT:
+                count = GLTFReader.readInt(reader, count);
+                break;
+            case MODE:
+                mode = GLTFReader.readEnum(reader, Mode.class);
+                break;
+            case FILTER:
+                filter = GLTFReader.readEnum(reader, Filter.class);
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    @Override
+    public void resolve(GLTF asset) throws GLTFException {
+        buffer = asset.getBuffer(bufferIndex);
+        if (buffer == null) {
+            throw new GLTFException("Invalid buffer for " + EXT_MESHOPT_COMPRESSION + ": " + bufferIndex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Buffer: " + bufferIndex + ", byteOffset: " + byteOffset + ", byteLength: " + byteLength
+                + ", byteStride: " + byteStride + ", count: " + count + ", mode: " + mode + ", filter: " + filter;
+    }
+
+}
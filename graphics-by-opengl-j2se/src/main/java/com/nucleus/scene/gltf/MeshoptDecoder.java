@@ -0,0 +1,538 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+
+import com.nucleus.scene.gltf.MeshoptCompression.Filter;
+
+/**
+ * Decoder for bufferViews compressed using EXT_meshopt_compression, this is the vertex, index and index sequence
+ * codecs and the filters of meshoptimizer (version 0 of the vertex codec and version 1 of the index codecs).
+ * Data is decoded to little endian.
+ * Decoding of one bufferView is not threadsafe in itself, but separate bufferViews may be decoded by separate
+ * threads.
+ *
+ */
+public class MeshoptDecoder {
+
+    private static final int VERTEX_HEADER = 0xa0;
+    private static final int INDEX_HEADER = 0xe0;
+    private static final int SEQUENCE_HEADER = 0xd0;
+    private static final int HEADER_MASK = 0xf0;
+    private static final int VERTEX_VERSION = 0;
+    private static final int INDEX_VERSION = 1;
+
+    private static final int VERTEX_BLOCK_SIZE_BYTES = 8192;
+    private static final int VERTEX_BLOCK_MAX_SIZE = 256;
+    private static final int BYTE_GROUP_SIZE = 16;
+    private static final int BYTE_GROUP_DECODE_LIMIT = 24;
+    private static final int TAIL_MIN_SIZE = 32;
+    private static final int MAX_VERTEX_SIZE = 256;
+
+    private static final int FIFO_SIZE = 16;
+    private static final int FIFO_MASK = FIFO_SIZE - 1;
+    private static final int CODEAUX_TABLE_SIZE = 16;
+    private static final int SEQUENCE_TAIL_SIZE = 4;
+
+    /**
+     * Decodes the bufferView into the storage of the bufferView buffer, the buffer with compressed data must be
+     * loaded and storage for the buffer of the view must be created.
+     *
+     * @param view BufferView with EXT_meshopt_compression extension
+     * @throws IllegalArgumentException If the view is not compressed, a buffer is not loaded or data is not valid
+     */
+    public static void decode(BufferView view) {
+        MeshoptCompression compression = view.getMeshoptCompression();
+        if (compression == null) {
+            throw new IllegalArgumentException("BufferView is not compressed: " + view);
+        }
+        Buffer source = compression.getBuffer();
+        if (source == null || source.buffer == null) {
+            throw new IllegalArgumentException("Buffer not loaded for compressed data: " + compression);
+        }
+        int count = compression.getCount();
+        int stride = compression.getByteStride();
+        if (count < 0 || stride <= 0 || count * stride > view.getByteLength()) {
+            throw new IllegalArgumentException("Invalid count or byteStride for bufferView: " + compression);
+        }
+        byte[] data = new byte[compression.getByteLength()];
+        ByteBuffer sourceBuffer = source.buffer.duplicate();
+        sourceBuffer.clear();
+        sourceBuffer.position(compression.getByteOffset());
+        sourceBuffer.get(data);
+        byte[] result = new byte[count * stride];
+        switch (compression.getMode()) {
+            case ATTRIBUTES:
+                decodeVertexBuffer(result, count, stride, data, 0, data.length);
+                break;
+            case TRIANGLES:
+                decodeIndexBuffer(result, count, stride, data, 0, data.length);
+                break;
+            case INDICES:
+                decodeIndexSequence(result, count, stride, data, 0, data.length);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid mode: " + compression.getMode());
+        }
+        if (compression.getFilter() != Filter.NONE) {
+            decodeFilter(compression.getFilter(), result, count, stride);
+        }
+        view.getSlice().put(result);
+    }
+
+    /**
+     * Decodes vertex data compressed using the vertex codec
+     *
+     * @param dest Destination for count * vertexSize decoded bytes
+     * @param count Number of vertices
+     * @param vertexSize Size of one vertex, must be a multiple of 4 and at most 256
+     * @param source The compressed data
+     * @param offset Offset of the compressed data in source
+     * @param length Length of the compressed data
+     * @throws IllegalArgumentException If data is not valid
+     */
+    public static void decodeVertexBuffer(byte[] dest, int count, int vertexSize, byte[] source, int offset,
+            int length) {
+        if (vertexSize <= 0 || vertexSize > MAX_VERTEX_SIZE || (vertexSize & 3) != 0) {
+            throw new IllegalArgumentException("Invalid vertex size: " + vertexSize);
+        }
+        checkHeader(source, offset, length, VERTEX_HEADER, VERTEX_VERSION);
+        int end = offset + length;
+        int tailSize = Math.max(vertexSize, TAIL_MIN_SIZE);
+        int pos = offset + 1;
+        if (end - pos < tailSize) {
+            throw new IllegalArgumentException("Vertex data too short: " + length);
+        }
+        // The tail holds the initial value of the vertex that deltas are calculated from
+        byte[] lastVertex = new byte[vertexSize];
+        System.arraycopy(source, end - tailSize, lastVertex, 0, vertexSize);
+        int blockSize = getVertexBlockSize(vertexSize);
+        byte[] buffer = new byte[VERTEX_BLOCK_MAX_SIZE];
+        for (int vertexOffset = 0; vertexOffset < count; vertexOffset += blockSize) {
+            int blockCount = Math.min(blockSize, count - vertexOffset);
+            int aligned = (blockCount + BYTE_GROUP_SIZE - 1) & -BYTE_GROUP_SIZE;
+            for (int k = 0; k < vertexSize; k++) {
+                pos = decodeBytes(source, pos, end, buffer, aligned);
+                // Bytes are zigzag encoded deltas from the same byte of the previous vertex
+                int p = lastVertex[k];
+                int d = vertexOffset * vertexSize + k;
+                for (int i = 0; i < blockCount; i++) {
+                    int v = buffer[i] & 0xff;
+                    p += (v >>> 1) ^ -(v & 1);
+                    dest[d] = (byte) p;
+                    d += vertexSize;
+                }
+                lastVertex[k] = (byte) p;
+            }
+        }
+        if (end - pos != tailSize) {
+            throw new IllegalArgumentException("Invalid vertex data, " + (end - pos - tailSize) + " bytes remaining");
+        }
+    }
+
+    private static int getVertexBlockSize(int vertexSize) {
+        int result = (VERTEX_BLOCK_SIZE_BYTES / vertexSize) & -BYTE_GROUP_SIZE;
+        return Math.min(result, VERTEX_BLOCK_MAX_SIZE);
+    }
+
+    /**
+     * Decodes size bytes, stored as groups of 16 bytes using 0, 2, 4 or 8 bits for each byte.
+     *
+     * @return The position after the decoded data
+     */
+    private static int decodeBytes(byte[] source, int pos, int end, byte[] buffer, int size) {
+        int headerSize = (size / BYTE_GROUP_SIZE + 3) / 4;
+        if (end - pos < headerSize) {
+            throw new IllegalArgumentException("Vertex data too short for header");
+        }
+        int header = pos;
+        pos += headerSize;
+        for (int i = 0; i < size; i += BYTE_GROUP_SIZE) {
+            if (end - pos < BYTE_GROUP_DECODE_LIMIT) {
+                throw new IllegalArgumentException("Vertex data too short for byte group");
+            }
+            int group = i / BYTE_GROUP_SIZE;
+            int bitsLog2 = (source[header + (group >> 2)] >> ((group & 3) << 1)) & 3;
+            pos = decodeBytesGroup(source, pos, buffer, i, bitsLog2);
+        }
+        return pos;
+    }
+
+    private static int decodeBytesGroup(byte[] source, int pos, byte[] buffer, int index, int bitsLog2) {
+        switch (bitsLog2) {
+            case 0:
+                for (int i = 0; i < BYTE_GROUP_SIZE; i++) {
+                    buffer[index + i] = 0;
+                }
+                return pos;
+            case 1:
+            case 2:
+                int bits = 1 << bitsLog2;
+                int escape = (1 << bits) - 1;
+                int perByte = 8 / bits;
+                // Values that do not fit in bits are stored after the packed values
+                int data = pos + BYTE_GROUP_SIZE / perByte;
+                for (int b = pos; b < pos + BYTE_GROUP_SIZE / perByte; b++) {
+                    int packed = source[b] & 0xff;
+                    for (int i = 0; i < perByte; i++) {
+                        int enc = (packed >>> (8 - bits * (i + 1))) & escape;
+                        buffer[index++] = enc == escape ? source[data++] : (byte) enc;
+                    }
+                }
+                return data;
+            case 3:
+                System.arraycopy(source, pos, buffer, index, BYTE_GROUP_SIZE);
+                return pos + BYTE_GROUP_SIZE;
+            default:
+                throw new IllegalArgumentException("Invalid bits: " + bitsLog2);
+        }
+    }
+
+    /**
+     * Decodes triangle list indices compressed using the index codec
+     *
+     * @param dest Destination for count * indexSize decoded bytes
+     * @param count Number of indices, must be a multiple of 3
+     * @param indexSize Size of one index, 2 or 4
+     * @param source The compressed data
+     * @param offset Offset of the compressed data in source
+     * @param length Length of the compressed data
+     * @throws IllegalArgumentException If data is not valid
+     */
+    public static void decodeIndexBuffer(byte[] dest, int count, int indexSize, byte[] source, int offset,
+            int length) {
+        if (count % 3 != 0 || (indexSize != 2 && indexSize != 4)) {
+            throw new IllegalArgumentException("Invalid count " + count + " or index size " + indexSize);
+        }
+        if (length < 1 + count / 3 + CODEAUX_TABLE_SIZE) {
+            throw new IllegalArgumentException("Index data too short: " + length);
+        }
+        int version = checkHeader(source, offset, length, INDEX_HEADER, INDEX_VERSION);
+        int[] edgeFifo = new int[FIFO_SIZE * 2];
+        int[] vertexFifo = new int[FIFO_SIZE];
+        for (int i = 0; i < FIFO_SIZE; i++) {
+            vertexFifo[i] = -1;
+            edgeFifo[i * 2] = -1;
+            edgeFifo[i * 2 + 1] = -1;
+        }
+        int edgeFifoOffset = 0;
+        int vertexFifoOffset = 0;
+        int next = 0;
+        int last = 0;
+        int fecMax = version >= 1 ? 13 : 15;
+        int code = offset + 1;
+        int[] data = new int[] { code + count / 3 };
+        int dataSafeEnd = offset + length - CODEAUX_TABLE_SIZE;
+        int codeauxTable = dataSafeEnd;
+        for (int i = 0; i < count; i += 3) {
+            if (data[0] > dataSafeEnd) {
+                throw new IllegalArgumentException("Index data too short");
+            }
+            int codetri = source[code++] & 0xff;
+            int a;
+            int b;
+            int c;
+            if (codetri < 0xf0) {
+                // Two vertices from the edge fifo
+                int fe = codetri >> 4;
+                int edge = ((edgeFifoOffset - 1 - fe) & FIFO_MASK) * 2;
+                a = edgeFifo[edge];
+                b = edgeFifo[edge + 1];
+                int fec = codetri & 15;
+                if (fec < fecMax) {
+                    boolean fec0 = fec == 0;
+                    c = fec0 ? next++ : vertexFifo[(vertexFifoOffset - 1 - fec) & FIFO_MASK];
+                    vertexFifo[vertexFifoOffset] = c;
+                    vertexFifoOffset = (vertexFifoOffset + (fec0 ? 1 : 0)) & FIFO_MASK;
+                } else {
+                    // 13 and 14 are -1 and +1 from the last free index, 15 is a free index
+                    c = last = fec != 15 ? last + (fec - (fec ^ 3)) : decodeIndex(source, data, last);
+                    vertexFifo[vertexFifoOffset] = c;
+                    vertexFifoOffset = (vertexFifoOffset + 1) & FIFO_MASK;
+                }
+            } else {
+                int feb;
+                int fec;
+                if (codetri < 0xfe) {
+                    // First vertex is new, codeaux from table
+                    int codeaux = source[codeauxTable + (codetri & 15)] & 0xff;
+                    feb = codeaux >> 4;
+                    fec = codeaux & 15;
+                    a = next++;
+                    b = feb == 0 ? next++ : vertexFifo[(vertexFifoOffset - feb) & FIFO_MASK];
+                    c = fec == 0 ? next++ : vertexFifo[(vertexFifoOffset - fec) & FIFO_MASK];
+                } else {
+                    // All three vertices are new, from the vertex fifo or free indices
+                    int codeaux = source[data[0]++] & 0xff;
+                    if (codeaux == 0) {
+                        next = 0;
+                    }
+                    int fea = codetri == 0xfe ? 0 : 15;
+                    feb = codeaux >> 4;
+                    fec = codeaux & 15;
+                    a = fea == 0 ? next++ : 0;
+                    b = feb == 0 ? next++ : vertexFifo[(vertexFifoOffset - feb) & FIFO_MASK];
+                    c = fec == 0 ? next++ : vertexFifo[(vertexFifoOffset - fec) & FIFO_MASK];
+                    if (fea == 15) {
+                        a = last = decodeIndex(source, data, last);
+                    }
+                    if (feb == 15) {
+                        b = last = decodeIndex(source, data, last);
+                    }
+                    if (fec == 15) {
+                        c = last = decodeIndex(source, data, last);
+                    }
+                }
+                vertexFifo[vertexFifoOffset] = a;
+                vertexFifoOffset = (vertexFifoOffset + 1) & FIFO_MASK;
+                vertexFifo[vertexFifoOffset] = b;
+                vertexFifoOffset = (vertexFifoOffset + (feb == 0 || feb == 15 ? 1 : 0)) & FIFO_MASK;
+                vertexFifo[vertexFifoOffset] = c;
+                vertexFifoOffset = (vertexFifoOffset + (fec == 0 || fec == 15 ? 1 : 0)) & FIFO_MASK;
+                edgeFifo[edgeFifoOffset * 2] = b;
+                edgeFifo[edgeFifoOffset * 2 + 1] = a;
+                edgeFifoOffset = (edgeFifoOffset + 1) & FIFO_MASK;
+            }
+            edgeFifo[edgeFifoOffset * 2] = c;
+            edgeFifo[edgeFifoOffset * 2 + 1] = b;
+            edgeFifoOffset = (edgeFifoOffset + 1) & FIFO_MASK;
+            edgeFifo[edgeFifoOffset * 2] = a;
+            edgeFifo[edgeFifoOffset * 2 + 1] = c;
+            edgeFifoOffset = (edgeFifoOffset + 1) & FIFO_MASK;
+            writeIndex(dest, i, indexSize, a);
+            writeIndex(dest, i + 1, indexSize, b);
+            writeIndex(dest, i + 2, indexSize, c);
+        }
+        if (data[0] != dataSafeEnd) {
+            throw new IllegalArgumentException("Invalid index data, " + (dataSafeEnd - data[0]) + " bytes remaining");
+        }
+    }
+
+    /**
+     * Decodes a sequence of indices compressed using the index sequence codec
+     *
+     * @param dest Destination for count * indexSize decoded bytes
+     * @param count Number of indices
+     * @param indexSize Size of one index, 2 or 4
+     * @param source The compressed data
+     * @param offset Offset of the compressed data in source
+     * @param length Length of the compressed data
+     * @throws IllegalArgumentException If data is not valid
+     */
+    public static void decodeIndexSequence(byte[] dest, int count, int indexSize, byte[] source, int offset,
+            int length) {
+        if (indexSize != 2 && indexSize != 4) {
+            throw new IllegalArgumentException("Invalid index size " + indexSize);
+        }
+        if (length < 1 + count + SEQUENCE_TAIL_SIZE) {
+            throw new IllegalArgumentException("Index sequence data too short: " + length);
+        }
+        checkHeader(source, offset, length, SEQUENCE_HEADER, INDEX_VERSION);
+        int[] data = new int[] { offset + 1 };
+        int dataSafeEnd = offset + length - SEQUENCE_TAIL_SIZE;
+        // Two baselines, the lowest bit of each value selects the baseline
+        int[] last = new int[2];
+        for (int i = 0; i < count; i++) {
+            if (data[0] >= dataSafeEnd) {
+                throw new IllegalArgumentException("Index sequence data too short");
+            }
+            int v = decodeVByte(source, data);
+            int current = v & 1;
+            v >>>= 1;
+            int index = last[current] + ((v >>> 1) ^ -(v & 1));
+            last[current] = index;
+            writeIndex(dest, i, indexSize, index);
+        }
+        if (data[0] != dataSafeEnd) {
+            throw new IllegalArgumentException(
+                    "Invalid index sequence data, " + (dataSafeEnd - data[0]) + " bytes remaining");
+        }
+    }
+
+    /**
+     * Checks the header and returns the version
+     */
+    private static int checkHeader(byte[] source, int offset, int length, int header, int maxVersion) {
+        if (length < 1 || (source[offset] & HEADER_MASK) != header) {
+            throw new IllegalArgumentException("Invalid header, expected " + Integer.toHexString(header));
+        }
+        int version = source[offset] & 0x0f;
+        if (version > maxVersion) {
+            throw new IllegalArgumentException("Unsupported version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Reads a variable length value, 7 bits in each byte with the highest bit set if more bytes follow.
+     *
+     * @param source
+     * @param pos Position in source, updated to the position after the value
+     * @return
+     */
+    private static int decodeVByte(byte[] source, int[] pos) {
+        int lead = source[pos[0]++] & 0xff;
+        if (lead < 128) {
+            return lead;
+        }
+        int result = lead & 127;
+        int shift = 7;
+        for (int i = 0; i < 4; i++) {
+            int group = source[pos[0]++] & 0xff;
+            result |= (group & 127) << shift;
+            shift += 7;
+            if (group < 128) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static int decodeIndex(byte[] source, int[] pos, int last) {
+        int v = decodeVByte(source, pos);
+        return last + ((v >>> 1) ^ -(v & 1));
+    }
+
+    private static void writeIndex(byte[] dest, int index, int indexSize, int value) {
+        int pos = index * indexSize;
+        dest[pos] = (byte) value;
+        dest[pos + 1] = (byte) (value >>> 8);
+        if (indexSize == 4) {
+            dest[pos + 2] = (byte) (value >>> 16);
+            dest[pos + 3] = (byte) (value >>> 24);
+        }
+    }
+
+    /**
+     * Applies the filter to decoded data, data is changed in place
+     *
+     * @param filter
+     * @param data Little endian decoded data
+     * @param count Number of elements
+     * @param stride Size of one element
+     * @throws IllegalArgumentException If stride is not valid for the filter
+     */
+    public static void decodeFilter(Filter filter, byte[] data, int count, int stride) {
+        switch (filter) {
+            case NONE:
+                break;
+            case OCTAHEDRAL:
+                if (stride == 4) {
+                    decodeFilterOct8(data, count);
+                } else if (stride == 8) {
+                    decodeFilterOct16(data, count);
+                } else {
+                    throw new IllegalArgumentException("Invalid stride for octahedral filter: " + stride);
+                }
+                break;
+            case QUATERNION:
+                if (stride != 8) {
+                    throw new IllegalArgumentException("Invalid stride for quaternion filter: " + stride);
+                }
+                decodeFilterQuat(data, count);
+                break;
+            case EXPONENTIAL:
+                if ((stride & 3) != 0) {
+                    throw new IllegalArgumentException("Invalid stride for exponential filter: " + stride);
+                }
+                decodeFilterExp(data, count * stride / 4);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid filter: " + filter);
+        }
+    }
+
+    private static void decodeFilterOct8(byte[] data, int count) {
+        float[] normal = new float[3];
+        for (int i = 0; i < count; i++) {
+            int pos = i * 4;
+            decodeOct(data[pos], data[pos + 1], data[pos + 2], Byte.MAX_VALUE, normal);
+            data[pos] = (byte) round(normal[0]);
+            data[pos + 1] = (byte) round(normal[1]);
+            data[pos + 2] = (byte) round(normal[2]);
+        }
+    }
+
+    private static void decodeFilterOct16(byte[] data, int count) {
+        float[] normal = new float[3];
+        for (int i = 0; i < count; i++) {
+            int pos = i * 8;
+            decodeOct(getShort(data, pos), getShort(data, pos + 2), getShort(data, pos + 4), Short.MAX_VALUE,
+                    normal);
+            putShort(data, pos, round(normal[0]));
+            putShort(data, pos + 2, round(normal[1]));
+            putShort(data, pos + 4, round(normal[2]));
+        }
+    }
+
+    /**
+     * Reconstructs the normal from octahedral coordinates, z holds the value that is 1.0, the result is scaled
+     * to max.
+     */
+    private static void decodeOct(int xi, int yi, int zi, float max, float[] result) {
+        float x = xi;
+        float y = yi;
+        float z = zi - Math.abs(x) - Math.abs(y);
+        // Fixup octahedral coordinates for z < 0
+        float t = z >= 0f ? 0f : z;
+        x += x >= 0f ? t : -t;
+        y += y >= 0f ? t : -t;
+        float s = max / (float) Math.sqrt(x * x + y * y + z * z);
+        result[0] = x * s;
+        result[1] = y * s;
+        result[2] = z * s;
+    }
+
+    private static void decodeFilterQuat(byte[] data, int count) {
+        final float scale = 1f / (float) Math.sqrt(2f);
+        for (int i = 0; i < count; i++) {
+            int pos = i * 8;
+            int w = getShort(data, pos + 6);
+            // Scale is stored in the high bits of the last component, index of the largest component in the low bits
+            float ss = scale / (w | 3);
+            float x = getShort(data, pos) * ss;
+            float y = getShort(data, pos + 2) * ss;
+            float z = getShort(data, pos + 4) * ss;
+            float ww = 1f - x * x - y * y - z * z;
+            float wf = (float) Math.sqrt(ww >= 0f ? ww : 0f);
+            int qc = w & 3;
+            putShort(data, pos + ((qc + 1) & 3) * 2, round(x * 32767f));
+            putShort(data, pos + ((qc + 2) & 3) * 2, round(y * 32767f));
+            putShort(data, pos + ((qc + 3) & 3) * 2, round(z * 32767f));
+            putShort(data, pos + qc * 2, (int) (wf * 32767f + 0.5f));
+        }
+    }
+
+    private static void decodeFilterExp(byte[] data, int count) {
+        for (int i = 0; i < count; i++) {
+            int pos = i * 4;
+            int v = (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8 | (data[pos + 2] & 0xff) << 16
+                    | data[pos + 3] << 24;
+            // 24 bit signed mantissa and 8 bit signed exponent
+            int m = (v << 8) >> 8;
+            int e = v >> 24;
+            float f = Float.intBitsToFloat((e + 127) << 23) * m;
+            int bits = Float.floatToRawIntBits(f);
+            data[pos] = (byte) bits;
+            data[pos + 1] = (byte) (bits >>> 8);
+            data[pos + 2] = (byte) (bits >>> 16);
+            data[pos + 3] = (byte) (bits >>> 24);
+        }
+    }
+
+    /**
+     * Rounds to nearest, halfway values away from zero
+     */
+    private static int round(float value) {
+        return (int) (value + (value >= 0f ? 0.5f : -0.5f));
+    }
+
+    private static int getShort(byte[] data, int pos) {
+        return (short) ((data[pos] & 0xff) | (data[pos + 1] << 8));
+    }
+
+    private static void putShort(byte[] data, int pos, int value) {
+        data[pos] = (byte) value;
+        data[pos + 1] = (byte) (value >>> 8);
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
 import com.nucleus.scene.gltf.Primitive.Attributes;
@@ -75,11 +78,19 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
     transient protected Node parent;
     /**
      * The node concatenated model matrix at time of render, this is set when the node is rendered and
-     * {@link #concatMatrix(float[])} is called
+     * {@link #updateWorldMatrix(float[])} or {@link #concatMatrix(float[], int)} is called
      * May be used when calculating bounds/collision on the current frame.
      * DO NOT WRITE TO THIS!
      */
     transient float[] modelMatrix = Matrix.setIdentity(Matrix.createMatrix(), 0);
+    /**
+     * True if translation, rotation or scale has changed and the local matrix must be updated
+     */
+    transient private boolean localDirty = true;
+    /**
+     * True if the local matrix or a parent matrix has changed and the world (model) matrix must be updated
+     */
+    transient private boolean worldDirty = true;
     /**
      * The node inverse matrix call {@link #invertMatrix()} to calculate.
      * May be used when calculating bounds/collision on the current frame.
@@ -92,6 +103,18 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
      * Used if the parents hierarchy transform shall be calculated
      */
     transient float[] parentMatrix = Matrix.createMatrix();
+    /**
+     * Bounds of the mesh in this node and all children, in the space of this node (after this nodes transform).
+     * Calculated when {@link #getBounds()} is called, call {@link #invalidateBounds()} if transform of a child
+     * changes.
+     */
+    transient private MaxMin bounds;
+    transient private boolean boundsValid = false;
+    /**
+     * The world space bounds, updated by calling {@link #updateWorldBounds(float[])}
+     */
+    transient private MaxMin worldBounds;
+    transient private boolean worldBoundsDirty = true;
 
     public Node() {
     }
@@ -183,18 +206,92 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
         return cameraRef;
     }
 
+    /**
+     * Returns the rotation quaternion, if the values are changed {@link #invalidateTransform()} must be called.
+     * 
+     * @return
+     */
     public float[] getRotation() {
         return rotation;
     }
 
+    /**
+     * Returns the scale, if the values are changed {@link #invalidateTransform()} must be called.
+     * 
+     * @return
+     */
     public float[] getScale() {
         return scale;
     }
 
+    /**
+     * Returns the translation, if the values are changed {@link #invalidateTransform()} must be called.
+     * 
+     * @return
+     */
     public float[] getTranslation() {
         return translation;
     }
 
+    /**
+     * Sets the rotation quaternion, x, y, z, w, and invalidates the transform.
+     * 
+     * @param rotation
+     */
+    public void setRotation(float[] rotation) {
+        if (this.rotation == null) {
+            this.rotation = new float[4];
+        }
+        System.arraycopy(rotation, 0, this.rotation, 0, 4);
+        invalidateTransform();
+    }
+
+    /**
+     * Sets the scale, x, y, z, and invalidates the transform.
+     * 
+     * @param scale
+     */
+    public void setScale(float[] scale) {
+        if (this.scale == null) {
+            this.scale = new float[3];
+        }
+        System.arraycopy(scale, 0, this.scale, 0, 3);
+        invalidateTransform();
+    }
+
+    /**
+     * Sets the translation, x, y, z, and invalidates the transform.
+     * 
+     * @param translation
+     */
+    public void setTranslation(float[] translation) {
+        if (this.translation == null) {
+            this.translation = new float[3];
+        }
+        System.arraycopy(translation, 0, this.translation, 0, 3);
+        invalidateTransform();
+    }
+
+    /**
+     * Marks the local transform of this node as changed, call this if the rotation, scale, translation or matrix
+     * values are changed.
+     * The local matrix is updated when needed and the change is propagated to children when world matrices are
+     * updated, bounds of this node and parents are invalidated.
+     */
+    public void invalidateTransform() {
+        localDirty = true;
+        worldDirty = true;
+        invalidateBounds();
+    }
+
+    /**
+     * Marks the world matrix as changed, call this if the parent matrix used when calling
+     * {@link #updateWorldMatrix(float[])} is changed.
+     */
+    public void invalidateWorldMatrix() {
+        worldDirty = true;
+    }
+
     /**
      * Returns true if this Node has defined rotation, translation or scale value
      * If true then Matrix is not used.
@@ -212,15 +309,56 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
      * @return This nodes matrix, with updated TRS if used.
      */
     protected float[] updateMatrix() {
-        if (hasRTS()) {
-            Matrix.setIdentity(matrix, 0);
-            Matrix.setQuaternionRotation(rotation, matrix);
-            Matrix.translate(matrix, translation);
-            Matrix.scaleM(matrix, 0, scale);
+        if (localDirty) {
+            if (hasRTS()) {
+                Matrix.setIdentity(matrix, 0);
+                Matrix.setQuaternionRotation(rotation, matrix);
+                Matrix.translate(matrix, translation);
+                Matrix.scaleM(matrix, 0, scale);
+            }
+            localDirty = false;
         }
         return matrix;
     }
 
+    /**
+     * Updates the world (model) matrix of this node if the local transform has changed, or the world matrix has
+     * been invalidated. If the world matrix is updated the world matrix of children are invalidated.
+     * When nothing has changed this method does not do any calculations.
+     * 
+     * @param parentMatrix The world matrix of the parent, must be the same as the previous call unless
+     * {@link #invalidateWorldMatrix()} has been called.
+     * @return True if the world matrix was updated
+     */
+    public boolean updateWorldMatrix(float[] parentMatrix) {
+        if (worldDirty || localDirty) {
+            Matrix.mul4(parentMatrix, updateMatrix(), modelMatrix);
+            worldDirty = false;
+            worldMatrixChanged();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the world (model) matrix as calculated by the latest call to {@link #updateWorldMatrix(float[])}
+     * or {@link #concatMatrix(float[], int)} - do not modify.
+     * 
+     * @return
+     */
+    public float[] getWorldMatrix() {
+        return modelMatrix;
+    }
+
+    private void worldMatrixChanged() {
+        worldBoundsDirty = true;
+        if (childNodes != null) {
+            for (Node child : childNodes) {
+                child.worldDirty = true;
+            }
+        }
+    }
+
     /**
      * Multiply the matrix with this nodes transform/matrix and store in this nodes model matrix.
      * If this node does not have a transform an identity matrix is used.
@@ -231,6 +369,7 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
     public void concatMatrix(float[] matrix, int index) {
         Matrix.mul4(matrix, updateMatrix(), modelMatrix);
         Matrix.copy(modelMatrix, 0, matrix, index);
+        worldMatrixChanged();
     }
 
     /**
@@ -242,6 +381,35 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
         return matrix;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case MESH:
+                mesh = GLTFReader.readInt(reader, mesh);
+                break;
+            case CHILDREN:
+                children = GLTFReader.readIntArray(reader);
+                break;
+            case CAMERA:
+                camera = GLTFReader.readInt(reader, camera);
+                break;
+            case ROTATION:
+                rotation = GLTFReader.readFloatArray(reader);
+                break;
+            case SCALE:
+                scale = GLTFReader.readFloatArray(reader);
+                break;
+            case TRANSLATION:
+                translation = GLTFReader.readFloatArray(reader);
+                break;
+            case MATRIX:
+                matrix = GLTFReader.readFloatArray(reader);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF gltf) throws GLTFException {
         if (matrix != null) {
@@ -347,6 +515,91 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
         return calculateBounds(new MaxMin(), null);
     }
 
+    /**
+     * Returns the bounds of the mesh in this node and all children, in the space of this node.
+     * Child bounds are transformed by the child matrix. The value is cached, if the transform of a child node
+     * is changed then {@link #invalidateBounds()} must be called on the child.
+     * 
+     * @return The bounds for this node and children, or null if bounds of a mesh in the subtree is unknown.
+     * Do not modify the returned value.
+     */
+    public MaxMin getBounds() {
+        if (!boundsValid) {
+            bounds = calculateSubtreeBounds();
+            boundsValid = true;
+        }
+        return bounds;
+    }
+
+    private MaxMin calculateSubtreeBounds() {
+        MaxMin result = new MaxMin();
+        if (nodeMesh != null) {
+            MaxMin meshBounds = nodeMesh.getBounds();
+            if (meshBounds == null) {
+                return null;
+            }
+            result.expand(meshBounds);
+        }
+        if (childNodes != null) {
+            MaxMin childBounds = new MaxMin();
+            for (Node child : childNodes) {
+                MaxMin b = child.getBounds();
+                if (b == null) {
+                    return null;
+                }
+                if (!b.isEmpty()) {
+                    childBounds.transform(b, child.updateMatrix());
+                    result.expand(childBounds);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates the cached bounds of this node and parents, call this when the transform of this node has
+     * changed.
+     */
+    public void invalidateBounds() {
+        boundsValid = false;
+        worldBoundsDirty = true;
+        if (parent != null) {
+            parent.invalidateBounds();
+        }
+    }
+
+    /**
+     * Transforms the bounds of this node and children to world space, the result is kept in this node
+     * 
+     * @param modelMatrix The concatenated model matrix of this node, including this nodes transform.
+     * @return The world space bounds, or null if bounds for this node is unknown.
+     */
+    public MaxMin updateWorldBounds(float[] modelMatrix) {
+        MaxMin local = getBounds();
+        if (local == null) {
+            return null;
+        }
+        if (worldBounds == null) {
+            worldBounds = new MaxMin();
+        }
+        worldBounds.transform(local, modelMatrix);
+        worldBoundsDirty = false;
+        return worldBounds;
+    }
+
+    /**
+     * Returns the world space bounds using the current world matrix, bounds are only transformed if the world
+     * matrix or bounds have changed since the previous call.
+     * 
+     * @return World bounds or null if bounds for this node is unknown.
+     */
+    public MaxMin getWorldBounds() {
+        if (worldBoundsDirty) {
+            return updateWorldBounds(modelMatrix);
+        }
+        return worldBounds;
+    }
+
     @Override
     public String toString() {
         String str = "";
@@ -434,6 +687,7 @@ public class Node extends GLTFNamedValue implements RuntimeResolver {
      * Any RTS values are cleared and scale set to 1,1,1 if present.
      */
     public void clearTransform() {
+        invalidateTransform();
         if (hasRTS()) {
             clearRotation();
             clearTranslation();
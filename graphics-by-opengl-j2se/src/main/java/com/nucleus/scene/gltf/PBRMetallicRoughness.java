@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.vecmath.Lerp;
 
 /**
@@ -24,7 +27,7 @@ import com.nucleus.vecmath.Lerp;
  *
  * This class can be serialized using gson
  */
-public class PBRMetallicRoughness {
+public class PBRMetallicRoughness implements GLTFReader.JsonReadable {
 
     public static final float DIALECTRIC_SPECULAR = 0.04f;
     public static final float[] DIALECTRIC_SPECULAR_COLOR = new float[] { DIALECTRIC_SPECULAR, DIALECTRIC_SPECULAR,
@@ -157,4 +160,29 @@ public class PBRMetallicRoughness {
         PBRMetallicRoughness.oneByGamma = 1.0f / gamma;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case BASE_COLOR_FACTOR:
+                baseColorFactor = GLTFReader.readFloatArray(reader);
+                break;
+            case METALLIC_FACTOR:
+                metallicFactor = GLTFReader.readFloat(reader, metallicFactor);
+                break;
+            case ROUGHNESS_FACTOR:
+                roughnessFactor = GLTFReader.readFloat(reader, roughnessFactor);
+                break;
+            case BASE_COLOR_TEXTURE:
+                baseColorTexture = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Texture.TextureInfo());
+                break;
+            case METALLIC_ROUGHNESS_TEXTURE:
+                metallicRoughnessTexture = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Texture.TextureInfo());
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
 }
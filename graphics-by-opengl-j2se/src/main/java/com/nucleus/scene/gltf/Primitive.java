@@ -1,5 +1,6 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -7,9 +8,12 @@ import java.util.HashSet;
 import java.util.Set;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.Backend.DrawMode;
 import com.nucleus.SimpleLogger;
 import com.nucleus.common.Environment;
+import com.nucleus.common.WorkerPool;
+import com.nucleus.common.WorkerPool.RangeWork;
 import com.nucleus.scene.gltf.Accessor.ComponentType;
 import com.nucleus.scene.gltf.Accessor.Type;
 import com.nucleus.scene.gltf.BufferView.Target;
@@ -41,7 +45,7 @@ import com.nucleus.vecmath.Vec3;
  * extras any Application-specific data. No
  *
  */
-public class Primitive implements RuntimeResolver {
+public class Primitive implements RuntimeResolver, GLTFReader.JsonReadable {
 
     /**
      * Name of the tangent/bitangent buffer
@@ -61,21 +65,55 @@ public class Primitive implements RuntimeResolver {
         }
     }
 
+    /**
+     * Arrays used to calculate normals, tangents and bitangents for the triangles of a primitive.
+     * Calculation is done on the arrays only, the result is added to the primitive by
+     * {@link Primitive#addTBN(GLTF, Triangles)}
+     *
+     */
     public class Triangles {
         final int POSITION = 0;
         final int NORMAL = 1;
         final int UV = 2;
 
+        /**
+         * Number of triangles to calculate in one part when calculation is split
+         */
+        static final int TRIANGLE_THRESHOLD = 8192;
+        /**
+         * Number of vertices to calculate in one part when calculation is split
+         */
+        static final int VERTEX_THRESHOLD = 8192;
+
         float[] verticeArray;
         float[] uvArray;
         float[] normalArray;
         float[] tangentArray;
         int[] indexArray;
+        /**
+         * Vertex n is referenced by the triangle corners in vertexCorners from vertexOffsets[n] to
+         * vertexOffsets[n + 1] (exclusive)
+         */
+        int[] vertexOffsets;
+        /**
+         * Triangle corners (triangle * 3 + corner) referencing each vertex, in ascending order per vertex.
+         */
+        int[] vertexCorners;
+        /**
+         * True if tangents shall be calculated, otherwise bitangents are calculated from normals and tangents
+         */
+        boolean recalculateTangents;
+        /**
+         * True if the normals have been calculated and must be added to the primitive
+         */
+        boolean calculatedNormals;
+        float[][] tangentBitangentArray;
+        float[] bitangentArray;
 
         /**
          * Creates the array buffers needed to calculate normals/tangents/bitanges
          */
-        public void createBuffers(GLTF gltf) {
+        public void createBuffers() {
             if (!isPBRVertices()) {
                 // convertToArrayMode(gltf);
             }
@@ -84,16 +122,47 @@ public class Primitive implements RuntimeResolver {
             indexArray = createIndexArray();
             tangentArray = createFloatArray(Attributes.TANGENT);
             normalArray = createFloatArray(Attributes.NORMAL);
+        }
+
+        /**
+         * Calculates missing normals, then tangents and bitangents or only bitangents if tangents are present.
+         * Only the arrays are used so calculation can be done on any thread, large primitives are split in parts
+         * that are calculated by the {@link WorkerPool}.
+         * The result is the same regardless of how the calculation is split.
+         */
+        public void calculate() {
             if (normalArray == null) {
                 normalArray = createNormals();
-                BufferView normals = gltf.createBufferView(BITANGENT,
-                        (normalArray.length << 2) * ComponentType.FLOAT.size, 0,
-                        Type.VEC3.size * ComponentType.FLOAT.size, Target.ARRAY_BUFFER);
-                Buffer buffer = normals.getBuffer();
-                buffer.put(normalArray, 0);
-                Accessor normalAccessor = new Accessor(normals, 0, ComponentType.FLOAT, normalArray.length, Type.VEC3);
-                accessorList.add(normalAccessor);
-                attributeList.add(Attributes.NORMAL);
+                calculatedNormals = true;
+            }
+            if (recalculateTangents) {
+                tangentBitangentArray = calculateTangentBiTangent();
+            } else {
+                bitangentArray = createBiTangent();
+            }
+        }
+
+        /**
+         * Creates the vertex to triangle corner table, this is used to sum the values for each vertex in triangle
+         * order so that vertices can be calculated in parallel.
+         */
+        private void createVertexCorners() {
+            if (vertexOffsets != null) {
+                return;
+            }
+            int vertexCount = verticeArray.length / 3;
+            vertexOffsets = new int[vertexCount + 1];
+            vertexCorners = new int[indexArray.length];
+            for (int i = 0; i < indexArray.length; i++) {
+                vertexOffsets[indexArray[i] + 1]++;
+            }
+            for (int i = 0; i < vertexCount; i++) {
+                vertexOffsets[i + 1] += vertexOffsets[i];
+            }
+            int[] next = new int[vertexCount];
+            System.arraycopy(vertexOffsets, 0, next, 0, vertexCount);
+            for (int i = 0; i < indexArray.length; i++) {
+                vertexCorners[next[indexArray[i]]++] = i;
             }
         }
 
@@ -191,40 +260,46 @@ public class Primitive implements RuntimeResolver {
         }
 
         private float[] createNormals() {
-            float[] normals = new float[verticeArray.length];
-            // Iterate each triangle
-            float[] normal = new float[3];
-            float[] vec = new float[9];
-            int index = 0;
-            int v1Index = 0;
-            int v2Index = 0;
-            int v3Index = 0;
-            while (index < indexArray.length) {
-                v1Index = indexArray[index++] * 3;
-                v2Index = indexArray[index++] * 3;
-                v3Index = indexArray[index++] * 3;
-                Vec3.toVector(verticeArray, v1Index, verticeArray, v2Index, vec, 0);
-                Vec3.toVector(verticeArray, v2Index, verticeArray, v3Index, vec, 3);
-                Vec3.toVector(verticeArray, v3Index, verticeArray, v1Index, vec, 6);
-                Vec3.normalize(Vec3.cross3(vec, 6, 0, normal, 0), 0);
-                Vec3.add(normal, 0, normals, v1Index, normals, v1Index);
-
-                Vec3.normalize(Vec3.cross3(vec, 0, 3, normal, 0), 0);
-                Vec3.add(normal, 0, normals, v2Index, normals, v2Index);
-
-                Vec3.normalize(Vec3.cross3(vec, 3, 6, normal, 0), 0);
-                Vec3.add(normal, 0, normals, v3Index, normals, v3Index);
-
-            }
-            index = 0;
-            while (index < indexArray.length) {
-                v1Index = indexArray[index++] * 3;
-                v2Index = indexArray[index++] * 3;
-                v3Index = indexArray[index++] * 3;
-                Vec3.normalize(normals, v1Index);
-                Vec3.normalize(normals, v2Index);
-                Vec3.normalize(normals, v3Index);
-            }
+            createVertexCorners();
+            final float[] normals = new float[verticeArray.length];
+            // Normal for each triangle corner
+            final float[] cornerNormals = new float[indexArray.length * 3];
+            WorkerPool pool = WorkerPool.getInstance();
+            pool.invokeRange(indexArray.length / 3, TRIANGLE_THRESHOLD, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    float[] vec = new float[9];
+                    for (int triangle = start; triangle < end; triangle++) {
+                        int index = triangle * 3;
+                        int v1Index = indexArray[index] * 3;
+                        int v2Index = indexArray[index + 1] * 3;
+                        int v3Index = indexArray[index + 2] * 3;
+                        int cornerIndex = index * 3;
+                        Vec3.toVector(verticeArray, v1Index, verticeArray, v2Index, vec, 0);
+                        Vec3.toVector(verticeArray, v2Index, verticeArray, v3Index, vec, 3);
+                        Vec3.toVector(verticeArray, v3Index, verticeArray, v1Index, vec, 6);
+                        Vec3.normalize(Vec3.cross3(vec, 6, 0, cornerNormals, cornerIndex), cornerIndex);
+                        Vec3.normalize(Vec3.cross3(vec, 0, 3, cornerNormals, cornerIndex + 3), cornerIndex + 3);
+                        Vec3.normalize(Vec3.cross3(vec, 3, 6, cornerNormals, cornerIndex + 6), cornerIndex + 6);
+                    }
+                }
+            });
+            // Sum corner normals for each vertex, vertices not referenced by any triangle are left as zero
+            pool.invokeRange(vertexOffsets.length - 1, VERTEX_THRESHOLD, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    for (int vertex = start; vertex < end; vertex++) {
+                        int vIndex = vertex * 3;
+                        if (vertexOffsets[vertex] == vertexOffsets[vertex + 1]) {
+                            continue;
+                        }
+                        for (int i = vertexOffsets[vertex]; i < vertexOffsets[vertex + 1]; i++) {
+                            Vec3.add(cornerNormals, vertexCorners[i] * 3, normals, vIndex, normals, vIndex);
+                        }
+                        Vec3.normalize(normals, vIndex);
+                    }
+                }
+            });
             return normals;
         }
 
@@ -233,6 +308,11 @@ public class Primitive implements RuntimeResolver {
             if (accessor != null) {
                 switch (accessor.getComponentType()) {
                     case FLOAT:
+                    case BYTE:
+                    case UNSIGNED_BYTE:
+                    case SHORT:
+                    case UNSIGNED_SHORT:
+                        // Quantized data is converted to float
                         SimpleLogger.d(getClass(),
                                 "Creating float array for attribute " + attribute + ", count="
                                         + accessor.getCount());
@@ -262,20 +342,45 @@ public class Primitive implements RuntimeResolver {
         }
 
         public float[][] calculateTangentBiTangent() {
-            float[][] tangents = new float[2][verticeArray.length];
-            float[][] output = new float[2][(verticeArray.length / 3) * 4];
+            createVertexCorners();
+            final int vertexCount = verticeArray.length / 3;
+            final float[][] output = new float[2][vertexCount * 4];
+            // sdir and tdir for each triangle
+            final float[] triangleDirs = new float[(indexArray.length / 3) * 6];
+            WorkerPool pool = WorkerPool.getInstance();
+            pool.invokeRange(indexArray.length / 3, TRIANGLE_THRESHOLD, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    calculateTriangleDirections(triangleDirs, start, end);
+                }
+            });
+            pool.invokeRange(vertexCount, VERTEX_THRESHOLD, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    calculateVertexTangents(triangleDirs, output, start, end);
+                }
+            });
+            SimpleLogger.d(getClass(), "Created TANGENTS and BITANGENTs for " + vertexCount + " vertices");
+            return output;
+        }
+
+        /**
+         * Calculates the sdir and tdir vectors for the triangles from start to end (exclusive)
+         * 
+         * @param triangleDirs sdir and tdir are stored at triangle * 6
+         * @param start
+         * @param end
+         */
+        private void calculateTriangleDirections(float[] triangleDirs, int start, int end) {
             int verticeSize = 3;
             float[] vec1 = new float[3];
             float[] vec2 = new float[3];
             float[] st1 = new float[] { 1, 1 };
             float[] st2 = new float[] { 1, 1 };
-            float[] sdir = new float[3];
-            float[] tdir = new float[3];
-            float[] cross = new float[3];
-            float[] t = new float[4];
             int uvSize = 2;
 
-            for (int i = 0; i < indexArray.length; i += 3) {
+            for (int triangle = start; triangle < end; triangle++) {
+                int i = triangle * 3;
                 int index0 = indexArray[i];
                 int index1 = indexArray[i + 1];
                 int index2 = indexArray[i + 2];
@@ -291,63 +396,77 @@ public class Primitive implements RuntimeResolver {
                 Vec3.toVector(verticeArray, v0Index, verticeArray, v1Index, vec1, 0);
                 Vec3.toVector(verticeArray, v0Index, verticeArray, v2Index, vec2, 0);
 
+                int sdir = triangle * 6;
+                int tdir = sdir + 3;
                 float reciprocal = 1f;
                 if (uvArray != null) {
                     Vec2.toVector(uvArray, uv0Index, uvArray, uv1Index, st1, 0);
                     Vec2.toVector(uvArray, uv0Index, uvArray, uv2Index, st2, 0);
                     reciprocal = 1.0f / (st1[0] * st2[1] - st1[1] * st2[0]);
-                    sdir[0] = (st2[1] * vec1[0] - st1[1] * vec2[0]) * reciprocal;
-                    sdir[1] = (st2[1] * vec1[1] - st1[1] * vec2[1]) * reciprocal;
-                    sdir[2] = (st2[1] * vec1[2] - st1[1] * vec2[2]) * reciprocal;
+                    triangleDirs[sdir] = (st2[1] * vec1[0] - st1[1] * vec2[0]) * reciprocal;
+                    triangleDirs[sdir + 1] = (st2[1] * vec1[1] - st1[1] * vec2[1]) * reciprocal;
+                    triangleDirs[sdir + 2] = (st2[1] * vec1[2] - st1[1] * vec2[2]) * reciprocal;
 
-                    tdir[0] = (st1[0] * vec2[0] - st2[0] * vec1[0]) * reciprocal;
-                    tdir[1] = (st1[0] * vec2[1] - st2[0] * vec1[1]) * reciprocal;
-                    tdir[2] = (st1[0] * vec2[2] - st2[0] * vec1[2]) * reciprocal;
+                    triangleDirs[tdir] = (st1[0] * vec2[0] - st2[0] * vec1[0]) * reciprocal;
+                    triangleDirs[tdir + 1] = (st1[0] * vec2[1] - st2[0] * vec1[1]) * reciprocal;
+                    triangleDirs[tdir + 2] = (st1[0] * vec2[2] - st2[0] * vec1[2]) * reciprocal;
                 } else {
-                    sdir[0] = (st2[1] * vec1[0] - st1[1] * vec2[0]);
-                    sdir[1] = (st2[1] * vec1[1] - st1[1] * vec2[1]);
-                    sdir[2] = (st2[1] * vec1[2] - st1[1] * vec2[2]);
-
-                    tdir[0] = (st1[0] * vec2[0] - st2[0] * vec1[0]);
-                    tdir[1] = (st1[0] * vec2[1] - st2[0] * vec1[1]);
-                    tdir[2] = (st1[0] * vec2[2] - st2[0] * vec1[2]);
+                    triangleDirs[sdir] = (st2[1] * vec1[0] - st1[1] * vec2[0]);
+                    triangleDirs[sdir + 1] = (st2[1] * vec1[1] - st1[1] * vec2[1]);
+                    triangleDirs[sdir + 2] = (st2[1] * vec1[2] - st1[1] * vec2[2]);
 
+                    triangleDirs[tdir] = (st1[0] * vec2[0] - st2[0] * vec1[0]);
+                    triangleDirs[tdir + 1] = (st1[0] * vec2[1] - st2[0] * vec1[1]);
+                    triangleDirs[tdir + 2] = (st1[0] * vec2[2] - st2[0] * vec1[2]);
                 }
-
-                Vec3.add(tangents[0], v0Index, sdir, 0, tangents[0], v0Index);
-                Vec3.add(tangents[0], v1Index, sdir, 0, tangents[0], v1Index);
-                Vec3.add(tangents[0], v2Index, sdir, 0, tangents[0], v2Index);
-
-                Vec3.add(tangents[1], v0Index, tdir, 0, tangents[1], v0Index);
-                Vec3.add(tangents[1], v1Index, tdir, 0, tangents[1], v1Index);
-                Vec3.add(tangents[1], v2Index, tdir, 0, tangents[1], v2Index);
             }
+        }
 
-            int outputIndex = 0;
-            for (int i = 0; i < tangents[0].length; i += 3) {
+        /**
+         * Sums the triangle sdir and tdir for the vertices from start to end (exclusive), in triangle order, then
+         * calculates tangent and bitangent. Tangents are not accumulated across uv seams, ie vertices are not
+         * welded.
+         * 
+         * @param triangleDirs
+         * @param output Tangent and bitangent in VEC4 format
+         * @param start
+         * @param end
+         */
+        private void calculateVertexTangents(float[] triangleDirs, float[][] output, int start, int end) {
+            float[] tan1 = new float[3];
+            float[] tan2 = new float[3];
+            float[] cross = new float[3];
+            float[] t = new float[4];
+            for (int vertex = start; vertex < end; vertex++) {
+                int i = vertex * 3;
+                int outputIndex = vertex * 4;
+                Vec3.clear(tan1);
+                Vec3.clear(tan2);
+                for (int corner = vertexOffsets[vertex]; corner < vertexOffsets[vertex + 1]; corner++) {
+                    int sdir = (vertexCorners[corner] / 3) * 6;
+                    Vec3.add(tan1, 0, triangleDirs, sdir, tan1, 0);
+                    Vec3.add(tan2, 0, triangleDirs, sdir + 3, tan2, 0);
+                }
                 // const Vector3D& n = normal[a];
                 // const Vector3D& t = tan1[a];
                 // Gram-Schmidt orthogonalize
                 // result[0]
                 // tangent[a] = (t - n * Dot(n, t)).Normalize();
-                Vec3.mul(normalArray, i, Vec3.dot(normalArray, i, tangents[0], i), t, 0);
-                Vec3.subtract(tangents[0], i, t, 0, t, 0);
+                Vec3.mul(normalArray, i, Vec3.dot(normalArray, i, tan1, 0), t, 0);
+                Vec3.subtract(tan1, 0, t, 0, t, 0);
                 Vec3.normalize(t, 0);
                 Vec3.set(t, 0, output[0], outputIndex);
                 // Calculate handedness
                 // tangent[a].w = (Dot(Cross(n, t), tan2[a]) < 0.0F) ? -1.0F : 1.0F;
-                Vec3.cross(normalArray, i, tangents[0], i, t, 0);
-                float tw = Vec3.dot(t, 0, tangents[1], i) < 0f ? -1 : 1;
+                Vec3.cross(normalArray, i, tan1, 0, t, 0);
+                float tw = Vec3.dot(t, 0, tan2, 0) < 0f ? -1 : 1;
                 // Calculate bitangent
                 // bitangent vector B is then given by B = (N x T) * Tw.
-                Vec3.cross(normalArray, i, output[0], i, cross, 0);
+                Vec3.cross(normalArray, i, output[0], outputIndex, cross, 0);
                 Vec3.mul(cross, 0, tw, output[1], outputIndex);
                 output[0][outputIndex + 3] = tw;
                 output[1][outputIndex + 3] = tw;
-                outputIndex += 4;
             }
-            SimpleLogger.d(getClass(), "Created TANGENTS and BITANGENTs for " + tangents[0].length / 3 + " vertices");
-            return output;
         }
 
         /**
@@ -360,20 +479,21 @@ public class Primitive implements RuntimeResolver {
          * @return Bitangents in Vec3 format
          */
         public float[] createBiTangent() {
-            float[] t = new float[3];
             Accessor position = getAccessor(Attributes.POSITION);
             final int count = position.getCount();
-            float[] output = new float[count * 3];
-            int outputIndex = 0;
-            int nIndex = 0;
-            int tIndex = 0;
-            for (int i = 0; i < count; i++) {
-                Vec3.cross(normalArray, nIndex, tangentArray, tIndex, t, 0);
-                Vec3.mul(t, 0, tangentArray[tIndex + 3], output, outputIndex);
-                outputIndex += 3;
-                nIndex += 3;
-                tIndex += 4;
-            }
+            final float[] output = new float[count * 3];
+            WorkerPool.getInstance().invokeRange(count, VERTEX_THRESHOLD, new RangeWork() {
+                @Override
+                public void compute(int start, int end) {
+                    float[] t = new float[3];
+                    for (int i = start; i < end; i++) {
+                        int nIndex = i * 3;
+                        int tIndex = i * 4;
+                        Vec3.cross(normalArray, nIndex, tangentArray, tIndex, t, 0);
+                        Vec3.mul(t, 0, tangentArray[tIndex + 3], output, nIndex);
+                    }
+                }
+            });
             SimpleLogger.d(getClass(), "Created BITANGENTs for " + count + " vertices");
             return output;
 
@@ -388,6 +508,25 @@ public class Primitive implements RuntimeResolver {
     private static final String MATERIAL = "material";
     private static final String MODE = "mode";
     private static final String TARGETS = "targets";
+    private static final String EXTENSIONS = "extensions";
+
+    /**
+     * The supported extensions of a primitive
+     */
+    public static class Extensions implements GLTFReader.JsonReadable {
+        @SerializedName(DracoMeshCompression.KHR_DRACO_MESH_COMPRESSION)
+        private DracoMeshCompression dracoMeshCompression;
+
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (DracoMeshCompression.KHR_DRACO_MESH_COMPRESSION.equals(property)) {
+                dracoMeshCompression = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new DracoMeshCompression());
+            } else {
+                reader.skipValue();
+            }
+        }
+    }
 
     public enum Attributes {
         POSITION(),
@@ -459,6 +598,8 @@ public class Primitive implements RuntimeResolver {
      */
     @SerializedName(MODE)
     private int modeIndex = DEFAULT_MODE;
+    @SerializedName(EXTENSIONS)
+    private Extensions extensions;
 
     transient private ArrayList<Accessor> accessorList;
     transient private ArrayList<Attributes> attributeList;
@@ -563,6 +704,70 @@ public class Primitive implements RuntimeResolver {
         return indices;
     }
 
+    /**
+     * Sets the accessor containing the indices, use when the indices are moved to a new buffer.
+     * The buffer list is updated.
+     * 
+     * @param indices
+     */
+    void setIndices(Accessor indices) {
+        this.indices = indices;
+        updateBufferList();
+    }
+
+    /**
+     * Replaces the accessor for an attribute, use when the attribute data is moved to a new buffer.
+     * The buffer list is updated.
+     * 
+     * @param attribute
+     * @param accessor
+     * @throws IllegalArgumentException If the attribute is not defined in this primitive
+     */
+    void setAccessor(Attributes attribute, Accessor accessor) {
+        int index = attributeList != null ? attributeList.indexOf(attribute) : -1;
+        if (index < 0) {
+            throw new IllegalArgumentException("No accessor for attribute " + attribute);
+        }
+        accessorList.set(index, accessor);
+        updateBufferList();
+    }
+
+    /**
+     * Replaces the attributes, attribute accessors and indices of this primitive, use when processed geometry is
+     * restored, for instance by {@link GLTFCache}.
+     * The buffer list is updated.
+     * 
+     * @param attributes
+     * @param accessors The accessor for each attribute
+     * @param indices The indices accessor, or null for non indexed primitive
+     */
+    void setGeometry(ArrayList<Attributes> attributes, ArrayList<Accessor> accessors, Accessor indices) {
+        attributeList = attributes;
+        accessorList = accessors;
+        this.indices = indices;
+        updateBufferList();
+    }
+
+    /**
+     * Sets the list of buffers referenced by the attribute accessors, call this when the bufferView of an
+     * attribute accessor is changed.
+     */
+    void updateBufferList() {
+        ArrayList<Buffer> buffers = new ArrayList<>();
+        if (accessorList != null) {
+            for (Accessor a : accessorList) {
+                if (a.getBufferView() == null) {
+                    continue;
+                }
+                Buffer b = a.getBufferView().getBuffer();
+                if (!buffers.contains(b)) {
+                    buffers.add(b);
+                }
+            }
+        }
+        bufferList = buffers;
+    }
+
     /**
      * Sets the index of the accessor that contains the indices
      * 
@@ -594,6 +799,40 @@ public class Primitive implements RuntimeResolver {
         return mode;
     }
 
+    /**
+     * Returns the KHR_draco_mesh_compression extension, if not null the indices and attributes must be decoded
+     * using {@link GLTF#decompressPrimitives()} before they are used.
+     * 
+     * @return The draco mesh compression extension or null
+     */
+    public DracoMeshCompression getDracoMeshCompression() {
+        return extensions != null ? extensions.dracoMeshCompression : null;
+    }
+
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case ATTRIBUTES:
+                attributes = GLTFReader.readAttributes(reader);
+                break;
+            case INDICES:
+                indicesIndex = GLTFReader.readInt(reader, indicesIndex);
+                break;
+            case MATERIAL:
+                material = GLTFReader.readInt(reader, material);
+                break;
+            case MODE:
+                modeIndex = GLTFReader.readInt(reader, modeIndex);
+                break;
+            case EXTENSIONS:
+                extensions = GLTFReader.nextNull(reader) ? null
+                        : GLTFReader.readProperties(reader, new Extensions());
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) throws GLTFException {
         mode = getMode(modeIndex);
@@ -602,6 +841,9 @@ public class Primitive implements RuntimeResolver {
             this.materialRef = asset.getMaterials()[material];
         }
         indices = asset.getAccessor(indicesIndex);
+        if (getDracoMeshCompression() != null) {
+            getDracoMeshCompression().resolve(asset);
+        }
     }
 
     private void createAttributeList(GLTF asset) {
@@ -613,7 +855,10 @@ public class Primitive implements RuntimeResolver {
                 attributeList.add(a);
                 Accessor accessor = asset.getAccessor(attributes.get(a));
                 accessorList.add(accessor);
-                bufferSet.add(asset.getBuffer(accessor));
+                if (accessor.getBufferViewIndex() >= 0) {
+                    // Compressed attributes have no bufferView until decoded
+                    bufferSet.add(asset.getBuffer(accessor));
+                }
             }
             bufferList = new ArrayList<>();
             for (Buffer b : bufferSet) {
@@ -627,49 +872,73 @@ public class Primitive implements RuntimeResolver {
      * Must be called after buffers are loaded so that the INDICES, POSITION and NORMAL (optional) buffers are
      * available.
      * The result buffer must be released when this primitive is not used anymore.
+     * This is the same as calling {@link #createTriangles()}, {@link #calculateTBN(Triangles)} and
+     * {@link #addTBN(GLTF, Triangles)}
      * 
      */
     public void calculateTBN(GLTF gltf) {
+        Triangles triangles = createTriangles();
+        calculateTBN(triangles);
+        addTBN(gltf, triangles);
+    }
+
+    /**
+     * Copies the index, position, uv, normal and tangent data needed to calculate the Normal/Tangent/Binormal
+     * buffers.
+     * Accessor data is read without changing the position of shared buffers, this may be called from multiple
+     * threads.
+     * 
+     * @return The triangles to use when calling {@link #calculateTBN(Triangles)}
+     */
+    public Triangles createTriangles() {
         if (indices == null) {
             throw new IllegalArgumentException("Arrayed mode not supported");
         }
+        if (mode != DrawMode.TRIANGLES) {
+            throw new IllegalArgumentException("Not implemented for " + mode);
+        }
         Triangles triangles = new Triangles();
-        triangles.createBuffers(gltf);
+        triangles.createBuffers();
         Accessor tangent = getAccessor(Attributes.TANGENT);
-        if (tangent != null && !Environment.getInstance()
-                .isProperty(com.nucleus.common.Environment.Property.RECALCULATE_TANGENTS, false)) {
-            buildBitangentBuffer(gltf, triangles);
-        } else {
-            buildTBNBuffers(gltf, triangles);
-        }
+        triangles.recalculateTangents = tangent == null || Environment.getInstance()
+                .isProperty(com.nucleus.common.Environment.Property.RECALCULATE_TANGENTS, false);
+        return triangles;
     }
 
     /**
-     * Have normal and tangent buffer - build biTangent buffer
+     * Calculates the Normal/Tangent/Binormal data as needed, this primitive and the glTF is not changed.
+     * May be called from multiple threads with the triangles of different primitives.
+     * 
+     * @param triangles The triangles created by {@link #createTriangles()}
+     */
+    public void calculateTBN(Triangles triangles) {
+        triangles.calculate();
+    }
+
+    /**
+     * Adds the buffers calculated by {@link #calculateTBN(Triangles)} to this primitive, buffers are created in the
+     * glTF so this shall only be called by one thread at a time.
      * 
      * @param gltf
      * @param triangles
      */
-    private void buildBitangentBuffer(GLTF gltf, Triangles triangles) {
-        switch (mode) {
-            case TRIANGLES:
-                buildBiTangentTriangles(gltf, triangles);
-                break;
-            default:
-                throw new IllegalArgumentException("Not implemented for " + mode);
+    public void addTBN(GLTF gltf, Triangles triangles) {
+        if (triangles.calculatedNormals) {
+            float[] normalArray = triangles.normalArray;
+            BufferView normals = gltf.createBufferView(BITANGENT,
+                    (normalArray.length << 2) * ComponentType.FLOAT.size, 0,
+                    Type.VEC3.size * ComponentType.FLOAT.size, Target.ARRAY_BUFFER);
+            Buffer buffer = normals.getBuffer();
+            buffer.put(normalArray, 0);
+            Accessor normalAccessor = new Accessor(normals, 0, ComponentType.FLOAT, normalArray.length, Type.VEC3);
+            accessorList.add(normalAccessor);
+            attributeList.add(Attributes.NORMAL);
         }
-    }
-
-    private void buildTBNBuffers(GLTF gltf, Triangles triangles) {
-
-        switch (mode) {
-            case TRIANGLES:
-                buildTBNTriangles(gltf, triangles);
-                break;
-            default:
-                throw new IllegalArgumentException("Not implemented for " + mode);
+        if (triangles.recalculateTangents) {
+            buildTBNTriangles(gltf, triangles.tangentBitangentArray);
+        } else {
+            buildBiTangentTriangles(gltf, triangles.bitangentArray);
         }
-
     }
 
     /**
@@ -710,10 +979,9 @@ public class Primitive implements RuntimeResolver {
      * Builds the tangent buffer for this primitive using TRIANGLES mode.
      * 
      * @param gltf
-     * @param triangles
+     * @param tangentArray The calculated bitangents
      */
-    private void buildBiTangentTriangles(GLTF gltf, Triangles triangles) {
-        float[] tangentArray = triangles.createBiTangent();
+    private void buildBiTangentTriangles(GLTF gltf, float[] tangentArray) {
         int count = tangentArray.length / 3; // Tangents are in Vec3 format
         BufferView Bitangentbv = gltf.createBufferView(BITANGENT, (count * 3) * ComponentType.FLOAT.size, 0,
                 Type.VEC3.size * ComponentType.FLOAT.size, Target.ARRAY_BUFFER);
@@ -728,10 +996,9 @@ public class Primitive implements RuntimeResolver {
      * Builds the tangent and binormal buffers for this primitive using TRIANGLES mode.
      * 
      * @param gltf
-     * @param triangles
+     * @param TBArray The calculated tangents and bitangents
      */
-    private void buildTBNTriangles(GLTF gltf, Triangles triangles) {
-        float[][] TBArray = triangles.calculateTangentBiTangent();
+    private void buildTBNTriangles(GLTF gltf, float[][] TBArray) {
         int l = TBArray[0].length; // Length of one buffer in number of floats - type is VEC4
         BufferView Tbv = gltf.createBufferView(TANGENT_BITANGENT, l * 4 * 2, 0,
                 Type.VEC4.size * ComponentType.FLOAT.size, Target.ARRAY_BUFFER);
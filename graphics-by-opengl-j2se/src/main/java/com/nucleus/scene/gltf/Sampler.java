@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.opengl.GLESWrapper.GLES20;
 
 /**
@@ -52,4 +55,24 @@ public class Sampler extends GLTFNamedValue {
         return wrapT;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case MAG_FILTER:
+                magFilter = GLTFReader.readInt(reader, magFilter);
+                break;
+            case MIN_FILTER:
+                minFilter = GLTFReader.readInt(reader, minFilter);
+                break;
+            case WRAP_S:
+                wrapS = GLTFReader.readInt(reader, wrapS);
+                break;
+            case WRAP_T:
+                wrapT = GLTFReader.readInt(reader, wrapT);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
 }
@@ -1,8 +1,11 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.SimpleLogger;
 import com.nucleus.renderer.NucleusRenderer.Matrices;
 import com.nucleus.scene.gltf.Camera.Perspective;
@@ -54,6 +57,10 @@ public class Scene extends GLTFNamedValue implements RuntimeResolver {
     transient private Node transform = new Node();
     transient private float[] viewMatrix = Matrix.setIdentity(Matrix.createMatrix(), 0);
     transient private int selectedCamera = 0;
+    /**
+     * The matrix that root nodes were transformed by when world matrices were last updated
+     */
+    transient private float[] rootMatrix;
 
     public Scene() {
 
@@ -92,6 +99,15 @@ public class Scene extends GLTFNamedValue implements RuntimeResolver {
         return null;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        if (NODES.equals(property)) {
+            nodes = GLTFReader.readIntArray(reader);
+        } else {
+            super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) {
         if (nodes != null && nodes.length > 0) {
@@ -160,6 +176,7 @@ public class Scene extends GLTFNamedValue implements RuntimeResolver {
         maxMin.getTranslateToCenter(result);
         Matrix.translate(node.getMatrix(), -result[0] / scale, -result[1] / scale, (-maxMin.maxmin[5] / scale) + 1);
         Matrix.scaleM(node.getMatrix(), 0, scale, scale, scale);
+        node.invalidateTransform();
     }
 
     /**
@@ -190,6 +207,30 @@ public class Scene extends GLTFNamedValue implements RuntimeResolver {
         return transform;
     }
 
+    /**
+     * Sets the matrix that the nodes in this scene are transformed by, if the matrix differs from the previous
+     * call the world matrix of the root nodes are invalidated.
+     * Use this before updating world matrices, if nothing has changed the cached world matrices can be used.
+     * 
+     * @param matrix The concatenated model and scene transform matrix
+     * @return True if the root matrix has changed
+     */
+    public boolean setRootMatrix(float[] matrix) {
+        if (rootMatrix != null && Arrays.equals(rootMatrix, matrix)) {
+            return false;
+        }
+        if (rootMatrix == null) {
+            rootMatrix = Matrix.createMatrix();
+        }
+        System.arraycopy(matrix, 0, rootMatrix, 0, Matrix.MATRIX_ELEMENTS);
+        if (sceneNodes != null) {
+            for (Node node : sceneNodes) {
+                node.invalidateWorldMatrix();
+            }
+        }
+        return true;
+    }
+
     /**
      * Sets the view and projection matrix according to the chosen camera in the scene.
      * 
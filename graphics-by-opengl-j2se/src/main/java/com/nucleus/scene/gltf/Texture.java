@@ -1,6 +1,9 @@
 package com.nucleus.scene.gltf;
 
+import java.io.IOException;
+
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.opengl.GLESWrapper.GLES30;
 import com.nucleus.scene.gltf.GLTF.GLTFException;
 import com.nucleus.scene.gltf.GLTF.RuntimeResolver;
@@ -75,7 +78,7 @@ public class Texture extends GLTFNamedValue implements RuntimeResolver {
      * extras any Application-specific data. No
      *
      */
-    public static class TextureInfo {
+    public static class TextureInfo implements GLTFReader.JsonReadable {
         private static final String INDEX = "index";
         private static final String TEX_COORD = "texCoord";
 
@@ -104,6 +107,20 @@ public class Texture extends GLTFNamedValue implements RuntimeResolver {
             return texCoord;
         }
 
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            switch (property) {
+                case INDEX:
+                    index = GLTFReader.readInt(reader, index);
+                    break;
+                case TEX_COORD:
+                    texCoord = GLTFReader.readInt(reader, texCoord);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
     }
 
     /**
@@ -130,6 +147,15 @@ public class Texture extends GLTFNamedValue implements RuntimeResolver {
         public float getScale() {
             return scale;
         }
+
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (SCALE.equals(property)) {
+                scale = GLTFReader.readFloat(reader, scale);
+            } else {
+                super.readProperty(property, reader);
+            }
+        }
     }
 
     /**
@@ -163,6 +189,15 @@ public class Texture extends GLTFNamedValue implements RuntimeResolver {
             return strength;
         }
 
+        @Override
+        public void readProperty(String property, JsonReader reader) throws IOException {
+            if (STRENGTH.equals(property)) {
+                strength = GLTFReader.readFloat(reader, strength);
+            } else {
+                super.readProperty(property, reader);
+            }
+        }
+
     }
 
     private static final String SAMPLER = "sampler";
@@ -224,6 +259,20 @@ public class Texture extends GLTFNamedValue implements RuntimeResolver {
         return imageRef;
     }
 
+    @Override
+    public void readProperty(String property, JsonReader reader) throws IOException {
+        switch (property) {
+            case SAMPLER:
+                sampler = GLTFReader.readInt(reader, sampler);
+                break;
+            case SOURCE:
+                source = GLTFReader.readInt(reader, source);
+                break;
+            default:
+                super.readProperty(property, reader);
+        }
+    }
+
     @Override
     public void resolve(GLTF asset) throws GLTFException {
         if (source >= 0) {
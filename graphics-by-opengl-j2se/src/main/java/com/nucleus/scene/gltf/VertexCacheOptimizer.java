@@ -0,0 +1,556 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.nucleus.Backend.DrawMode;
+import com.nucleus.SimpleLogger;
+import com.nucleus.common.WorkerPool;
+import com.nucleus.common.WorkerPool.RangeWork;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * Reorders the triangles of indexed primitives for post transform vertex cache locality using the Tipsify
+ * algorithm from 'Fast Triangle Reordering for Vertex Locality and Reduced Overdraw' (Sander, Nehab, Barczak).
+ * Vertices are then reordered in the order they are first used by the triangles to improve vertex fetch locality.
+ * Optionally the clusters found when reordering triangles are sorted so that triangles facing out from the
+ * center of the primitive are drawn first, this reduces overdraw.
+ *
+ * Data is changed in place in the buffers of the glTF, this shall be done after buffers are loaded and before
+ * they are uploaded, or offline before the glTF is saved.
+ * The result is measured as ACMR (average cache miss ratio) - the number of vertex shader invocations per
+ * triangle using a FIFO cache.
+ *
+ */
+public class VertexCacheOptimizer {
+
+    /**
+     * Default size of the vertex cache
+     */
+    public static final int DEFAULT_CACHE_SIZE = 16;
+    /**
+     * Overdraw sorting is used if the ACMR is at most this much higher than the vertex cache optimized ACMR.
+     */
+    public static final float DEFAULT_OVERDRAW_THRESHOLD = 1.05f;
+
+    /**
+     * The result of optimizing the primitives of one mesh
+     */
+    public static class Result {
+        private final String name;
+        private int triangles;
+        private int missesBefore;
+        private int missesAfter;
+        private int optimizedPrimitives;
+        private int reorderedPrimitives;
+
+        private Result(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(int triangles, int missesBefore, int missesAfter, boolean optimized,
+                boolean reordered) {
+            this.triangles += triangles;
+            this.missesBefore += missesBefore;
+            this.missesAfter += missesAfter;
+            optimizedPrimitives += optimized ? 1 : 0;
+            reorderedPrimitives += reordered ? 1 : 0;
+        }
+
+        /**
+         * Returns the name of the mesh
+         *
+         * @return
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of triangles in the optimized primitives of the mesh
+         *
+         * @return
+         */
+        public int getTriangleCount() {
+            return triangles;
+        }
+
+        /**
+         * Returns the ACMR before optimizing
+         *
+         * @return
+         */
+        public float getACMRBefore() {
+            return triangles > 0 ? (float) missesBefore / triangles : 0;
+        }
+
+        /**
+         * Returns the ACMR after optimizing
+         *
+         * @return
+         */
+        public float getACMRAfter() {
+            return triangles > 0 ? (float) missesAfter / triangles : 0;
+        }
+
+        /**
+         * Returns the number of primitives where triangles where reordered
+         *
+         * @return
+         */
+        public int getOptimizedPrimitives() {
+            return optimizedPrimitives;
+        }
+
+        /**
+         * Returns the number of primitives where vertices where reordered
+         *
+         * @return
+         */
+        public int getReorderedPrimitives() {
+            return reorderedPrimitives;
+        }
+
+        @Override
+        public String toString() {
+            return "Mesh " + name + ", triangles: " + triangles + ", ACMR " + getACMRBefore() + " -> "
+                    + getACMRAfter() + ", optimized primitives: " + optimizedPrimitives + ", reordered vertices: "
+                    + reorderedPrimitives;
+        }
+    }
+
+    private final int cacheSize;
+    private final boolean reorderVertices;
+    private final boolean optimizeOverdraw;
+    private float overdrawThreshold = DEFAULT_OVERDRAW_THRESHOLD;
+
+    /**
+     * Creates an optimizer using {@link #DEFAULT_CACHE_SIZE} that reorders vertices but does not optimize overdraw.
+     */
+    public VertexCacheOptimizer() {
+        this(DEFAULT_CACHE_SIZE, true, false);
+    }
+
+    /**
+     * Creates an optimizer
+     *
+     * @param cacheSize Size of the vertex cache
+     * @param reorderVertices True to reorder vertices for fetch locality
+     * @param optimizeOverdraw True to sort triangle clusters to reduce overdraw
+     */
+    public VertexCacheOptimizer(int cacheSize, boolean reorderVertices, boolean optimizeOverdraw) {
+        if (cacheSize < 3) {
+            throw new IllegalArgumentException("Invalid cache size " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        this.reorderVertices = reorderVertices;
+        this.optimizeOverdraw = optimizeOverdraw;
+    }
+
+    /**
+     * Sets how much the ACMR may increase, compared to the vertex cache optimized order, when clusters are sorted
+     * to reduce overdraw.
+     *
+     * @param overdrawThreshold
+     */
+    public void setOverdrawThreshold(float overdrawThreshold) {
+        this.overdrawThreshold = overdrawThreshold;
+    }
+
+    /**
+     * Optimizes the indexed TRIANGLES primitives of the glTF, primitives are optimized in parallel.
+     * Triangles are only reordered if the index accessor is used by one primitive, vertices are only reordered if
+     * the attribute accessors are also used by one primitive.
+     * The result of each mesh is logged.
+     * Indices and vertices are changed in place, read only buffers such as memory mapped files that are used by the
+     * changed accessors are copied first.
+     *
+     * @param gltf
+     * @return The result for each mesh
+     */
+    public List<Result> optimize(GLTF gltf) {
+        ArrayList<Result> results = new ArrayList<>();
+        Mesh[] meshes = gltf.getMeshes();
+        if (meshes == null) {
+            return results;
+        }
+        final IdentityHashMap<Accessor, Integer> usage = getAccessorUsage(meshes);
+        final ArrayList<Primitive> primitives = new ArrayList<>();
+        final ArrayList<Result> primitiveResults = new ArrayList<>();
+        ArrayList<Accessor> changed = new ArrayList<>();
+        for (Mesh mesh : meshes) {
+            Result result = new Result(mesh.getName());
+            results.add(result);
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    if (p.getIndices() != null && usage.get(p.getIndices()) == 1
+                            && p.getMode() == DrawMode.TRIANGLES) {
+                        primitives.add(p);
+                        primitiveResults.add(result);
+                        changed.add(p.getIndices());
+                        if (reorderVertices && isUnique(p, usage)) {
+                            changed.addAll(p.getAccessorArray());
+                        }
+                    }
+                }
+            }
+        }
+        gltf.makeBuffersWritable(changed);
+        WorkerPool.getInstance().invokeRange(primitives.size(), 1, new RangeWork() {
+            @Override
+            public void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    Primitive p = primitives.get(i);
+                    optimize(p, isUnique(p, usage), primitiveResults.get(i));
+                }
+            }
+        });
+        for (Result result : results) {
+            if (result.getTriangleCount() > 0) {
+                SimpleLogger.d(getClass(), result.toString());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Optimizes one indexed TRIANGLES primitive, other modes are ignored.
+     * The index accessor must not be shared with other primitives, if the vertices are reordered the attribute
+     * accessors must not be shared. The buffers must be writable, see {@link GLTF#makeBuffersWritable(List)}
+     *
+     * @param primitive
+     * @param reorder True to reorder vertices if enabled in this optimizer, false to only reorder triangles
+     * @return The result for the primitive, or null if not indexed TRIANGLES
+     */
+    public Result optimize(Primitive primitive, boolean reorder) {
+        Result result = new Result(null);
+        return optimize(primitive, reorder, result) ? result : null;
+    }
+
+    private boolean optimize(Primitive primitive, boolean reorder, Result result) {
+        Accessor indexAccessor = primitive.getIndices();
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        if (indexAccessor == null || position == null || primitive.getMode() != DrawMode.TRIANGLES) {
+            return false;
+        }
+        int vertexCount = position.getCount();
+        int[] indices = new int[indexAccessor.getCount()];
+        indexAccessor.copy(indices, 0);
+        int triangles = indices.length / 3;
+        int before = countCacheMisses(indices, vertexCount, cacheSize);
+        ArrayList<Integer> clusters = new ArrayList<>();
+        int[] optimized = tipsify(indices, vertexCount, clusters);
+        int after = countCacheMisses(optimized, vertexCount, cacheSize);
+        if (optimizeOverdraw && position.getComponentType() == ComponentType.FLOAT) {
+            float[] positions = new float[vertexCount * position.getType().size];
+            position.copy(positions, 0);
+            int[] sorted = sortClusters(optimized, clusters, positions, position.getType().size);
+            int sortedMisses = countCacheMisses(sorted, vertexCount, cacheSize);
+            if (sortedMisses <= after * overdrawThreshold) {
+                optimized = sorted;
+                after = sortedMisses;
+            }
+        }
+        if (after >= before) {
+            result.add(triangles, before, before, false, false);
+            return true;
+        }
+        boolean reordered = false;
+        if (reorder && reorderVertices) {
+            int[] remap = reorderVertices(optimized, vertexCount);
+            for (Accessor accessor : primitive.getAccessorArray()) {
+                accessor.reorder(remap);
+            }
+            reordered = true;
+        }
+        indexAccessor.put(optimized, 0);
+        result.add(triangles, before, after, true, reordered);
+        return true;
+    }
+
+    private IdentityHashMap<Accessor, Integer> getAccessorUsage(Mesh[] meshes) {
+        IdentityHashMap<Accessor, Integer> usage = new IdentityHashMap<>();
+        for (Mesh mesh : meshes) {
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    if (p.getIndices() != null) {
+                        addUsage(usage, p.getIndices());
+                    }
+                    if (p.getAccessorArray() != null) {
+                        for (Accessor a : p.getAccessorArray()) {
+                            addUsage(usage, a);
+                        }
+                    }
+                }
+            }
+        }
+        return usage;
+    }
+
+    private void addUsage(IdentityHashMap<Accessor, Integer> usage, Accessor accessor) {
+        Integer count = usage.get(accessor);
+        usage.put(accessor, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Returns true if all attribute accessors of the primitive are used by this primitive only, and have the same
+     * count as the POSITION accessor.
+     */
+    private boolean isUnique(Primitive primitive, IdentityHashMap<Accessor, Integer> usage) {
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        if (position == null) {
+            return false;
+        }
+        int count = position.getCount();
+        for (Accessor a : primitive.getAccessorArray()) {
+            if (usage.get(a) != 1 || a.getCount() != count) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of vertex cache misses when the triangles are drawn using a FIFO cache.
+     *
+     * @param indices Triangle indices
+     * @param vertexCount Number of vertices
+     * @param cacheSize Number of vertices in the cache
+     * @return Number of cache misses
+     */
+    public static int countCacheMisses(int[] indices, int vertexCount, int cacheSize) {
+        // Vertex is in the cache if it was added less than cacheSize misses ago
+        int[] added = new int[vertexCount];
+        Arrays.fill(added, -cacheSize - 1);
+        int misses = 0;
+        for (int index : indices) {
+            if (misses - added[index] > cacheSize) {
+                added[index] = misses++;
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * Returns the average cache miss ratio, the number of cache misses per triangle, when the triangles are drawn
+     * using a FIFO cache.
+     *
+     * @param indices Triangle indices
+     * @param vertexCount Number of vertices
+     * @param cacheSize Number of vertices in the cache
+     * @return The ACMR, between 0.5 and 3 for a mesh with triangles
+     */
+    public static float calculateACMR(int[] indices, int vertexCount, int cacheSize) {
+        int triangles = indices.length / 3;
+        return triangles > 0 ? (float) countCacheMisses(indices, vertexCount, cacheSize) / triangles : 0;
+    }
+
+    /**
+     * Reorders the triangles for vertex cache locality using Tipsify.
+     *
+     * @param indices Triangle indices, not changed
+     * @param vertexCount Number of vertices
+     * @param clusters Start triangle of each cluster is added, a new cluster is started when the fanning vertex
+     * has no more triangles and a vertex is taken from the dead end stack or the next vertex in order. May be null.
+     * @return The reordered triangle indices
+     */
+    public int[] tipsify(int[] indices, int vertexCount, List<Integer> clusters) {
+        int triangleCount = indices.length / 3;
+        // Triangles using each vertex
+        int[] offsets = new int[vertexCount + 1];
+        for (int index : indices) {
+            offsets[index + 1]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] triangles = new int[indices.length];
+        int[] live = new int[vertexCount];
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            triangles[offsets[v] + live[v]++] = i / 3;
+        }
+        int[] cacheTime = new int[vertexCount];
+        boolean[] emitted = new boolean[triangleCount];
+        int[] deadEnd = new int[indices.length];
+        int deadEndSize = 0;
+        int[] candidates = new int[indices.length];
+        int[] output = new int[triangleCount * 3];
+        int outputIndex = 0;
+        int time = cacheSize + 1;
+        int cursor = 0;
+        int fanning = triangleCount > 0 ? indices[0] : -1;
+        if (clusters != null && triangleCount > 0) {
+            clusters.add(0);
+        }
+        while (fanning >= 0) {
+            int candidateCount = 0;
+            for (int i = offsets[fanning]; i < offsets[fanning + 1]; i++) {
+                int triangle = triangles[i];
+                if (!emitted[triangle]) {
+                    emitted[triangle] = true;
+                    for (int c = triangle * 3; c < triangle * 3 + 3; c++) {
+                        int v = indices[c];
+                        output[outputIndex++] = v;
+                        deadEnd[deadEndSize++] = v;
+                        candidates[candidateCount++] = v;
+                        live[v]--;
+                        if (time - cacheTime[v] > cacheSize) {
+                            cacheTime[v] = time++;
+                        }
+                    }
+                }
+            }
+            // Select the candidate that will still be in the cache for all its remaining triangles
+            int next = -1;
+            int best = -1;
+            for (int i = 0; i < candidateCount; i++) {
+                int v = candidates[i];
+                if (live[v] > 0) {
+                    int priority = 0;
+                    if (time - cacheTime[v] + 2 * live[v] <= cacheSize) {
+                        priority = time - cacheTime[v];
+                    }
+                    if (priority > best) {
+                        best = priority;
+                        next = v;
+                    }
+                }
+            }
+            if (next == -1) {
+                // Dead end, use most recent vertex with live triangles, or next vertex in order
+                while (deadEndSize > 0 && next == -1) {
+                    int v = deadEnd[--deadEndSize];
+                    if (live[v] > 0) {
+                        next = v;
+                    }
+                }
+                while (next == -1 && cursor < vertexCount) {
+                    if (live[cursor] > 0) {
+                        next = cursor;
+                    }
+                    cursor++;
+                }
+                if (next >= 0 && clusters != null && clusters.get(clusters.size() - 1) != outputIndex / 3) {
+                    clusters.add(outputIndex / 3);
+                }
+            }
+            fanning = next;
+        }
+        return output;
+    }
+
+    /**
+     * Sorts the clusters of triangles so that clusters facing out from the center of the primitive are drawn
+     * first, the triangles in each cluster are kept in order.
+     *
+     * @param indices Triangle indices
+     * @param clusters Start triangle of each cluster
+     * @param positions Vertex positions
+     * @param size Number of components for each position, at least 3
+     * @return The sorted triangle indices
+     */
+    public static int[] sortClusters(int[] indices, List<Integer> clusters, float[] positions, int size) {
+        final int clusterCount = clusters.size();
+        int triangleCount = indices.length / 3;
+        float[] center = new float[3];
+        int vertexCount = positions.length / size;
+        for (int i = 0; i < vertexCount; i++) {
+            for (int c = 0; c < 3; c++) {
+                center[c] += positions[i * size + c] / vertexCount;
+            }
+        }
+        final float[] sortKey = new float[clusterCount];
+        float[] normal = new float[3];
+        float[] centroid = new float[3];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            int start = clusters.get(cluster);
+            int end = cluster + 1 < clusterCount ? clusters.get(cluster + 1) : triangleCount;
+            Arrays.fill(normal, 0);
+            Arrays.fill(centroid, 0);
+            float area = 0;
+            for (int triangle = start; triangle < end; triangle++) {
+                int v0 = indices[triangle * 3] * size;
+                int v1 = indices[triangle * 3 + 1] * size;
+                int v2 = indices[triangle * 3 + 2] * size;
+                float e1x = positions[v1] - positions[v0];
+                float e1y = positions[v1 + 1] - positions[v0 + 1];
+                float e1z = positions[v1 + 2] - positions[v0 + 2];
+                float e2x = positions[v2] - positions[v0];
+                float e2y = positions[v2 + 1] - positions[v0 + 1];
+                float e2z = positions[v2 + 2] - positions[v0 + 2];
+                float nx = e1y * e2z - e1z * e2y;
+                float ny = e1z * e2x - e1x * e2z;
+                float nz = e1x * e2y - e1y * e2x;
+                float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                normal[0] += nx;
+                normal[1] += ny;
+                normal[2] += nz;
+                for (int c = 0; c < 3; c++) {
+                    centroid[c] += (positions[v0 + c] + positions[v1 + c] + positions[v2 + c]) * length / 3;
+                }
+                area += length;
+            }
+            float length = (float) Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2]);
+            if (area > 0 && length > 0) {
+                float dot = 0;
+                for (int c = 0; c < 3; c++) {
+                    dot += (centroid[c] / area - center[c]) * normal[c] / length;
+                }
+                sortKey[cluster] = dot;
+            }
+        }
+        Integer[] order = new Integer[clusterCount];
+        for (int i = 0; i < clusterCount; i++) {
+            order[i] = i;
+        }
+        // Stable sort, clusters with the highest key first
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Float.compare(sortKey[o2], sortKey[o1]);
+            }
+        });
+        int[] output = new int[indices.length];
+        int outputIndex = 0;
+        for (int cluster : order) {
+            int start = clusters.get(cluster) * 3;
+            int end = cluster + 1 < clusterCount ? clusters.get(cluster + 1) * 3 : triangleCount * 3;
+            System.arraycopy(indices, start, output, outputIndex, end - start);
+            outputIndex += end - start;
+        }
+        return output;
+    }
+
+    /**
+     * Reorders the vertices in the order they are first used by the triangles, vertices that are not used are
+     * placed last. The indices are updated to use the new order.
+     *
+     * @param indices Triangle indices, updated to the new vertex order
+     * @param vertexCount Number of vertices
+     * @return The new position of each vertex
+     */
+    public static int[] reorderVertices(int[] indices, int vertexCount) {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            if (remap[v] == -1) {
+                remap[v] = next++;
+            }
+            indices[i] = remap[v];
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            if (remap[i] == -1) {
+                remap[i] = next++;
+            }
+        }
+        return remap;
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+
+import com.nucleus.SimpleLogger;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * Interleaves the vertex attributes of glTF primitives so that all attributes of a vertex are stored together.
+ * Primitives with the same vertex layout - same attributes, component types and types - share one buffer, and thus
+ * one VBO, each primitive uses a bufferView where the byteStride is the size of the interleaved vertex.
+ * Attributes are stored in the order of {@link Attributes} and each attribute is aligned to 4 bytes.
+ * The accessors of the primitive are replaced, the data of the original accessors is not changed.
+ * Indices are not changed.
+ * This shall be done after buffers are loaded and all other processing of attributes is done, before buffers
+ * are uploaded.
+ *
+ */
+public class VertexInterleaver {
+
+    private static final String BUFFER_NAME = "Interleaved";
+    /**
+     * Alignment of each attribute in the interleaved vertex
+     */
+    private static final int ALIGNMENT = 4;
+
+    /**
+     * The vertex layout of primitives that are stored in the same buffer
+     */
+    private static class Layout {
+        private final ArrayList<Attributes> attributes;
+        private final int[] offsets;
+        private final int stride;
+        private final ArrayList<Primitive> primitives = new ArrayList<>();
+        private int vertexCount;
+
+        private Layout(ArrayList<Attributes> attributes, Primitive primitive) {
+            this.attributes = attributes;
+            offsets = new int[attributes.size()];
+            int offset = 0;
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = offset;
+                offset += align(getElementSize(primitive.getAccessor(attributes.get(i))));
+            }
+            stride = offset;
+        }
+
+        private void add(Primitive primitive) {
+            primitives.add(primitive);
+            vertexCount += primitive.getAccessor(attributes.get(0)).getCount();
+        }
+    }
+
+    /**
+     * Interleaves the attributes of all primitives in the glTF, primitives that share an attribute accessor with
+     * another primitive, or that are already interleaved, are not changed.
+     *
+     * @param gltf
+     * @return Number of primitives that have been interleaved
+     */
+    public int interleave(GLTF gltf) {
+        Mesh[] meshes = gltf.getMeshes();
+        if (meshes == null) {
+            return 0;
+        }
+        ArrayList<Primitive> primitives = new ArrayList<>();
+        for (Mesh mesh : meshes) {
+            if (mesh.getPrimitives() != null) {
+                Collections.addAll(primitives, mesh.getPrimitives());
+            }
+        }
+        return interleave(gltf, primitives.toArray(new Primitive[primitives.size()]));
+    }
+
+    /**
+     * Interleaves the attributes of the primitives, primitives with the same vertex layout are stored in the same
+     * buffer. Primitives that share an attribute accessor with another of the primitives, or that are already
+     * interleaved, are not changed.
+     *
+     * @param gltf
+     * @param primitives
+     * @return Number of primitives that have been interleaved
+     */
+    public int interleave(GLTF gltf, Primitive... primitives) {
+        IdentityHashMap<Accessor, Integer> usage = new IdentityHashMap<>();
+        for (Primitive p : primitives) {
+            if (p.getAccessorArray() != null) {
+                for (Accessor a : p.getAccessorArray()) {
+                    Integer count = usage.get(a);
+                    usage.put(a, count == null ? 1 : count + 1);
+                }
+            }
+        }
+        LinkedHashMap<String, Layout> layouts = new LinkedHashMap<>();
+        for (Primitive p : primitives) {
+            if (canInterleave(p, usage)) {
+                ArrayList<Attributes> attributes = getSortedAttributes(p);
+                String key = getLayoutKey(p, attributes);
+                Layout layout = layouts.get(key);
+                if (layout == null) {
+                    layout = new Layout(attributes, p);
+                    layouts.put(key, layout);
+                }
+                layout.add(p);
+            }
+        }
+        int count = 0;
+        for (Layout layout : layouts.values()) {
+            interleave(gltf, layout);
+            count += layout.primitives.size();
+        }
+        if (count > 0) {
+            SimpleLogger.d(getClass(), "Interleaved " + count + " primitives using " + layouts.size() + " buffers");
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if the primitive has more than one attribute, all attributes have the same count and the
+     * attributes are not already interleaved or shared with another primitive.
+     */
+    private boolean canInterleave(Primitive primitive, IdentityHashMap<Accessor, Integer> usage) {
+        ArrayList<Accessor> accessors = primitive.getAccessorArray();
+        if (accessors == null || accessors.size() < 2) {
+            return false;
+        }
+        int vertexCount = accessors.get(0).getCount();
+        BufferView view = accessors.get(0).getBufferView();
+        boolean sameView = true;
+        for (Accessor a : accessors) {
+            if (a.getBufferView() == null || a.getCount() != vertexCount
+                    || usage.get(a) > 1) {
+                return false;
+            }
+            sameView &= a.getBufferView() == view;
+        }
+        return !sameView || view.getByteStride() <= 0;
+    }
+
+    private ArrayList<Attributes> getSortedAttributes(Primitive primitive) {
+        ArrayList<Attributes> attributes = new ArrayList<>(primitive.getAttributesArray());
+        Collections.sort(attributes, new Comparator<Attributes>() {
+            @Override
+            public int compare(Attributes a1, Attributes a2) {
+                return a1.ordinal() - a2.ordinal();
+            }
+        });
+        return attributes;
+    }
+
+    private String getLayoutKey(Primitive primitive, ArrayList<Attributes> attributes) {
+        StringBuilder key = new StringBuilder();
+        for (Attributes attribute : attributes) {
+            Accessor a = primitive.getAccessor(attribute);
+            key.append(attribute).append(':').append(a.getComponentType()).append(':').append(a.getType())
+                    .append(a.isNormalized() ? ":N" : "").append(' ');
+        }
+        return key.toString();
+    }
+
+    private void interleave(GLTF gltf, Layout layout) {
+        Buffer buffer = gltf.getBuffer(gltf.createBuffer(BUFFER_NAME, layout.vertexCount * layout.stride));
+        int byteOffset = 0;
+        for (Primitive primitive : layout.primitives) {
+            BufferView view = gltf.createBufferView(buffer, null, byteOffset, layout.stride, Target.ARRAY_BUFFER);
+            int vertexCount = 0;
+            for (int i = 0; i < layout.attributes.size(); i++) {
+                Attributes attribute = layout.attributes.get(i);
+                Accessor source = primitive.getAccessor(attribute);
+                vertexCount = source.getCount();
+                Accessor interleaved = new Accessor(view, layout.offsets[i], vertexCount, source);
+                copy(source, interleaved);
+                primitive.setAccessor(attribute, interleaved);
+            }
+            byteOffset += vertexCount * layout.stride;
+        }
+    }
+
+    /**
+     * Copies the elements of source to dest, the accessors may have different stride
+     */
+    private void copy(Accessor source, Accessor dest) {
+        ByteBuffer sourceBuffer = source.getReadOnlyBuffer().duplicate();
+        ByteBuffer destBuffer = dest.getBuffer().duplicate();
+        int elementSize = getElementSize(source);
+        int sourceStride = source.getByteStride();
+        int destStride = dest.getByteStride();
+        for (int i = 0; i < source.getCount(); i++) {
+            sourceBuffer.limit(i * sourceStride + elementSize);
+            sourceBuffer.position(i * sourceStride);
+            destBuffer.position(i * destStride);
+            destBuffer.put(sourceBuffer);
+        }
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static int getElementSize(Accessor accessor) {
+        return accessor.getComponentType().size * accessor.getType().size;
+    }
+
+}
@@ -0,0 +1,397 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.nucleus.SimpleLogger;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+/**
+ * Welds identical vertices of glTF primitives and stores the indices using the smallest index type.
+ * Vertices are identical if the bytes of all attributes are the same, a hash of the complete attribute tuple is
+ * used to find them. Vertices are stored in the order they are first used by the indices and vertices that are not
+ * used are removed, primitives without indices are converted to indexed primitives if vertices are welded.
+ * The welded attributes and the new indices are stored in a new buffer and the accessors of the primitive are
+ * replaced, the data of the original accessors is not changed.
+ * This shall be done after buffers are loaded and before they are uploaded.
+ *
+ */
+public class VertexWelder {
+
+    /**
+     * The result of welding the primitives of one mesh
+     */
+    public static class Result {
+        private final String name;
+        private int verticesBefore;
+        private int verticesAfter;
+        private int indexBytesBefore;
+        private int indexBytesAfter;
+        private int changedPrimitives;
+
+        private Result(String name) {
+            this.name = name;
+        }
+
+        private void add(int verticesBefore, int verticesAfter, int indexBytesBefore, int indexBytesAfter,
+                boolean changed) {
+            this.verticesBefore += verticesBefore;
+            this.verticesAfter += verticesAfter;
+            this.indexBytesBefore += indexBytesBefore;
+            this.indexBytesAfter += indexBytesAfter;
+            changedPrimitives += changed ? 1 : 0;
+        }
+
+        /**
+         * Returns the name of the mesh
+         *
+         * @return
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of vertices before welding
+         *
+         * @return
+         */
+        public int getVerticesBefore() {
+            return verticesBefore;
+        }
+
+        /**
+         * Returns the number of vertices after welding
+         *
+         * @return
+         */
+        public int getVerticesAfter() {
+            return verticesAfter;
+        }
+
+        /**
+         * Returns the size of indices, in bytes, before welding
+         *
+         * @return
+         */
+        public int getIndexBytesBefore() {
+            return indexBytesBefore;
+        }
+
+        /**
+         * Returns the size of indices, in bytes, after welding
+         *
+         * @return
+         */
+        public int getIndexBytesAfter() {
+            return indexBytesAfter;
+        }
+
+        /**
+         * Returns the number of primitives that have been changed
+         *
+         * @return
+         */
+        public int getChangedPrimitives() {
+            return changedPrimitives;
+        }
+
+        @Override
+        public String toString() {
+            return "Mesh " + name + ", vertices " + verticesBefore + " -> " + verticesAfter + ", index bytes "
+                    + indexBytesBefore + " -> " + indexBytesAfter + ", changed primitives: " + changedPrimitives;
+        }
+    }
+
+    private static final String BUFFER_NAME = "Welded";
+    /**
+     * Alignment of the attribute and index data, and of the attribute stride, in the created buffer
+     */
+    private static final int ALIGNMENT = 4;
+
+    private boolean allowByteIndices = true;
+
+    /**
+     * Sets if UNSIGNED_BYTE indices may be used, some GPUs convert byte indices when drawing. Default is true.
+     *
+     * @param allowByteIndices
+     */
+    public void setAllowByteIndices(boolean allowByteIndices) {
+        this.allowByteIndices = allowByteIndices;
+    }
+
+    /**
+     * Welds the vertices of all primitives in the glTF, primitives that share an attribute accessor with another
+     * primitive are not welded but may get narrower indices.
+     * The result of each mesh is logged.
+     *
+     * @param gltf
+     * @return The result for each mesh
+     */
+    public List<Result> weld(GLTF gltf) {
+        ArrayList<Result> results = new ArrayList<>();
+        Mesh[] meshes = gltf.getMeshes();
+        if (meshes == null) {
+            return results;
+        }
+        IdentityHashMap<Accessor, Integer> usage = new IdentityHashMap<>();
+        for (Mesh mesh : meshes) {
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    if (p.getAccessorArray() != null) {
+                        for (Accessor a : p.getAccessorArray()) {
+                            Integer count = usage.get(a);
+                            usage.put(a, count == null ? 1 : count + 1);
+                        }
+                    }
+                }
+            }
+        }
+        for (Mesh mesh : meshes) {
+            Result result = new Result(mesh.getName());
+            results.add(result);
+            if (mesh.getPrimitives() != null) {
+                for (Primitive p : mesh.getPrimitives()) {
+                    boolean shared = false;
+                    if (p.getAccessorArray() != null) {
+                        for (Accessor a : p.getAccessorArray()) {
+                            shared |= usage.get(a) > 1;
+                        }
+                    }
+                    weld(gltf, p, !shared, result);
+                }
+            }
+            if (result.getChangedPrimitives() > 0) {
+                SimpleLogger.d(getClass(), result.toString());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Welds the vertices of the primitive and stores the indices using the smallest index type.
+     *
+     * @param gltf
+     * @param primitive
+     * @return True if the primitive was changed
+     */
+    public boolean weld(GLTF gltf, Primitive primitive) {
+        Result result = new Result(null);
+        weld(gltf, primitive, true, result);
+        return result.getChangedPrimitives() > 0;
+    }
+
+    private void weld(GLTF gltf, Primitive primitive, boolean weldVertices, Result result) {
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        Accessor indexAccessor = primitive.getIndices();
+        if (position == null) {
+            return;
+        }
+        int vertexCount = position.getCount();
+        ArrayList<Accessor> accessors = primitive.getAccessorArray();
+        for (Accessor a : accessors) {
+            if (a.getCount() != vertexCount) {
+                return;
+            }
+        }
+        int[] indices;
+        int indexBytes;
+        if (indexAccessor != null) {
+            indices = new int[indexAccessor.getCount()];
+            indexAccessor.copy(indices, 0);
+            indexBytes = indices.length * indexAccessor.getComponentType().size;
+        } else {
+            indices = new int[vertexCount];
+            for (int i = 0; i < vertexCount; i++) {
+                indices[i] = i;
+            }
+            indexBytes = 0;
+        }
+        int weldedCount = vertexCount;
+        int[] remap = null;
+        if (weldVertices) {
+            int vertexSize = 0;
+            for (Accessor a : accessors) {
+                vertexSize += getElementSize(a);
+            }
+            remap = new int[vertexCount];
+            weldedCount = weld(getVertexData(accessors, vertexSize, vertexCount), vertexSize, indices, remap);
+            if (weldedCount == vertexCount && isIdentity(remap, vertexCount)) {
+                remap = null;
+            }
+        }
+        ComponentType indexType = getIndexType(weldedCount);
+        if (remap == null && (indexAccessor == null || indexType == indexAccessor.getComponentType())) {
+            result.add(vertexCount, vertexCount, indexBytes, indexBytes, false);
+            return;
+        }
+        if (indexAccessor == null && weldedCount == vertexCount) {
+            // Not indexed and no vertices to weld, indices would only add data
+            result.add(vertexCount, vertexCount, 0, 0, false);
+            return;
+        }
+        int size = align(indices.length * indexType.size);
+        if (remap != null) {
+            for (Accessor a : accessors) {
+                size += weldedCount * align(getElementSize(a));
+            }
+        }
+        int bufferIndex = gltf.createBuffer(BUFFER_NAME, size);
+        Buffer buffer = gltf.getBuffer(bufferIndex);
+        BufferView indexView = gltf.createBufferView(buffer, null, 0, 0, Target.ELEMENT_ARRAY_BUFFER);
+        Accessor weldedIndices = new Accessor(indexView, 0, indexType, indices.length, Type.SCALAR);
+        weldedIndices.put(indices, 0);
+        int byteOffset = align(indices.length * indexType.size);
+        if (remap != null) {
+            ArrayList<Attributes> attributes = primitive.getAttributesArray();
+            for (int i = 0; i < attributes.size(); i++) {
+                Accessor source = accessors.get(i);
+                // Vertex attribute stride must be a multiple of 4, elements such as VEC3 SHORT are padded
+                int stride = align(getElementSize(source));
+                BufferView view = gltf.createBufferView(buffer, null, byteOffset, stride, Target.ARRAY_BUFFER);
+                Accessor welded = new Accessor(view, 0, weldedCount, source);
+                copyWelded(source, welded, remap);
+                primitive.setAccessor(attributes.get(i), welded);
+                byteOffset += weldedCount * stride;
+            }
+        }
+        primitive.setIndices(weldedIndices);
+        result.add(vertexCount, weldedCount, indexBytes, indices.length * indexType.size, true);
+    }
+
+    /**
+     * Returns the smallest index type that can be used for the number of vertices
+     *
+     * @param vertexCount
+     * @return UNSIGNED_BYTE, UNSIGNED_SHORT or UNSIGNED_INT
+     */
+    public ComponentType getIndexType(int vertexCount) {
+        if (allowByteIndices && vertexCount <= 0x100) {
+            return ComponentType.UNSIGNED_BYTE;
+        }
+        return vertexCount <= 0x10000 ? ComponentType.UNSIGNED_SHORT : ComponentType.UNSIGNED_INT;
+    }
+
+    /**
+     * Welds identical vertices, vertices are numbered in the order they are first used by the indices.
+     * Vertices that are not used by the indices are removed.
+     *
+     * @param vertices The vertex data, vertexSize bytes for each vertex
+     * @param vertexSize Number of bytes for each vertex
+     * @param indices The indices, updated to the welded vertices
+     * @param remap Set to the welded vertex for each vertex, or -1 if the vertex is not used
+     * @return Number of welded vertices
+     */
+    public static int weld(byte[] vertices, int vertexSize, int[] indices, int[] remap) {
+        int vertexCount = remap.length;
+        Arrays.fill(remap, -1);
+        // Open addressing hash table with the first vertex of each unique tuple, -1 for empty
+        int tableSize = Integer.highestOneBit(Math.max(vertexCount, 1) * 2 - 1) << 1;
+        int[] table = new int[tableSize];
+        Arrays.fill(table, -1);
+        int mask = tableSize - 1;
+        int count = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int vertex = indices[i];
+            if (remap[vertex] == -1) {
+                int slot = hash(vertices, vertex * vertexSize, vertexSize) & mask;
+                while (table[slot] != -1 && !equals(vertices, table[slot] * vertexSize, vertex * vertexSize,
+                        vertexSize)) {
+                    slot = (slot + 1) & mask;
+                }
+                if (table[slot] == -1) {
+                    table[slot] = vertex;
+                    remap[vertex] = count++;
+                } else {
+                    remap[vertex] = remap[table[slot]];
+                }
+            }
+            indices[i] = remap[vertex];
+        }
+        return count;
+    }
+
+    private static int hash(byte[] data, int offset, int length) {
+        // FNV-1a
+        int hash = 0x811c9dc5;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (data[i] & 0xff)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(byte[] data, int offset1, int offset2, int length) {
+        for (int i = 0; i < length; i++) {
+            if (data[offset1 + i] != data[offset2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdentity(int[] remap, int count) {
+        for (int i = 0; i < count; i++) {
+            if (remap[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static int getElementSize(Accessor accessor) {
+        return accessor.getComponentType().size * accessor.getType().size;
+    }
+
+    /**
+     * Returns the attribute tuple of each vertex, the bytes of each attribute are stored after each other.
+     */
+    private byte[] getVertexData(ArrayList<Accessor> accessors, int vertexSize, int vertexCount) {
+        byte[] vertices = new byte[vertexCount * vertexSize];
+        int offset = 0;
+        for (Accessor a : accessors) {
+            ByteBuffer source = a.getReadOnlyBuffer().duplicate();
+            int elementSize = getElementSize(a);
+            int stride = a.getByteStride();
+            for (int i = 0; i < vertexCount; i++) {
+                source.position(i * stride);
+                source.get(vertices, i * vertexSize + offset, elementSize);
+            }
+            offset += elementSize;
+        }
+        return vertices;
+    }
+
+    /**
+     * Copies the elements of source that are used to the welded position in dest
+     */
+    private void copyWelded(Accessor source, Accessor dest, int[] remap) {
+        ByteBuffer sourceBuffer = source.getReadOnlyBuffer().duplicate();
+        ByteBuffer destBuffer = dest.getBuffer().duplicate();
+        int elementSize = getElementSize(source);
+        int stride = source.getByteStride();
+        int destStride = dest.getByteStride();
+        // Welded vertices are numbered in order of first use by the indices, copy the first vertex for each number
+        boolean[] written = new boolean[dest.getCount()];
+        for (int i = 0; i < remap.length; i++) {
+            int vertex = remap[i];
+            if (vertex != -1 && !written[vertex]) {
+                written[vertex] = true;
+                sourceBuffer.limit(i * stride + elementSize);
+                sourceBuffer.position(i * stride);
+                destBuffer.position(vertex * destStride);
+                destBuffer.put(sourceBuffer);
+            }
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import java.nio.FloatBuffer;
 import com.nucleus.Backend;
 import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
+import com.nucleus.GraphicsPipeline.Sampler;
 import com.nucleus.SimpleLogger;
 import com.nucleus.common.BufferUtils;
 import com.nucleus.environment.Lights;
@@ -14,6 +15,7 @@ import com.nucleus.opengl.shader.NamedShaderVariable;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.NucleusRenderer.Matrices;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
+import com.nucleus.scene.gltf.Primitive.Attributes;
 import com.nucleus.shader.ShaderVariable.VariableType;
 import com.nucleus.vecmath.Matrix;
 
@@ -148,6 +150,36 @@ public abstract class DefaultGraphicsShader implements GraphicsShader {
                 (NamedShaderVariable[]) pipeline.getActiveVariables(VariableType.ATTRIBUTE));
     }
 
+    /**
+     * Returns the attribute handle from the pipeline, use this when rendering
+     * 
+     * @param attribute
+     * @return The attribute or null if not used in pipeline
+     */
+    public NamedShaderVariable getAttribute(Attributes attribute) {
+        return pipeline.getAttribute(attribute);
+    }
+
+    /**
+     * Returns the uniform handle from the pipeline, use this when rendering
+     * 
+     * @param uniform
+     * @return The uniform or null if not used in pipeline
+     */
+    public NamedShaderVariable getUniform(Attributes uniform) {
+        return pipeline.getUniform(uniform);
+    }
+
+    /**
+     * Returns the sampler handle from the pipeline, use this when rendering
+     * 
+     * @param sampler
+     * @return The sampler or null if not used in pipeline
+     */
+    public NamedShaderVariable getSampler(Sampler sampler) {
+        return pipeline.getSampler(sampler);
+    }
+
     protected NamedShaderVariable getVariableByName(String name, NamedShaderVariable[] variables) {
         for (NamedShaderVariable v : variables) {
             if (v != null && v.getName().contentEquals(name)) {
@@ -32,6 +32,11 @@ public class ComponentHandler {
      */
     private Map<String, Component> componentById = new HashMap<>();
 
+    /**
+     * Lookup FrameSampler sample id by component id
+     */
+    private Map<String, Integer> sampleIds = new HashMap<>();
+
     private static ComponentHandler handler;
 
     public static ComponentHandler getInstance() {
@@ -60,6 +65,13 @@ public class ComponentHandler {
                     "Already registered " + component.getId() + ", for system " + component.getSystem());
         }
         componentById.put(component.getId(), component);
+        sampleIds.put(component.getId(), registerSample(component));
+    }
+
+    private int registerSample(Component component) {
+        return FrameSampler.getInstance().registerSample(
+                FrameSampler.Samples.PROCESSCOMPONENT.name() + component.getId(),
+                FrameSampler.Samples.PROCESSCOMPONENT.detail, true);
     }
 
     /**
@@ -76,10 +88,14 @@ public class ComponentHandler {
             throw new IllegalArgumentException(
                     "No system registered for " + component.getSystem() + " componentId: " + component.getId());
         }
-        long start = java.lang.System.currentTimeMillis();
+        Integer sampleId = sampleIds.get(component.getId());
+        if (sampleId == null) {
+            sampleId = registerSample(component);
+            sampleIds.put(component.getId(), sampleId);
+        }
+        long start = java.lang.System.nanoTime();
         system.process(component, deltaTime);
-        FrameSampler.getInstance().addTag(FrameSampler.Samples.PROCESSCOMPONENT.name() + component.getId(), start,
-                java.lang.System.currentTimeMillis(), FrameSampler.Samples.PROCESSCOMPONENT.detail);
+        FrameSampler.getInstance().addNanos(sampleId, start, java.lang.System.nanoTime());
     }
 
     /**
@@ -7,10 +7,12 @@ import java.awt.image.IndexColorModel;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import javax.imageio.ImageIO;
 
 import com.nucleus.SimpleLogger;
+import com.nucleus.io.ByteBufferInputStream;
 import com.nucleus.profiling.FrameSampler;
 import com.nucleus.texturing.BufferImage.SourceFormat;
 
@@ -46,6 +48,24 @@ public class AWTImageFactory extends BaseImageFactory implements ImageFactory {
     public BufferImage createImage(String name, BufferImage.ImageFormat format) throws IOException {
         long start = System.currentTimeMillis();
         BufferedImage img = loadImage(name);
+        return createImage(name, img, format, start);
+    }
+
+    @Override
+    public BufferImage createImage(String name, ByteBuffer data, BufferImage.ImageFormat format) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException(NULL_PARAMETER);
+        }
+        long start = System.currentTimeMillis();
+        BufferedImage img = ImageIO.read(new ByteBufferInputStream(data));
+        if (img == null) {
+            throw new IOException("Could not decode image " + name);
+        }
+        logLoaded(name, img, start);
+        return createImage(name, img, format, start);
+    }
+
+    private BufferImage createImage(String name, BufferedImage img, BufferImage.ImageFormat format, long start) {
         BufferImage image = new BufferImage(img.getWidth(), img.getHeight(),
                 format != null ? format : SourceFormat.getFromAwtFormat(img.getType()).imageFormat);
         copyPixels(img, image);
@@ -67,13 +87,7 @@ public class AWTImageFactory extends BaseImageFactory implements ImageFactory {
                 throw new FileNotFoundException(name);
             }
             BufferedImage img = ImageIO.read(stream);
-            int delta = (int) (System.currentTimeMillis() - start) + 1;
-            int size = img.getWidth() * img.getHeight();
-            SourceFormat sourceFormat = SourceFormat.getFromAwtFormat(img.getType());
-            SimpleLogger.d(getClass(),
-                    "Loaded image " + name + ", in format: " + sourceFormat + " " + img.getWidth() + " X "
-                            + img.getHeight()
-                            + " in " + delta + " millis [" + size / delta + "K/s]");
+            logLoaded(name, img, start);
             return img;
         } finally {
             if (stream != null) {
@@ -82,6 +96,16 @@ public class AWTImageFactory extends BaseImageFactory implements ImageFactory {
         }
     }
 
+    private void logLoaded(String name, BufferedImage img, long start) {
+        int delta = (int) (System.currentTimeMillis() - start) + 1;
+        int size = img.getWidth() * img.getHeight();
+        SourceFormat sourceFormat = SourceFormat.getFromAwtFormat(img.getType());
+        SimpleLogger.d(getClass(),
+                "Loaded image " + name + ", in format: " + sourceFormat + " " + img.getWidth() + " X "
+                        + img.getHeight()
+                        + " in " + delta + " millis [" + size / delta + "K/s]");
+    }
+
     /**
      * Creates an image of specified type from the source, use this when the source type is not as desired.
      * 
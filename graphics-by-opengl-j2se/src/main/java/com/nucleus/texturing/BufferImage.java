@@ -209,6 +209,28 @@ public class BufferImage extends BufferObject {
         create(width, height, format, null);
     }
 
+    /**
+     * Creates an image that uses the buffer as storage for pixel data, no data is copied.
+     * Use this for pixels that are already decoded, for instance memory mapped from a cache.
+     * 
+     * @param width
+     * @param height
+     * @param format
+     * @param buffer Pixel data, position 0 must be the first pixel.
+     * @throws IllegalArgumentException If the capacity of buffer is less than the size of the image
+     */
+    public BufferImage(int width, int height, ImageFormat format, ByteBuffer buffer) {
+        super(width * height * format.size);
+        if (buffer.capacity() < sizeInBytes) {
+            throw new IllegalArgumentException(
+                    "Buffer capacity " + buffer.capacity() + " is less than image size " + sizeInBytes);
+        }
+        this.format = format;
+        this.width = width;
+        this.height = height;
+        this.buffer = buffer;
+    }
+
     /**
      * Sets the colormodel, default is LINEAR
      * 
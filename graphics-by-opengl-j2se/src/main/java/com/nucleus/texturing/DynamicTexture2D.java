@@ -1,7 +1,12 @@
 package com.nucleus.texturing;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.assets.Assets;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 
 /**
  * A dynamic texture, for instance attached as framebuffer when render to texture.
@@ -26,4 +31,13 @@ public class DynamicTexture2D extends Texture2D {
         return initcolor;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (INITCOLOR.equals(property)) {
+            initcolor = StreamTypeAdapterFactory.read(reader, gson, float[].class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.nucleus.texturing;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import com.nucleus.resource.ResourceBias.RESOLUTION;
 import com.nucleus.texturing.BufferImage.ImageFormat;
@@ -24,6 +25,19 @@ public interface ImageFactory {
      */
     public BufferImage createImage(String name, BufferImage.ImageFormat format) throws IOException;
 
+    /**
+     * Decodes an image from encoded image data that is already loaded, for instance an image stored in a glTF
+     * bufferView. The image must be in a format that is understood by the platform.
+     * 
+     * @param name Name of the image, used for logging
+     * @param data The encoded image data, from position to limit. Position of data is updated.
+     * @param format The image format of the created image (buffer), or null to create in same as loaded imageformat
+     * @return The decoded image
+     * @throws IOException If there is an error decoding the image
+     * @throws IllegalArgumentException If data is null
+     */
+    public BufferImage createImage(String name, ByteBuffer data, BufferImage.ImageFormat format) throws IOException;
+
     /**
      * Loads an image and scales by a factor in X and Y. Use this method to scale texture based on resolution bias and
      * screen size
@@ -1,9 +1,14 @@
 package com.nucleus.texturing;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.common.Constants;
 import com.nucleus.io.BaseReference;
 import com.nucleus.io.ExternalReference;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.renderer.Window;
 import com.nucleus.resource.ResourceBias.RESOLUTION;
 import com.nucleus.vecmath.Rectangle;
@@ -430,4 +435,34 @@ public class Texture2D extends BaseReference {
         return true;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        switch (property) {
+            case RESOLUTION:
+                resolution = StreamTypeAdapterFactory.read(reader, gson, RESOLUTION.class);
+                return true;
+            case MIPMAP:
+                levels = StreamTypeAdapterFactory.readInt(reader, levels);
+                return true;
+            case TEXPARAMETERS:
+                texParameters = StreamTypeAdapterFactory.read(reader, gson, TextureParameter.class);
+                return true;
+            case FORMAT:
+                format = StreamTypeAdapterFactory.read(reader, gson, Format.class);
+                return true;
+            case TYPE:
+                type = StreamTypeAdapterFactory.read(reader, gson, Type.class);
+                return true;
+            case FLIPV:
+                flipV = StreamTypeAdapterFactory.readBoolean(reader, flipV);
+                return true;
+            case TEXTURETYPE:
+                // Texture type is defined by the class
+                reader.skipValue();
+                return true;
+            default:
+                return super.readProperty(property, reader, gson);
+        }
+    }
+
 }
@@ -1,12 +1,14 @@
 package com.nucleus.texturing;
 
+import com.google.gson.InstanceCreator;
+
 /**
  * Enumeration for the different texture types.
  * 
  * @author Richard Sahlin
  *
  */
-public enum TextureType {
+public enum TextureType implements InstanceCreator<Texture2D> {
     /**
      * 2D Texture - note this name must be the same as {@link Texture2D}
      */
@@ -39,4 +41,25 @@ public enum TextureType {
         return clazz;
     }
 
+    /**
+     * Creates an empty texture of this type, to be deserialized.
+     */
+    @Override
+    public Texture2D createInstance(java.lang.reflect.Type type) {
+        switch (this) {
+            case Texture2D:
+                return new Texture2D();
+            case TiledTexture2D:
+                return new TiledTexture2D();
+            case UVTexture2D:
+                return new UVTexture2D();
+            case Untextured:
+                return new Untextured();
+            case DynamicTexture2D:
+                return new DynamicTexture2D();
+            default:
+                throw new IllegalArgumentException("Not implemented for " + this);
+        }
+    }
+
 }
@@ -1,7 +1,12 @@
 package com.nucleus.texturing;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.io.ExternalReference;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.resource.ResourceBias.RESOLUTION;
 import com.nucleus.vecmath.Axis;
 import com.nucleus.vecmath.Rectangle;
@@ -130,4 +135,13 @@ public class TiledTexture2D extends Texture2D {
         return rect;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (TILE.equals(property)) {
+            tile = StreamTypeAdapterFactory.read(reader, gson, int[].class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
@@ -1,7 +1,12 @@
 package com.nucleus.texturing;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
 import com.nucleus.io.gson.PostDeserializable;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.shader.FloatBlockBuffer;
 
 /**
@@ -75,4 +80,13 @@ public class UVTexture2D extends Texture2D implements PostDeserializable {
         }
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (UVATLAS.equals(property)) {
+            UVAtlas = StreamTypeAdapterFactory.read(reader, gson, UVAtlas.class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
@@ -1,6 +1,11 @@
 package com.nucleus.texturing;
 
+import java.io.IOException;
+
+import com.google.gson.Gson;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.nucleus.io.gson.StreamTypeAdapterFactory;
 import com.nucleus.shader.Shader.Shading;
 
 /**
@@ -11,7 +16,9 @@ import com.nucleus.shader.Shader.Shading;
  */
 public class Untextured extends Texture2D {
 
-    @SerializedName("shading")
+    public static final String SHADING = "shading";
+
+    @SerializedName(SHADING)
     private Shading shading;
 
     protected Untextured() {
@@ -41,4 +48,13 @@ public class Untextured extends Texture2D {
         return shading;
     }
 
+    @Override
+    public boolean readProperty(String property, JsonReader reader, Gson gson) throws IOException {
+        if (SHADING.equals(property)) {
+            shading = StreamTypeAdapterFactory.read(reader, gson, Shading.class);
+            return true;
+        }
+        return super.readProperty(property, reader, gson);
+    }
+
 }
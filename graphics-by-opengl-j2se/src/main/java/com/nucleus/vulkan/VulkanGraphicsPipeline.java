@@ -60,6 +60,21 @@ public class VulkanGraphicsPipeline implements GraphicsPipeline<ShaderBinary> {
         return null;
     }
 
+    @Override
+    public NamedShaderVariable getAttribute(Attributes attribute) {
+        throw new IllegalArgumentException("Not implemented");
+    }
+
+    @Override
+    public NamedShaderVariable getUniform(Attributes uniform) {
+        throw new IllegalArgumentException("Not implemented");
+    }
+
+    @Override
+    public NamedShaderVariable getSampler(Sampler sampler) {
+        throw new IllegalArgumentException("Not implemented");
+    }
+
     @Override
     public void enable(NucleusRenderer renderer) throws BackendException {
         // TODO Auto-generated method stub
@@ -1,6 +1,7 @@
 package com.nucleus.vulkan.assets;
 
 import java.io.IOException;
+import java.util.concurrent.Future;
 
 import com.nucleus.BackendException;
 import com.nucleus.GraphicsPipeline;
@@ -45,6 +46,11 @@ public class VulkanAssets extends BaseAssets {
         throw new IllegalArgumentException("Not implemented");
     }
 
+    @Override
+    public Future<GLTF> loadGLTFAssetsAsync(String fileName, GLTFLoadListener listener) {
+        throw new IllegalArgumentException("Not implemented");
+    }
+
     @Override
     public GLTF getGLTFAsset(String fileName) throws IOException, GLTFException {
         throw new IllegalArgumentException("Not implemented");
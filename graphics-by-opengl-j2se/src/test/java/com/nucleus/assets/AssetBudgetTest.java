@@ -0,0 +1,100 @@
+package com.nucleus.assets;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.BackendException;
+import com.nucleus.BaseTestCase;
+import com.nucleus.assets.AssetBudget.AssetType;
+import com.nucleus.assets.AssetBudget.Evictor;
+
+public class AssetBudgetTest extends BaseTestCase {
+
+    private static class EvictedList extends ArrayList<String> implements Evictor {
+        @Override
+        public void evict(AssetType type, String key, Object asset) {
+            add(key);
+        }
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws BackendException {
+        AssetBudget budget = new AssetBudget(1000, -1);
+        Object[] assets = new Object[4];
+        for (int i = 0; i < assets.length; i++) {
+            assets[i] = new Object();
+            budget.add(i < 2 ? AssetType.TEXTURE : AssetType.GLTF, "asset" + i, assets[i]);
+            budget.acquire(assets[i]);
+            budget.setSize(assets[i], 300, 100);
+        }
+        Assert.assertEquals(600, budget.getGPUBytes(AssetType.TEXTURE));
+        Assert.assertEquals(200, budget.getCPUBytes(AssetType.GLTF));
+        Assert.assertEquals(2, budget.getCount(AssetType.GLTF));
+        EvictedList evicted = new EvictedList();
+        // Over budget but all assets are referenced
+        Assert.assertEquals(0, budget.evict(evicted));
+        budget.release(assets[0]);
+        budget.release(assets[1]);
+        budget.release(assets[2]);
+        // asset0 is used again, asset1 is least recently used
+        budget.acquire(assets[0]);
+        budget.release(assets[0]);
+        Assert.assertEquals(1, budget.evict(evicted));
+        Assert.assertEquals("asset1", evicted.get(0));
+        Assert.assertEquals(-1, budget.getRefCount(assets[1]));
+        Assert.assertEquals(300, budget.getGPUBytes(AssetType.TEXTURE));
+        Assert.assertEquals(1, budget.getCount(AssetType.TEXTURE));
+        Assert.assertEquals(0, budget.evict(evicted));
+    }
+
+    @Test
+    public void testZeroBudget() throws BackendException {
+        AssetBudget budget = new AssetBudget(0, 0);
+        Object asset = new Object();
+        budget.add(AssetType.GLTF, "asset", asset);
+        budget.acquire(asset);
+        budget.acquire(asset);
+        budget.setSize(asset, 0, 100);
+        EvictedList evicted = new EvictedList();
+        Assert.assertEquals(1, budget.release(asset));
+        Assert.assertEquals(0, budget.evict(evicted));
+        Assert.assertEquals(0, budget.release(asset));
+        Assert.assertEquals(1, budget.evict(evicted));
+        Assert.assertEquals(0, budget.getCPUBytes(AssetType.GLTF));
+        try {
+            budget.release(asset);
+            Assert.fail("Evicted asset shall not be released");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testEvictorException() {
+        AssetBudget budget = new AssetBudget(0, 0);
+        final Object[] assets = new Object[] { new Object(), new Object() };
+        for (int i = 0; i < assets.length; i++) {
+            budget.add(AssetType.GLTF, "asset" + i, assets[i]);
+            budget.setSize(assets[i], 100, 0);
+        }
+        final EvictedList evicted = new EvictedList();
+        try {
+            budget.evict(new Evictor() {
+                @Override
+                public void evict(AssetType type, String key, Object asset) throws BackendException {
+                    evicted.add(key);
+                    throw new BackendException("Could not delete " + key);
+                }
+            });
+            Assert.fail("Evictor exception shall be thrown");
+        } catch (BackendException e) {
+            Assert.assertEquals("Could not delete asset0", e.getMessage());
+        }
+        // Evicting continues after the exception
+        Assert.assertEquals(2, evicted.size());
+        Assert.assertEquals(0, budget.getCount(AssetType.GLTF));
+    }
+
+}
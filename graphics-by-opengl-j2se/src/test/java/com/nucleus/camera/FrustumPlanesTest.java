@@ -0,0 +1,75 @@
+package com.nucleus.camera;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.scene.gltf.MaxMin;
+
+public class FrustumPlanesTest {
+
+    private static MaxMin createBounds(float x, float y, float z, float size) {
+        return new MaxMin(new float[] { x + size, y + size, z + size }, new float[] { x - size, y - size, z - size });
+    }
+
+    /**
+     * Creates a column major perspective matrix, same as glFrustum
+     */
+    private static float[] createFrustum(float left, float right, float bottom, float top, float near, float far) {
+        float[] m = new float[16];
+        m[0] = 2 * near / (right - left);
+        m[5] = 2 * near / (top - bottom);
+        m[8] = (right + left) / (right - left);
+        m[9] = (top + bottom) / (top - bottom);
+        m[10] = -(far + near) / (far - near);
+        m[11] = -1;
+        m[14] = -2 * far * near / (far - near);
+        return m;
+    }
+
+    @Test
+    public void testOrthoViewFrustum() {
+        ViewFrustum vf = new ViewFrustum();
+        vf.setOrthoProjection(-1, 1, -1, 1, 1, 10);
+        FrustumPlanes planes = new FrustumPlanes();
+        planes.set(vf);
+        Assert.assertTrue(planes.isVisible(createBounds(0, 0, -5, 0.1f)));
+        // Intersecting right plane
+        Assert.assertTrue(planes.isVisible(createBounds(1.2f, 0, -5, 0.5f)));
+        Assert.assertFalse(planes.isVisible(createBounds(5, 0, -5, 0.5f)));
+        Assert.assertFalse(planes.isVisible(createBounds(0, -5, -5, 0.5f)));
+        // Behind near and beyond far
+        Assert.assertFalse(planes.isVisible(createBounds(0, 0, 5, 0.5f)));
+        Assert.assertFalse(planes.isVisible(createBounds(0, 0, -20, 0.5f)));
+        Assert.assertFalse(planes.isVisible(new MaxMin()));
+    }
+
+    @Test
+    public void testPerspective() {
+        FrustumPlanes planes = new FrustumPlanes();
+        planes.set(createFrustum(-1, 1, -1, 1, 1, 100));
+        Assert.assertTrue(planes.isVisible(createBounds(0, 0, -50, 1)));
+        // Inside at distance 50, outside at distance 2
+        Assert.assertTrue(planes.isVisible(createBounds(20, 0, -50, 1)));
+        Assert.assertFalse(planes.isVisible(createBounds(20, 0, -2, 1)));
+        Assert.assertFalse(planes.isVisible(createBounds(0, 0, 10, 1)));
+        Assert.assertFalse(planes.isVisible(createBounds(0, 0, -200, 1)));
+    }
+
+    @Test
+    public void testTransformedBounds() {
+        FrustumPlanes planes = new FrustumPlanes();
+        planes.set(createFrustum(-1, 1, -1, 1, 1, 100));
+        // Long box along x axis, rotated 90 degrees around y it will be along z axis
+        MaxMin local = new MaxMin(new float[] { 20, 0.5f, 0.5f }, new float[] { -20, -0.5f, -0.5f });
+        float[] rotateY = new float[] { 0, 0, -1, 0, 0, 1, 0, 0, 1, 0, 0, 0, 0, 0, -30, 1 };
+        MaxMin world = new MaxMin();
+        world.transform(local, rotateY);
+        float[] values = world.getValues();
+        Assert.assertEquals(0.5f, values[0], 0.0001f);
+        Assert.assertEquals(-10f, values[2], 0.0001f);
+        Assert.assertEquals(-50f, values[5], 0.0001f);
+        Assert.assertTrue(planes.isVisible(world));
+        Assert.assertFalse(planes.isVisible(local));
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.nucleus.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.BaseTestCase;
+
+public class BufferArenaTest extends BaseTestCase {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    @Test
+    public void testAllocateAndReuse() {
+        BufferArena arena = new BufferArena("test", BLOCK_SIZE, 16);
+        ByteBuffer first = arena.allocate(10);
+        ByteBuffer second = arena.allocate(100);
+        Assert.assertEquals(10, first.capacity());
+        Assert.assertEquals(ByteOrder.nativeOrder(), first.order());
+        Assert.assertTrue(first.isDirect());
+        Assert.assertEquals(16 + 128, arena.getUsedBytes());
+        Assert.assertEquals(110, arena.getRequestedBytes());
+        Assert.assertEquals(1, arena.getBlockCount());
+        for (int i = 0; i < first.capacity(); i++) {
+            first.put(i, (byte) 0x7f);
+        }
+        arena.free(first);
+        ByteBuffer reused = arena.allocate(12);
+        Assert.assertEquals(1, arena.getReused());
+        for (int i = 0; i < reused.capacity(); i++) {
+            Assert.assertEquals(0, reused.get(i));
+        }
+        // Writing to one slice shall not change the other
+        second.put(0, (byte) 1);
+        Assert.assertEquals(0, reused.get(0));
+        arena.free(second);
+        arena.free(reused);
+        Assert.assertEquals(0, arena.getUsedBytes());
+        Assert.assertEquals(3, arena.getFrees());
+    }
+
+    @Test
+    public void testBlocks() {
+        BufferArena arena = new BufferArena("test", BLOCK_SIZE, 16);
+        ByteBuffer[] buffers = new ByteBuffer[5];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = arena.allocate(BLOCK_SIZE / 4);
+        }
+        Assert.assertEquals(2, arena.getBlockCount());
+        Assert.assertEquals(2 * BLOCK_SIZE, arena.getReservedBytes());
+        ByteBuffer direct = arena.allocate(BLOCK_SIZE);
+        Assert.assertEquals(BLOCK_SIZE, arena.getDirectBytes());
+        Assert.assertEquals(6, arena.getAllocatedCount());
+        arena.free(direct);
+        Assert.assertEquals(0, arena.getDirectBytes());
+        try {
+            arena.destroy();
+            Assert.fail("Arena with allocated buffers shall not be destroyed");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        for (ByteBuffer buffer : buffers) {
+            arena.free(buffer);
+        }
+        arena.destroy();
+        Assert.assertEquals(0, arena.getBlockCount());
+    }
+
+    @Test
+    public void testInvalidFree() {
+        BufferArena arena = new BufferArena("test", BLOCK_SIZE, 16);
+        ByteBuffer buffer = arena.allocate(32);
+        arena.free(buffer);
+        try {
+            arena.free(buffer);
+            Assert.fail("Buffer shall not be freed twice");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            arena.free(BufferUtils.createByteBuffer(32));
+            Assert.fail("Buffer not allocated by arena shall not be freed");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.nucleus.io.gson;
+
+import java.lang.reflect.Type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.nucleus.BaseTestCase;
+import com.nucleus.bounds.Bounds;
+import com.nucleus.common.TypeResolver;
+import com.nucleus.scene.LayerNode;
+import com.nucleus.scene.Node;
+import com.nucleus.scene.RootNodeImpl;
+import com.nucleus.texturing.Texture2D;
+import com.nucleus.texturing.TextureType;
+import com.nucleus.texturing.TiledTexture2D;
+
+public class NucleusDeserializerTest extends BaseTestCase {
+
+    /**
+     * The node types are registered with the type resolver, only one deserializer can be created.
+     */
+    private static NucleusDeserializerImpl deserializer;
+
+    /**
+     * Number of mesh nodes in the generated scene
+     */
+    private static final int GENERATED_COUNT = 500;
+
+    private static final String TEXTURE = "{\"id\":\"tiles\",\"externalReference\":{\"source\":\"tiles.png\"},"
+            + "\"textureType\":\"TiledTexture2D\",\"resolution\":\"FOUR_EIGHTY\",\"mipmap\":null,"
+            + "\"format\":\"RGBA\",\"type\":\"UNSIGNED_BYTE\",\"flipv\":true,\"tile\":[8,4],\"unknown\":[{}]}";
+
+    private Gson createStreamingGson() {
+        if (deserializer == null) {
+            deserializer = new NucleusDeserializerImpl();
+        }
+        GsonBuilder builder = new GsonBuilder();
+        deserializer.registerTypeAdapter(builder);
+        Gson gson = builder.create();
+        deserializer.setGson(gson);
+        return gson;
+    }
+
+    /**
+     * Creates gson where nodes are read from the JSON tree and gson binds the fields using reflection.
+     */
+    private Gson createReflectiveGson() {
+        final BoundsDeserializer boundsDeserializer = new BoundsDeserializer();
+        GsonBuilder builder = new GsonBuilder();
+        builder.registerTypeAdapter(Bounds.class, boundsDeserializer);
+        builder.registerTypeAdapter(Node.class, new JsonDeserializer<Node>() {
+            @Override
+            public Node deserialize(JsonElement json, Type type, JsonDeserializationContext context)
+                    throws JsonParseException {
+                String name = json.getAsJsonObject().get(NucleusDeserializer.NODETYPE_JSON_KEY).getAsString();
+                Node node = context.deserialize(json, TypeResolver.getInstance().getTypeClass(name));
+                deserializer.postDeserialize(node);
+                return node;
+            }
+        });
+        Gson gson = builder.create();
+        boundsDeserializer.setGson(gson);
+        return gson;
+    }
+
+    /**
+     * Creates a scene with layers, groups of mesh nodes and a switch node. Some nodes have the id before the type,
+     * properties that are not known and null values.
+     */
+    private String createScene(int count) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\":\"scene\",\"properties\":{\"key\":\"value\"},\"unknown\":{\"a\":[]},\"children\":[");
+        sb.append("{\"id\":\"layer\",\"type\":\"layernode\",\"layer\":\"SCENE\",\"pass\":null,");
+        sb.append("\"viewFrustum\":{\"values\":[-1,1,-1,1,0,10],\"projection\":\"ORTHOGONAL\"},\"children\":[");
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 0) {
+                sb.append(i > 0 ? "]}," : "").append("{\"type\":\"meshnode\",\"id\":\"group").append(i / 10)
+                        .append("\",\"children\":[");
+            } else {
+                sb.append(",");
+            }
+            if ((i & 1) == 0) {
+                sb.append("{\"type\":\"meshnode\",\"id\":\"node").append(i).append("\"");
+            } else {
+                sb.append("{\"id\":\"node").append(i).append("\",\"state\":\"OFF\",\"type\":\"meshnode\"");
+            }
+            sb.append(",\"material\":{\"blendFunction\":[\"GL_ONE\",\"GL_ZERO\",\"GL_ONE\",\"GL_ZERO\"],")
+                    .append("\"emissive\":[0,0,0,").append(i).append("],\"diffuse\":null},")
+                    .append("\"bounds\":{\"type\":\"CIRCULAR\",\"bounds\":[").append(i).append("]},")
+                    .append("\"textureRef\":{\"source\":\"texture.tex\"},\"extras\":null,")
+                    .append("\"properties\":{\"index\":\"").append(i).append("\"}}");
+        }
+        sb.append("]}]},{\"type\":\"switchnode\",\"id\":\"switch\",\"active\":\"on\",\"children\":[");
+        sb.append("{\"type\":\"linedrawernode\",\"id\":\"on\",\"lineCount\":10,\"lineMode\":\"LINES\"},");
+        sb.append("{\"type\":\"gltfnode\",\"id\":\"off\",\"glTFName\":\"box.gltf\"}]}]}");
+        return sb.toString();
+    }
+
+    @Test
+    public void testGeneratedScene() {
+        String json = createScene(GENERATED_COUNT);
+        RootNodeImpl streaming = createStreamingGson().fromJson(json, RootNodeImpl.class);
+        RootNodeImpl reflective = createReflectiveGson().fromJson(json, RootNodeImpl.class);
+        Gson gson = new Gson();
+        Assert.assertEquals(gson.toJson(reflective), gson.toJson(streaming));
+        Assert.assertEquals(2, streaming.getChildren().size());
+        Node layer = streaming.getChildren().get(0);
+        Assert.assertTrue(layer instanceof LayerNode);
+        Assert.assertEquals("layernode", layer.getType());
+        Assert.assertEquals(GENERATED_COUNT / 10, layer.getChildren().size());
+        Assert.assertEquals(Node.State.OFF, layer.getChildren().get(1).getChildren().get(1).getState());
+        Assert.assertEquals("value", streaming.getProperty("key", null));
+    }
+
+    @Test
+    public void testTexture() {
+        TextureDeserializer textureDeserializer = new TextureDeserializer();
+        GsonBuilder builder = new GsonBuilder();
+        textureDeserializer.registerTypeAdapter(builder);
+        Gson gson = builder.create();
+        textureDeserializer.setGson(gson);
+        Texture2D texture = gson.fromJson(TEXTURE, Texture2D.class);
+        Assert.assertTrue(texture instanceof TiledTexture2D);
+        Assert.assertEquals(TextureType.TiledTexture2D, texture.getTextureType());
+        Assert.assertEquals(new Gson().toJson(new Gson().fromJson(TEXTURE, TiledTexture2D.class)),
+                new Gson().toJson(texture));
+        Assert.assertEquals(4, ((TiledTexture2D) texture).getTileHeight());
+    }
+
+    @Test
+    public void testMissingType() {
+        try {
+            createStreamingGson().fromJson("{\"children\":[{\"id\":\"node\"}]}", RootNodeImpl.class);
+            Assert.fail("Node without type shall not be read");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.nucleus.opengl.headless;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.J2SELogger;
+import com.nucleus.SimpleLogger;
+import com.nucleus.opengl.GLESWrapper.GLES20;
+import com.nucleus.opengl.GLESWrapper.GLES30;
+import com.nucleus.renderer.NucleusRenderer.Renderers;
+
+public class HeadlessGLESWrapperTest {
+
+    private static final String VERTEX_SHADER = "#version 300 es\n"
+            + "#define LIGHTS 3\n"
+            + "/* uniform mat4 uCommented; */\n"
+            + "layout(location = 0) in vec3 aPosition;\n"
+            + "in vec2 aTexCoord; // Texture coordinate\n"
+            + "in vec4 aUnused;\n"
+            + "uniform mat4 uMatrix[2];\n"
+            + "uniform highp vec4 uLights[LIGHTS];\n"
+            + "#ifdef TEXTURED\n"
+            + "uniform float uDisabled;\n"
+            + "#else\n"
+            + "uniform float uEnabled;\n"
+            + "#endif\n"
+            + "out vec2 vTexCoord;\n"
+            + "void main() {\n"
+            + "    vTexCoord = aTexCoord * uEnabled + uLights[2].xy;\n"
+            + "    gl_Position = uMatrix[0] * uMatrix[1] * vec4(aPosition, 1.0);\n"
+            + "}\n";
+
+    private static final String FRAGMENT_SHADER = "#version 300 es\n"
+            + "precision mediump float;\n"
+            + "uniform sampler2D uTexture;\n"
+            + "uniform vec4 uLights[3];\n"
+            + "in vec2 vTexCoord;\n"
+            + "out vec4 fragColor;\n"
+            + "void main() {\n"
+            + "    fragColor = texture(uTexture, vTexCoord) * uLights[0];\n"
+            + "}\n";
+
+    private HeadlessGLESWrapper createWrapper() {
+        SimpleLogger.setLogger(new J2SELogger());
+        return (HeadlessGLESWrapper) new HeadlessWrapperFactory().createBackend(Renderers.GLES30, null, null);
+    }
+
+    private int createProgram(HeadlessGLESWrapper gles) {
+        int program = gles.glCreateProgram();
+        int vertex = gles.glCreateShader(GLES20.GL_VERTEX_SHADER);
+        int fragment = gles.glCreateShader(GLES20.GL_FRAGMENT_SHADER);
+        gles.glShaderSource(vertex, VERTEX_SHADER);
+        gles.glShaderSource(fragment, FRAGMENT_SHADER);
+        gles.glCompileShader(vertex);
+        gles.glCompileShader(fragment);
+        gles.glAttachShader(program, vertex);
+        gles.glAttachShader(program, fragment);
+        gles.glBindAttribLocation(program, 3, "aTexCoord");
+        gles.glLinkProgram(program);
+        return program;
+    }
+
+    @Test
+    public void testLinkProgram() {
+        HeadlessGLESWrapper gles = createWrapper();
+        int program = createProgram(gles);
+        int[] params = new int[5];
+        gles.glGetProgramiv(program, GLES20.GL_LINK_STATUS, params, 0);
+        gles.glGetProgramiv(program, GLES20.GL_ACTIVE_ATTRIBUTES, params, 1);
+        gles.glGetProgramiv(program, GLES20.GL_ACTIVE_UNIFORMS, params, 2);
+        gles.glGetProgramiv(program, GLES20.GL_ACTIVE_UNIFORM_MAX_LENGTH, params, 3);
+        gles.glGetProgramiv(program, GLES30.GL_ACTIVE_UNIFORM_BLOCKS, params, 4);
+        Assert.assertEquals(GLES20.GL_TRUE, params[0]);
+        // aUnused is not referenced
+        Assert.assertEquals(2, params[1]);
+        // uMatrix, uLights, uEnabled and uTexture
+        Assert.assertEquals(4, params[2]);
+        Assert.assertEquals("uMatrix[0]".length() + 1, params[3]);
+        Assert.assertEquals(0, params[4]);
+
+        byte[] name = new byte[params[3]];
+        int[] info = new int[3];
+        gles.glGetActiveUniform(program, 1, info, 0, info, 1, info, 2, name);
+        Assert.assertEquals("uLights[0]", new String(name, 0, info[0]));
+        Assert.assertEquals(3, info[1]);
+        Assert.assertEquals(GLES20.GL_FLOAT_VEC4, info[2]);
+
+        Assert.assertEquals(0, gles.glGetUniformLocation(program, "uMatrix"));
+        Assert.assertEquals(1, gles.glGetUniformLocation(program, "uMatrix[1]"));
+        Assert.assertEquals(4, gles.glGetUniformLocation(program, "uLights[2]"));
+        Assert.assertEquals(-1, gles.glGetUniformLocation(program, "uLights[3]"));
+        Assert.assertEquals(-1, gles.glGetUniformLocation(program, "uDisabled"));
+        Assert.assertEquals(3, gles.glGetAttribLocation(program, "aTexCoord"));
+        Assert.assertEquals(0, gles.glGetAttribLocation(program, "aPosition"));
+        Assert.assertEquals(-1, gles.glGetAttribLocation(program, "aUnused"));
+        Assert.assertEquals(GLES20.GL_NO_ERROR, gles.glGetError());
+    }
+
+    @Test
+    public void testErrors() {
+        HeadlessGLESWrapper gles = createWrapper();
+        gles.glDrawArrays(GLES20.GL_TRIANGLES, 0, 3);
+        Assert.assertEquals(GLES20.GL_INVALID_OPERATION, gles.glGetError());
+        Assert.assertEquals(GLES20.GL_NO_ERROR, gles.glGetError());
+        gles.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 10);
+        Assert.assertEquals(GLES20.GL_INVALID_OPERATION, gles.glGetError());
+        gles.glUseProgram(createProgram(gles));
+        gles.glDrawElements(GLES20.GL_TRIANGLES, 6, GLES20.GL_UNSIGNED_SHORT, 0);
+        Assert.assertEquals(GLES20.GL_INVALID_OPERATION, gles.glGetError());
+        gles.glUniform4fv(7, 1, null);
+        Assert.assertEquals(GLES20.GL_INVALID_OPERATION, gles.glGetError());
+        Assert.assertEquals(0, gles.getDrawCalls());
+    }
+
+    @Test
+    public void testCountAndRecord() {
+        HeadlessGLESWrapper gles = createWrapper();
+        gles.glUseProgram(createProgram(gles));
+        int[] names = new int[2];
+        gles.glGenBuffers(names);
+        gles.resetCounters();
+        gles.setRecording(true);
+        gles.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, names[0]);
+        gles.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, names[0]);
+        ByteBuffer indices = ByteBuffer.allocateDirect(12).order(ByteOrder.nativeOrder());
+        gles.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, 12, indices, GLES20.GL_STATIC_DRAW);
+        gles.glDrawElements(GLES20.GL_TRIANGLES, 6, GLES20.GL_UNSIGNED_SHORT, 0);
+        gles.glDrawArrays(GLES20.GL_TRIANGLES, 0, 3);
+        Assert.assertEquals(GLES20.GL_NO_ERROR, gles.glGetError());
+        Assert.assertEquals(2, gles.getCallCount(GLCall.glBindBuffer));
+        Assert.assertEquals(6, gles.getTotalCalls());
+        Assert.assertEquals(2, gles.getDrawCalls());
+        Assert.assertEquals(9, gles.getDrawnElements());
+        Assert.assertEquals(1, gles.getStateChanges());
+        Assert.assertEquals(1, gles.getRedundantCalls());
+        Assert.assertEquals(12, gles.getUploadedBytes());
+        Assert.assertEquals(6, gles.getRecordedCalls().size());
+        Assert.assertEquals("glDrawElements(4, 6, 5123, 0)", gles.getRecordedCalls().get(3));
+        gles.setRecording(false);
+        gles.glDrawArrays(GLES20.GL_TRIANGLES, 0, 3);
+        Assert.assertEquals(6, gles.getRecordedCalls().size());
+
+        ByteBuffer mapped = gles.glMapBufferRange(GLES20.GL_ELEMENT_ARRAY_BUFFER, 4, 8, GLES30.GL_MAP_WRITE_BIT);
+        Assert.assertEquals(8, mapped.capacity());
+        Assert.assertTrue(gles.glUnmapBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER));
+        gles.glDeleteBuffers(2, names, 0);
+        Assert.assertEquals(0, gles.getBufferCount());
+        int[] binding = new int[1];
+        gles.glGetIntegerv(GLES20.GL_ELEMENT_ARRAY_BUFFER_BINDING, binding);
+        Assert.assertEquals(0, binding[0]);
+        IntBuffer status = IntBuffer.allocate(1);
+        Assert.assertEquals(GLES20.GL_NO_ERROR, gles.glGetError());
+        gles.glGetShaderiv(names[0], GLES20.GL_COMPILE_STATUS, status);
+        Assert.assertEquals(GLES20.GL_INVALID_OPERATION, gles.glGetError());
+    }
+
+}
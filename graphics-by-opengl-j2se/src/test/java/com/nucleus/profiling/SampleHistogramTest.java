@@ -0,0 +1,103 @@
+package com.nucleus.profiling;
+
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.profiling.FrameSampler.Level;
+import com.nucleus.profiling.FrameSampler.Sample;
+
+public class SampleHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 1000000; value += 7) {
+            int bucket = SampleHistogram.getBucket(value);
+            long max = SampleHistogram.getBucketMax(bucket);
+            Assert.assertTrue(max >= value);
+            Assert.assertTrue(max - value <= value / SampleHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        SampleHistogram histogram = new SampleHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        // Spike
+        histogram.record(500000000L);
+        Assert.assertEquals(1001, histogram.getCount());
+        Assert.assertEquals(1000, histogram.getMin());
+        Assert.assertEquals(500000000L, histogram.getMax());
+        assertWithin(501000, histogram.getPercentile(50));
+        assertWithin(951000, histogram.getPercentile(95));
+        assertWithin(991000, histogram.getPercentile(99));
+        Assert.assertEquals(500000000L, histogram.getPercentile(100));
+        histogram.reset();
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        FrameSampler sampler = FrameSampler.getInstance();
+        int id = sampler.registerSample("SampleHistogramTest", Level.LOW);
+        Assert.assertEquals(id, sampler.registerSample("SampleHistogramTest", Level.LOW));
+        Assert.assertEquals(id, sampler.getSampleId("SampleHistogramTest"));
+        sampler.addNanos(id, 1000, 3000);
+        StringBuilder csv = new StringBuilder();
+        sampler.exportCSV(csv);
+        Assert.assertTrue(csv.toString().startsWith("tag,count,min,mean,p50,p95,p99,max\n"));
+        Assert.assertTrue(csv.toString().contains("SampleHistogramTest,1,2000,2000,2000,2000,2000,2000\n"));
+        StringBuilder json = new StringBuilder();
+        sampler.exportJSON(json);
+        Assert.assertTrue(json.toString().contains(
+                "{\"tag\":\"SampleHistogramTest\",\"count\":1,\"min\":2000,\"mean\":2000,\"p50\":2000,\"p95\":2000,"
+                        + "\"p99\":2000,\"max\":2000}"));
+    }
+
+    @Test
+    public void testAutoLog() {
+        FrameSampler sampler = FrameSampler.getInstance();
+        int id = sampler.registerSample("SampleHistogramTestLog", Level.LOW, true);
+        sampler.addNanos(id, 2500000);
+        sampler.addNanos(id, 1500000);
+        Sample sample = sampler.getSample("SampleHistogramTestLog");
+        Assert.assertEquals(2, sample.getCount());
+        Assert.assertEquals(2, sample.getAverage());
+        Assert.assertNull(sampler.getSample("SampleHistogramTest"));
+    }
+
+    @Test
+    public void testRegisterWhileRecording() throws InterruptedException {
+        final FrameSampler sampler = FrameSampler.getInstance();
+        final int id = sampler.registerSample("SampleHistogramTestRecord", Level.LOW);
+        final int count = 100000;
+        Thread recorder = new Thread() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    sampler.begin(id);
+                    sampler.end(id);
+                }
+            }
+        };
+        recorder.start();
+        for (int i = 0; i < 500; i++) {
+            sampler.registerSample("SampleHistogramTestRegister" + i, Level.LOW);
+        }
+        recorder.join();
+        SampleHistogram histogram = sampler.getHistogram(id);
+        Assert.assertEquals(count, histogram.getCount());
+        // A start time written to a replaced array would record the time since nanoTime origin
+        Assert.assertTrue(histogram.getMax() < 1000000000L);
+    }
+
+    private void assertWithin(long expected, long actual) {
+        Assert.assertTrue("Expected " + expected + ", was " + actual,
+                Math.abs(expected - actual) <= expected / SampleHistogram.SUB_BUCKETS);
+    }
+
+}
@@ -26,4 +26,77 @@ public class AccessorTest extends BaseTestCase {
         Assert.assertTrue(a.getType() == Type.VEC3);
     }
 
+    @Test
+    public void testCopyStrided() {
+        GLTF gltf = new GLTF();
+        int count = 5000;
+        // Interleaved position and uv, uv accessor starts at byte offset 12
+        BufferView bv = gltf.createBufferView("TEST", count * 20, 0, 20, Target.ARRAY_BUFFER);
+        float[] data = new float[count * 5];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        bv.getBuffer().put(data, 0);
+        Accessor position = new Accessor(bv, 0, ComponentType.FLOAT, count, Type.VEC3);
+        Accessor uv = new Accessor(bv, 12, ComponentType.FLOAT, count, Type.VEC2);
+        float[] positions = new float[count * 3];
+        float[] uvs = new float[count * 2];
+        uv.copy(uvs, 0);
+        position.copy(positions, 0);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(i * 5, positions[i * 3], 0);
+            Assert.assertEquals(i * 5 + 2, positions[i * 3 + 2], 0);
+            Assert.assertEquals(i * 5 + 3, uvs[i * 2], 0);
+            Assert.assertEquals(i * 5 + 4, uvs[i * 2 + 1], 0);
+        }
+        // Copy shall not change position of shared buffers
+        Assert.assertEquals(0, uv.getBuffer().position());
+        Assert.assertEquals(0, uv.getFloatView().position());
+        Assert.assertEquals(3, uv.getFloatView().get(0), 0);
+        MaxMin maxMin = position.calculateMaxMin();
+        Assert.assertFalse(maxMin.isEmpty());
+    }
+
+    @Test
+    public void testCopyIndices() {
+        GLTF gltf = new GLTF();
+        BufferView bv = gltf.createBufferView("TEST", 8, 0, 0, Target.ELEMENT_ARRAY_BUFFER);
+        Accessor shorts = new Accessor(bv, 2, ComponentType.UNSIGNED_SHORT, 3, Type.SCALAR);
+        shorts.getBuffer().putShort(0, (short) 1).putShort(2, (short) 0xffff).putShort(4, (short) 3);
+        int[] indices = new int[4];
+        shorts.copy(indices, 1);
+        Assert.assertArrayEquals(new int[] { 0, 1, 0xffff, 3 }, indices);
+        Accessor bytes = new Accessor(bv, 4, ComponentType.UNSIGNED_BYTE, 2, Type.SCALAR);
+        bytes.copy(indices, 0);
+        Assert.assertEquals(0xff, indices[0]);
+        Assert.assertEquals(0xff, indices[1]);
+    }
+
+    @Test
+    public void testCopyNormalized() {
+        GLTF gltf = new GLTF();
+        // Normals as normalized bytes, padded to 4 bytes
+        BufferView bv = gltf.createBufferView("TEST", 12, 0, 4, Target.ARRAY_BUFFER);
+        Accessor normals = new Accessor(bv, 0, ComponentType.BYTE, 3, Type.VEC3, true);
+        float[] values = new float[] { 0, 0, 1, 0, -1, 0, 0.6f, -0.8f, 0 };
+        normals.put(AttributeQuantizer.quantize(values, ComponentType.BYTE), 0);
+        Assert.assertEquals(-127, normals.getBuffer().get(5));
+        float[] result = new float[values.length];
+        normals.copy(result, 0);
+        Assert.assertArrayEquals(values, result, 0.5f / 127);
+        MaxMin maxMin = normals.calculateMaxMin();
+        Assert.assertArrayEquals(new float[] { 76f / 127, 0, 1, 0, -1, 0 }, maxMin.getValues(), 0);
+        // -128 is clamped to -1
+        normals.getBuffer().put(0, (byte) -128);
+        normals.copy(result, 0);
+        Assert.assertEquals(-1, result[0], 0);
+
+        BufferView uvView = gltf.createBufferView("UV", 8, 0, 4, Target.ARRAY_BUFFER);
+        Accessor uv = new Accessor(uvView, 0, ComponentType.UNSIGNED_SHORT, 2, Type.VEC2, true);
+        uv.put(AttributeQuantizer.quantize(new float[] { 0, 1, 0.5f, 0.25f }, ComponentType.UNSIGNED_SHORT), 0);
+        float[] uvs = new float[4];
+        uv.copy(uvs, 0);
+        Assert.assertArrayEquals(new float[] { 0, 1, 0.5f, 0.25f }, uvs, 0.5f / 65535);
+    }
+
 }
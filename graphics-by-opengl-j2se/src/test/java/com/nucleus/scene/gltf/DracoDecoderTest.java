@@ -0,0 +1,119 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.nucleus.io.StreamUtils;
+import com.nucleus.scene.gltf.DracoDecoder.DracoAttribute;
+import com.nucleus.scene.gltf.DracoDecoder.DracoMesh;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class DracoDecoderTest extends BaseTestCase {
+
+    /**
+     * Box compressed using edgebreaker, quantized positions and geometric normal prediction of normals
+     */
+    private static final String BOX_PATH = "Box/glTF-Draco/";
+    private static final int BOX_POINTS = 24;
+    private static final int BOX_INDICES = 36;
+
+    /**
+     * Checks that the 12 triangles of the box have the normal of the face at all vertices
+     */
+    private void checkBox(int[] indices, float[] positions, float[] normals) {
+        Assert.assertEquals(BOX_INDICES, indices.length);
+        for (int i = 0; i < positions.length; i++) {
+            Assert.assertEquals(0.5f, Math.abs(positions[i]), 0.0001f);
+        }
+        for (int face = 0; face < indices.length; face += 3) {
+            float[] p0 = getVec3(positions, indices[face]);
+            float[] p1 = getVec3(positions, indices[face + 1]);
+            float[] p2 = getVec3(positions, indices[face + 2]);
+            float[] e1 = new float[] { p1[0] - p0[0], p1[1] - p0[1], p1[2] - p0[2] };
+            float[] e2 = new float[] { p2[0] - p0[0], p2[1] - p0[1], p2[2] - p0[2] };
+            float[] cross = new float[] { e1[1] * e2[2] - e1[2] * e2[1], e1[2] * e2[0] - e1[0] * e2[2],
+                    e1[0] * e2[1] - e1[1] * e2[0] };
+            for (int i = 0; i < 3; i++) {
+                float[] normal = getVec3(normals, indices[face + i]);
+                Assert.assertEquals(1f, cross[0] * normal[0] + cross[1] * normal[1] + cross[2] * normal[2],
+                        0.0001f);
+            }
+        }
+    }
+
+    private float[] getVec3(float[] values, int index) {
+        Assert.assertTrue(index >= 0 && index < BOX_POINTS);
+        return new float[] { values[index * 3], values[index * 3 + 1], values[index * 3 + 2] };
+    }
+
+    @Test
+    public void testDecodeBox() throws IOException, URISyntaxException {
+        DracoMesh mesh = DracoDecoder.decode(StreamUtils.readBufferFromName(BOX_PATH + "0.bin"));
+        Assert.assertEquals(BOX_POINTS, mesh.getPointCount());
+        Assert.assertEquals(2, mesh.getAttributeCount());
+        DracoAttribute normal = mesh.getAttribute(0);
+        DracoAttribute position = mesh.getAttribute(1);
+        Assert.assertEquals(DracoDecoder.NORMAL, normal.getType());
+        Assert.assertEquals(DracoDecoder.POSITION, position.getType());
+        Assert.assertTrue(position.isFloat());
+        checkBox(mesh.getIndices(), position.getFloatValues(BOX_POINTS), normal.getFloatValues(BOX_POINTS));
+    }
+
+    @Test
+    public void testInvalidData() throws IOException, URISyntaxException {
+        ByteBuffer buffer = StreamUtils.readBufferFromName(BOX_PATH + "0.bin");
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        try {
+            DracoDecoder.decode(data, 0, data.length / 2);
+            Assert.fail("Truncated data shall not decode");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        data[0] = 'X';
+        try {
+            DracoDecoder.decode(data, 0, data.length);
+            Assert.fail("Invalid header shall not decode");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDecompressPrimitives() throws IOException, URISyntaxException, GLTFException {
+        InputStreamReader reader = new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream(BOX_PATH + "Box.gltf"), "UTF-8");
+        GLTF gltf = new Gson().fromJson(reader, GLTF.class);
+        reader.close();
+        gltf.resolve();
+        Assert.assertTrue(gltf.isExtensionRequired(DracoMeshCompression.KHR_DRACO_MESH_COMPRESSION));
+        gltf.getBuffer(0).setBuffer(StreamUtils.readBufferFromName(BOX_PATH + "0.bin"));
+        Primitive primitive = gltf.getMeshes()[0].getPrimitives()[0];
+        Assert.assertNotNull(primitive.getDracoMeshCompression());
+        Assert.assertNull(primitive.getAccessor(Attributes.POSITION).getBufferView());
+        Assert.assertEquals(1, gltf.decompressPrimitives());
+
+        Accessor positions = primitive.getAccessor(Attributes.POSITION);
+        Accessor normals = primitive.getAccessor(Attributes.NORMAL);
+        Assert.assertNotNull(positions.getBufferView());
+        Assert.assertArrayEquals(new float[] { 0.5f, 0.5f, 0.5f }, positions.getMax(), 0);
+        Assert.assertEquals(1, primitive.getBufferArray().size());
+        int[] indices = new int[BOX_INDICES];
+        primitive.getIndices().copy(indices, 0);
+        float[] positionValues = new float[BOX_POINTS * 3];
+        float[] normalValues = new float[BOX_POINTS * 3];
+        FloatBuffer view = positions.getFloatView().duplicate();
+        view.get(positionValues);
+        normals.copy(normalValues, 0);
+        checkBox(indices, positionValues, normalValues);
+    }
+
+}
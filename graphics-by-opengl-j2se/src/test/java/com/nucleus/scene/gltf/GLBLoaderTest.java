@@ -0,0 +1,64 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.opengl.assets.GLAssetManager;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class GLBLoaderTest extends LoaderTest {
+
+    private static final String BOX = "Box/glTF-Binary/Box.glb";
+
+    @Test
+    public void testLoadGLB() throws IOException, GLTFException, URISyntaxException {
+        GLTF glTF = new GLAssetManager(null).getGLTFAsset(BOX);
+        Assert.assertEquals(BOX, glTF.getFilename());
+        checkAsset(glTF.getAsset());
+        checkScene(glTF.getScene(0));
+        for (Mesh mesh : glTF.getMeshes()) {
+            checkMesh(mesh);
+        }
+        for (BufferView bufferView : glTF.getBufferViews()) {
+            checkBufferView(bufferView);
+        }
+        for (Accessor accessor : glTF.getAccessors()) {
+            checkAccessor(accessor);
+        }
+        for (Material material : glTF.getMaterials()) {
+            checkMaterial(material);
+        }
+        // The BIN chunk is the storage of the first buffer
+        Buffer buffer = glTF.getBuffer(0);
+        checkBuffer(glTF, buffer);
+        Assert.assertTrue(buffer.hasBuffer());
+        Accessor position = glTF.getMeshes()[0].getPrimitives()[0].getAccessor(Attributes.POSITION);
+        float[] positions = new float[position.getCount() * 3];
+        position.copy(positions, 0);
+        float[] max = position.getMax();
+        for (int i = 0; i < positions.length; i++) {
+            Assert.assertTrue(Math.abs(positions[i]) <= max[i % 3]);
+        }
+    }
+
+    @Test
+    public void testMissingGLB() throws IOException, GLTFException {
+        try {
+            new GLAssetManager(null).getGLTFAsset("Box/glTF-Binary/Missing.glb");
+            Assert.fail("Missing glb shall not be loaded");
+        } catch (IllegalArgumentException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+    }
+
+    @Test(expected = GLTFException.class)
+    public void testInvalidGLB() throws GLTFException {
+        new GLB(ByteBuffer.wrap(new byte[] { 'g', 'l', 'T', 'X', 2, 0, 0, 0, 12, 0, 0, 0 }));
+    }
+
+}
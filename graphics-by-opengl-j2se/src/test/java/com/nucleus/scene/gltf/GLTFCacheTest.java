@@ -0,0 +1,130 @@
+package com.nucleus.scene.gltf;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class GLTFCacheTest extends BaseTestCase {
+
+    /**
+     * Draco compressed box, primitive data is decoded into a new buffer
+     */
+    private static final String PATH = "Box/glTF-Draco";
+    private static final String NAME = "Box.gltf";
+    private static final String SETTINGS = "interleave=true";
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("gltfcache").toFile();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private GLTF loadGLTF() throws IOException, GLTFException {
+        InputStreamReader reader = new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream(PATH + "/" + NAME), "UTF-8");
+        GLTF gltf = new Gson().fromJson(reader, GLTF.class);
+        reader.close();
+        gltf.setPath(PATH);
+        gltf.setFilename(NAME);
+        gltf.resolve();
+        return gltf;
+    }
+
+    private GLTF loadProcessedGLTF() throws IOException, GLTFException, URISyntaxException {
+        GLTF gltf = loadGLTF();
+        Buffer buffer = gltf.getBuffer(0);
+        buffer.load(gltf, buffer.getUri());
+        gltf.decompressPrimitives();
+        new VertexInterleaver().interleave(gltf);
+        return gltf;
+    }
+
+    private void assertAccessorEquals(Accessor expected, Accessor actual) {
+        Assert.assertEquals(expected.getCount(), actual.getCount());
+        Assert.assertEquals(expected.getComponentType(), actual.getComponentType());
+        Assert.assertEquals(expected.getType(), actual.getType());
+        Assert.assertEquals(expected.getByteStride(), actual.getByteStride());
+        Assert.assertArrayEquals(expected.getMax(), actual.getMax(), 0);
+        Assert.assertArrayEquals(expected.getMin(), actual.getMin(), 0);
+    }
+
+    @Test
+    public void testStoreRestore() throws IOException, GLTFException, URISyntaxException {
+        GLTF processed = loadProcessedGLTF();
+        GLTFCache cache = new GLTFCache(directory);
+        String key = cache.getKey(processed, SETTINGS);
+        Assert.assertTrue(cache.store(processed, key) > 0);
+        Assert.assertTrue(cache.getFile(key).isFile());
+
+        GLTF restored = loadGLTF();
+        Assert.assertFalse(restored.getBuffer(0).hasBuffer());
+        Assert.assertNotNull(cache.restore(restored, key));
+        Primitive expected = processed.getMeshes()[0].getPrimitives()[0];
+        Primitive actual = restored.getMeshes()[0].getPrimitives()[0];
+        Assert.assertEquals(expected.getAttributesArray(), actual.getAttributesArray());
+        Assert.assertEquals(1, actual.getBufferArray().size());
+        int[] expectedIndices = new int[expected.getIndices().getCount()];
+        int[] actualIndices = new int[actual.getIndices().getCount()];
+        expected.getIndices().copy(expectedIndices, 0);
+        actual.getIndices().copy(actualIndices, 0);
+        Assert.assertArrayEquals(expectedIndices, actualIndices);
+        for (Attributes attribute : expected.getAttributesArray()) {
+            Accessor expectedAccessor = expected.getAccessor(attribute);
+            Accessor actualAccessor = actual.getAccessor(attribute);
+            assertAccessorEquals(expectedAccessor, actualAccessor);
+            float[] expectedValues = new float[expectedAccessor.getCount() * expectedAccessor.getType().size];
+            float[] actualValues = new float[expectedValues.length];
+            expectedAccessor.copy(expectedValues, 0);
+            actualAccessor.copy(actualValues, 0);
+            Assert.assertArrayEquals(expectedValues, actualValues, 0);
+        }
+        Assert.assertEquals(restored.getPrimitiveBuffers(null).get(0), actual.getBufferArray().get(0));
+    }
+
+    @Test
+    public void testInvalidate() throws IOException, GLTFException, URISyntaxException {
+        GLTF processed = loadProcessedGLTF();
+        GLTFCache cache = new GLTFCache(directory);
+        String key = cache.getKey(processed, SETTINGS);
+        Assert.assertEquals(key, cache.getKey(loadGLTF(), SETTINGS));
+        Assert.assertFalse(key.equals(cache.getKey(processed, "interleave=false")));
+        Assert.assertNull(cache.restore(loadGLTF(), key));
+        cache.store(processed, key);
+        // Cache file for other key shall not be used
+        String other = cache.getKey(processed, "interleave=false");
+        Assert.assertTrue(cache.getFile(key).renameTo(cache.getFile(other)));
+        GLTF restored = loadGLTF();
+        Assert.assertNull(cache.restore(restored, other));
+        Assert.assertNull(restored.getMeshes()[0].getPrimitives()[0].getAccessor(Attributes.POSITION)
+                .getBufferView());
+        FileOutputStream out = new FileOutputStream(cache.getFile(key));
+        out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+        out.close();
+        Assert.assertNull(cache.restore(restored, key));
+    }
+
+}
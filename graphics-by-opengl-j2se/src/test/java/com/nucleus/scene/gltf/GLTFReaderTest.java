@@ -0,0 +1,153 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.nucleus.io.StreamUtils;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class GLTFReaderTest extends BaseTestCase {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final String[] BOX_VARIANTS = new String[] { "Box/glTF/Box.gltf", "Box/glTF-Draco/Box.gltf",
+            "Box/glTF-Embedded/Box.gltf", "Box/glTF-pbrSpecularGlossiness/Box.gltf" };
+    private static final String BOX_GLB = "Box/glTF-Binary/Box.glb";
+    /**
+     * Number of nodes, meshes and primitives in the generated document, each primitive has 3 accessors.
+     */
+    private static final int GENERATED_COUNT = 5000;
+
+    private GLTF readReflective(String json) throws GLTFException {
+        GLTF gltf = new Gson().fromJson(json, GLTF.class);
+        gltf.resolve();
+        return gltf;
+    }
+
+    private GLTF readStreaming(String json) throws IOException, GLTFException {
+        return new GLTFReader().read(new StringReader(json));
+    }
+
+    /**
+     * Checks that the serialized properties of the glTF read using gson and using the streaming reader are the same.
+     */
+    private GLTF assertSameModel(String json) throws IOException, GLTFException {
+        GLTF reflective = readReflective(json);
+        GLTF streaming = readStreaming(json);
+        Gson gson = new Gson();
+        Assert.assertEquals(gson.toJson(reflective), gson.toJson(streaming));
+        return streaming;
+    }
+
+    /**
+     * Creates a document with a large number of nodes, meshes and accessors that uses most of the glTF properties.
+     * Contains properties that are not known, null values and properties that shall get default values.
+     */
+    private String createDocument(int count) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"asset\":{\"version\":\"2.0\",\"generator\":\"GLTFReaderTest\",\"extras\":{\"a\":[1,{}]}},");
+        sb.append("\"extensionsUsed\":[\"KHR_mesh_quantization\"],\"unknown\":[null,true,{\"b\":[]}],");
+        sb.append("\"scene\":0,\"scenes\":[{\"name\":\"scene\",\"nodes\":[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? "," : "").append(i);
+        }
+        sb.append("]}],\"nodes\":[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"name\":\"node").append(i).append("\",\"mesh\":").append(i);
+            if ((i & 1) == 0) {
+                sb.append(",\"translation\":[").append(i).append(",0.5,-1.25e1],\"rotation\":[0,0,0,1]");
+                sb.append(",\"scale\":[1,2,3]");
+            }
+            sb.append(",\"extras\":null}");
+        }
+        sb.append("],\"cameras\":[{\"type\":\"perspective\",\"perspective\":{\"yfov\":0.8,\"znear\":0.1}},");
+        sb.append("{\"name\":\"ortho\",\"type\":\"orthographic\",\"orthographic\":");
+        sb.append("{\"xmag\":1,\"ymag\":2,\"zfar\":100,\"znear\":0.01}}],\"meshes\":[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"primitives\":[{\"attributes\":{\"POSITION\":").append(i * 3)
+                    .append(",\"TEXCOORD_0\":").append(i * 3 + 1).append("},\"indices\":").append(i * 3 + 2)
+                    .append(",\"material\":0,\"mode\":4,\"targets\":[]}]}");
+        }
+        sb.append("],\"materials\":[{\"name\":\"material\",\"pbrMetallicRoughness\":{\"baseColorFactor\":");
+        sb.append("[1,0.5,0.25,1],\"metallicFactor\":0.5,\"baseColorTexture\":{\"index\":0,\"texCoord\":0}},");
+        sb.append("\"normalTexture\":{\"index\":0,\"scale\":0.5},\"occlusionTexture\":{\"index\":0,");
+        sb.append("\"strength\":null},\"alphaMode\":\"MASK\",\"alphaCutoff\":0.25,\"doubleSided\":true,");
+        sb.append("\"emissiveFactor\":null}],");
+        sb.append("\"textures\":[{\"sampler\":0,\"source\":0}],\"samplers\":[{\"magFilter\":9728,\"wrapS\":33071}],");
+        sb.append("\"images\":[{\"uri\":\"image.png\",\"mimeType\":\"image/png\"}],\"accessors\":[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? "," : "");
+            sb.append("{\"bufferView\":0,\"byteOffset\":0,\"componentType\":5126,\"count\":4,\"type\":\"VEC3\",");
+            sb.append("\"max\":[1,1,0],\"min\":[-1,-1,0]},");
+            sb.append("{\"bufferView\":0,\"byteOffset\":48,\"componentType\":5126,\"count\":4,\"type\":\"VEC2\",");
+            sb.append("\"normalized\":false},");
+            sb.append("{\"bufferView\":1,\"componentType\":5123,\"count\":6,\"type\":\"SCALAR\"}");
+        }
+        sb.append("],\"bufferViews\":[{\"buffer\":0,\"byteLength\":80,\"target\":34962},");
+        sb.append("{\"buffer\":0,\"byteOffset\":80,\"byteLength\":12}],");
+        sb.append("\"buffers\":[{\"uri\":\"data.bin\",\"byteLength\":92}]}");
+        return sb.toString();
+    }
+
+    @Test
+    public void testBoxVariants() throws IOException, URISyntaxException, GLTFException {
+        for (String name : BOX_VARIANTS) {
+            assertSameModel(UTF8.decode(StreamUtils.readBufferFromName(name)).toString());
+        }
+        ByteBuffer json = new GLB(StreamUtils.readBufferFromName(BOX_GLB)).getJSON();
+        GLTF gltf = assertSameModel(UTF8.decode(json).toString());
+        Primitive primitive = gltf.getMeshes()[0].getPrimitives()[0];
+        Assert.assertNotNull(primitive.getAccessor(Attributes.POSITION).getBufferView());
+        Assert.assertSame(gltf.getBuffer(0), primitive.getIndices().getBufferView().getBuffer());
+        Assert.assertNotNull(primitive.getMaterial());
+    }
+
+    @Test
+    public void testGeneratedDocument() throws IOException, GLTFException {
+        String json = createDocument(GENERATED_COUNT);
+        GLTF gltf = assertSameModel(json);
+        Assert.assertEquals(GENERATED_COUNT, gltf.getNodes().length);
+        Assert.assertEquals(GENERATED_COUNT * 3, gltf.getAccessors().size());
+        Assert.assertEquals("node1", gltf.getNodes()[1].getName());
+        Assert.assertEquals("ortho", gltf.getCamera(1).getName());
+        Primitive primitive = gltf.getMeshes()[GENERATED_COUNT - 1].getPrimitives()[0];
+        Assert.assertSame(gltf.getAccessors().get(GENERATED_COUNT * 3 - 3),
+                primitive.getAccessor(Attributes.POSITION));
+        Assert.assertSame(gltf.getBufferView(1), primitive.getIndices().getBufferView());
+        Material material = primitive.getMaterial();
+        Assert.assertEquals(Material.AlphaMode.MASK, material.getAlphaMode());
+        Assert.assertEquals(1, material.getOcclusionTexture().getStrength(), 0);
+        Assert.assertNull(material.getEmissiveFactor());
+    }
+
+    @Test
+    public void testInvalidDocument() throws IOException, GLTFException {
+        Assert.assertNull(readStreaming(""));
+        try {
+            readStreaming("{\"asset\":{\"version\":\"2.0\"}} {}");
+            Assert.fail("Document with trailing value shall not be read");
+        } catch (IOException e) {
+            // Expected
+        }
+        try {
+            readStreaming("{\"nodes\":{\"mesh\":0}}");
+            Assert.fail("Object instead of array shall not be read");
+        } catch (IOException e) {
+            // Expected
+        }
+        try {
+            readStreaming("{\"asset\":{\"version\":\"2.0\"},\"extensionsRequired\":[\"EXT_unknown\"]}");
+            Assert.fail("Document with unsupported required extension shall not be loaded");
+        } catch (GLTFException e) {
+            Assert.assertTrue(e.getMessage().contains("EXT_unknown"));
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.nucleus.scene.gltf;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.common.BufferUtils;
+import com.nucleus.common.Environment;
+import com.nucleus.common.Environment.Property;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.GLTF.Residency;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class GLTFResidencyTest extends BaseTestCase {
+
+    /**
+     * One triangle without min and max for POSITION, position and indices are in the first buffer and normals
+     * in the second.
+     */
+    private static final String TRIANGLE = "{\"asset\":{\"version\":\"2.0\"},"
+            + "\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0,\"NORMAL\":1},\"indices\":2}]}],"
+            + "\"buffers\":[{\"byteLength\":42},{\"byteLength\":36}],"
+            + "\"bufferViews\":[{\"buffer\":0,\"byteLength\":36,\"target\":34962},"
+            + "{\"buffer\":1,\"byteLength\":36,\"target\":34962},"
+            + "{\"buffer\":0,\"byteOffset\":36,\"byteLength\":6,\"target\":34963}],"
+            + "\"accessors\":[{\"bufferView\":0,\"componentType\":5126,\"count\":3,\"type\":\"VEC3\"},"
+            + "{\"bufferView\":1,\"componentType\":5126,\"count\":3,\"type\":\"VEC3\"},"
+            + "{\"bufferView\":2,\"componentType\":5123,\"count\":3,\"type\":\"SCALAR\"}]}";
+
+    /**
+     * Reads the triangle and sets buffer names as if the buffers were uploaded
+     */
+    private GLTF createUploaded(Residency residency) throws IOException, GLTFException {
+        GLTF gltf = new GLTFReader().read(new StringReader(TRIANGLE));
+        gltf.setFilename("triangle");
+        for (Buffer buffer : gltf.getBuffers(null)) {
+            buffer.createBuffer();
+            buffer.setBufferName(1);
+        }
+        Accessor position = gltf.getAccessor(0);
+        position.put(new float[] { 0, 0, 0, 2, 0, 0, 0, 3, -1 }, 0);
+        // Create views before the buffer is released
+        Assert.assertEquals(36, position.getBuffer().capacity());
+        gltf.setResidency(residency);
+        return gltf;
+    }
+
+    @Test
+    public void testKeep() throws IOException, GLTFException {
+        GLTF gltf = createUploaded(Residency.KEEP);
+        Assert.assertEquals(0, gltf.releaseBuffers());
+        Assert.assertTrue(gltf.getBuffer(0).hasBuffer());
+        Assert.assertTrue(gltf.getBuffer(1).hasBuffer());
+    }
+
+    @Test
+    public void testRelease() throws IOException, GLTFException {
+        GLTF gltf = createUploaded(Residency.RELEASE);
+        Assert.assertEquals(78, gltf.releaseBuffers());
+        Assert.assertFalse(gltf.getBuffer(0).hasBuffer());
+        Assert.assertFalse(gltf.getBuffer(1).hasBuffer());
+        // Bounds are calculated before the buffers are released
+        Assert.assertEquals(3, gltf.getMeshes()[0].getBounds().getMaxValue(), 0);
+        try {
+            gltf.getAccessor(0).getBuffer();
+            Assert.fail("Released buffer shall not be read");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        Assert.assertEquals(0, gltf.releaseBuffers());
+    }
+
+    @Test
+    public void testKeepPicking() throws IOException, GLTFException {
+        GLTF gltf = createUploaded(Residency.KEEP_PICKING);
+        Assert.assertEquals(36, gltf.releaseBuffers());
+        Assert.assertTrue(gltf.getBuffer(0).hasBuffer());
+        Assert.assertFalse(gltf.getBuffer(1).hasBuffer());
+        Primitive primitive = gltf.getMeshes()[0].getPrimitives()[0];
+        float[] positions = new float[9];
+        primitive.getAccessor(Attributes.POSITION).copy(positions, 0);
+        Assert.assertEquals(3, positions[7], 0);
+    }
+
+    @Test
+    public void testInvalidProperty() throws IOException, GLTFException {
+        GLTF gltf = createUploaded(null);
+        try {
+            Environment.getInstance().setProperty(Property.GLTF_RESIDENCY, "release_all");
+            Assert.assertEquals(Residency.KEEP, gltf.getResidency());
+            Environment.getInstance().setProperty(Property.GLTF_RESIDENCY, "release");
+            Assert.assertEquals(Residency.RELEASE, gltf.getResidency());
+        } finally {
+            Environment.getInstance().setProperty(Property.GLTF_RESIDENCY, "");
+        }
+    }
+
+    @Test
+    public void testFreeBuffer() {
+        Assert.assertFalse(BufferUtils.freeBuffer(ByteBuffer.allocate(16)));
+        ByteBuffer direct = BufferUtils.createByteBuffer(16);
+        Assert.assertFalse(BufferUtils.freeBuffer(direct.slice()));
+        Assert.assertTrue(BufferUtils.freeBuffer(direct));
+    }
+
+}
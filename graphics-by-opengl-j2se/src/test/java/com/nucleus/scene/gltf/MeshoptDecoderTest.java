@@ -0,0 +1,145 @@
+package com.nucleus.scene.gltf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.nucleus.scene.gltf.GLTF.GLTFException;
+import com.nucleus.scene.gltf.MeshoptCompression.Filter;
+
+public class MeshoptDecoderTest extends BaseTestCase {
+
+    /**
+     * A quad with 2 x 16 bit positions, 0 and 300
+     */
+    private static final byte[] VERTEX_BUFFER = toBytes(new int[] { 0xa0, 0x01, 0x3f, 0x00, 0x00, 0x00, 0x58, 0x57,
+            0x58, 0x01, 0x26, 0x00, 0x00, 0x00, 0x01, 0x0c, 0x00, 0x00, 0x00, 0x58, 0x01, 0x08, 0x00, 0x00, 0x00,
+            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 });
+    private static final int[] VERTICES = new int[] { 0, 0, 300, 0, 0, 300, 300, 300 };
+
+    private static final byte[] INDEX_BUFFER = toBytes(new int[] { 0xe0, 0xf0, 0x10, 0xfe, 0xff, 0xf0, 0x0c, 0xff,
+            0x02, 0x02, 0x02, 0x00, 0x76, 0x87, 0x56, 0x67, 0x78, 0xa9, 0x86, 0x65, 0x89, 0x68, 0x98, 0x01, 0x69,
+            0x00, 0x00 });
+    private static final int[] INDICES = new int[] { 0, 1, 2, 2, 1, 3, 4, 6, 5, 7, 8, 9 };
+
+    private static final byte[] INDEX_SEQUENCE = toBytes(new int[] { 0xd1, 0x00, 0x04, 0xcd, 0x01, 0x04, 0x07, 0x98,
+            0x1f, 0x00, 0x00, 0x00, 0x00 });
+    private static final int[] SEQUENCE = new int[] { 0, 1, 51, 2, 49, 1000 };
+
+    private static byte[] toBytes(int[] values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static int[] toInts(byte[] data, int size) {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int[] result = new int[data.length / size];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = size == 2 ? buffer.getShort(i * 2) & 0xffff : buffer.getInt(i * 4);
+        }
+        return result;
+    }
+
+    @Test
+    public void testDecodeVertexBuffer() {
+        byte[] result = new byte[16];
+        MeshoptDecoder.decodeVertexBuffer(result, 4, 4, VERTEX_BUFFER, 0, VERTEX_BUFFER.length);
+        Assert.assertArrayEquals(VERTICES, toInts(result, 2));
+        try {
+            MeshoptDecoder.decodeVertexBuffer(result, 4, 4, VERTEX_BUFFER, 0, VERTEX_BUFFER.length - 1);
+            Assert.fail("Truncated data shall not decode");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDecodeIndexBuffer() {
+        byte[] result = new byte[INDICES.length * 4];
+        MeshoptDecoder.decodeIndexBuffer(result, INDICES.length, 4, INDEX_BUFFER, 0, INDEX_BUFFER.length);
+        Assert.assertArrayEquals(INDICES, toInts(result, 4));
+        result = new byte[INDICES.length * 2];
+        MeshoptDecoder.decodeIndexBuffer(result, INDICES.length, 2, INDEX_BUFFER, 0, INDEX_BUFFER.length);
+        Assert.assertArrayEquals(INDICES, toInts(result, 2));
+    }
+
+    @Test
+    public void testDecodeIndexSequence() {
+        byte[] result = new byte[SEQUENCE.length * 4];
+        MeshoptDecoder.decodeIndexSequence(result, SEQUENCE.length, 4, INDEX_SEQUENCE, 0, INDEX_SEQUENCE.length);
+        Assert.assertArrayEquals(SEQUENCE, toInts(result, 4));
+    }
+
+    @Test
+    public void testFilters() {
+        // Octahedral, encoded the same way as meshopt_encodeFilterOct with 8 bits
+        float[][] normals = new float[][] { { 0, 0, 1 }, { 0, 0, -1 }, { 0.6f, -0.8f, 0 }, { -0.48f, 0.6f, -0.64f } };
+        byte[] data = new byte[normals.length * 4];
+        for (int i = 0; i < normals.length; i++) {
+            float[] n = normals[i];
+            float scale = 1f / (Math.abs(n[0]) + Math.abs(n[1]) + Math.abs(n[2]));
+            float x = n[0] * scale;
+            float y = n[1] * scale;
+            float u = n[2] >= 0 ? x : (1 - Math.abs(y)) * (x >= 0 ? 1 : -1);
+            float v = n[2] >= 0 ? y : (1 - Math.abs(x)) * (y >= 0 ? 1 : -1);
+            data[i * 4] = (byte) Math.round(u * 127);
+            data[i * 4 + 1] = (byte) Math.round(v * 127);
+            data[i * 4 + 2] = 127;
+            data[i * 4 + 3] = 1;
+        }
+        MeshoptDecoder.decodeFilter(Filter.OCTAHEDRAL, data, normals.length, 4);
+        for (int i = 0; i < normals.length; i++) {
+            for (int c = 0; c < 3; c++) {
+                Assert.assertEquals(normals[i][c], data[i * 4 + c] / 127f, 0.02f);
+            }
+            Assert.assertEquals(1, data[i * 4 + 3]);
+        }
+
+        // Identity quaternion, largest component is w (3) and scale is stored in the high bits
+        data = new byte[8];
+        data[6] = (byte) 0xff;
+        data[7] = 0x7f;
+        MeshoptDecoder.decodeFilter(Filter.QUATERNION, data, 1, 8);
+        Assert.assertArrayEquals(new int[] { 0, 0, 0, 32767 }, toInts(data, 2));
+
+        // Exponential, mantissa 3 and exponent -1 is 1.5, mantissa -5 and exponent 2 is -20
+        ByteBuffer exp = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        exp.putInt(0, (-1 << 24) | 3).putInt(4, (2 << 24) | (-5 & 0xffffff));
+        data = exp.array();
+        MeshoptDecoder.decodeFilter(Filter.EXPONENTIAL, data, 2, 4);
+        Assert.assertEquals(1.5f, exp.getFloat(0), 0);
+        Assert.assertEquals(-20f, exp.getFloat(4), 0);
+    }
+
+    @Test
+    public void testDecompressBufferViews() throws GLTFException {
+        String json = "{\"asset\": {\"version\": \"2.0\"},"
+                + "\"extensionsUsed\": [\"EXT_meshopt_compression\"],"
+                + "\"extensionsRequired\": [\"EXT_meshopt_compression\"],"
+                + "\"buffers\": [{\"byteLength\": " + INDEX_BUFFER.length + "},"
+                + "{\"byteLength\": 48, \"extensions\": {\"EXT_meshopt_compression\": {\"fallback\": true}}}],"
+                + "\"bufferViews\": [{\"buffer\": 1, \"byteLength\": 48, \"target\": 34963,"
+                + "\"extensions\": {\"EXT_meshopt_compression\": {\"buffer\": 0, \"byteLength\": "
+                + INDEX_BUFFER.length + ", \"byteStride\": 4, \"count\": 12, \"mode\": \"TRIANGLES\"}}}]}";
+        GLTF gltf = new Gson().fromJson(json, GLTF.class);
+        gltf.resolve();
+        Assert.assertTrue(gltf.isExtensionRequired(MeshoptCompression.EXT_MESHOPT_COMPRESSION));
+        Assert.assertTrue(gltf.getBuffer(1).isFallback());
+        Assert.assertFalse(gltf.getBuffer(0).isFallback());
+        gltf.getBuffer(0).setBuffer(ByteBuffer.wrap(INDEX_BUFFER));
+        Assert.assertEquals(1, gltf.decompressBufferViews());
+        BufferView view = gltf.getBufferView(0);
+        Assert.assertEquals(MeshoptCompression.Mode.TRIANGLES, view.getMeshoptCompression().getMode());
+        byte[] result = new byte[48];
+        view.getSlice().get(result);
+        Assert.assertArrayEquals(INDICES, toInts(result, 4));
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.Backend.DrawMode;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+import com.nucleus.scene.gltf.Primitive.Triangles;
+
+public class PrimitiveTest extends BaseTestCase {
+
+    /**
+     * Number of quads in x and y, large enough for calculation to be split
+     */
+    private static final int GRID_SIZE = 100;
+
+    /**
+     * Creates a flat grid in the xy plane, uv is the same as xy
+     */
+    private Primitive createGrid(GLTF gltf, int size) {
+        int vertices = (size + 1) * (size + 1);
+        float[] positions = new float[vertices * 3];
+        float[] uv = new float[vertices * 2];
+        int[] indices = new int[size * size * 6];
+        for (int y = 0; y <= size; y++) {
+            for (int x = 0; x <= size; x++) {
+                int vertex = y * (size + 1) + x;
+                positions[vertex * 3] = (float) x / size;
+                positions[vertex * 3 + 1] = (float) y / size;
+                uv[vertex * 2] = (float) x / size;
+                uv[vertex * 2 + 1] = (float) y / size;
+            }
+        }
+        int index = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int v0 = y * (size + 1) + x;
+                int v2 = v0 + size + 1;
+                indices[index++] = v0;
+                indices[index++] = v0 + 1;
+                indices[index++] = v2;
+                indices[index++] = v2;
+                indices[index++] = v0 + 1;
+                indices[index++] = v2 + 1;
+            }
+        }
+        BufferView positionView = gltf.createBufferView("position", positions.length * 4, 0, 12,
+                Target.ARRAY_BUFFER);
+        positionView.getBuffer().put(positions, 0);
+        BufferView uvView = gltf.createBufferView("uv", uv.length * 4, 0, 8, Target.ARRAY_BUFFER);
+        uvView.getBuffer().put(uv, 0);
+        BufferView indexView = gltf.createBufferView("indices", indices.length * 4, 0, 0,
+                Target.ELEMENT_ARRAY_BUFFER);
+        Accessor indexAccessor = new Accessor(indexView, 0, ComponentType.UNSIGNED_INT, indices.length,
+                Type.SCALAR);
+        indexAccessor.getBuffer().asIntBuffer().put(indices);
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.POSITION);
+        accessors.add(new Accessor(positionView, 0, ComponentType.FLOAT, vertices, Type.VEC3));
+        attributes.add(Attributes.TEXCOORD_0);
+        accessors.add(new Accessor(uvView, 0, ComponentType.FLOAT, vertices, Type.VEC2));
+        return new Primitive(attributes, accessors, indexAccessor, null, DrawMode.TRIANGLES);
+    }
+
+    @Test
+    public void testCalculateTBN() {
+        GLTF gltf = new GLTF();
+        Primitive primitive = createGrid(gltf, GRID_SIZE);
+        Triangles triangles = primitive.createTriangles();
+        primitive.calculateTBN(triangles);
+        float[] normals = triangles.normalArray;
+        float[][] tangents = triangles.tangentBitangentArray;
+        int vertices = (GRID_SIZE + 1) * (GRID_SIZE + 1);
+        Assert.assertEquals(vertices * 3, normals.length);
+        Assert.assertEquals(vertices * 4, tangents[0].length);
+        for (int i = 0; i < vertices; i++) {
+            Assert.assertArrayEquals(new float[] { 0, 0, 1 },
+                    new float[] { normals[i * 3], normals[i * 3 + 1], normals[i * 3 + 2] }, 0.0001f);
+            Assert.assertArrayEquals(new float[] { 1, 0, 0, 1 }, new float[] { tangents[0][i * 4],
+                    tangents[0][i * 4 + 1], tangents[0][i * 4 + 2], tangents[0][i * 4 + 3] }, 0.0001f);
+            Assert.assertArrayEquals(new float[] { 0, 1, 0, 1 }, new float[] { tangents[1][i * 4],
+                    tangents[1][i * 4 + 1], tangents[1][i * 4 + 2], tangents[1][i * 4 + 3] }, 0.0001f);
+        }
+
+        // Result shall be the same regardless of how the calculation is split
+        Triangles second = primitive.createTriangles();
+        primitive.calculateTBN(second);
+        Assert.assertArrayEquals(normals, second.normalArray, 0);
+        Assert.assertArrayEquals(tangents[0], second.tangentBitangentArray[0], 0);
+        Assert.assertArrayEquals(tangents[1], second.tangentBitangentArray[1], 0);
+
+        primitive.addTBN(gltf, triangles);
+        Accessor tangent = primitive.getAccessor(Attributes.TANGENT);
+        Assert.assertEquals(vertices, tangent.getCount());
+        Assert.assertEquals(Type.VEC4, tangent.getType());
+        Assert.assertNotNull(primitive.getAccessor(Attributes.BITANGENT));
+        Assert.assertNotNull(primitive.getAccessor(Attributes.NORMAL));
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.Backend.DrawMode;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class VertexCacheOptimizerTest extends BaseTestCase {
+
+    private static final int GRID_SIZE = 64;
+
+    /**
+     * Creates triangle indices for a grid, triangles are shuffled
+     */
+    private int[] createShuffledGrid(int size, long seed) {
+        int[] indices = new int[size * size * 6];
+        int index = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int v0 = y * (size + 1) + x;
+                int v2 = v0 + size + 1;
+                int[] quad = new int[] { v0, v0 + 1, v2, v2, v0 + 1, v2 + 1 };
+                System.arraycopy(quad, 0, indices, index, 6);
+                index += 6;
+            }
+        }
+        Random random = new Random(seed);
+        int triangles = indices.length / 3;
+        for (int i = triangles - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            for (int c = 0; c < 3; c++) {
+                int temp = indices[i * 3 + c];
+                indices[i * 3 + c] = indices[j * 3 + c];
+                indices[j * 3 + c] = temp;
+            }
+        }
+        return indices;
+    }
+
+    private Set<String> getTriangles(int[] indices, float[] positions) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < indices.length; i += 3) {
+            String[] vertices = new String[3];
+            for (int c = 0; c < 3; c++) {
+                int v = indices[i + c] * 3;
+                vertices[c] = positions[v] + "," + positions[v + 1] + "," + positions[v + 2];
+            }
+            // Keep winding, start with the smallest vertex
+            int first = 0;
+            for (int c = 1; c < 3; c++) {
+                if (vertices[c].compareTo(vertices[first]) < 0) {
+                    first = c;
+                }
+            }
+            result.add(vertices[first] + ";" + vertices[(first + 1) % 3] + ";" + vertices[(first + 2) % 3]);
+        }
+        return result;
+    }
+
+    @Test
+    public void testACMR() {
+        // Vertices of one triangle are misses, the second triangle only adds one vertex
+        int[] indices = new int[] { 0, 1, 2, 2, 1, 3 };
+        Assert.assertEquals(4, VertexCacheOptimizer.countCacheMisses(indices, 4, 16));
+        Assert.assertEquals(2f, VertexCacheOptimizer.calculateACMR(indices, 4, 16), 0);
+        // With a cache of 3 vertices vertex 0 is evicted by vertex 3
+        indices = new int[] { 0, 1, 2, 1, 2, 3, 0, 2, 3 };
+        Assert.assertEquals(5, VertexCacheOptimizer.countCacheMisses(indices, 4, 3));
+    }
+
+    @Test
+    public void testTipsify() {
+        int[] indices = createShuffledGrid(GRID_SIZE, 1);
+        int vertexCount = (GRID_SIZE + 1) * (GRID_SIZE + 1);
+        VertexCacheOptimizer optimizer = new VertexCacheOptimizer();
+        float before = VertexCacheOptimizer.calculateACMR(indices, vertexCount, 16);
+        ArrayList<Integer> clusters = new ArrayList<>();
+        int[] optimized = optimizer.tipsify(indices, vertexCount, clusters);
+        float after = VertexCacheOptimizer.calculateACMR(optimized, vertexCount, 16);
+        Assert.assertTrue("ACMR before " + before, before > 2);
+        Assert.assertTrue("ACMR after " + after, after < 0.8f);
+        Assert.assertFalse(clusters.isEmpty());
+        Assert.assertEquals(0, (int) clusters.get(0));
+        // Same triangles
+        float[] positions = new float[vertexCount * 3];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Assert.assertEquals(getTriangles(indices, positions), getTriangles(optimized, positions));
+        int[] sorted = VertexCacheOptimizer.sortClusters(optimized, clusters, positions, 3);
+        Assert.assertEquals(getTriangles(indices, positions), getTriangles(sorted, positions));
+
+        int[] remap = VertexCacheOptimizer.reorderVertices(optimized, vertexCount);
+        Assert.assertEquals(0, optimized[0]);
+        int max = -1;
+        for (int index : optimized) {
+            Assert.assertTrue(index <= max + 1);
+            max = Math.max(max, index);
+        }
+        int[] sortedRemap = Arrays.copyOf(remap, remap.length);
+        Arrays.sort(sortedRemap);
+        for (int i = 0; i < sortedRemap.length; i++) {
+            Assert.assertEquals(i, sortedRemap[i]);
+        }
+        Assert.assertEquals(after, VertexCacheOptimizer.calculateACMR(optimized, vertexCount, 16), 0);
+    }
+
+    @Test
+    public void testOptimizePrimitive() {
+        GLTF gltf = new GLTF();
+        int vertexCount = (GRID_SIZE + 1) * (GRID_SIZE + 1);
+        int[] indices = createShuffledGrid(GRID_SIZE, 2);
+        float[] positions = new float[vertexCount * 3];
+        for (int i = 0; i < vertexCount; i++) {
+            positions[i * 3] = i % (GRID_SIZE + 1);
+            positions[i * 3 + 1] = i / (GRID_SIZE + 1);
+        }
+        BufferView positionView = gltf.createBufferView("position", positions.length * 4, 0, 12,
+                Target.ARRAY_BUFFER);
+        positionView.getBuffer().put(positions, 0);
+        BufferView indexView = gltf.createBufferView("indices", indices.length * 2, 0, 0,
+                Target.ELEMENT_ARRAY_BUFFER);
+        Accessor indexAccessor = new Accessor(indexView, 0, ComponentType.UNSIGNED_SHORT, indices.length,
+                Type.SCALAR);
+        indexAccessor.put(indices, 0);
+        Accessor position = new Accessor(positionView, 0, ComponentType.FLOAT, vertexCount, Type.VEC3);
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.POSITION);
+        accessors.add(position);
+        Primitive primitive = new Primitive(attributes, accessors, indexAccessor, null, DrawMode.TRIANGLES);
+
+        VertexCacheOptimizer optimizer = new VertexCacheOptimizer(16, true, true);
+        VertexCacheOptimizer.Result result = optimizer.optimize(primitive, true);
+        Assert.assertEquals(indices.length / 3, result.getTriangleCount());
+        Assert.assertTrue(result.getACMRAfter() < result.getACMRBefore());
+        Assert.assertEquals(1, result.getReorderedPrimitives());
+
+        int[] optimizedIndices = new int[indices.length];
+        indexAccessor.copy(optimizedIndices, 0);
+        float[] optimizedPositions = new float[positions.length];
+        position.copy(optimizedPositions, 0);
+        Assert.assertEquals(result.getACMRAfter(),
+                VertexCacheOptimizer.calculateACMR(optimizedIndices, vertexCount, 16), 0);
+        Assert.assertEquals(getTriangles(indices, positions), getTriangles(optimizedIndices, optimizedPositions));
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.Backend.DrawMode;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class VertexInterleaverTest extends BaseTestCase {
+
+    /**
+     * Creates a primitive with planar position and uv, each attribute is stored in a separate buffer
+     */
+    private Primitive createPlanarPrimitive(GLTF gltf, int vertexCount, ComponentType uvType) {
+        BufferView positionView = gltf.createBufferView("position", vertexCount * 12, 0, 0, Target.ARRAY_BUFFER);
+        BufferView uvView = gltf.createBufferView("uv", vertexCount * 2 * uvType.size, 0, 0, Target.ARRAY_BUFFER);
+        Accessor position = new Accessor(positionView, 0, ComponentType.FLOAT, vertexCount, Type.VEC3);
+        Accessor texCoord = new Accessor(uvView, 0, uvType, vertexCount, Type.VEC2);
+        float[] positions = new float[vertexCount * 3];
+        for (int i = 0; i < vertexCount; i++) {
+            positions[i * 3] = i;
+            positions[i * 3 + 1] = i + 0.25f;
+            positions[i * 3 + 2] = i + 0.5f;
+        }
+        position.put(positions, 0);
+        if (uvType == ComponentType.FLOAT) {
+            float[] uv = new float[vertexCount * 2];
+            for (int i = 0; i < uv.length; i++) {
+                uv[i] = i;
+            }
+            texCoord.put(uv, 0);
+        } else {
+            for (int i = 0; i < vertexCount * 2; i++) {
+                uvView.getBuffer().getBuffer().putShort(i * 2, (short) i);
+            }
+        }
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.TEXCOORD_0);
+        accessors.add(texCoord);
+        attributes.add(Attributes.POSITION);
+        accessors.add(position);
+        return new Primitive(attributes, accessors, null, null, DrawMode.TRIANGLES);
+    }
+
+    private void checkPositions(Primitive primitive) {
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        float[] positions = new float[position.getCount() * 3];
+        position.copy(positions, 0);
+        for (int i = 0; i < position.getCount(); i++) {
+            Assert.assertEquals(i, positions[i * 3], 0);
+            Assert.assertEquals(i + 0.25f, positions[i * 3 + 1], 0);
+            Assert.assertEquals(i + 0.5f, positions[i * 3 + 2], 0);
+        }
+    }
+
+    @Test
+    public void testInterleaveSameLayout() {
+        GLTF gltf = new GLTF();
+        Primitive first = createPlanarPrimitive(gltf, 6, ComponentType.FLOAT);
+        Primitive second = createPlanarPrimitive(gltf, 9, ComponentType.FLOAT);
+        Assert.assertEquals(2, new VertexInterleaver().interleave(gltf, first, second));
+        for (Primitive p : new Primitive[] { first, second }) {
+            Accessor position = p.getAccessor(Attributes.POSITION);
+            Accessor texCoord = p.getAccessor(Attributes.TEXCOORD_0);
+            Assert.assertSame(position.getBufferView(), texCoord.getBufferView());
+            Assert.assertEquals(20, position.getByteStride());
+            Assert.assertEquals(0, position.getByteOffset());
+            Assert.assertEquals(12, texCoord.getByteOffset());
+            checkPositions(p);
+            float[] uv = new float[texCoord.getCount() * 2];
+            texCoord.copy(uv, 0);
+            for (int i = 0; i < uv.length; i++) {
+                Assert.assertEquals(i, uv[i], 0);
+            }
+        }
+        Assert.assertSame(first.getAccessor(Attributes.POSITION).getBufferView().getBuffer(),
+                second.getAccessor(Attributes.POSITION).getBufferView().getBuffer());
+        Assert.assertEquals(6 * 20, second.getAccessor(Attributes.POSITION).getBufferView().getByteOffset());
+        // Already interleaved shall not be changed
+        Assert.assertEquals(0, new VertexInterleaver().interleave(gltf, first, second));
+    }
+
+    @Test
+    public void testInterleaveDifferentLayout() {
+        GLTF gltf = new GLTF();
+        Primitive floatUV = createPlanarPrimitive(gltf, 6, ComponentType.FLOAT);
+        Primitive shortUV = createPlanarPrimitive(gltf, 6, ComponentType.UNSIGNED_SHORT);
+        Assert.assertEquals(2, new VertexInterleaver().interleave(gltf, floatUV, shortUV));
+        Accessor position = shortUV.getAccessor(Attributes.POSITION);
+        Assert.assertEquals(16, position.getByteStride());
+        Assert.assertTrue(position.getBufferView().getBuffer() != floatUV.getAccessor(Attributes.POSITION)
+                .getBufferView().getBuffer());
+        checkPositions(shortUV);
+        Accessor texCoord = shortUV.getAccessor(Attributes.TEXCOORD_0);
+        for (int i = 0; i < texCoord.getCount(); i++) {
+            int offset = texCoord.getBufferView().getByteOffset() + i * 16 + 12;
+            Assert.assertEquals(i * 2, texCoord.getBufferView().getBuffer().getBuffer().getShort(offset));
+            Assert.assertEquals(i * 2 + 1, texCoord.getBufferView().getBuffer().getBuffer().getShort(offset + 2));
+        }
+    }
+
+}
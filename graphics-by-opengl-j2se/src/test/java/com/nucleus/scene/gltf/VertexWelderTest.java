@@ -0,0 +1,217 @@
+package com.nucleus.scene.gltf;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nucleus.Backend.DrawMode;
+import com.nucleus.scene.gltf.Accessor.ComponentType;
+import com.nucleus.scene.gltf.Accessor.Type;
+import com.nucleus.scene.gltf.BufferView.Target;
+import com.nucleus.scene.gltf.Primitive.Attributes;
+
+public class VertexWelderTest extends BaseTestCase {
+
+    /**
+     * Creates a non indexed primitive with two triangles for each quad in a grid, vertices are duplicated
+     */
+    private Primitive createTriangleSoup(GLTF gltf, int size) {
+        int vertexCount = size * size * 6;
+        float[] positions = new float[vertexCount * 3];
+        float[] uv = new float[vertexCount * 2];
+        int vertex = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int[] quad = new int[] { 0, 0, 1, 0, 0, 1, 0, 1, 1, 0, 1, 1 };
+                for (int i = 0; i < quad.length; i += 2) {
+                    positions[vertex * 3] = x + quad[i];
+                    positions[vertex * 3 + 1] = y + quad[i + 1];
+                    uv[vertex * 2] = (float) (x + quad[i]) / size;
+                    uv[vertex * 2 + 1] = (float) (y + quad[i + 1]) / size;
+                    vertex++;
+                }
+            }
+        }
+        // Interleaved position and uv
+        BufferView view = gltf.createBufferView("soup", vertexCount * 20, 0, 20, Target.ARRAY_BUFFER);
+        Accessor position = new Accessor(view, 0, ComponentType.FLOAT, vertexCount, Type.VEC3);
+        Accessor texCoord = new Accessor(view, 12, ComponentType.FLOAT, vertexCount, Type.VEC2);
+        for (int i = 0; i < vertexCount; i++) {
+            view.getBuffer().getBuffer().position(i * 20);
+            view.getBuffer().getBuffer().asFloatBuffer().put(positions, i * 3, 3).put(uv, i * 2, 2);
+        }
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.POSITION);
+        accessors.add(position);
+        attributes.add(Attributes.TEXCOORD_0);
+        accessors.add(texCoord);
+        return new Primitive(attributes, accessors, null, null, DrawMode.TRIANGLES);
+    }
+
+    /**
+     * Creates an indexed primitive where the indices use the vertices out of order, vertex 3 is the same as vertex 0
+     * and vertex 4 is not used.
+     */
+    private Primitive createIndexed(GLTF gltf) {
+        float[] vertices = new float[] { 0, 0, 0, 0.1f, 0.2f, 1, 0, 0, 0.3f, 0.4f, 0, 1, 0, 0.5f, 0.6f, 0, 0, 0, 0.1f,
+                0.2f, 9, 9, 9, 0.9f, 0.9f };
+        int vertexCount = vertices.length / 5;
+        BufferView view = gltf.createBufferView("indexed", vertices.length * 4, 0, 20, Target.ARRAY_BUFFER);
+        view.getBuffer().getBuffer().asFloatBuffer().put(vertices);
+        Accessor position = new Accessor(view, 0, ComponentType.FLOAT, vertexCount, Type.VEC3);
+        Accessor texCoord = new Accessor(view, 12, ComponentType.FLOAT, vertexCount, Type.VEC2);
+        int[] indices = new int[] { 1, 2, 3, 3, 2, 0 };
+        BufferView indexView = gltf.createBufferView("indices", indices.length * 4, 0, 0,
+                Target.ELEMENT_ARRAY_BUFFER);
+        Accessor indexAccessor = new Accessor(indexView, 0, ComponentType.UNSIGNED_INT, indices.length,
+                Type.SCALAR);
+        indexAccessor.put(indices, 0);
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.POSITION);
+        accessors.add(position);
+        attributes.add(Attributes.TEXCOORD_0);
+        accessors.add(texCoord);
+        return new Primitive(attributes, accessors, indexAccessor, null, DrawMode.TRIANGLES);
+    }
+
+    private float[][] getTriangleVertices(Primitive primitive) {
+        Accessor position = primitive.getAccessor(Attributes.POSITION);
+        Accessor texCoord = primitive.getAccessor(Attributes.TEXCOORD_0);
+        float[] positions = new float[position.getCount() * 3];
+        float[] uv = new float[texCoord.getCount() * 2];
+        position.copy(positions, 0);
+        texCoord.copy(uv, 0);
+        int[] indices;
+        if (primitive.getIndices() != null) {
+            indices = new int[primitive.getIndices().getCount()];
+            primitive.getIndices().copy(indices, 0);
+        } else {
+            indices = new int[position.getCount()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+        }
+        float[][] result = new float[indices.length][];
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            result[i] = new float[] { positions[v * 3], positions[v * 3 + 1], positions[v * 3 + 2], uv[v * 2],
+                    uv[v * 2 + 1] };
+        }
+        return result;
+    }
+
+    @Test
+    public void testWeldIndices() {
+        // Vertex 3 is the same as 0, vertex 4 is not used
+        byte[] vertices = new byte[] { 1, 2, 3, 4, 5, 6, 1, 2, 9, 9 };
+        int[] indices = new int[] { 1, 2, 3, 3, 2, 0 };
+        int[] remap = new int[5];
+        Assert.assertEquals(3, VertexWelder.weld(vertices, 2, indices, remap));
+        Assert.assertArrayEquals(new int[] { 0, 1, 2, 2, 1, 2 }, indices);
+        Assert.assertArrayEquals(new int[] { 2, 0, 1, 2, -1 }, remap);
+    }
+
+    @Test
+    public void testIndexType() {
+        VertexWelder welder = new VertexWelder();
+        Assert.assertEquals(ComponentType.UNSIGNED_BYTE, welder.getIndexType(256));
+        Assert.assertEquals(ComponentType.UNSIGNED_SHORT, welder.getIndexType(257));
+        Assert.assertEquals(ComponentType.UNSIGNED_SHORT, welder.getIndexType(65536));
+        Assert.assertEquals(ComponentType.UNSIGNED_INT, welder.getIndexType(65537));
+        welder.setAllowByteIndices(false);
+        Assert.assertEquals(ComponentType.UNSIGNED_SHORT, welder.getIndexType(3));
+    }
+
+    @Test
+    public void testWeldPrimitive() {
+        int size = 20;
+        GLTF gltf = new GLTF();
+        Primitive primitive = createTriangleSoup(gltf, size);
+        float[][] before = getTriangleVertices(primitive);
+        Assert.assertTrue(new VertexWelder().weld(gltf, primitive));
+        Assert.assertEquals((size + 1) * (size + 1), primitive.getAccessor(Attributes.POSITION).getCount());
+        Assert.assertEquals((size + 1) * (size + 1), primitive.getAccessor(Attributes.TEXCOORD_0).getCount());
+        Assert.assertEquals(ComponentType.UNSIGNED_SHORT, primitive.getIndices().getComponentType());
+        Assert.assertEquals(size * size * 6, primitive.getIndices().getCount());
+        float[][] after = getTriangleVertices(primitive);
+        Assert.assertEquals(before.length, after.length);
+        for (int i = 0; i < before.length; i++) {
+            Assert.assertArrayEquals(before[i], after[i], 0);
+        }
+        // Welded attributes and indices are stored in a new buffer
+        Buffer welded = primitive.getIndices().getBufferView().getBuffer();
+        Assert.assertTrue(gltf.getBuffer(0) != welded);
+        Assert.assertSame(welded, primitive.getAccessor(Attributes.POSITION).getBufferView().getBuffer());
+        // Nothing more to weld
+        Assert.assertFalse(new VertexWelder().weld(gltf, primitive));
+    }
+
+    @Test
+    public void testWeldIndexedPrimitive() {
+        GLTF gltf = new GLTF();
+        Primitive primitive = createIndexed(gltf);
+        float[][] before = getTriangleVertices(primitive);
+        Assert.assertTrue(new VertexWelder().weld(gltf, primitive));
+        Assert.assertEquals(3, primitive.getAccessor(Attributes.POSITION).getCount());
+        Assert.assertEquals(ComponentType.UNSIGNED_BYTE, primitive.getIndices().getComponentType());
+        float[][] after = getTriangleVertices(primitive);
+        Assert.assertEquals(before.length, after.length);
+        for (int i = 0; i < before.length; i++) {
+            Assert.assertArrayEquals(before[i], after[i], 0);
+        }
+    }
+
+    @Test
+    public void testWeldPaddedStride() {
+        // VEC3 SHORT and VEC2 UNSIGNED_BYTE elements are 6 and 2 bytes, vertex 3 is the same as vertex 0
+        short[] positions = new short[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 1, 2, 3, 9, 9, 9 };
+        int[] uv = new int[] { 10, 20, 30, 40, 50, 60, 10, 20, 90, 90 };
+        GLTF gltf = new GLTF();
+        BufferView positionView = gltf.createBufferView("positions", positions.length * 2, 0, 0,
+                Target.ARRAY_BUFFER);
+        positionView.getBuffer().getBuffer().asShortBuffer().put(positions);
+        Accessor position = new Accessor(positionView, 0, ComponentType.SHORT, 5, Type.VEC3);
+        BufferView uvView = gltf.createBufferView("uv", uv.length, 0, 0, Target.ARRAY_BUFFER);
+        Accessor texCoord = new Accessor(uvView, 0, ComponentType.UNSIGNED_BYTE, 5, Type.VEC2);
+        texCoord.put(uv, 0);
+        int[] indices = new int[] { 1, 2, 3, 3, 2, 0 };
+        BufferView indexView = gltf.createBufferView("indices", indices.length * 4, 0, 0,
+                Target.ELEMENT_ARRAY_BUFFER);
+        Accessor indexAccessor = new Accessor(indexView, 0, ComponentType.UNSIGNED_INT, indices.length,
+                Type.SCALAR);
+        indexAccessor.put(indices, 0);
+        ArrayList<Attributes> attributes = new ArrayList<>();
+        ArrayList<Accessor> accessors = new ArrayList<>();
+        attributes.add(Attributes.POSITION);
+        accessors.add(position);
+        attributes.add(Attributes.TEXCOORD_0);
+        accessors.add(texCoord);
+        Primitive primitive = new Primitive(attributes, accessors, indexAccessor, null, DrawMode.TRIANGLES);
+        Assert.assertTrue(new VertexWelder().weld(gltf, primitive));
+        Accessor weldedPosition = primitive.getAccessor(Attributes.POSITION);
+        Accessor weldedTexCoord = primitive.getAccessor(Attributes.TEXCOORD_0);
+        Assert.assertEquals(3, weldedPosition.getCount());
+        Assert.assertEquals(8, weldedPosition.getByteStride());
+        Assert.assertEquals(4, weldedTexCoord.getByteStride());
+        Assert.assertEquals(0, weldedPosition.getBufferView().getByteOffset() % 4);
+        Assert.assertEquals(0, weldedTexCoord.getBufferView().getByteOffset() % 4);
+        int[] weldedPositions = new int[3 * 3];
+        int[] weldedUV = new int[3 * 2];
+        int[] weldedIndices = new int[indices.length];
+        weldedPosition.copy(weldedPositions, 0);
+        weldedTexCoord.copy(weldedUV, 0);
+        primitive.getIndices().copy(weldedIndices, 0);
+        for (int i = 0; i < indices.length; i++) {
+            for (int c = 0; c < 3; c++) {
+                Assert.assertEquals(positions[indices[i] * 3 + c], weldedPositions[weldedIndices[i] * 3 + c]);
+            }
+            for (int c = 0; c < 2; c++) {
+                Assert.assertEquals(uv[indices[i] * 2 + c], weldedUV[weldedIndices[i] * 2 + c]);
+            }
+        }
+    }
+
+}
@@ -6,7 +6,7 @@ import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
 import com.jogamp.opengl.GL4ES3;
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 import com.nucleus.opengl.GLES30Wrapper;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
 
@@ -462,16 +462,24 @@ public class JOGLGLES30Wrapper extends GLES30Wrapper {
 
     @Override
     public String glGetActiveUniformBlockName(int program, int uniformBlockIndex) {
-        IntBuffer nameLength = BufferUtils.createIntBuffer(1);
-        glGetActiveUniformBlockiv(program, uniformBlockIndex, GLES30.GL_UNIFORM_BLOCK_NAME_LENGTH,
-                nameLength);
-        ByteBuffer name = BufferUtils.createByteBuffer(nameLength.get(0));
-        nameLength.rewind();
-        name.rewind();
-        gles.glGetActiveUniformBlockName(program, uniformBlockIndex, name.capacity(), nameLength, name);
-        byte[] result = new byte[name.capacity()];
-        name.rewind();
-        name.get(result);
+        BufferArena arena = BufferArena.getInstance();
+        ByteBuffer nameLength = arena.allocate(4);
+        ByteBuffer name = null;
+        byte[] result;
+        try {
+            glGetActiveUniformBlockiv(program, uniformBlockIndex, GLES30.GL_UNIFORM_BLOCK_NAME_LENGTH,
+                    nameLength.asIntBuffer());
+            name = arena.allocate(nameLength.getInt(0));
+            result = new byte[name.capacity()];
+            gles.glGetActiveUniformBlockName(program, uniformBlockIndex, name.capacity(), nameLength.asIntBuffer(),
+                    name);
+            name.get(result);
+        } finally {
+            arena.free(nameLength);
+            if (name != null) {
+                arena.free(name);
+            }
+        }
         return new String(result).trim();
     }
 
@@ -844,7 +844,7 @@ public class JOGLGLES32Wrapper extends GLES32Wrapper {
     @Override
     public int glGetDebugMessageLog(int count, int bufSize, IntBuffer sources, IntBuffer types, IntBuffer ids,
             IntBuffer severities, IntBuffer lengths, ByteBuffer messageLog) {
-        throw new IllegalArgumentException("Not implemented");
+        return gles.glGetDebugMessageLog(count, bufSize, sources, types, ids, severities, lengths, messageLog);
     }
 
     @Override
@@ -5,7 +5,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 import com.nucleus.opengl.GLES20Wrapper;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
 
@@ -57,16 +57,24 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glGenBuffers(int[] buffers) {
-        IntBuffer ib = BufferUtils.createIntBuffer(buffers.length);
-        org.lwjgl.opengles.GLES20.glGenBuffers(ib);
-        LWJGLUtils.toArray((IntBuffer) ib.rewind(), buffers, 0);
+        ByteBuffer ids = BufferArena.getInstance().allocate(buffers.length * 4);
+        try {
+            org.lwjgl.opengles.GLES20.glGenBuffers(ids.asIntBuffer());
+            LWJGLUtils.toArray(ids.asIntBuffer(), buffers, 0);
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
     public void glDeleteBuffers(int n, int[] buffers, int offset) {
-        IntBuffer ib = LWJGLUtils.toIntBuffer(buffers, buffers.length - offset, offset);
-        org.lwjgl.opengles.GLES20.glDeleteBuffers(ib);
-        LWJGLUtils.toArray(ib, buffers, offset);
+        ByteBuffer ids = LWJGLUtils.toArenaBuffer(buffers, buffers.length - offset, offset);
+        try {
+            org.lwjgl.opengles.GLES20.glDeleteBuffers(ids.asIntBuffer());
+            LWJGLUtils.toArray(ids.asIntBuffer(), buffers, offset);
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -97,44 +105,59 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glGetProgramiv(int program, int pname, int[] params, int offset) {
-        IntBuffer v = BufferUtils.createIntBuffer(1);
-        org.lwjgl.opengles.GLES20.glGetProgramiv(program, pname, v);
-        v.position(0);
-        params[offset] = v.get();
+        ByteBuffer v = BufferArena.getInstance().allocate(4);
+        try {
+            org.lwjgl.opengles.GLES20.glGetProgramiv(program, pname, v.asIntBuffer());
+            params[offset] = v.getInt(0);
+        } finally {
+            BufferArena.getInstance().free(v);
+        }
     }
 
     @Override
     public void glGetActiveAttrib(int program, int index, int[] length, int lengthOffset, int[] size,
             int sizeOffset, int[] type, int typeOffset, byte[] name) {
-        IntBuffer lengthBuffer = BufferUtils.createIntBuffer(1);
-        IntBuffer sizeBuffer = BufferUtils.createIntBuffer(1);
-        IntBuffer typeBuffer = BufferUtils.createIntBuffer(1);
-        ByteBuffer nameBuffer = BufferUtils.createByteBuffer(name.length);
-        org.lwjgl.opengles.GLES20.glGetActiveAttrib(program, index, lengthBuffer, sizeBuffer, typeBuffer, nameBuffer);
-        lengthBuffer.position(0);
-        sizeBuffer.position(0);
-        typeBuffer.position(0);
-        length[lengthOffset] = lengthBuffer.get();
-        size[sizeOffset] = sizeBuffer.get();
-        type[typeOffset] = typeBuffer.get();
-        nameBuffer.get(name);
+        BufferArena arena = BufferArena.getInstance();
+        ByteBuffer lengthBuffer = arena.allocate(4);
+        ByteBuffer sizeBuffer = arena.allocate(4);
+        ByteBuffer typeBuffer = arena.allocate(4);
+        ByteBuffer nameBuffer = arena.allocate(name.length);
+        try {
+            org.lwjgl.opengles.GLES20.glGetActiveAttrib(program, index, lengthBuffer.asIntBuffer(),
+                    sizeBuffer.asIntBuffer(), typeBuffer.asIntBuffer(), nameBuffer);
+            length[lengthOffset] = lengthBuffer.getInt(0);
+            size[sizeOffset] = sizeBuffer.getInt(0);
+            type[typeOffset] = typeBuffer.getInt(0);
+            nameBuffer.get(name);
+        } finally {
+            arena.free(lengthBuffer);
+            arena.free(sizeBuffer);
+            arena.free(typeBuffer);
+            arena.free(nameBuffer);
+        }
     }
 
     @Override
     public void glGetActiveUniform(int program, int index, int[] length, int lengthOffset, int[] size,
             int sizeOffset, int[] type, int typeOffset, byte[] name) {
-        IntBuffer lengthBuffer = BufferUtils.createIntBuffer(1);
-        IntBuffer sizeBuffer = BufferUtils.createIntBuffer(1);
-        IntBuffer typeBuffer = BufferUtils.createIntBuffer(1);
-        ByteBuffer nameBuffer = BufferUtils.createByteBuffer(name.length);
-        org.lwjgl.opengles.GLES20.glGetActiveUniform(program, index, lengthBuffer, sizeBuffer, typeBuffer, nameBuffer);
-        lengthBuffer.position(0);
-        sizeBuffer.position(0);
-        typeBuffer.position(0);
-        length[lengthOffset] = lengthBuffer.get();
-        size[sizeOffset] = sizeBuffer.get();
-        type[typeOffset] = typeBuffer.get();
-        nameBuffer.get(name);
+        BufferArena arena = BufferArena.getInstance();
+        ByteBuffer lengthBuffer = arena.allocate(4);
+        ByteBuffer sizeBuffer = arena.allocate(4);
+        ByteBuffer typeBuffer = arena.allocate(4);
+        ByteBuffer nameBuffer = arena.allocate(name.length);
+        try {
+            org.lwjgl.opengles.GLES20.glGetActiveUniform(program, index, lengthBuffer.asIntBuffer(),
+                    sizeBuffer.asIntBuffer(), typeBuffer.asIntBuffer(), nameBuffer);
+            length[lengthOffset] = lengthBuffer.getInt(0);
+            size[sizeOffset] = sizeBuffer.getInt(0);
+            type[typeOffset] = typeBuffer.getInt(0);
+            nameBuffer.get(name);
+        } finally {
+            arena.free(lengthBuffer);
+            arena.free(sizeBuffer);
+            arena.free(typeBuffer);
+            arena.free(nameBuffer);
+        }
     }
 
     @Override
@@ -259,9 +282,13 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glGenTextures(int[] textures) {
-        IntBuffer ib = BufferUtils.createIntBuffer(textures.length);
-        org.lwjgl.opengles.GLES20.glGenTextures(ib);
-        LWJGLUtils.toArray((IntBuffer) ib.rewind(), textures, 0);
+        ByteBuffer ids = BufferArena.getInstance().allocate(textures.length * 4);
+        try {
+            org.lwjgl.opengles.GLES20.glGenTextures(ids.asIntBuffer());
+            LWJGLUtils.toArray(ids.asIntBuffer(), textures, 0);
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -281,10 +308,13 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glGetIntegerv(int pname, int[] params) {
-        IntBuffer intBuffer = BufferUtils.createIntBuffer(params.length);
-        org.lwjgl.opengles.GLES20.glGetIntegerv(pname, intBuffer);
-        intBuffer.position(0);
-        intBuffer.get(params);
+        ByteBuffer values = BufferArena.getInstance().allocate(params.length * 4);
+        try {
+            org.lwjgl.opengles.GLES20.glGetIntegerv(pname, values.asIntBuffer());
+            values.asIntBuffer().get(params);
+        } finally {
+            BufferArena.getInstance().free(values);
+        }
     }
 
     @Override
@@ -357,7 +387,12 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glDeleteTextures(int[] textures) {
-        org.lwjgl.opengles.GLES20.glDeleteTextures(LWJGLUtils.toIntBuffer(textures, textures.length, 0));
+        ByteBuffer ids = LWJGLUtils.toArenaBuffer(textures, textures.length, 0);
+        try {
+            org.lwjgl.opengles.GLES20.glDeleteTextures(ids.asIntBuffer());
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -412,10 +447,14 @@ public class LWJGL3GLES20Wrapper extends GLES20Wrapper {
 
     @Override
     public void glGetShaderSource(int shader, int bufsize, int[] length, byte[] source) {
-        ByteBuffer bufferSource = BufferUtils.createByteBuffer(bufsize);
-        org.lwjgl.opengles.GLES20.glGetShaderSource(shader, length, bufferSource);
-        bufferSource.position(0);
-        bufferSource.get(source, 0, length[0]);
+        ByteBuffer bufferSource = BufferArena.getInstance().allocate(bufsize);
+        try {
+            org.lwjgl.opengles.GLES20.glGetShaderSource(shader, length, bufferSource);
+            bufferSource.position(0);
+            bufferSource.get(source, 0, length[0]);
+        } finally {
+            BufferArena.getInstance().free(bufferSource);
+        }
     }
 
     @Override
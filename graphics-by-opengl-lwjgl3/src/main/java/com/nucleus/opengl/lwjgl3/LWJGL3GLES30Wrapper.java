@@ -5,7 +5,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 import com.nucleus.opengl.GLES30Wrapper;
 import com.nucleus.renderer.NucleusRenderer;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
@@ -333,7 +333,12 @@ public class LWJGL3GLES30Wrapper extends GLES30Wrapper {
 
     @Override
     public void glDeleteTextures(int[] textures) {
-        org.lwjgl.opengles.GLES20.glDeleteTextures(LWJGLUtils.toIntBuffer(textures, textures.length, 0));
+        ByteBuffer ids = LWJGLUtils.toArenaBuffer(textures, textures.length, 0);
+        try {
+            org.lwjgl.opengles.GLES20.glDeleteTextures(ids.asIntBuffer());
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -437,14 +442,16 @@ public class LWJGL3GLES30Wrapper extends GLES30Wrapper {
     @Override
     public void glGetActiveUniformsiv(int program, int uniformCount, int[] uniformIndices, int indicesOffset,
             int pname, int[] params, int paramsOffset) {
-        IntBuffer indicesBuffer = BufferUtils.createIntBuffer(uniformCount);
-        indicesBuffer.put(uniformIndices, indicesOffset, uniformCount);
-        indicesBuffer.position(0);
-        IntBuffer paramsBuffer = BufferUtils.createIntBuffer(uniformCount);
-        org.lwjgl.opengles.GLES30.glGetActiveUniformsiv(program, indicesBuffer, pname, paramsBuffer);
-        paramsBuffer.position(0);
-        paramsBuffer.get(params, paramsOffset, uniformCount);
-
+        ByteBuffer indicesBuffer = LWJGLUtils.toArenaBuffer(uniformIndices, uniformCount, indicesOffset);
+        ByteBuffer paramsBuffer = BufferArena.getInstance().allocate(uniformCount * 4);
+        try {
+            org.lwjgl.opengles.GLES30.glGetActiveUniformsiv(program, indicesBuffer.asIntBuffer(), pname,
+                    paramsBuffer.asIntBuffer());
+            paramsBuffer.asIntBuffer().get(params, paramsOffset, uniformCount);
+        } finally {
+            BufferArena.getInstance().free(indicesBuffer);
+            BufferArena.getInstance().free(paramsBuffer);
+        }
     }
 
     @Override
@@ -5,6 +5,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
+import com.nucleus.common.BufferArena;
 import com.nucleus.lwjgl3.LWJGLWrapperFactory;
 import com.nucleus.opengl.GLES31Wrapper;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
@@ -329,7 +330,12 @@ public class LWJGL3GLES31Wrapper extends GLES31Wrapper {
 
     @Override
     public void glDeleteTextures(int[] textures) {
-        org.lwjgl.opengles.GLES20.glDeleteTextures(LWJGLUtils.toIntBuffer(textures, textures.length, 0));
+        ByteBuffer ids = LWJGLUtils.toArenaBuffer(textures, textures.length, 0);
+        try {
+            org.lwjgl.opengles.GLES20.glDeleteTextures(ids.asIntBuffer());
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -5,6 +5,7 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 
+import com.nucleus.common.BufferArena;
 import com.nucleus.lwjgl3.LWJGLWrapperFactory;
 import com.nucleus.opengl.GLES32Wrapper;
 import com.nucleus.renderer.NucleusRenderer.Renderers;
@@ -329,7 +330,12 @@ public class LWJGL3GLES32Wrapper extends GLES32Wrapper {
 
     @Override
     public void glDeleteTextures(int[] textures) {
-        org.lwjgl.opengles.GLES20.glDeleteTextures(LWJGLUtils.toIntBuffer(textures, textures.length, 0));
+        ByteBuffer ids = LWJGLUtils.toArenaBuffer(textures, textures.length, 0);
+        try {
+            org.lwjgl.opengles.GLES20.glDeleteTextures(ids.asIntBuffer());
+        } finally {
+            BufferArena.getInstance().free(ids);
+        }
     }
 
     @Override
@@ -819,33 +825,29 @@ public class LWJGL3GLES32Wrapper extends GLES32Wrapper {
 
     @Override
     public void glDebugMessageControl(int source, int type, int severity, int count, IntBuffer ids, boolean enabled) {
-        // TODO Auto-generated method stub
-
+        org.lwjgl.opengles.GLES32.glDebugMessageControl(source, type, severity, ids, enabled);
     }
 
     @Override
     public void glDebugMessageInsert(int source, int type, int id, int severity, int length, String buf) {
-        // TODO Auto-generated method stub
-
+        org.lwjgl.opengles.GLES32.glDebugMessageInsert(source, type, id, severity, buf);
     }
 
     @Override
     public int glGetDebugMessageLog(int count, int bufSize, IntBuffer sources, IntBuffer types, IntBuffer ids,
             IntBuffer severities, IntBuffer lengths, ByteBuffer messageLog) {
-        // TODO Auto-generated method stub
-        return 0;
+        return org.lwjgl.opengles.GLES32.glGetDebugMessageLog(count, sources, types, ids, severities, lengths,
+                messageLog);
     }
 
     @Override
     public void glPushDebugGroup(int source, int id, int length, String message) {
-        // TODO Auto-generated method stub
-
+        org.lwjgl.opengles.GLES32.glPushDebugGroup(source, id, message);
     }
 
     @Override
     public void glPopDebugGroup() {
-        // TODO Auto-generated method stub
-
+        org.lwjgl.opengles.GLES32.glPopDebugGroup();
     }
 
     @Override
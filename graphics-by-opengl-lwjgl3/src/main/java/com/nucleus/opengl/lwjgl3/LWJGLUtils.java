@@ -4,7 +4,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 
-import com.nucleus.common.BufferUtils;
+import com.nucleus.common.BufferArena;
 
 public class LWJGLUtils {
 
@@ -34,11 +34,19 @@ public class LWJGLUtils {
         }
     }
 
-    protected static IntBuffer toIntBuffer(int[] data, int length, int offset) {
-        IntBuffer ib = BufferUtils.createIntBuffer(length);
-        ib.put(data, offset, length);
-        ib.position(0);
-        return ib;
+    /**
+     * Allocates a buffer from the shared {@link BufferArena} and copies the int values to it, the buffer must be
+     * freed using {@link BufferArena#free(ByteBuffer)}
+     * 
+     * @param data
+     * @param length Number of values to copy
+     * @param offset Offset into data
+     * @return Buffer with the values, use {@link ByteBuffer#asIntBuffer()} to pass to GL
+     */
+    protected static ByteBuffer toArenaBuffer(int[] data, int length, int offset) {
+        ByteBuffer buffer = BufferArena.getInstance().allocate(length * 4);
+        buffer.asIntBuffer().put(data, offset, length);
+        return buffer;
     }
 
 }